@@ -2,8 +2,10 @@ package com.uq.alojamientos;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class AlojamientoApplication {
     public static void main(String[] args) {
         SpringApplication.run(AlojamientoApplication.class, args);
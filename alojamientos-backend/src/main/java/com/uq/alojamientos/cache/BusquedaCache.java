@@ -0,0 +1,226 @@
+package com.uq.alojamientos.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.uq.alojamientos.repository.projection.CandidatoBusqueda;
+import com.uq.alojamientos.util.TextoPlano;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Caché de resultados de búsqueda de disponibles: para cada combinación normalizada de
+ * filtros guarda los ids libres (ordenados por id) con su precio.
+ *
+ * <p>La clave lleva la ciudad en minúsculas y sin tildes, igual que la compara la BD (collation
+ * {@code _ci}: "bogota" encuentra "Bogotá"), y los precios redondeados a tramos
+ * ({@code app.cache.busquedas.tramo-precio}) hacia fuera: la entrada cubre un rango algo
+ * más amplio que el pedido y el precio exacto se filtra en memoria, así que búsquedas con
+ * precios parecidos comparten entrada.</p>
+ *
+ * <p>Las búsquedas con texto ({@code q}) guardan los ids ya filtrados en orden de relevancia;
+ * su clave lleva los términos de la consulta y los precios exactos (el filtro de precio lo
+ * aplicó la BD), y se invalidan igual que las demás.</p>
+ *
+ * <p>No se vacía entera: una reserva nueva, cancelada o vencida invalida solo las entradas
+ * cuya ciudad buscada incluye la del alojamiento y cuyas fechas se solapan con las de la
+ * reserva (las que no piden fechas no dependen de reservas); un alojamiento creado o
+ * eliminado, las de su ciudad. La memoria se acota por peso (bytes aproximados de cada
+ * resultado).</p>
+ */
+@Component
+public class BusquedaCache implements MeterBinder {
+
+    public static final String NOMBRE = "busquedas-disponibles";
+
+    // Cabecera aproximada de una entrada (clave, arrays, nodo de la caché) y coste por resultado
+    private static final int BYTES_ENTRADA = 200;
+    private static final int BYTES_POR_RESULTADO = 64; // long + referencia + BigDecimal
+
+    private final BigDecimal tramoPrecio;
+    private final Cache<Clave, Resultado> cache;
+    // Cambia en cada invalidación: un resultado calculado mientras tanto no se guarda
+    private final AtomicLong version = new AtomicLong();
+
+    public BusquedaCache(
+            @Value("${app.cache.busquedas.memoria-max-kb:16384}") long memoriaMaxKb,
+            @Value("${app.cache.busquedas.ttl-segundos:120}") long ttlSegundos,
+            @Value("${app.cache.busquedas.tramo-precio:50000}") BigDecimal tramoPrecio
+    ) {
+        if (tramoPrecio.signum() <= 0) {
+            throw new IllegalArgumentException("El tramo de precio debe ser positivo");
+        }
+        this.tramoPrecio = tramoPrecio;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(memoriaMaxKb * 1024)
+                .weigher((Clave k, Resultado r) -> BYTES_ENTRADA + r.ids().length * BYTES_POR_RESULTADO)
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Ids libres que cumplen los filtros, ordenados por id. En un fallo, {@code cargar}
+     * recibe la consulta ampliada (ciudad normalizada, precios redondeados al tramo) y
+     * debe devolver los candidatos libres ordenados por id.
+     */
+    public List<Long> buscar(
+            String ciudad,
+            BigDecimal precioMin,
+            BigDecimal precioMax,
+            Integer capacidad,
+            long todos,
+            long alguno,
+            LocalDate desde,
+            LocalDate hasta,
+            Function<Clave, List<CandidatoBusqueda>> cargar
+    ) {
+        Clave clave = new Clave("", normalizar(ciudad), redondear(precioMin, RoundingMode.FLOOR),
+                redondear(precioMax, RoundingMode.CEILING), capacidad, todos, alguno, desde, hasta);
+        return obtener(clave, c -> Resultado.de(cargar.apply(c))).filtrar(precioMin, precioMax);
+    }
+
+    /**
+     * Ids que cumplen los filtros para la consulta de texto {@code q}, en orden de relevancia.
+     * En un fallo, {@code cargar} recibe la clave (ciudad normalizada, precios exactos) y
+     * devuelve las coincidencias ya filtradas y en orden. Fechas null = sin filtro de fechas.
+     */
+    public List<Long> buscarTexto(
+            String q,
+            String ciudad,
+            BigDecimal precioMin,
+            BigDecimal precioMax,
+            Integer capacidad,
+            long todos,
+            long alguno,
+            LocalDate desde,
+            LocalDate hasta,
+            Function<Clave, List<Long>> cargar
+    ) {
+        // Mismos términos, mismo resultado: BM25 no depende de su orden ni de repetirlos
+        String texto = String.join(" ", new TreeSet<>(TextoPlano.terminos(q)));
+        Clave clave = new Clave(texto, normalizar(ciudad), precioMin, precioMax, capacidad, todos, alguno, desde, hasta);
+        return obtener(clave, c -> Resultado.deIds(cargar.apply(c))).filtrar(null, null);
+    }
+
+    /** Una reserva ocupó o liberó noches de un alojamiento de {@code ciudad} (null = cualquiera). */
+    public void invalidarReserva(String ciudad, LocalDate checkIn, LocalDate checkOut) {
+        String c = ciudad != null ? normalizar(ciudad) : null;
+        invalidar(k -> (c == null || c.contains(k.ciudad()))
+                && k.desde() != null && k.desde().isBefore(checkOut) && k.hasta().isAfter(checkIn));
+    }
+
+    /** Un alojamiento de {@code ciudad} apareció, desapareció o cambió sus filtros estáticos. */
+    public void invalidarCiudad(String ciudad) {
+        String c = normalizar(ciudad);
+        invalidar(k -> c.contains(k.ciudad()));
+    }
+
+    public EstadisticasCache estadisticas() {
+        return EstadisticasCache.de(NOMBRE, cache);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        EstadisticasCache.publicar(registry, NOMBRE, cache);
+    }
+
+    private Resultado obtener(Clave clave, Function<Clave, Resultado> cargar) {
+        Resultado resultado = cache.getIfPresent(clave);
+        if (resultado == null) {
+            long v = version.get();
+            resultado = cargar.apply(clave);
+            if (version.get() == v) cache.put(clave, resultado);
+        }
+        return resultado;
+    }
+
+    /** Ya y, si hay transacción en curso, otra vez al terminar (lo calculado antes del commit). */
+    private void invalidar(Predicate<Clave> afectada) {
+        version.incrementAndGet();
+        cache.asMap().keySet().removeIf(afectada);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    version.incrementAndGet();
+                    cache.asMap().keySet().removeIf(afectada);
+                }
+            });
+        }
+    }
+
+    private BigDecimal redondear(BigDecimal precio, RoundingMode modo) {
+        if (precio == null) return null;
+        return precio.divide(tramoPrecio, 0, modo).multiply(tramoPrecio);
+    }
+
+    // Clave e invalidación pliegan igual: si no, una reserva en "Bogotá" no tocaría "bogota"
+    static String normalizar(String ciudad) {
+        return TextoPlano.plegar(ciudad).trim();
+    }
+
+    /**
+     * Filtros normalizados; {@code texto} vacío = búsqueda sin {@code q}, {@code ciudad}
+     * vacía = cualquier ciudad.
+     */
+    public record Clave(
+            String texto,
+            String ciudad,
+            BigDecimal precioMin,
+            BigDecimal precioMax,
+            Integer capacidad,
+            long todos,
+            long alguno,
+            LocalDate desde,
+            LocalDate hasta
+    ) {
+    }
+
+    // Arrays paralelos en vez de objetos por resultado: menos memoria por entrada.
+    // Sin precios (null) si el precio ya lo filtró la BD
+    private record Resultado(long[] ids, BigDecimal[] precios) {
+
+        static Resultado deIds(List<Long> ids) {
+            return new Resultado(ids.stream().mapToLong(Long::longValue).toArray(), null);
+        }
+
+        static Resultado de(List<CandidatoBusqueda> candidatos) {
+            long[] ids = new long[candidatos.size()];
+            BigDecimal[] precios = new BigDecimal[candidatos.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = candidatos.get(i).id();
+                precios[i] = candidatos.get(i).precioPorNoche();
+            }
+            return new Resultado(ids, precios);
+        }
+
+        List<Long> filtrar(BigDecimal min, BigDecimal max) {
+            List<Long> libres = new ArrayList<>(ids.length);
+            for (int i = 0; i < ids.length; i++) {
+                if (precios == null) {
+                    libres.add(ids[i]);
+                    continue;
+                }
+                if (min != null && precios[i].compareTo(min) < 0) continue;
+                if (max != null && precios[i].compareTo(max) > 0) continue;
+                libres.add(ids[i]);
+            }
+            return libres;
+        }
+    }
+}
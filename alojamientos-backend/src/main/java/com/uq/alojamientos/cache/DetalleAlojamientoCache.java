@@ -0,0 +1,100 @@
+package com.uq.alojamientos.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.uq.alojamientos.dto.AlojamientoDTO;
+import com.uq.alojamientos.mapper.AlojamientoMapper;
+import com.uq.alojamientos.repository.AlojamientoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Caché read-through del detalle de alojamiento ({@code GET /api/alojamientos/{id}}),
+ * acotada por número de entradas y por TTL.
+ *
+ * <p>Los fallos simultáneos sobre el mismo id esperan a una sola carga desde la BD
+ * (Caffeine calcula cada clave una vez), así que un alojamiento muy visitado que
+ * acaba de expirar no dispara mil consultas iguales. Un id inexistente no se guarda.</p>
+ *
+ * <p>Quien modifique un alojamiento (o algo que muestre su detalle, como las
+ * calificaciones) debe llamar a {@link #invalidar}. Los DTO devueltos son compartidos:
+ * no deben modificarse.</p>
+ */
+@Component
+public class DetalleAlojamientoCache implements MeterBinder {
+
+    public static final String NOMBRE = "alojamientos-detalle";
+
+    private final AlojamientoRepository repo;
+    private final AlojamientoMapper mapper;
+    private final Cache<Long, AlojamientoDTO> cache;
+
+    public DetalleAlojamientoCache(
+            AlojamientoRepository repo,
+            AlojamientoMapper mapper,
+            @Value("${app.cache.alojamientos.maximo:10000}") long maximo,
+            @Value("${app.cache.alojamientos.ttl-segundos:300}") long ttlSegundos
+    ) {
+        this.repo = repo;
+        this.mapper = mapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximo)
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .recordStats()
+                .build();
+    }
+
+    public AlojamientoDTO obtener(Long id) {
+        return cache.get(id, this::cargar);
+    }
+
+    /**
+     * Descarta el detalle ya y, si hay transacción en curso, otra vez tras el commit: una
+     * lectura concurrente podría haber vuelto a cachear la versión anterior mientras tanto.
+     * (Si esa lectura sigue cargando, Caffeine espera a que termine antes de descartar.)
+     */
+    public void invalidar(Long id) {
+        if (id == null) return;
+        cache.invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(id);
+                }
+            });
+        }
+    }
+
+    public void invalidarTodo() {
+        cache.invalidateAll();
+    }
+
+    public EstadisticasCache estadisticas() {
+        return EstadisticasCache.de(NOMBRE, cache);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        EstadisticasCache.publicar(registry, NOMBRE, cache);
+    }
+
+    // Ejecuta ya los desalojos pendientes (Caffeine los difiere); para tests
+    void mantenimiento() {
+        cache.cleanUp();
+    }
+
+    private AlojamientoDTO cargar(Long id) {
+        return repo.findById(id)
+                .map(mapper::toDTO)
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Alojamiento no encontrado con ID: " + id
+                ));
+    }
+}
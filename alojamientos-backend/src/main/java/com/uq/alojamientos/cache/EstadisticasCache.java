@@ -0,0 +1,52 @@
+package com.uq.alojamientos.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Contadores de una caché en memoria, para /api/admin/caches. {@link #publicar} expone los
+ * mismos en Micrometer (la caché debe construirse con {@code recordStats()}).
+ */
+public record EstadisticasCache(
+        String nombre,
+        long entradas,
+        long aciertos,
+        long fallos,
+        double tasaAciertos,
+        long cargas,
+        long cargasFallidas,
+        double cargaPromedioMs,
+        long desalojos
+) {
+
+    /**
+     * Métricas {@code cache.*} de Caffeine (aciertos, fallos, desalojos, tamaño) con la
+     * etiqueta {@code cache=nombre}, más la proporción de aciertos ya calculada. Se leen al
+     * hacer scrape: no añaden nada al acceso a la caché.
+     */
+    public static void publicar(MeterRegistry registry, String nombre, Cache<?, ?> cache) {
+        CaffeineCacheMetrics.monitor(registry, cache, nombre);
+        Gauge.builder("cache.aciertos.proporcion", cache, c -> c.stats().hitRate())
+                .description("Aciertos / accesos desde el arranque")
+                .tag("cache", nombre)
+                .register(registry);
+    }
+
+    public static EstadisticasCache de(String nombre, Cache<?, ?> cache) {
+        CacheStats s = cache.stats();
+        return new EstadisticasCache(
+                nombre,
+                cache.estimatedSize(),
+                s.hitCount(),
+                s.missCount(),
+                Math.round(s.hitRate() * 1000.0) / 1000.0,
+                s.loadCount(),
+                s.loadFailureCount(),
+                Math.round(s.averageLoadPenalty() / 1_000.0) / 1_000.0,
+                s.evictionCount()
+        );
+    }
+}
@@ -0,0 +1,64 @@
+package com.uq.alojamientos.config;
+
+import com.uq.alojamientos.domain.Secuencias;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Red de seguridad para filas que entran sin pasar por Hibernate (datos sintéticos del
+ * perfil {@code seed}, importaciones por SQL): con ids explícitos, la secuencia quedaría por
+ * detrás y volvería a repartirlos. Al arrancar, antes de cualquier INSERT, y al terminar una
+ * carga, se adelanta cada secuencia por encima del id máximo de su tabla. (Las secuencias
+ * ya nacen en V5 por encima de los ids existentes.)
+ *
+ * <p>SETVAL de MariaDB ignora valores menores al actual, así que es idempotente y no
+ * retrocede una secuencia que ya va por delante.</p>
+ */
+@Slf4j
+@Component("alineadorSecuencias")
+public class AlineadorSecuencias {
+
+    // tabla -> secuencia (mismos nombres que los @SequenceGenerator de las entidades)
+    static final Map<String, String> SECUENCIAS = Map.of(
+            "usuarios", "usuarios_seq",
+            "alojamientos", "alojamientos_seq",
+            "imagenes_alojamiento", "imagenes_alojamiento_seq",
+            "reservas", "reservas_seq",
+            "comentarios", "comentarios_seq",
+            "refresh_tokens", "refresh_tokens_seq"
+    );
+
+    private final JdbcTemplate jdbc;
+    private final boolean habilitado;
+
+    // El EntityManagerFactory garantiza que el esquema (y las secuencias) ya existen
+    public AlineadorSecuencias(
+            JdbcTemplate jdbc,
+            EntityManagerFactory emf,
+            @Value("${app.secuencias.alinear:true}") boolean habilitado
+    ) {
+        this.jdbc = jdbc;
+        this.habilitado = habilitado;
+    }
+
+    @PostConstruct
+    public void alinear() {
+        if (!habilitado) return;
+        SECUENCIAS.forEach((tabla, secuencia) -> {
+            try {
+                Long maxId = jdbc.queryForObject("select coalesce(max(id), 0) from " + tabla, Long.class);
+                // con pooled, el valor de la secuencia es el tope del bloque: dejar un bloque de margen
+                jdbc.queryForObject("select setval(" + secuencia + ", ?)", Long.class, maxId + Secuencias.ASIGNACION);
+                log.debug("Secuencia {} alineada con max(id) = {} de {}", secuencia, maxId, tabla);
+            } catch (RuntimeException ex) {
+                log.warn("No se pudo alinear la secuencia {} con la tabla {}: {}", secuencia, tabla, ex.getMessage());
+            }
+        });
+    }
+}
@@ -0,0 +1,16 @@
+package com.uq.alojamientos.config;
+
+import com.uq.alojamientos.util.CandadoEstriado;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ConcurrenciaConfig {
+
+    /** Candados por alojamiento para serializar reservas sobre el mismo alojamiento. */
+    @Bean
+    public CandadoEstriado candadosAlojamiento(@Value("${app.reservas.franjas-candado:256}") int franjas) {
+        return new CandadoEstriado(franjas);
+    }
+}
@@ -0,0 +1,57 @@
+package com.uq.alojamientos.config;
+
+import com.uq.alojamientos.index.CatalogoServicios;
+import com.uq.alojamientos.repository.AlojamientoRepository;
+import com.uq.alojamientos.repository.projection.ServiciosCsv;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pasa los servicios guardados en el CSV anterior ({@code servicios_csv}) al catálogo y a
+ * {@code servicios_mask}. Agrupa los alojamientos por combinación, así que son tantos
+ * UPDATE como combinaciones distintas (por tramos de ids), no uno por fila. Cuando ya no
+ * queda ningún CSV es solo una consulta vacía.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MigracionServicios {
+
+    private static final int LOTE_IDS = 1000;
+
+    private final AlojamientoRepository alojamientoRepo;
+    private final CatalogoServicios catalogo;
+    private final TransactionTemplate transaccion;
+
+    @PostConstruct
+    public void migrar() {
+        try {
+            List<ServiciosCsv> pendientes = alojamientoRepo.findServiciosCsvPendientes();
+            if (pendientes.isEmpty()) return;
+
+            Map<Long, List<Long>> porMascara = new HashMap<>();
+            for (ServiciosCsv p : pendientes) {
+                long mascara = catalogo.mascaraRegistrando(Arrays.asList(p.csv().split(",")));
+                porMascara.computeIfAbsent(mascara, k -> new ArrayList<>()).add(p.id());
+            }
+            transaccion.executeWithoutResult(tx -> porMascara.forEach((mascara, ids) -> {
+                for (int i = 0; i < ids.size(); i += LOTE_IDS) {
+                    alojamientoRepo.asignarServicios(ids.subList(i, Math.min(i + LOTE_IDS, ids.size())), mascara);
+                }
+            }));
+            log.info("Servicios migrados de CSV a máscara: {} alojamientos, {} combinaciones",
+                    pendientes.size(), porMascara.size());
+        } catch (RuntimeException ex) {
+            log.warn("No se pudieron migrar los servicios en CSV; se reintentará en el próximo arranque", ex);
+        }
+    }
+}
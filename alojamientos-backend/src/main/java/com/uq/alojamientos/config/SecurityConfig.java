@@ -1,7 +1,12 @@
 package com.uq.alojamientos.config;
 
 import com.uq.alojamientos.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -26,16 +31,17 @@ public class SecurityConfig {
     private final JwtAuthenticationFilter jwtFilter;
     private final UserDetailsService userDetailsService;
 
+    /** Coste de los hashes nuevos; los existentes se rehacen al hacer login (ver LoginService). */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.security.bcrypt-coste:10}") int coste) {
+        return new BCryptPasswordEncoder(coste);
     }
 
     @Bean
-    public DaoAuthenticationProvider authProvider() {
+    public DaoAuthenticationProvider authProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(userDetailsService);
-        provider.setPasswordEncoder(passwordEncoder());
+        provider.setPasswordEncoder(passwordEncoder);
         return provider;
     }
 
@@ -45,7 +51,7 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, DaoAuthenticationProvider authProvider) throws Exception {
 
         http
                 .csrf(csrf -> csrf.disable())
@@ -53,6 +59,9 @@ public class SecurityConfig {
                 .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
 
+                        // ⏳ Fin de peticiones asíncronas (login, exportaciones): la original ya se autorizó
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // 🌐 Endpoints públicos
                         .requestMatchers(
                                 "/",
@@ -63,6 +72,10 @@ public class SecurityConfig {
                                 "/webjars/**"
                         ).permitAll()
 
+                        // 📈 Actuator (health y prometheus): solo escucha en 127.0.0.1, puerto de gestión
+                        .requestMatchers(EndpointRequest.to(HealthEndpoint.class, PrometheusScrapeEndpoint.class))
+                        .permitAll()
+
                         // 🔑 Auth y registro
                         .requestMatchers(HttpMethod.POST, "/api/auth/**").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/usuarios").permitAll()
@@ -94,7 +107,7 @@ public class SecurityConfig {
                         // 🔐 Todo lo demás requiere estar logueado
                         .anyRequest().authenticated()
                 )
-                .authenticationProvider(authProvider())
+                .authenticationProvider(authProvider)
                 .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
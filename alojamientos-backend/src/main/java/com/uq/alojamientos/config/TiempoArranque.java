@@ -0,0 +1,48 @@
+package com.uq.alojamientos.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+
+/**
+ * Deja en el log cuánto tardó el arranque, en una línea fija para poder comparar entre
+ * versiones (grep "Arranque:"):
+ * <ul>
+ *   <li><b>contexto</b>: hasta tener el contexto levantado (Flyway, Hibernate, beans);</li>
+ *   <li><b>listo</b>: además los runners, hasta aceptar peticiones (los índices en memoria
+ *       se construyen después y registran su propio tiempo);</li>
+ *   <li><b>jvm</b>: desde que arrancó la JVM, con la carga de clases previa a Spring.</li>
+ * </ul>
+ * Para comparar configuraciones en frío está {@code ArranqueBenchmark} (src/test).
+ */
+@Slf4j
+@Component
+public class TiempoArranque {
+
+    private final Environment env;
+    private volatile Duration contexto;
+
+    public TiempoArranque(Environment env) {
+        this.env = env;
+    }
+
+    @EventListener
+    public void iniciado(ApplicationStartedEvent event) {
+        contexto = event.getTimeTaken();
+    }
+
+    @EventListener
+    public void listo(ApplicationReadyEvent event) {
+        log.info("Arranque: contexto {} ms, listo {} ms, jvm {} ms (ddl-auto={})",
+                contexto != null ? contexto.toMillis() : -1,
+                event.getTimeTaken() != null ? event.getTimeTaken().toMillis() : -1,
+                ManagementFactory.getRuntimeMXBean().getUptime(),
+                env.getProperty("spring.jpa.hibernate.ddl-auto", "none"));
+    }
+}
@@ -0,0 +1,63 @@
+package com.uq.alojamientos.controller;
+
+import com.uq.alojamientos.cache.BusquedaCache;
+import com.uq.alojamientos.cache.DetalleAlojamientoCache;
+import com.uq.alojamientos.cache.EstadisticasCache;
+import com.uq.alojamientos.index.CatalogoServicios;
+import com.uq.alojamientos.job.RecalculoCalificacionesJob;
+import com.uq.alojamientos.reporte.OcupacionDiaria;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+@Tag(name = "Administración", description = "Tareas de mantenimiento")
+@SecurityRequirement(name = "Bearer Authentication")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminController {
+
+    private final RecalculoCalificacionesJob recalculoCalificaciones;
+    private final DetalleAlojamientoCache detalleAlojamientoCache;
+    private final BusquedaCache busquedaCache;
+    private final OcupacionDiaria ocupacionDiaria;
+    private final CatalogoServicios catalogoServicios;
+
+    @Operation(summary = "Recalcular agregados de calificación desde los comentarios")
+    @PostMapping("/calificaciones/recalcular")
+    public Map<String, Integer> recalcularCalificaciones() {
+        return Map.of("corregidos", recalculoCalificaciones.recalcular());
+    }
+
+    @Operation(summary = "Rehacer la tabla ocupacion_diaria del panel de anfitriones desde las reservas")
+    @PostMapping("/ocupacion/reconstruir")
+    public Map<String, Integer> reconstruirOcupacion() {
+        return Map.of("filas", ocupacionDiaria.reconstruir());
+    }
+
+    @Operation(summary = "Servicios del catálogo (los únicos que pueden tener los alojamientos)")
+    @GetMapping("/servicios")
+    public List<String> servicios() {
+        return catalogoServicios.codigos();
+    }
+
+    @Operation(summary = "Dar de alta un servicio en el catálogo (máximo 63)")
+    @PostMapping("/servicios")
+    public Map<String, Object> registrarServicio(@RequestParam String codigo) {
+        int bit = catalogoServicios.registrar(codigo);
+        return Map.of("codigo", catalogoServicios.lista(1L << bit).get(0), "bit", bit);
+    }
+
+    @Operation(summary = "Aciertos, fallos y desalojos de las cachés en memoria")
+    @GetMapping("/caches")
+    public List<EstadisticasCache> caches() {
+        return List.of(detalleAlojamientoCache.estadisticas(), busquedaCache.estadisticas());
+    }
+}
@@ -1,6 +1,10 @@
 package com.uq.alojamientos.controller;
 
+import com.uq.alojamientos.domain.enums.ModoServicios;
 import com.uq.alojamientos.dto.AlojamientoDTO;
+import com.uq.alojamientos.dto.CursorPage;
+import com.uq.alojamientos.dto.SugerenciaCiudadDTO;
+import com.uq.alojamientos.metricas.PresupuestoConsultas;
 import com.uq.alojamientos.service.AlojamientoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -17,6 +21,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/alojamientos")
@@ -49,6 +54,7 @@ public class AlojamientoController {
     }
 
     @Operation(summary = "Listar alojamientos activos por ciudad")
+    @PresupuestoConsultas(3)
     @GetMapping
     public Page<AlojamientoDTO> listar(
             @RequestParam(defaultValue = "") String ciudad,
@@ -58,20 +64,110 @@ public class AlojamientoController {
         return service.buscarActivosPorCiudad(ciudad, PageRequest.of(page, size));
     }
 
-    @Operation(summary = "Buscar alojamientos disponibles por fechas")
+    @Operation(summary = "Listar alojamientos activos por ciudad (scroll por cursor)")
+    @PresupuestoConsultas(2)
+    @GetMapping("/scroll")
+    public CursorPage<AlojamientoDTO> listarScroll(
+            @RequestParam(defaultValue = "") String ciudad,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        return service.buscarActivosPorCiudad(ciudad, cursor, size);
+    }
+
+    @Operation(summary = "Autocompletar ciudad: ciudades con alojamientos activos que empiezan por el prefijo")
+    @GetMapping("/ciudades/sugerencias")
+    public List<SugerenciaCiudadDTO> sugerenciasCiudad(
+            @RequestParam(defaultValue = "") String prefijo,
+            @RequestParam(defaultValue = "8") int limite
+    ) {
+        return service.sugerirCiudades(prefijo, limite);
+    }
+
+    @Operation(summary = "Buscar alojamientos disponibles por fechas (con q: por texto libre, ordenados por relevancia)")
     @GetMapping("/disponibles")
     public Page<AlojamientoDTO> disponibles(
+            @RequestParam(required = false) String q,
             @RequestParam(required = false) String ciudad,
             @RequestParam(required = false) BigDecimal precioMin,
             @RequestParam(required = false) BigDecimal precioMax,
             @RequestParam(required = false) Integer capacidad,
+            @RequestParam(required = false) List<String> servicios,
+            @RequestParam(defaultValue = "TODOS") ModoServicios modoServicios,
             @RequestParam LocalDate desde,
             @RequestParam LocalDate hasta,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size
     ) {
         return service.buscarDisponibles(
-                ciudad, precioMin, precioMax, capacidad, desde, hasta, PageRequest.of(page, size)
+                q, ciudad, precioMin, precioMax, capacidad, servicios, modoServicios, desde, hasta,
+                PageRequest.of(page, size)
+        );
+    }
+
+    @Operation(summary = "Buscar alojamientos disponibles por fechas (scroll por cursor)",
+            description = "Con q, el orden es por relevancia y el cursor guarda la puntuación BM25 de la "
+                    + "última fila. Esa puntuación depende de estadísticas de todo el índice, que cambian al "
+                    + "crear o eliminar alojamientos: si eso ocurre entre dos páginas, la siguiente puede "
+                    + "repetir u omitir resultados. Para un recorrido estable, usar /disponibles con page.")
+    @GetMapping("/disponibles/scroll")
+    public CursorPage<AlojamientoDTO> disponiblesScroll(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String ciudad,
+            @RequestParam(required = false) BigDecimal precioMin,
+            @RequestParam(required = false) BigDecimal precioMax,
+            @RequestParam(required = false) Integer capacidad,
+            @RequestParam(required = false) List<String> servicios,
+            @RequestParam(defaultValue = "TODOS") ModoServicios modoServicios,
+            @RequestParam LocalDate desde,
+            @RequestParam LocalDate hasta,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        return service.buscarDisponibles(
+                q, ciudad, precioMin, precioMax, capacidad, servicios, modoServicios, desde, hasta, cursor, size
+        );
+    }
+
+    @Operation(summary = "Buscar alojamientos en un radio alrededor de un punto (ordenados por distancia; "
+            + "totalElements es exacto en la última página, antes una cota inferior)")
+    @GetMapping("/cerca")
+    public Page<AlojamientoDTO> cerca(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(defaultValue = "5") double radioKm,
+            @RequestParam(required = false) BigDecimal precioMin,
+            @RequestParam(required = false) BigDecimal precioMax,
+            @RequestParam(required = false) Integer capacidad,
+            @RequestParam(required = false) LocalDate desde,
+            @RequestParam(required = false) LocalDate hasta,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        return service.buscarCercanos(
+                lat, lon, radioKm, precioMin, precioMax, capacidad, desde, hasta, PageRequest.of(page, size)
+        );
+    }
+
+    @Operation(summary = "Buscar alojamientos dentro del área visible del mapa (ordenados por distancia al "
+            + "centro; totalElements es exacto en la última página, antes una cota inferior)")
+    @GetMapping("/area")
+    public Page<AlojamientoDTO> area(
+            @RequestParam double latMin,
+            @RequestParam double latMax,
+            @RequestParam double lonMin,
+            @RequestParam double lonMax,
+            @RequestParam(required = false) BigDecimal precioMin,
+            @RequestParam(required = false) BigDecimal precioMax,
+            @RequestParam(required = false) Integer capacidad,
+            @RequestParam(required = false) LocalDate desde,
+            @RequestParam(required = false) LocalDate hasta,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        return service.buscarEnArea(
+                latMin, latMax, lonMin, lonMax, precioMin, precioMax, capacidad, desde, hasta,
+                PageRequest.of(page, size)
         );
     }
 
@@ -2,87 +2,118 @@ package com.uq.alojamientos.controller;
 
 import com.uq.alojamientos.domain.Usuario;
 import com.uq.alojamientos.dto.auth.LoginRequest;
-import com.uq.alojamientos.repository.UsuarioRepository;
+import com.uq.alojamientos.dto.auth.RefreshRequest;
 import com.uq.alojamientos.security.JwtService;
+import com.uq.alojamientos.security.LoginService;
+import com.uq.alojamientos.security.RefreshTokenService;
 import io.swagger.v3.oas.annotations.Operation;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/auth")
-@RequiredArgsConstructor
 public class AuthController {
 
-    private final AuthenticationManager authManager;
+    private final LoginService loginService;
     private final JwtService jwtService;
-    private final UsuarioRepository usuarioRepository;
+    private final RefreshTokenService refreshTokens;
+    private final Executor asincrono;
+
+    // asincrono: el executor de las peticiones asíncronas de MVC (applicationTaskExecutor)
+    public AuthController(
+            LoginService loginService,
+            JwtService jwtService,
+            RefreshTokenService refreshTokens,
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor asincrono
+    ) {
+        this.loginService = loginService;
+        this.jwtService = jwtService;
+        this.refreshTokens = refreshTokens;
+        this.asincrono = asincrono;
+    }
 
     // =========================================================
     // LOGIN CORREGIDO
     // =========================================================
+    // La contraseña se verifica en el pool de LoginService: el hilo de Tomcat queda libre
+    // mientras tanto y, si el pool está saturado, se responde 503 sin esperar. La respuesta
+    // (firma del JWT, INSERT del refresh token) se arma fuera de ese pool, que es solo para BCrypt
     @Operation(summary = "Autenticación y obtención de token + usuario")
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest req) {
-        try {
-            // Autenticar credenciales
-            Authentication authentication = authManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            req.getEmail(),
-                            req.getPassword()
-                    )
-            );
-
-            UserDetails springUser = (UserDetails) authentication.getPrincipal();
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody LoginRequest req) {
+        return loginService.autenticar(req.getEmail(), req.getPassword())
+                .thenApplyAsync(this::respuestaLogin, asincrono)
+                .exceptionally(this::errorLogin);
+    }
 
-            // Buscar el usuario real en BD para retornarlo al frontend
-            Usuario usuario = usuarioRepository.findByEmail(req.getEmail())
-                    .orElseThrow(() -> new RuntimeException("Usuario no encontrado en BD"));
+    private ResponseEntity<?> respuestaLogin(Usuario usuario) {
+        // Generar token JWT
+        String token = jwtService.generate(
+                usuario.getEmail(),
+                Map.of("roles", List.of("ROLE_" + usuario.getRol().name()))
+        );
 
-            // Generar token JWT
-            String token = jwtService.generate(
-                    usuario.getEmail(),
-                    Map.of(
-                            "roles",
-                            springUser.getAuthorities()
-                                    .stream()
-                                    .map(Object::toString)
-                                    .toList()
-                    )
-            );
+        // Crear respuesta completa
+        Map<String, Object> response = Map.of(
+                "accessToken", token,
+                "refreshToken", refreshTokens.emitir(usuario),
+                "tokenType", "Bearer",
+                "usuarioDto", Map.of(
+                        "id", usuario.getId(),
+                        "nombre", usuario.getNombre(),
+                        "email", usuario.getEmail(),
+                        "telefono", usuario.getTelefono(),
+                        "rol", usuario.getRol().name()
+                )
+        );
 
-            // Crear respuesta completa
-            Map<String, Object> response = Map.of(
-                    "accessToken", token,
-                    "tokenType", "Bearer",
-                    "usuarioDto", Map.of(
-                            "id", usuario.getId(),
-                            "nombre", usuario.getNombre(),
-                            "email", usuario.getEmail(),
-                            "telefono", usuario.getTelefono(),
-                            "rol", usuario.getRol().name()
-                    )
-            );
+        return ResponseEntity.ok(response);
+    }
 
-            return ResponseEntity.ok(response);
+    private ResponseEntity<?> errorLogin(Throwable ex) {
+        Throwable causa = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        if (causa instanceof AuthenticationException) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", "Credenciales incorrectas"));
+        }
+        if (causa instanceof RejectedExecutionException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(Map.of("error", "Demasiados inicios de sesión, reintenta en un momento"));
+        }
+        log.error("Error en el login", causa);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "Error interno"));
+    }
 
+    @Operation(summary = "Nuevo access token a cambio de un refresh token (que se rota: el usado deja de servir)")
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody RefreshRequest req) {
+        try {
+            RefreshTokenService.Rotacion rotacion = refreshTokens.rotar(req.getRefreshToken());
+            return ResponseEntity.ok(Map.of(
+                    "accessToken", rotacion.accessToken(),
+                    "refreshToken", rotacion.refreshToken(),
+                    "tokenType", "Bearer"
+            ));
         } catch (BadCredentialsException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("error", "Credenciales incorrectas"));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of(
-                            "error", "Error interno",
-                            "detalle", e.getMessage()
-                    ));
+                    .body(Map.of("error", "Refresh token inválido o expirado"));
         }
     }
 }
@@ -3,8 +3,11 @@
 // ==========================================
 package com.uq.alojamientos.controller;
 
+import com.uq.alojamientos.dto.CalificacionesDTO;
 import com.uq.alojamientos.dto.ComentarioDTO;
+import com.uq.alojamientos.dto.CursorPage;
 import com.uq.alojamientos.dto.ResponderComentarioDTO;
+import com.uq.alojamientos.metricas.PresupuestoConsultas;
 import com.uq.alojamientos.service.ComentarioService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -40,6 +43,7 @@ public class ComentarioController {
     }
 
     @Operation(summary = "Listar comentarios de un alojamiento (paginado)")
+    @PresupuestoConsultas(3)
     @GetMapping("/alojamiento/{alojamientoId}")
     public Page<ComentarioDTO> listarPorAlojamiento(
             @PathVariable Long alojamientoId,
@@ -49,12 +53,29 @@ public class ComentarioController {
         return service.listarPorAlojamiento(alojamientoId, PageRequest.of(page, size));
     }
 
+    @Operation(summary = "Listar comentarios de un alojamiento (scroll por cursor, más recientes primero)")
+    @PresupuestoConsultas(2)
+    @GetMapping("/alojamiento/{alojamientoId}/scroll")
+    public CursorPage<ComentarioDTO> listarScroll(
+            @PathVariable Long alojamientoId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        return service.listarPorAlojamiento(alojamientoId, cursor, size);
+    }
+
     @Operation(summary = "Obtener promedio de calificaciones")
     @GetMapping("/alojamiento/{alojamientoId}/promedio")
     public ResponseEntity<Double> promedio(@PathVariable Long alojamientoId) {
         return ResponseEntity.ok(service.promedioCalificacion(alojamientoId));
     }
 
+    @Operation(summary = "Obtener histograma de calificaciones (conteo por estrellas)")
+    @GetMapping("/alojamiento/{alojamientoId}/histograma")
+    public CalificacionesDTO histograma(@PathVariable Long alojamientoId) {
+        return service.histogramaCalificaciones(alojamientoId);
+    }
+
     @Operation(
             summary = "Responder comentario (anfitrión)",
             security = @SecurityRequirement(name = "Bearer Authentication")
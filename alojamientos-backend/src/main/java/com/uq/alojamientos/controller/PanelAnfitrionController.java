@@ -0,0 +1,51 @@
+package com.uq.alojamientos.controller;
+
+import com.uq.alojamientos.dto.OcupacionMensualDTO;
+import com.uq.alojamientos.metricas.PresupuestoConsultas;
+import com.uq.alojamientos.service.PanelAnfitrionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/anfitriones")
+@RequiredArgsConstructor
+@Tag(name = "Panel de anfitrión", description = "Ocupación e ingresos de los alojamientos de un anfitrión")
+@SecurityRequirement(name = "Bearer Authentication")
+public class PanelAnfitrionController {
+
+    private final PanelAnfitrionService service;
+
+    @Operation(summary = "Ocupación, ingresos y cancelaciones por mes (desde/hasta como yyyy-MM; por defecto los últimos 12 meses)")
+    @PreAuthorize("hasAnyRole('ANFITRION', 'ADMIN')")
+    @PresupuestoConsultas(4)
+    @GetMapping("/{anfitrionId}/ocupacion")
+    public List<OcupacionMensualDTO> ocupacion(
+            @PathVariable Long anfitrionId,
+            @RequestParam(required = false) String desde,
+            @RequestParam(required = false) String hasta,
+            Authentication auth
+    ) {
+        YearMonth fin = hasta != null ? mes(hasta) : YearMonth.now();
+        YearMonth inicio = desde != null ? mes(desde) : fin.minusMonths(11);
+        boolean admin = auth.getAuthorities().stream().anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+        service.comprobarAnfitrion(anfitrionId, auth.getName(), admin);
+        return service.ocupacionMensual(anfitrionId, inicio, fin);
+    }
+
+    private static YearMonth mes(String texto) {
+        try {
+            return YearMonth.parse(texto);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Mes inválido (yyyy-MM): " + texto);
+        }
+    }
+}
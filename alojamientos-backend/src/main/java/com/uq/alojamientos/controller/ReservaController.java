@@ -3,8 +3,13 @@
 // ==========================================
 package com.uq.alojamientos.controller;
 
+import com.uq.alojamientos.dto.CursorPage;
 import com.uq.alojamientos.dto.ReservaDTO;
+import com.uq.alojamientos.metricas.PresupuestoConsultas;
+import com.uq.alojamientos.service.ExportacionService;
 import com.uq.alojamientos.service.ReservaService;
+import com.uq.alojamientos.util.EscritorFilas;
+import com.uq.alojamientos.util.EscritorFilas.Formato;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -15,8 +20,10 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/reservas")
@@ -27,6 +34,7 @@ import org.springframework.web.bind.annotation.*;
 public class ReservaController {
 
     private final ReservaService service;
+    private final ExportacionService exportacion;
 
     @Operation(summary = "Crear nueva reserva")
     @PreAuthorize("hasAnyRole('USER', 'ANFITRION', 'ADMIN')")
@@ -35,6 +43,14 @@ public class ReservaController {
         return ResponseEntity.status(HttpStatus.CREATED).body(service.crear(dto));
     }
 
+    @Operation(summary = "Confirmar reserva pendiente (antes de que expire su plazo); solo el huésped o el anfitrión")
+    @PreAuthorize("hasAnyRole('USER', 'ANFITRION', 'ADMIN')")
+    @PutMapping("/{id}/confirmar")
+    public ReservaDTO confirmar(@PathVariable Long id, Authentication auth) {
+        service.comprobarHuespedOAnfitrion(id, auth.getName());
+        return service.confirmar(id);
+    }
+
     @Operation(summary = "Cancelar reserva")
     @PreAuthorize("hasAnyRole('USER', 'ANFITRION', 'ADMIN')")
     @PutMapping("/{id}/cancelar")
@@ -45,6 +61,7 @@ public class ReservaController {
 
     @Operation(summary = "Listar reservas (por usuario o alojamiento)")
     @PreAuthorize("isAuthenticated()")
+    @PresupuestoConsultas(3)
     @GetMapping
     public Page<ReservaDTO> listar(
             @RequestParam(required = false) Long usuarioId,
@@ -57,4 +74,44 @@ public class ReservaController {
         if (alojamientoId != null) return service.listarPorAlojamiento(alojamientoId, pageable);
         return Page.empty(pageable);
     }
-}
\ No newline at end of file
+
+    @Operation(summary = "Listar reservas (por usuario o alojamiento) con scroll por cursor")
+    @PreAuthorize("isAuthenticated()")
+    @PresupuestoConsultas(2)
+    @GetMapping("/scroll")
+    public CursorPage<ReservaDTO> listarScroll(
+            @RequestParam(required = false) Long usuarioId,
+            @RequestParam(required = false) Long alojamientoId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        if (usuarioId != null) return service.listarPorUsuario(usuarioId, cursor, size);
+        if (alojamientoId != null) return service.listarPorAlojamiento(alojamientoId, cursor, size);
+        return CursorPage.vacia();
+    }
+
+    @Operation(summary = "Exportar todas las reservas de un alojamiento o de un anfitrión (ndjson o csv, en streaming)")
+    @PreAuthorize("hasAnyRole('ANFITRION', 'ADMIN')")
+    @PresupuestoConsultas(2)
+    @GetMapping("/exportar")
+    public ResponseEntity<StreamingResponseBody> exportar(
+            @RequestParam(required = false) Long alojamientoId,
+            @RequestParam(required = false) Long anfitrionId,
+            @RequestParam(defaultValue = "ndjson") String formato,
+            Authentication auth
+    ) {
+        Formato f = Formato.de(formato);
+        boolean admin = auth.getAuthorities().stream().anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+        if (alojamientoId != null) {
+            exportacion.comprobarAlojamiento(alojamientoId, auth.getName(), admin);
+            return EscritorFilas.descarga("reservas-alojamiento-" + alojamientoId, f,
+                    out -> exportacion.reservasPorAlojamiento(alojamientoId, f, out));
+        }
+        if (anfitrionId != null) {
+            exportacion.comprobarAnfitrion(anfitrionId, auth.getName(), admin);
+            return EscritorFilas.descarga("reservas-anfitrion-" + anfitrionId, f,
+                    out -> exportacion.reservasPorAnfitrion(anfitrionId, f, out));
+        }
+        throw new IllegalArgumentException("Indica alojamientoId o anfitrionId");
+    }
+}
@@ -4,7 +4,11 @@
 package com.uq.alojamientos.controller;
 
 import com.uq.alojamientos.dto.UsuarioDTO;
+import com.uq.alojamientos.metricas.PresupuestoConsultas;
+import com.uq.alojamientos.service.ExportacionService;
 import com.uq.alojamientos.service.UsuarioService;
+import com.uq.alojamientos.util.EscritorFilas;
+import com.uq.alojamientos.util.EscritorFilas.Formato;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -15,6 +19,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -26,6 +31,7 @@ import java.util.List;
 public class UsuarioController {
 
     private final UsuarioService usuarioService;
+    private final ExportacionService exportacion;
 
     @Operation(summary = "Registrar nuevo usuario")
     @PostMapping
@@ -40,6 +46,16 @@ public class UsuarioController {
         return usuarioService.listar();
     }
 
+    @Operation(summary = "Exportar todos los usuarios (ndjson o csv, en streaming)",
+            security = @SecurityRequirement(name = "Bearer Authentication"))
+    @PreAuthorize("hasRole('ADMIN')")
+    @PresupuestoConsultas(1)
+    @GetMapping("/exportar")
+    public ResponseEntity<StreamingResponseBody> exportar(@RequestParam(defaultValue = "ndjson") String formato) {
+        Formato f = Formato.de(formato);
+        return EscritorFilas.descarga("usuarios", f, out -> exportacion.usuarios(f, out));
+    }
+
     @Operation(summary = "Obtener usuario por ID", security = @SecurityRequirement(name = "Bearer Authentication"))
     @PreAuthorize("isAuthenticated()")
     @GetMapping("/{id}")
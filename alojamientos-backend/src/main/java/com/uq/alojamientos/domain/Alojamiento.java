@@ -3,26 +3,21 @@ package com.uq.alojamientos.domain;
 import com.uq.alojamientos.domain.enums.EstadoAlojamiento;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Entity
-@Table(name = "alojamientos",
-        indexes = {
-                @Index(name = "idx_aloj_ciudad", columnList = "ciudad"),
-                @Index(name = "idx_aloj_estado", columnList = "estado"),
-                @Index(name = "idx_aloj_anfitrion", columnList = "anfitrion_id")
-        })
+@Table(name = "alojamientos") // índices en db/migration
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Alojamiento {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "alojamientos_seq")
+    @SequenceGenerator(name = "alojamientos_seq", sequenceName = "alojamientos_seq", allocationSize = Secuencias.ASIGNACION)
     private Long id;
 
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
@@ -51,8 +46,16 @@ public class Alojamiento {
     private Integer capacidadMaxima;
 
     /**
-     * CSV simple de servicios mientras no montes tabla aparte
-     * Ejemplo: "wifi,piscina,estacionamiento,aire_acondicionado"
+     * Servicios como máscara de bits: el bit i es el servicio con id i del catálogo
+     * (tabla servicios, ver CatalogoServicios).
+     */
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long serviciosMask;
+
+    /**
+     * Formato anterior ("wifi,piscina,..."). Solo se lee para migrarlo a serviciosMask
+     * al arrancar (MigracionServicios), que lo deja a null.
      */
     @Column(length = 500)
     private String serviciosCsv;
@@ -66,6 +69,40 @@ public class Alojamiento {
     @Builder.Default
     private List<ImagenAlojamiento> imagenes = new ArrayList<>();
 
+    // ========== AGREGADOS DE CALIFICACIÓN ==========
+    // Los mantiene ComentarioServiceImpl.crear con un UPDATE atómico y los corrige
+    // RecalculoCalificacionesJob si se desvían de la tabla comentarios. Solo lectura para
+    // Hibernate: guardar la entidad (p. ej. al eliminarla) no pisa con los valores que leyó
+    // un incremento concurrente; al insertar toman el DEFAULT 0 de la columna.
+
+    @Column(nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private int calificacionTotal;
+
+    @Column(nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private long calificacionSuma;
+
+    @Column(nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private int calificacion1;
+
+    @Column(nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private int calificacion2;
+
+    @Column(nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private int calificacion3;
+
+    @Column(nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private int calificacion4;
+
+    @Column(nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    private int calificacion5;
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -75,28 +112,11 @@ public class Alojamiento {
     // ========== MÉTODOS DE UTILIDAD ==========
 
     /**
-     * Convierte el CSV de servicios en lista
-     * ✅ ESTE ES EL MÉTODO QUE FALTABA
+     * Promedio de calificaciones redondeado a 1 decimal (0 si aún no tiene)
      */
-    public List<String> getServiciosLista() {
-        if (serviciosCsv == null || serviciosCsv.isBlank()) {
-            return List.of();
-        }
-        return Arrays.stream(serviciosCsv.split(","))
-                .map(String::trim)
-                .filter(s -> !s.isEmpty())
-                .collect(Collectors.toList());
-    }
-
-    /**
-     * Setea servicios desde lista
-     */
-    public void setServiciosLista(List<String> servicios) {
-        if (servicios == null || servicios.isEmpty()) {
-            this.serviciosCsv = null;
-        } else {
-            this.serviciosCsv = String.join(",", servicios);
-        }
+    public double getPromedioCalificacion() {
+        return calificacionTotal == 0 ? 0.0
+                : Math.round(calificacionSuma * 10.0 / calificacionTotal) / 10.0;
     }
 
     /**
@@ -8,10 +8,13 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "comentarios",
         uniqueConstraints = @UniqueConstraint(name="uk_comentario_reserva", columnNames = "reserva_id"))
+// índices en db/migration
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Comentario {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comentarios_seq")
+    @SequenceGenerator(name = "comentarios_seq", sequenceName = "comentarios_seq", allocationSize = Secuencias.ASIGNACION)
     private Long id;
 
     @OneToOne(optional = false, fetch = FetchType.LAZY)
@@ -8,7 +8,9 @@ import lombok.*;
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class ImagenAlojamiento {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "imagenes_alojamiento_seq")
+    @SequenceGenerator(name = "imagenes_alojamiento_seq", sequenceName = "imagenes_alojamiento_seq", allocationSize = Secuencias.ASIGNACION)
     private Long id;
 
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
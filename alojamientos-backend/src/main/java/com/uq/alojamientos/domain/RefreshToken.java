@@ -7,19 +7,23 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "refresh_tokens",
-        indexes = {
-                @Index(name = "idx_refresh_token", columnList = "token", unique = true),
-                @Index(name = "idx_refresh_usuario", columnList = "usuario_id")
-        })
+        indexes = @Index(name = "idx_refresh_token", columnList = "token_hash", unique = true))
+// resto de índices en db/migration
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class RefreshToken {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "refresh_tokens_seq")
+    @SequenceGenerator(name = "refresh_tokens_seq", sequenceName = "refresh_tokens_seq", allocationSize = Secuencias.ASIGNACION)
     private Long id;
 
-    @Column(nullable = false, unique = true, length = 500)
-    private String token;
+    /** SHA-256 del token en Base64 URL: el token en claro solo lo tiene el cliente. */
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    /** Cadena de rotaciones que empieza en un login; se revoca entera si se reutiliza un token. */
+    @Column(nullable = false, length = 36)
+    private String familia;
 
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "usuario_id", nullable = false)
@@ -7,16 +7,15 @@ import lombok.*;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
-@Entity @Table(name = "reservas",
-        indexes = {
-                @Index(name="idx_reserva_estado", columnList = "estado"),
-                @Index(name="idx_reserva_aloj_usuario", columnList = "alojamiento_id,usuario_id")
-        })
+@Entity @Table(name = "reservas") // índices en db/migration
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Reserva {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservas_seq")
+    @SequenceGenerator(name = "reservas_seq", sequenceName = "reservas_seq", allocationSize = Secuencias.ASIGNACION)
     private Long id;
 
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
@@ -42,4 +41,7 @@ public class Reserva {
 
     @Column(precision = 12, scale = 2)
     private BigDecimal total;
+
+    // Solo PENDIENTE: si no se confirma antes, ExpiracionReservasJob la pasa a EXPIRADA
+    private LocalDateTime holdExpiraEn;
 }
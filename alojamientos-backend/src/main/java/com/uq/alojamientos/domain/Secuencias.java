@@ -0,0 +1,16 @@
+package com.uq.alojamientos.domain;
+
+/**
+ * Ids por secuencia (optimizador pooled de Hibernate): cada viaje a la secuencia reserva
+ * {@link #ASIGNACION} ids, así que insertar N filas no cuesta N viajes y Hibernate puede
+ * agrupar los INSERT en lotes JDBC (con IDENTITY no puede, necesita el id de cada fila).
+ *
+ * <p>Debe coincidir con el INCREMENT BY de las secuencias; ver AlineadorSecuencias.</p>
+ */
+public final class Secuencias {
+
+    public static final int ASIGNACION = 50;
+
+    private Secuencias() {
+    }
+}
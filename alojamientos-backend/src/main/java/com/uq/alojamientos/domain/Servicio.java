@@ -0,0 +1,21 @@
+package com.uq.alojamientos.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Catálogo de servicios (wifi, piscina, ...). El id es la posición del bit que el
+ * servicio ocupa en {@link Alojamiento#getServiciosMask()}, así que lo asigna
+ * CatalogoServicios (0..62) y no una secuencia.
+ */
+@Entity
+@Table(name = "servicios")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class Servicio {
+
+    @Id
+    private Integer bit;
+
+    @Column(nullable = false, unique = true, length = 60)
+    private String codigo;
+}
@@ -1,3 +1,3 @@
 // domain/enums/EstadoReserva.java
 package com.uq.alojamientos.domain.enums;
-public enum EstadoReserva { PENDIENTE, CONFIRMADA, CANCELADA, COMPLETADA }
+public enum EstadoReserva { PENDIENTE, CONFIRMADA, CANCELADA, COMPLETADA, EXPIRADA }
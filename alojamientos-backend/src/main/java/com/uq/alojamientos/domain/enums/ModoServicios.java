@@ -0,0 +1,4 @@
+// domain/enums/ModoServicios.java
+package com.uq.alojamientos.domain.enums;
+// TODOS: debe tener todos los servicios pedidos; ALGUNO: basta con uno
+public enum ModoServicios { TODOS, ALGUNO }
@@ -3,6 +3,7 @@
 // ==========================================
 package com.uq.alojamientos.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.*;
 import lombok.Data;
@@ -55,4 +56,16 @@ public class AlojamientoDTO {
 
     @Size(max = 10, message = "Máximo 10 servicios permitidos")
     private List<@NotBlank(message = "El servicio no puede estar vacío") String> servicios;
+
+    // Agregados de calificación, mantenidos al crear comentarios
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Double promedioCalificacion;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Integer totalCalificaciones;
+
+    // Solo en búsquedas geográficas: distancia al punto (o al centro del área) buscado
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double distanciaKm;
 }
@@ -0,0 +1,22 @@
+// ==========================================
+// CalificacionesDTO.java
+// ==========================================
+package com.uq.alojamientos.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * Resumen de calificaciones de un alojamiento: total, promedio y cuántas hay de cada estrella (1..5).
+ */
+@Data
+@AllArgsConstructor
+public class CalificacionesDTO {
+
+    private Long alojamientoId;
+    private int total;
+    private double promedio;
+    private Map<Integer, Integer> histograma;
+}
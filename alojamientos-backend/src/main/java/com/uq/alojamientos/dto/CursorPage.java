@@ -0,0 +1,40 @@
+// ==========================================
+// CursorPage.java
+// ==========================================
+package com.uq.alojamientos.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página en modo cursor (keyset): sin total ni consulta count. Para pedir la
+ * siguiente página se reenvía {@code siguienteCursor} tal cual; es opaco para el cliente.
+ */
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> contenido;
+    private String siguienteCursor;
+    private boolean hayMas;
+
+    public static <T> CursorPage<T> vacia() {
+        return new CursorPage<>(List.of(), null, false);
+    }
+
+    /**
+     * Construye la página a partir de una consulta que pidió {@code size + 1} filas:
+     * la fila sobrante solo indica que hay más.
+     */
+    public static <E, T> CursorPage<T> de(List<E> filas, int size,
+                                          Function<E, String> cursorDe,
+                                          Function<E, T> mapeo) {
+        boolean hayMas = filas.size() > size;
+        List<E> pagina = hayMas ? filas.subList(0, size) : filas;
+        String siguiente = hayMas ? cursorDe.apply(pagina.get(pagina.size() - 1)) : null;
+        return new CursorPage<>(pagina.stream().map(mapeo).toList(), siguiente, hayMas);
+    }
+}
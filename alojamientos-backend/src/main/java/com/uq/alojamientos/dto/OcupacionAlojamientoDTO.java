@@ -0,0 +1,23 @@
+// ==========================================
+// OcupacionAlojamientoDTO.java
+// ==========================================
+package com.uq.alojamientos.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * Un alojamiento dentro de un mes del panel del anfitrión (solo los que tuvieron actividad).
+ */
+@Data
+@AllArgsConstructor
+public class OcupacionAlojamientoDTO {
+
+    private Long alojamientoId;
+    private long nochesReservadas;
+    private double ocupacion;
+    private BigDecimal ingresos;
+    private long nochesCanceladas;
+}
@@ -0,0 +1,28 @@
+// ==========================================
+// OcupacionMensualDTO.java
+// ==========================================
+package com.uq.alojamientos.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Un mes del panel de un anfitrión: noches reservadas sobre las disponibles (por cada
+ * alojamiento, los días del mes en que existía), ingresos, noches canceladas y el desglose
+ * por alojamiento.
+ */
+@Data
+@AllArgsConstructor
+public class OcupacionMensualDTO {
+
+    private String mes;
+    private long nochesReservadas;
+    private long nochesDisponibles;
+    private double ocupacion;
+    private BigDecimal ingresos;
+    private long nochesCanceladas;
+    private List<OcupacionAlojamientoDTO> alojamientos;
+}
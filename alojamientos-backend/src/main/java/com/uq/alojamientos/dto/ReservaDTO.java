@@ -10,6 +10,7 @@ import lombok.Data;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Data
 public class ReservaDTO {
@@ -44,4 +45,8 @@ public class ReservaDTO {
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     @Digits(integer = 10, fraction = 2, message = "Formato de total inválido")
     private BigDecimal total;
+
+    // Plazo para confirmar una reserva PENDIENTE
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private LocalDateTime holdExpiraEn;
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+// ==========================================
+// SugerenciaCiudadDTO.java
+// ==========================================
+package com.uq.alojamientos.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Ciudad sugerida al autocompletar, con cuántos alojamientos activos tiene.
+ */
+@Data
+@AllArgsConstructor
+public class SugerenciaCiudadDTO {
+
+    private String ciudad;
+    private int alojamientos;
+}
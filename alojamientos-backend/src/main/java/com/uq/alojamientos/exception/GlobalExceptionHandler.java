@@ -2,6 +2,7 @@ package com.uq.alojamientos.exception;
 
 import jakarta.validation.ConstraintViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
 
@@ -30,6 +31,13 @@ public class GlobalExceptionHandler {
         return Map.of("error", "NOT_FOUND", "message", ex.getMessage());
     }
 
+    // @PreAuthorize y comprobaciones de propiedad (sin esto caían en el 500 de abajo)
+    @ExceptionHandler(AccessDeniedException.class)
+    @ResponseStatus(HttpStatus.FORBIDDEN)
+    public Map<String, Object> handleAccessDenied(AccessDeniedException ex) {
+        return Map.of("error", "FORBIDDEN", "message", ex.getMessage());
+    }
+
     // @Valid en @RequestBody
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
@@ -0,0 +1,213 @@
+package com.uq.alojamientos.index;
+
+import com.uq.alojamientos.domain.Servicio;
+import com.uq.alojamientos.repository.ServicioRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.mapstruct.Named;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Diccionario de servicios en memoria: código ⇄ bit de {@code alojamientos.servicios_mask}.
+ *
+ * <p>Un alojamiento guarda sus servicios como una máscara de bits, así que filtrar por
+ * servicios es un {@code bitand} en la consulta y no un {@code LIKE} sobre texto. Al
+ * mapear a DTO, cada máscara se convierte en una lista inmutable que se reutiliza para
+ * todos los alojamientos con la misma combinación: una página de resultados no crea una
+ * lista por fila.</p>
+ *
+ * <p>Los códigos se normalizan (trim, minúsculas). El catálogo parte de la migración V10 y
+ * solo un administrador lo amplía ({@link #registrar}); caben {@value #MAX_SERVICIOS} (el bit
+ * de signo no se usa). Guardar un alojamiento con un código desconocido es un 400: un
+ * anfitrión no puede llenar el catálogo, que comparten todos.</p>
+ */
+@Slf4j
+@Component
+public class CatalogoServicios {
+
+    static final int MAX_SERVICIOS = 63;
+    // servicios.codigo es varchar(60)
+    static final int MAX_LONGITUD_CODIGO = 60;
+    // Combinaciones distintas que se guardan ya resueltas; más allá se resuelven al vuelo
+    private static final int MAX_LISTAS = 4096;
+
+    private final ServicioRepository servicioRepo;
+    private final TransactionTemplate transaccion;
+
+    private volatile Diccionario diccionario = new Diccionario(new String[0], Map.of());
+    private final Map<Long, List<String>> listas = new ConcurrentHashMap<>();
+
+    public CatalogoServicios(ServicioRepository servicioRepo, PlatformTransactionManager txManager) {
+        this.servicioRepo = servicioRepo;
+        this.transaccion = new TransactionTemplate(txManager);
+    }
+
+    @PostConstruct
+    public void cargar() {
+        String[] codigos = new String[MAX_SERVICIOS];
+        Map<String, Integer> bits = new HashMap<>();
+        int tope = 0;
+        for (Servicio s : servicioRepo.findAll()) {
+            codigos[s.getBit()] = s.getCodigo();
+            bits.put(s.getCodigo(), s.getBit());
+            tope = Math.max(tope, s.getBit() + 1);
+        }
+        String[] usados = new String[tope];
+        System.arraycopy(codigos, 0, usados, 0, tope);
+        diccionario = new Diccionario(usados, Map.copyOf(bits));
+        log.info("Catálogo de servicios cargado: {} servicios", bits.size());
+    }
+
+    /** Servicios de una máscara, en orden de bit. La lista es compartida e inmutable. */
+    @Named("serviciosDeMascara")
+    public List<String> lista(long mascara) {
+        if (mascara == 0) return List.of();
+        List<String> lista = listas.get(mascara);
+        if (lista != null) return lista;
+        lista = resolver(mascara);
+        if (listas.size() < MAX_LISTAS) {
+            List<String> previa = listas.putIfAbsent(mascara, lista);
+            if (previa != null) return previa;
+        }
+        return lista;
+    }
+
+    /** Máscara de los servicios de un alojamiento; IllegalArgumentException si alguno no está en el catálogo. */
+    @Named("mascaraDeServicios")
+    public long mascara(Collection<String> servicios) {
+        if (servicios == null) return 0;
+        List<String> desconocidos = desconocidos(servicios);
+        if (!desconocidos.isEmpty()) {
+            // Puede que otra instancia lo acabe de registrar
+            cargar();
+            desconocidos = desconocidos(servicios);
+            if (!desconocidos.isEmpty()) {
+                throw new IllegalArgumentException("Servicios desconocidos: " + String.join(", ", desconocidos));
+            }
+        }
+        return mascaraConocidos(servicios);
+    }
+
+    /**
+     * Máscara de los servicios dados registrando los que aún no existan. Solo para tareas de
+     * arranque (migración del CSV, datos sintéticos), nunca dentro de otra transacción.
+     */
+    public long mascaraRegistrando(Collection<String> servicios) {
+        long mascara = 0;
+        for (String s : servicios) {
+            String codigo = normalizar(s);
+            if (codigo.isEmpty()) continue;
+            Integer bit = diccionario.bits().get(codigo);
+            mascara |= 1L << (bit != null ? bit : registrar(codigo));
+        }
+        return mascara;
+    }
+
+    /** Códigos del catálogo, en orden de bit. */
+    public List<String> codigos() {
+        return Arrays.stream(diccionario.codigos()).filter(Objects::nonNull).toList();
+    }
+
+    /** Máscara para exigir todos los servicios; vacía si alguno no existe (nada puede tenerlos todos). */
+    public OptionalLong mascaraSiExisten(Collection<String> servicios) {
+        long mascara = 0;
+        for (String s : servicios) {
+            String codigo = normalizar(s);
+            if (codigo.isEmpty()) continue;
+            Integer bit = diccionario.bits().get(codigo);
+            if (bit == null) return OptionalLong.empty();
+            mascara |= 1L << bit;
+        }
+        return OptionalLong.of(mascara);
+    }
+
+    /** Máscara de los servicios dados que existen; los desconocidos se ignoran. */
+    public long mascaraConocidos(Collection<String> servicios) {
+        long mascara = 0;
+        for (String s : servicios) {
+            Integer bit = diccionario.bits().get(normalizar(s));
+            if (bit != null) mascara |= 1L << bit;
+        }
+        return mascara;
+    }
+
+    private List<String> desconocidos(Collection<String> servicios) {
+        Map<String, Integer> bits = diccionario.bits();
+        return servicios.stream().map(CatalogoServicios::normalizar)
+                .filter(c -> !c.isEmpty() && !bits.containsKey(c))
+                .distinct()
+                .toList();
+    }
+
+    private List<String> resolver(long mascara) {
+        String[] codigos = diccionario.codigos();
+        if (64 - Long.numberOfLeadingZeros(mascara) > codigos.length) {
+            // Bit registrado por otra instancia después de cargar: releer el catálogo
+            cargar();
+            codigos = diccionario.codigos();
+        }
+        List<String> lista = new ArrayList<>(Long.bitCount(mascara));
+        for (long resto = mascara; resto != 0; resto &= resto - 1) {
+            int bit = Long.numberOfTrailingZeros(resto);
+            if (bit < codigos.length && codigos[bit] != null) lista.add(codigos[bit]);
+        }
+        return Collections.unmodifiableList(lista);
+    }
+
+    /** Da de alta un servicio (o devuelve su bit si ya existía). */
+    public synchronized int registrar(String servicio) {
+        String codigo = normalizar(servicio);
+        if (codigo.isEmpty() || codigo.length() > MAX_LONGITUD_CODIGO) {
+            throw new IllegalArgumentException("El código del servicio debe tener de 1 a " + MAX_LONGITUD_CODIGO + " caracteres");
+        }
+        for (int intento = 0; ; intento++) {
+            Diccionario actual = diccionario;
+            Integer existente = actual.bits().get(codigo);
+            if (existente != null) return existente;
+
+            int bit = actual.codigos().length;
+            if (bit >= MAX_SERVICIOS) {
+                throw new IllegalStateException("El catálogo de servicios está lleno (máximo " + MAX_SERVICIOS + ")");
+            }
+            try {
+                transaccion.executeWithoutResult(tx -> servicioRepo.insertar(bit, codigo));
+            } catch (DataIntegrityViolationException ex) {
+                // Otra instancia registró el código o tomó el bit a la vez: releer y reintentar
+                if (intento > 0) throw ex;
+                cargar();
+                continue;
+            }
+            String[] codigos = new String[bit + 1];
+            System.arraycopy(actual.codigos(), 0, codigos, 0, bit);
+            codigos[bit] = codigo;
+            Map<String, Integer> bits = new HashMap<>(actual.bits());
+            bits.put(codigo, bit);
+            diccionario = new Diccionario(codigos, Map.copyOf(bits));
+            log.info("Servicio '{}' registrado en el bit {}", codigo, bit);
+            return bit;
+        }
+    }
+
+    static String normalizar(String servicio) {
+        return servicio == null ? "" : servicio.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Instantánea inmutable: se reemplaza entera al registrar, las lecturas no bloquean
+    private record Diccionario(String[] codigos, Map<String, Integer> bits) {
+    }
+}
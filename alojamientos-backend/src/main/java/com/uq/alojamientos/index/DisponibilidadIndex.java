@@ -0,0 +1,206 @@
+package com.uq.alojamientos.index;
+
+import com.uq.alojamientos.domain.enums.EstadoReserva;
+import com.uq.alojamientos.repository.ReservaRepository;
+import com.uq.alojamientos.repository.projection.BloqueoReserva;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice en memoria de noches ocupadas: un bitset por alojamiento, un bit por día,
+ * desde hoy hasta el horizonte configurado. Permite descartar candidatos de
+ * búsqueda con una comprobación de rango sin consultar la tabla de reservas.
+ *
+ * <p>Se reconstruye desde la BD al arrancar y cada madrugada (para desplazar la
+ * ventana); entre reconstrucciones lo mantienen al día crear/cancelar reserva.</p>
+ */
+@Slf4j
+@Component
+public class DisponibilidadIndex {
+
+    static final Set<EstadoReserva> ESTADOS_ACTIVOS =
+            EnumSet.of(EstadoReserva.PENDIENTE, EstadoReserva.CONFIRMADA);
+
+    private final ReservaRepository reservaRepo;
+    private final int horizonteMeses;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Operaciones recibidas mientras se reconstruye, para re-aplicarlas sobre la ventana nueva
+    private final Queue<Operacion> pendientes = new ConcurrentLinkedQueue<>();
+    private volatile boolean reconstruyendo;
+    private volatile Ventana ventana;
+
+    public DisponibilidadIndex(
+            ReservaRepository reservaRepo,
+            @Value("${app.disponibilidad.horizonte-meses:12}") int horizonteMeses
+    ) {
+        this.reservaRepo = reservaRepo;
+        this.horizonteMeses = horizonteMeses;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alArrancar() {
+        reconstruir();
+    }
+
+    @Scheduled(cron = "${app.disponibilidad.reconstruccion-cron:0 15 3 * * *}")
+    public void reconstruir() {
+        reconstruir(LocalDate.now());
+    }
+
+    void reconstruir(LocalDate hoy) {
+        reconstruyendo = true;
+        try {
+            long t0 = System.nanoTime();
+            LocalDate fin = hoy.plusMonths(horizonteMeses);
+            Ventana nueva = new Ventana(hoy, (int) (fin.toEpochDay() - hoy.toEpochDay()));
+
+            List<BloqueoReserva> bloqueos = reservaRepo.findBloqueosActivos(hoy, ESTADOS_ACTIVOS);
+            for (BloqueoReserva b : bloqueos) {
+                nueva.aplicar(b.alojamientoId(), b.checkIn(), b.checkOut(), true);
+            }
+
+            lock.writeLock().lock();
+            try {
+                Operacion op;
+                while ((op = pendientes.poll()) != null) {
+                    nueva.aplicar(op.alojamientoId(), op.desde(), op.hasta(), op.ocupar());
+                }
+                ventana = nueva;
+                reconstruyendo = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Índice de disponibilidad reconstruido: {} reservas activas, {} alojamientos, {} ms",
+                    bloqueos.size(), nueva.bitsets.size(), (System.nanoTime() - t0) / 1_000_000);
+        } catch (RuntimeException ex) {
+            reconstruyendo = false;
+            pendientes.clear();
+            log.warn("No se pudo reconstruir el índice de disponibilidad; se usará la BD", ex);
+        }
+    }
+
+    /** Marca como ocupadas las noches [desde, hasta) del alojamiento. */
+    public void marcar(Long alojamientoId, LocalDate desde, LocalDate hasta) {
+        actualizar(new Operacion(alojamientoId, desde, hasta, true));
+    }
+
+    /** Libera las noches [desde, hasta) del alojamiento. */
+    public void liberar(Long alojamientoId, LocalDate desde, LocalDate hasta) {
+        actualizar(new Operacion(alojamientoId, desde, hasta, false));
+    }
+
+    /**
+     * Indica si el índice puede responder para el rango pedido. Fuera del horizonte
+     * (o antes de la primera reconstrucción) hay que ir a la BD.
+     */
+    public boolean puedeResolver(LocalDate desde, LocalDate hasta) {
+        Ventana v = ventana;
+        return v != null && !reconstruyendo && v.contiene(desde, hasta);
+    }
+
+    /**
+     * Devuelve, conservando el orden, los alojamientos sin noches ocupadas en [desde, hasta).
+     * Solo debe llamarse si {@link #puedeResolver} es {@code true}.
+     */
+    public List<Long> filtrarLibres(List<Long> alojamientoIds, LocalDate desde, LocalDate hasta) {
+        lock.readLock().lock();
+        try {
+            Ventana v = ventana;
+            int from = v.indice(desde);
+            int to = v.indice(hasta);
+            List<Long> libres = new ArrayList<>(alojamientoIds.size());
+            for (Long id : alojamientoIds) {
+                if (v.libre(id, from, to)) libres.add(id);
+            }
+            return libres;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean estaLibre(Long alojamientoId, LocalDate desde, LocalDate hasta) {
+        lock.readLock().lock();
+        try {
+            Ventana v = ventana;
+            return v.libre(alojamientoId, v.indice(desde), v.indice(hasta));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void actualizar(Operacion op) {
+        lock.readLock().lock();
+        try {
+            if (reconstruyendo) pendientes.add(op);
+            Ventana v = ventana;
+            if (v != null) v.aplicar(op.alojamientoId(), op.desde(), op.hasta(), op.ocupar());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private record Operacion(Long alojamientoId, LocalDate desde, LocalDate hasta, boolean ocupar) {
+    }
+
+    private static final class Ventana {
+        private final LocalDate inicio;
+        private final long inicioEpoch;
+        private final int dias;
+        private final Map<Long, BitSet> bitsets = new ConcurrentHashMap<>();
+
+        Ventana(LocalDate inicio, int dias) {
+            this.inicio = inicio;
+            this.inicioEpoch = inicio.toEpochDay();
+            this.dias = dias;
+        }
+
+        boolean contiene(LocalDate desde, LocalDate hasta) {
+            return !desde.isBefore(inicio) && indice(hasta) <= dias;
+        }
+
+        int indice(LocalDate fecha) {
+            return (int) (fecha.toEpochDay() - inicioEpoch);
+        }
+
+        void aplicar(Long alojamientoId, LocalDate desde, LocalDate hasta, boolean ocupar) {
+            int from = Math.max(0, indice(desde));
+            int to = Math.min(dias, indice(hasta));
+            if (from >= to) return;
+
+            BitSet bits = ocupar
+                    ? bitsets.computeIfAbsent(alojamientoId, k -> new BitSet(dias))
+                    : bitsets.get(alojamientoId);
+            if (bits == null) return;
+            synchronized (bits) {
+                if (ocupar) bits.set(from, to);
+                else bits.clear(from, to);
+            }
+        }
+
+        boolean libre(Long alojamientoId, int from, int to) {
+            BitSet bits = bitsets.get(alojamientoId);
+            if (bits == null) return true;
+            synchronized (bits) {
+                int ocupado = bits.nextSetBit(from);
+                return ocupado < 0 || ocupado >= to;
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.uq.alojamientos.index;
+
+import com.uq.alojamientos.repository.AlojamientoRepository;
+import com.uq.alojamientos.repository.projection.PuntoAlojamiento;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Índice geográfico en memoria: rejilla de celdas de tamaño fijo (en grados) con los
+ * alojamientos activos que tienen coordenadas. Las búsquedas por radio o por área solo
+ * recorren las celdas que tocan la zona pedida y devuelven los ids ordenados por distancia.
+ *
+ * <p>Se construye desde la BD al arrancar y lo mantiene AlojamientoServiceImpl al crear
+ * o eliminar alojamientos. No contempla búsquedas que crucen el antimeridiano.</p>
+ */
+@Slf4j
+@Component
+public class GeoIndex {
+
+    static final double RADIO_TIERRA_KM = 6371.0088;
+    private static final double KM_POR_GRADO_LAT = 111.32;
+
+    private final AlojamientoRepository alojamientoRepo;
+    private final double celdaGrados;
+    private final int columnas;
+
+    private final Map<Long, Map<Long, Punto>> celdas = new ConcurrentHashMap<>();
+    private final Map<Long, Long> celdaPorId = new ConcurrentHashMap<>();
+
+    public GeoIndex(
+            AlojamientoRepository alojamientoRepo,
+            @Value("${app.geo.celda-grados:0.05}") double celdaGrados
+    ) {
+        this.alojamientoRepo = alojamientoRepo;
+        this.celdaGrados = celdaGrados;
+        this.columnas = (int) Math.ceil(360.0 / celdaGrados) + 1;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        long t0 = System.nanoTime();
+        celdas.clear();
+        celdaPorId.clear();
+        List<PuntoAlojamiento> puntos = alojamientoRepo.findPuntosActivos();
+        for (PuntoAlojamiento p : puntos) {
+            agregar(p.id(), p.latitud(), p.longitud());
+        }
+        log.info("Índice geográfico construido: {} alojamientos en {} celdas, {} ms",
+                celdaPorId.size(), celdas.size(), (System.nanoTime() - t0) / 1_000_000);
+    }
+
+    /** Agrega o reubica un alojamiento. Sin coordenadas, lo quita del índice. */
+    public void agregar(Long id, Double latitud, Double longitud) {
+        if (id == null) return;
+        quitar(id);
+        if (latitud == null || longitud == null) return;
+
+        long celda = celda(fila(latitud), columna(longitud));
+        celdas.computeIfAbsent(celda, k -> new ConcurrentHashMap<>())
+                .put(id, new Punto(id, latitud, longitud));
+        celdaPorId.put(id, celda);
+    }
+
+    public void quitar(Long id) {
+        Long celda = celdaPorId.remove(id);
+        if (celda == null) return;
+        celdas.computeIfPresent(celda, (k, puntos) -> {
+            puntos.remove(id);
+            return puntos.isEmpty() ? null : puntos;
+        });
+    }
+
+    /** Alojamientos a menos de {@code radioKm} del punto, del más cercano al más lejano. */
+    public List<Cercano> buscarEnRadio(double latitud, double longitud, double radioKm) {
+        double dLat = radioKm / KM_POR_GRADO_LAT;
+        double cosLat = Math.max(Math.cos(Math.toRadians(latitud)), 0.01);
+        double dLon = radioKm / (KM_POR_GRADO_LAT * cosLat);
+
+        List<Cercano> resultado = new ArrayList<>();
+        recorrer(latitud - dLat, latitud + dLat, longitud - dLon, longitud + dLon, p -> {
+            double d = distanciaKm(latitud, longitud, p.latitud(), p.longitud());
+            if (d <= radioKm) resultado.add(new Cercano(p.id(), d));
+        });
+        resultado.sort(Comparator.comparingDouble(Cercano::distanciaKm).thenComparing(Cercano::id));
+        return resultado;
+    }
+
+    /** Alojamientos dentro del rectángulo, ordenados por distancia a su centro. */
+    public List<Cercano> buscarEnArea(double latMin, double latMax, double lonMin, double lonMax) {
+        double latCentro = (latMin + latMax) / 2;
+        double lonCentro = (lonMin + lonMax) / 2;
+
+        List<Cercano> resultado = new ArrayList<>();
+        recorrer(latMin, latMax, lonMin, lonMax, p -> {
+            if (p.latitud() >= latMin && p.latitud() <= latMax
+                    && p.longitud() >= lonMin && p.longitud() <= lonMax) {
+                resultado.add(new Cercano(p.id(), distanciaKm(latCentro, lonCentro, p.latitud(), p.longitud())));
+            }
+        });
+        resultado.sort(Comparator.comparingDouble(Cercano::distanciaKm).thenComparing(Cercano::id));
+        return resultado;
+    }
+
+    public int tamano() {
+        return celdaPorId.size();
+    }
+
+    private void recorrer(double latMin, double latMax, double lonMin, double lonMax,
+                          Consumer<Punto> visitante) {
+        int f0 = fila(Math.max(latMin, -90)), f1 = fila(Math.min(latMax, 90));
+        int c0 = columna(Math.max(lonMin, -180)), c1 = columna(Math.min(lonMax, 180));
+        long celdasZona = (long) (f1 - f0 + 1) * (c1 - c0 + 1);
+
+        if (celdasZona > celdas.size()) {
+            // Zona muy grande: es más barato recorrer solo las celdas ocupadas
+            celdas.forEach((celda, puntos) -> {
+                int f = (int) (celda / columnas), c = (int) (celda % columnas);
+                if (f >= f0 && f <= f1 && c >= c0 && c <= c1) puntos.values().forEach(visitante);
+            });
+            return;
+        }
+        for (int f = f0; f <= f1; f++) {
+            for (int c = c0; c <= c1; c++) {
+                Map<Long, Punto> puntos = celdas.get(celda(f, c));
+                if (puntos != null) puntos.values().forEach(visitante);
+            }
+        }
+    }
+
+    private int fila(double latitud) {
+        return (int) Math.floor((latitud + 90) / celdaGrados);
+    }
+
+    private int columna(double longitud) {
+        return (int) Math.floor((longitud + 180) / celdaGrados);
+    }
+
+    private long celda(int fila, int columna) {
+        return (long) fila * columnas + columna;
+    }
+
+    /** Distancia haversine en kilómetros. */
+    static double distanciaKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * RADIO_TIERRA_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private record Punto(Long id, double latitud, double longitud) {
+    }
+
+    public record Cercano(Long id, double distanciaKm) {
+    }
+}
@@ -0,0 +1,204 @@
+package com.uq.alojamientos.index;
+
+import com.uq.alojamientos.repository.AlojamientoRepository;
+import com.uq.alojamientos.repository.projection.ConteoCiudad;
+import com.uq.alojamientos.util.TextoPlano;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Árbol de prefijos (trie) en memoria con las ciudades que tienen alojamientos activos y
+ * cuántos tiene cada una, para autocompletar sin ir a la BD.
+ *
+ * <p>Las claves van plegadas con {@link TextoPlano} ("bogota" encuentra "Bogotá") y cada
+ * ciudad se cuelga también del comienzo de cada una de sus palabras, así que "marta"
+ * sugiere "Santa Marta". Como nombre se muestra la grafía más usada en los alojamientos.</p>
+ *
+ * <p>Se construye desde la BD al arrancar y lo mantiene AlojamientoServiceImpl al crear
+ * o eliminar alojamientos.</p>
+ */
+@Slf4j
+@Component
+public class IndiceCiudades {
+
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+
+    private final AlojamientoRepository alojamientoRepo;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Nodo raiz = new Nodo();
+    private final Map<String, Ciudad> ciudades = new HashMap<>();
+
+    public IndiceCiudades(AlojamientoRepository alojamientoRepo) {
+        this.alojamientoRepo = alojamientoRepo;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        long t0 = System.nanoTime();
+        List<ConteoCiudad> conteos = alojamientoRepo.contarActivosPorCiudad();
+        lock.writeLock().lock();
+        try {
+            raiz.hijos.clear();
+            ciudades.clear();
+            for (ConteoCiudad c : conteos) sumarSinCandado(c.ciudad(), (int) c.total());
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Índice de ciudades construido: {} ciudades, {} ms",
+                ciudades.size(), (System.nanoTime() - t0) / 1_000_000);
+    }
+
+    /** Un alojamiento activo más en la ciudad. */
+    public void sumar(String ciudad) {
+        lock.writeLock().lock();
+        try {
+            sumarSinCandado(ciudad, 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Un alojamiento activo menos en la ciudad; al llegar a cero deja de sugerirse. */
+    public void restar(String ciudad) {
+        String clave = clave(ciudad);
+        lock.writeLock().lock();
+        try {
+            Ciudad c = ciudades.get(clave);
+            if (c == null) return;
+            c.grafias.computeIfPresent(ciudad.trim(), (k, n) -> n > 1 ? n - 1 : null);
+            if (--c.total > 0) return;
+            ciudades.remove(clave);
+            for (String inicio : inicios(clave)) quitar(raiz, inicio, 0, c);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Hasta {@code limite} ciudades con alguna palabra que empieza por {@code prefijo}
+     * (sin importar tildes ni mayúsculas), de la que más alojamientos tiene a la que menos.
+     * Con el prefijo vacío, las ciudades con más alojamientos.
+     */
+    public List<Sugerencia> sugerir(String prefijo, int limite) {
+        String clave = clave(prefijo);
+        lock.readLock().lock();
+        try {
+            Nodo nodo = raiz;
+            for (int i = 0; i < clave.length() && nodo != null; i++) {
+                nodo = nodo.hijos.get(clave.charAt(i));
+            }
+            if (nodo == null) return List.of();
+
+            // Una ciudad puede colgar varias veces del subárbol (una por palabra)
+            Set<Ciudad> encontradas = new LinkedHashSet<>();
+            Deque<Nodo> pendientes = new ArrayDeque<>();
+            pendientes.push(nodo);
+            while (!pendientes.isEmpty()) {
+                Nodo n = pendientes.pop();
+                encontradas.addAll(n.ciudades);
+                n.hijos.values().forEach(pendientes::push);
+            }
+            return encontradas.stream()
+                    .map(c -> new Sugerencia(c.nombre(), c.total))
+                    .sorted(Comparator.comparingInt(Sugerencia::alojamientos).reversed()
+                            .thenComparing(Sugerencia::ciudad))
+                    .limit(limite)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int tamano() {
+        lock.readLock().lock();
+        try {
+            return ciudades.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void sumarSinCandado(String ciudad, int cantidad) {
+        String clave = clave(ciudad);
+        if (clave.isEmpty() || cantidad <= 0) return;
+        Ciudad c = ciudades.get(clave);
+        if (c == null) {
+            c = new Ciudad();
+            ciudades.put(clave, c);
+            for (String inicio : inicios(clave)) insertar(inicio, c);
+        }
+        c.grafias.merge(ciudad.trim(), cantidad, Integer::sum);
+        c.total += cantidad;
+    }
+
+    private void insertar(String clave, Ciudad ciudad) {
+        Nodo nodo = raiz;
+        for (int i = 0; i < clave.length(); i++) {
+            nodo = nodo.hijos.computeIfAbsent(clave.charAt(i), k -> new Nodo());
+        }
+        nodo.ciudades.add(ciudad);
+    }
+
+    // Devuelve si el nodo quedó vacío, para podarlo desde el padre
+    private boolean quitar(Nodo nodo, String clave, int i, Ciudad ciudad) {
+        if (i == clave.length()) {
+            nodo.ciudades.remove(ciudad);
+        } else {
+            Nodo hijo = nodo.hijos.get(clave.charAt(i));
+            if (hijo != null && quitar(hijo, clave, i + 1, ciudad)) nodo.hijos.remove(clave.charAt(i));
+        }
+        return nodo.ciudades.isEmpty() && nodo.hijos.isEmpty();
+    }
+
+    static String clave(String texto) {
+        return ESPACIOS.matcher(TextoPlano.plegar(texto).trim()).replaceAll(" ");
+    }
+
+    // "santa marta" -> ["santa marta", "marta"]
+    private static List<String> inicios(String clave) {
+        List<String> inicios = new ArrayList<>();
+        inicios.add(clave);
+        for (int i = clave.indexOf(' '); i >= 0; i = clave.indexOf(' ', i + 1)) {
+            inicios.add(clave.substring(i + 1));
+        }
+        return inicios;
+    }
+
+    private static final class Nodo {
+        final Map<Character, Nodo> hijos = new HashMap<>(4);
+        // Ciudades cuya clave (o una de sus palabras) termina aquí; casi siempre 0 o 1
+        final List<Ciudad> ciudades = new ArrayList<>(1);
+    }
+
+    private static final class Ciudad {
+        // Grafía original -> alojamientos que la usan ("Bogotá", "Bogota", "BOGOTÁ"...)
+        final Map<String, Integer> grafias = new HashMap<>(2);
+        int total;
+
+        String nombre() {
+            return grafias.entrySet().stream()
+                    .max(Map.Entry.<String, Integer>comparingByValue()
+                            .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+                    .map(Map.Entry::getKey)
+                    .orElse("");
+        }
+    }
+
+    public record Sugerencia(String ciudad, int alojamientos) {
+    }
+}
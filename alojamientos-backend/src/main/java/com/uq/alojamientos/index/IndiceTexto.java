@@ -0,0 +1,193 @@
+package com.uq.alojamientos.index;
+
+import com.uq.alojamientos.repository.AlojamientoRepository;
+import com.uq.alojamientos.repository.projection.TextoAlojamiento;
+import com.uq.alojamientos.util.TextoPlano;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido en memoria para buscar alojamientos activos por texto libre: para cada
+ * término, los alojamientos que lo contienen y cuántas veces. Indexa título, ciudad,
+ * servicios y descripción, con más peso en los primeros (BM25F simplificado: la frecuencia
+ * de un término es la suma ponderada de sus apariciones en cada campo).
+ *
+ * <p>Los términos se normalizan con {@link TextoPlano}: "Medellín", "MEDELLIN" y
+ * "medellin" son el mismo, igual que "piscinas" y "piscina". Las búsquedas devuelven los
+ * que contienen alguno de los términos, ordenados por puntuación BM25.</p>
+ *
+ * <p>Se construye desde la BD al arrancar y lo mantiene AlojamientoServiceImpl al crear
+ * o eliminar alojamientos.</p>
+ */
+@Slf4j
+@Component
+public class IndiceTexto {
+
+    // Parámetros habituales de BM25: saturación de la frecuencia y normalización por longitud
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final int PESO_TITULO = 3;
+    private static final int PESO_CIUDAD = 2;
+    private static final int PESO_SERVICIOS = 2;
+    private static final int PESO_DESCRIPCION = 1;
+
+    private final AlojamientoRepository alojamientoRepo;
+    private final CatalogoServicios catalogo;
+    private final int maxCoincidencias;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // término -> (id de alojamiento -> frecuencia ponderada)
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private final Map<Long, Documento> documentos = new HashMap<>();
+    private long longitudTotal;
+
+    public IndiceTexto(
+            AlojamientoRepository alojamientoRepo,
+            CatalogoServicios catalogo,
+            @Value("${app.texto.max-coincidencias:2000}") int maxCoincidencias
+    ) {
+        this.alojamientoRepo = alojamientoRepo;
+        this.catalogo = catalogo;
+        this.maxCoincidencias = maxCoincidencias;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        long t0 = System.nanoTime();
+        List<TextoAlojamiento> textos = alojamientoRepo.findTextosActivos();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documentos.clear();
+            longitudTotal = 0;
+            for (TextoAlojamiento t : textos) {
+                agregarSinCandado(t.id(), t.titulo(), t.descripcion(), t.ciudad(), t.serviciosMask());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Índice de texto construido: {} alojamientos, {} términos, {} ms",
+                textos.size(), postings.size(), (System.nanoTime() - t0) / 1_000_000);
+    }
+
+    /** Agrega o reemplaza un alojamiento. */
+    public void agregar(Long id, String titulo, String descripcion, String ciudad, long serviciosMask) {
+        if (id == null) return;
+        lock.writeLock().lock();
+        try {
+            quitarSinCandado(id);
+            agregarSinCandado(id, titulo, descripcion, ciudad, serviciosMask);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void quitar(Long id) {
+        lock.writeLock().lock();
+        try {
+            quitarSinCandado(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Alojamientos que contienen alguno de los términos de la consulta, de mayor a menor
+     * puntuación (a igual puntuación, por id), como mucho {@code app.texto.max-coincidencias}.
+     * Vacío si la consulta no tiene términos indexables.
+     */
+    public List<Coincidencia> buscar(String consulta) {
+        // Un término repetido en la consulta no cuenta más
+        LinkedHashSet<String> terminos = new LinkedHashSet<>(TextoPlano.terminos(consulta));
+        if (terminos.isEmpty()) return List.of();
+
+        Map<Long, double[]> puntuaciones = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int n = documentos.size();
+            if (n == 0) return List.of();
+            double longitudMedia = (double) longitudTotal / n;
+
+            for (String termino : terminos) {
+                Map<Long, Integer> lista = postings.get(termino);
+                if (lista == null) continue;
+                double idf = Math.log(1 + (n - lista.size() + 0.5) / (lista.size() + 0.5));
+                lista.forEach((id, tf) -> {
+                    double norma = K1 * (1 - B + B * documentos.get(id).longitud() / longitudMedia);
+                    puntuaciones.computeIfAbsent(id, k -> new double[1])[0] += idf * tf * (K1 + 1) / (tf + norma);
+                });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Coincidencia> resultado = new ArrayList<>(puntuaciones.size());
+        puntuaciones.forEach((id, p) -> resultado.add(new Coincidencia(id, p[0])));
+        resultado.sort(Comparator.comparingDouble(Coincidencia::puntuacion).reversed()
+                .thenComparing(Coincidencia::id));
+        return resultado.size() > maxCoincidencias ? resultado.subList(0, maxCoincidencias) : resultado;
+    }
+
+    public int tamano() {
+        lock.readLock().lock();
+        try {
+            return documentos.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void agregarSinCandado(Long id, String titulo, String descripcion, String ciudad, long serviciosMask) {
+        Map<String, Integer> frecuencias = new HashMap<>();
+        contar(frecuencias, titulo, PESO_TITULO);
+        contar(frecuencias, ciudad, PESO_CIUDAD);
+        contar(frecuencias, String.join(" ", catalogo.lista(serviciosMask)), PESO_SERVICIOS);
+        contar(frecuencias, descripcion, PESO_DESCRIPCION);
+        if (frecuencias.isEmpty()) return;
+
+        int longitud = 0;
+        for (Map.Entry<String, Integer> e : frecuencias.entrySet()) {
+            postings.computeIfAbsent(e.getKey(), k -> new HashMap<>()).put(id, e.getValue());
+            longitud += e.getValue();
+        }
+        documentos.put(id, new Documento(frecuencias.keySet().toArray(String[]::new), longitud));
+        longitudTotal += longitud;
+    }
+
+    private void quitarSinCandado(Long id) {
+        Documento doc = documentos.remove(id);
+        if (doc == null) return;
+        for (String termino : doc.terminos()) {
+            postings.computeIfPresent(termino, (k, lista) -> {
+                lista.remove(id);
+                return lista.isEmpty() ? null : lista;
+            });
+        }
+        longitudTotal -= doc.longitud();
+    }
+
+    private static void contar(Map<String, Integer> frecuencias, String texto, int peso) {
+        for (String termino : TextoPlano.terminos(texto)) {
+            frecuencias.merge(termino, peso, Integer::sum);
+        }
+    }
+
+    // Términos distintos (para poder quitarlo de cada lista) y longitud ponderada
+    private record Documento(String[] terminos, int longitud) {
+    }
+
+    public record Coincidencia(Long id, double puntuacion) {
+    }
+}
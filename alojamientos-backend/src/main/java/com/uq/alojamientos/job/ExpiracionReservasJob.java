@@ -0,0 +1,179 @@
+package com.uq.alojamientos.job;
+
+import com.uq.alojamientos.cache.BusquedaCache;
+import com.uq.alojamientos.domain.Reserva;
+import com.uq.alojamientos.index.DisponibilidadIndex;
+import com.uq.alojamientos.reporte.OcupacionDiaria;
+import com.uq.alojamientos.repository.ReservaRepository;
+import com.uq.alojamientos.repository.projection.HoldPendiente;
+import com.uq.alojamientos.util.CandadoEstriado;
+import com.uq.alojamientos.util.RuedaTemporal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Vence las reservas PENDIENTE que no se confirman dentro del plazo
+ * ({@code app.reservas.hold-minutos}). Con 0 (por defecto) no hay plazo: las reservas nuevas
+ * no vencen, porque el flujo de reserva todavía no tiene paso de confirmación o pago.
+ *
+ * <p>Los plazos viven en una {@link RuedaTemporal} en memoria (reconstruida desde la BD
+ * al arrancar), así que cada tick solo toca lo que vence en ese segundo. Lo vencido se
+ * pasa a EXPIRADA con UPDATEs por lotes, condicionados a que la reserva siga PENDIENTE
+ * (una confirmación concurrente gana), y sus noches se liberan en el índice de
+ * disponibilidad con los candados de esos alojamientos tomados, para no pisar una
+ * reserva nueva que entre justo después.</p>
+ */
+@Slf4j
+@Component
+public class ExpiracionReservasJob {
+
+    static final int LOTE = 500;
+    private static final Duration REINTENTO = Duration.ofSeconds(30);
+
+    private final ReservaRepository reservaRepo;
+    private final DisponibilidadIndex disponibilidad;
+    private final CandadoEstriado candadosAlojamiento;
+    private final TransactionTemplate transaccion;
+    private final BusquedaCache busquedaCache;
+    private final OcupacionDiaria ocupacion;
+    private final Duration plazo; // null: sin plazo
+    private final RuedaTemporal<HoldPendiente> rueda;
+    // Lo que está en la rueda y sigue vigente; confirmar/cancelar lo descarta
+    private final Map<Long, HoldPendiente> programados = new ConcurrentHashMap<>();
+
+    public ExpiracionReservasJob(
+            ReservaRepository reservaRepo,
+            DisponibilidadIndex disponibilidad,
+            CandadoEstriado candadosAlojamiento,
+            TransactionTemplate transaccion,
+            BusquedaCache busquedaCache,
+            OcupacionDiaria ocupacion,
+            @Value("${app.reservas.hold-minutos:0}") long holdMinutos,
+            @Value("${app.reservas.expiracion-tick-ms:1000}") long tickMillis
+    ) {
+        this.reservaRepo = reservaRepo;
+        this.disponibilidad = disponibilidad;
+        this.candadosAlojamiento = candadosAlojamiento;
+        this.transaccion = transaccion;
+        this.busquedaCache = busquedaCache;
+        this.ocupacion = ocupacion;
+        this.plazo = holdMinutos > 0 ? Duration.ofMinutes(holdMinutos) : null;
+        this.rueda = new RuedaTemporal<>(tickMillis, System.currentTimeMillis());
+    }
+
+    /**
+     * Vencimiento para una reserva creada en {@code ahora} (a segundos: así se guarda en BD),
+     * o null si no hay plazo.
+     */
+    public LocalDateTime vencimientoDesde(LocalDateTime ahora) {
+        if (plazo == null) return null;
+        return ahora.plus(plazo).truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    /** Programa el vencimiento de una reserva PENDIENTE ya guardada. */
+    public void programar(Reserva r) {
+        if (r.getHoldExpiraEn() == null) return;
+        programar(new HoldPendiente(r.getId(), r.getAlojamiento().getId(),
+                r.getCheckIn(), r.getCheckOut(), r.getHoldExpiraEn()));
+    }
+
+    /** La reserva dejó de estar pendiente (confirmada o cancelada): no hay nada que vencer. */
+    public void descartar(Long reservaId) {
+        programados.remove(reservaId);
+    }
+
+    public int pendientes() {
+        return programados.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alArrancar() {
+        try {
+            // Sin plazo configurado, las pendientes sin vencimiento siguen así; las que ya tenían
+            // uno (de cuando sí había plazo) vencen igual
+            Integer sinPlazo = plazo == null ? 0 : transaccion.execute(tx ->
+                    reservaRepo.asignarPlazoAPendientesSinPlazo(vencimientoDesde(LocalDateTime.now())));
+            List<HoldPendiente> holds = reservaRepo.findHoldsPendientes();
+            holds.forEach(this::programar);
+            log.info("Rueda de expiración cargada: {} reservas pendientes ({} sin plazo previo)",
+                    holds.size(), sinPlazo);
+        } catch (RuntimeException ex) {
+            log.warn("No se pudieron cargar las reservas pendientes; no vencerán hasta reiniciar", ex);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.reservas.expiracion-tick-ms:1000}")
+    public void tick() {
+        tick(System.currentTimeMillis());
+    }
+
+    /** Avanza la rueda y vence lo que toque; devuelve cuántas reservas pasaron a EXPIRADA. */
+    int tick(long ahoraMillis) {
+        List<HoldPendiente> vencidos = rueda.avanzar(ahoraMillis).stream()
+                .filter(h -> programados.remove(h.id(), h))
+                .toList();
+        int expiradas = 0;
+        for (int i = 0; i < vencidos.size(); i += LOTE) {
+            expiradas += expirarLote(vencidos.subList(i, Math.min(i + LOTE, vencidos.size())));
+        }
+        if (expiradas > 0) log.info("{} reservas pendientes expiradas", expiradas);
+        return expiradas;
+    }
+
+    private int expirarLote(List<HoldPendiente> lote) {
+        List<Long> ids = lote.stream().map(HoldPendiente::id).toList();
+        Set<Long> alojamientos = lote.stream().map(HoldPendiente::alojamientoId).collect(Collectors.toSet());
+        try {
+            return candadosAlojamiento.ejecutarTodos(alojamientos, () -> {
+                LocalDateTime ahora = LocalDateTime.now();
+                List<Long> expiradas = transaccion.execute(tx -> {
+                    // Solo lo que vence esta transacción se descuenta de ocupacion_diaria;
+                    // findIdsExpiradas incluye además lo que venció otra instancia
+                    List<Long> vencibles = reservaRepo.bloquearVencibles(ids, ahora);
+                    reservaRepo.expirarHolds(ids, ahora);
+                    if (!vencibles.isEmpty()) ocupacion.expiradas(reservaRepo.findOcupaciones(vencibles));
+                    return reservaRepo.findIdsExpiradas(ids);
+                });
+                Set<Long> liberar = new HashSet<>(expiradas);
+                for (HoldPendiente h : lote) {
+                    if (liberar.contains(h.id())) {
+                        disponibilidad.liberar(h.alojamientoId(), h.checkIn(), h.checkOut());
+                        // sin ciudad a mano: basta con las búsquedas que solapan esas fechas
+                        busquedaCache.invalidarReserva(null, h.checkIn(), h.checkOut());
+                    }
+                }
+                return liberar.size();
+            });
+        } catch (RuntimeException ex) {
+            log.warn("No se pudo expirar un lote de {} reservas; se reintenta en {} s",
+                    lote.size(), REINTENTO.toSeconds(), ex);
+            long reintento = System.currentTimeMillis() + REINTENTO.toMillis();
+            for (HoldPendiente h : lote) {
+                if (programados.putIfAbsent(h.id(), h) == null) rueda.programar(h, reintento);
+            }
+            return 0;
+        }
+    }
+
+    private void programar(HoldPendiente h) {
+        if (programados.putIfAbsent(h.id(), h) != null) return;
+        long vence = h.holdExpiraEn().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        rueda.programar(h, vence);
+    }
+}
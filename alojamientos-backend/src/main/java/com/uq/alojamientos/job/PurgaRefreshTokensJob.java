@@ -0,0 +1,51 @@
+package com.uq.alojamientos.job;
+
+import com.uq.alojamientos.repository.RefreshTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+/**
+ * Borra los refresh tokens expirados (ya no sirven, ni para detectar reutilización) en
+ * lotes de {@code app.security.refresh-purga-lote} filas, cada uno en su transacción para no
+ * bloquear la tabla.
+ */
+@Slf4j
+@Component
+public class PurgaRefreshTokensJob {
+
+    private final RefreshTokenRepository repo;
+    private final TransactionTemplate transaccion;
+    private final int lote;
+
+    public PurgaRefreshTokensJob(
+            RefreshTokenRepository repo,
+            TransactionTemplate transaccion,
+            @Value("${app.security.refresh-purga-lote:5000}") int lote
+    ) {
+        if (lote <= 0) throw new IllegalArgumentException("El lote debe ser positivo");
+        this.repo = repo;
+        this.transaccion = transaccion;
+        this.lote = lote;
+    }
+
+    @Scheduled(cron = "${app.security.refresh-purga-cron:0 30 4 * * *}")
+    public long purgar() {
+        long t0 = System.nanoTime();
+        LocalDateTime limite = LocalDateTime.now();
+        long total = 0;
+        int borrados;
+        do {
+            Integer n = transaccion.execute(tx -> repo.purgarExpirados(limite, lote));
+            borrados = n != null ? n : 0;
+            total += borrados;
+        } while (borrados == lote);
+
+        log.info("Purgados {} refresh tokens expirados en {} ms", total, (System.nanoTime() - t0) / 1_000_000);
+        return total;
+    }
+}
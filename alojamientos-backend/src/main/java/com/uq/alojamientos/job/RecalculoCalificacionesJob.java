@@ -0,0 +1,38 @@
+package com.uq.alojamientos.job;
+
+import com.uq.alojamientos.cache.DetalleAlojamientoCache;
+import com.uq.alojamientos.repository.AlojamientoRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Red de seguridad de los agregados de calificación: los recalcula desde la tabla
+ * comentarios (borrados manuales, cargas masivas, etc.). Corre de madrugada y
+ * también puede lanzarlo un administrador.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RecalculoCalificacionesJob {
+
+    private final AlojamientoRepository alojamientoRepo;
+    private final DetalleAlojamientoCache detalleCache;
+
+    @Scheduled(cron = "${app.calificaciones.recalculo-cron:0 45 3 * * *}")
+    @Transactional
+    public int recalcular() {
+        long t0 = System.nanoTime();
+        int corregidos = alojamientoRepo.recalcularCalificaciones();
+        long ms = (System.nanoTime() - t0) / 1_000_000;
+        if (corregidos > 0) {
+            log.warn("Agregados de calificación desviados en {} alojamientos; corregidos en {} ms", corregidos, ms);
+            detalleCache.invalidarTodo(); // el UPDATE no dice qué filas tocó
+        } else {
+            log.info("Agregados de calificación al día ({} ms)", ms);
+        }
+        return corregidos;
+    }
+}
@@ -0,0 +1,46 @@
+package com.uq.alojamientos.mapper;
+
+import com.uq.alojamientos.domain.Alojamiento;
+import com.uq.alojamientos.dto.AlojamientoDTO;
+import com.uq.alojamientos.index.CatalogoServicios;
+import com.uq.alojamientos.repository.projection.TarjetaAlojamiento;
+import org.mapstruct.InjectionStrategy;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+// Los servicios se traducen máscara <-> códigos con el catálogo en memoria
+@Mapper(config = MapStructConfig.class, uses = CatalogoServicios.class,
+        injectionStrategy = InjectionStrategy.CONSTRUCTOR)
+public interface AlojamientoMapper {
+
+    @Mapping(target = "anfitrionId", source = "anfitrion.id")
+    @Mapping(target = "servicios", source = "serviciosMask", qualifiedByName = "serviciosDeMascara")
+    @Mapping(target = "totalCalificaciones", source = "calificacionTotal")
+    @Mapping(target = "distanciaKm", ignore = true)
+    AlojamientoDTO toDTO(Alojamiento entity);
+
+    // Listados: la tarjeta no trae descripción (queda a null; el detalle la tiene)
+    @Mapping(target = "descripcion", ignore = true)
+    @Mapping(target = "servicios", source = "serviciosMask", qualifiedByName = "serviciosDeMascara")
+    @Mapping(target = "totalCalificaciones", source = "calificacionTotal")
+    @Mapping(target = "distanciaKm", ignore = true)
+    AlojamientoDTO tarjetaToDTO(TarjetaAlojamiento tarjeta);
+
+    // anfitrión, estado, auditoría y calificaciones los asigna el servicio
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "anfitrion", ignore = true)
+    @Mapping(target = "serviciosCsv", ignore = true)
+    @Mapping(target = "serviciosMask", source = "servicios", qualifiedByName = "mascaraDeServicios")
+    @Mapping(target = "estado", ignore = true)
+    @Mapping(target = "imagenes", ignore = true)
+    @Mapping(target = "calificacionTotal", ignore = true)
+    @Mapping(target = "calificacionSuma", ignore = true)
+    @Mapping(target = "calificacion1", ignore = true)
+    @Mapping(target = "calificacion2", ignore = true)
+    @Mapping(target = "calificacion3", ignore = true)
+    @Mapping(target = "calificacion4", ignore = true)
+    @Mapping(target = "calificacion5", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    Alojamiento toEntity(AlojamientoDTO dto);
+}
@@ -0,0 +1,27 @@
+package com.uq.alojamientos.mapper;
+
+import com.uq.alojamientos.domain.Comentario;
+import com.uq.alojamientos.dto.ComentarioDTO;
+import com.uq.alojamientos.repository.projection.FilaComentario;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(config = MapStructConfig.class)
+public interface ComentarioMapper {
+
+    @Mapping(target = "reservaId", source = "reserva.id")
+    @Mapping(target = "alojamientoId", source = "alojamiento.id")
+    @Mapping(target = "usuarioId", source = "usuario.id")
+    ComentarioDTO toDTO(Comentario entity);
+
+    ComentarioDTO filaToDTO(FilaComentario fila);
+
+    // relaciones las asigna el servicio; respuesta y fecha no vienen del cliente
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "reserva", ignore = true)
+    @Mapping(target = "alojamiento", ignore = true)
+    @Mapping(target = "usuario", ignore = true)
+    @Mapping(target = "respuestaAnfitrion", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    Comentario toEntity(ComentarioDTO dto);
+}
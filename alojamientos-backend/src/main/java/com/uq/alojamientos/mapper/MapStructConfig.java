@@ -0,0 +1,18 @@
+package com.uq.alojamientos.mapper;
+
+import org.mapstruct.Builder;
+import org.mapstruct.MapperConfig;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Configuración común de los mappers generados en compilación.
+ * Se desactiva el builder de Lombok para que MapStruct use los setters de las
+ * entidades y se exige mapear todo destino.
+ */
+@MapperConfig(
+        componentModel = "spring",
+        builder = @Builder(disableBuilder = true),
+        unmappedTargetPolicy = ReportingPolicy.ERROR
+)
+public interface MapStructConfig {
+}
@@ -0,0 +1,26 @@
+package com.uq.alojamientos.mapper;
+
+import com.uq.alojamientos.domain.Reserva;
+import com.uq.alojamientos.dto.ReservaDTO;
+import com.uq.alojamientos.repository.projection.FilaReserva;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(config = MapStructConfig.class)
+public interface ReservaMapper {
+
+    @Mapping(target = "alojamientoId", source = "alojamiento.id")
+    @Mapping(target = "usuarioId", source = "usuario.id")
+    ReservaDTO toDTO(Reserva entity);
+
+    ReservaDTO filaToDTO(FilaReserva fila);
+
+    // relaciones, estado, total y plazo los asigna el servicio
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "alojamiento", ignore = true)
+    @Mapping(target = "usuario", ignore = true)
+    @Mapping(target = "estado", ignore = true)
+    @Mapping(target = "total", ignore = true)
+    @Mapping(target = "holdExpiraEn", ignore = true)
+    Reserva toEntity(ReservaDTO dto);
+}
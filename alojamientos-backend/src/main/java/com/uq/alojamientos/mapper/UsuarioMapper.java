@@ -0,0 +1,21 @@
+package com.uq.alojamientos.mapper;
+
+import com.uq.alojamientos.domain.Usuario;
+import com.uq.alojamientos.dto.UsuarioDTO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(config = MapStructConfig.class)
+public interface UsuarioMapper {
+
+    // Nunca se devuelve la contraseña
+    @Mapping(target = "password", ignore = true)
+    UsuarioDTO toDTO(Usuario entity);
+
+    // hash, rol y estado los asigna el servicio
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "passwordHash", ignore = true)
+    @Mapping(target = "rol", ignore = true)
+    @Mapping(target = "activo", ignore = true)
+    Usuario toEntity(UsuarioDTO dto);
+}
@@ -0,0 +1,141 @@
+package com.uq.alojamientos.metricas;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cuenta y cronometra las sentencias SQL que ejecuta Hibernate (las avisa
+ * {@link EscuchaConsultasHibernate}): en total, en el timer {@value #CONSULTAS}, y por
+ * petición, en un acumulador por hilo que abre y cierra {@link MetricasPeticionFilter}.
+ * {@link DetectorNMasUno} le pasa además el texto de cada SELECT para contar repeticiones.
+ *
+ * <p>Hibernate crea el listener y el inspector por reflexión, fuera de Spring; por eso el
+ * timer y el acumulador son estáticos y este bean solo registra el timer al arrancar. El
+ * acumulador es un objeto por hilo que se reutiliza entre peticiones: medir no reserva
+ * memoria.</p>
+ */
+@Component
+public class ConsultasSql {
+
+    public static final String CONSULTAS = "alojamientos.db.consultas";
+
+    private static final ThreadLocal<Peticion> PETICION = ThreadLocal.withInitial(Peticion::new);
+
+    // Null hasta que arranca el contexto (o en tests sin Spring): solo se acumula por petición
+    private static volatile Timer consultas;
+
+    public ConsultasSql(MeterRegistry registry) {
+        consultas = Timer.builder(CONSULTAS)
+                .description("Sentencias SQL ejecutadas por Hibernate (un lote JDBC cuenta como una)")
+                .register(registry);
+    }
+
+    static void registrar(long nanos) {
+        Timer t = consultas;
+        if (t != null) t.record(nanos, TimeUnit.NANOSECONDS);
+        Peticion p = PETICION.get();
+        if (p.activa) {
+            p.consultas++;
+            p.nanos += nanos;
+        }
+    }
+
+    static void select(String sql) {
+        Peticion p = PETICION.get();
+        if (p.activa) p.repetida(sql);
+    }
+
+    /** Acumulador de la petición en curso en este hilo (inactivo fuera de una petición). */
+    public static Peticion peticion() {
+        return PETICION.get();
+    }
+
+    /**
+     * Sentencias, tiempo en BD y la SELECT más repetida desde {@link #iniciar()}; solo lo
+     * usa su propio hilo.
+     */
+    public static final class Peticion {
+
+        // Tabla abierta de SELECT distintas por texto; si se llena, las nuevas no se cuentan
+        private static final int HUECOS = 64;
+
+        private final String[] sentencias = new String[HUECOS];
+        private final int[] repeticiones = new int[HUECOS];
+        private int distintas;
+
+        private boolean activa;
+        private long inicio;
+        private int consultas;
+        private long nanos;
+        private String masRepetida;
+        private int maxRepeticiones;
+
+        public void iniciar() {
+            activa = true;
+            inicio = System.nanoTime();
+            consultas = 0;
+            nanos = 0;
+            masRepetida = null;
+            maxRepeticiones = 0;
+            if (distintas > 0) {
+                Arrays.fill(sentencias, null);
+                Arrays.fill(repeticiones, 0);
+                distintas = 0;
+            }
+        }
+
+        public void terminar() {
+            activa = false;
+        }
+
+        public boolean activa() {
+            return activa;
+        }
+
+        public int consultas() {
+            return consultas;
+        }
+
+        public long nanos() {
+            return nanos;
+        }
+
+        /** Desde {@link #iniciar()} hasta ahora. */
+        public long nanosTranscurridos() {
+            return System.nanoTime() - inicio;
+        }
+
+        /** SELECT ejecutada más veces en la petición (null si ninguna). */
+        public String masRepetida() {
+            return masRepetida;
+        }
+
+        public int maxRepeticiones() {
+            return maxRepeticiones;
+        }
+
+        private void repetida(String sql) {
+            // Hibernate reutiliza el mismo String para cada cargador: equals suele ser ==
+            int i = sql.hashCode() & (HUECOS - 1);
+            for (int n = 0; n < HUECOS; n++, i = (i + 1) & (HUECOS - 1)) {
+                String s = sentencias[i];
+                if (s == null) {
+                    if (distintas == HUECOS - 1) return;
+                    sentencias[i] = sql;
+                    distintas++;
+                } else if (!s.equals(sql)) {
+                    continue;
+                }
+                if (++repeticiones[i] > maxRepeticiones) {
+                    maxRepeticiones = repeticiones[i];
+                    masRepetida = sentencias[i];
+                }
+                return;
+            }
+        }
+    }
+}
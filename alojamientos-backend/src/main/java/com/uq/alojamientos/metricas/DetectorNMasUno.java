@@ -0,0 +1,20 @@
+package com.uq.alojamientos.metricas;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Inspector de sentencias de Hibernate que pasa cada SELECT a {@link ConsultasSql} para
+ * contar cuántas veces se repite el mismo texto en una petición: la misma SELECT por id
+ * repetida N veces es la huella de un N+1 (p. ej. {@code Reserva.alojamiento} perezoso
+ * recorrido al mapear una lista). No modifica la sentencia.
+ *
+ * <p>Se activa con {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}.</p>
+ */
+public class DetectorNMasUno implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        if (sql.regionMatches(true, 0, "select", 0, 6)) ConsultasSql.select(sql);
+        return sql;
+    }
+}
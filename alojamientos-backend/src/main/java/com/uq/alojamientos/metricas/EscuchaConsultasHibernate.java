@@ -0,0 +1,34 @@
+package com.uq.alojamientos.metricas;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Listener de sesión de Hibernate que pasa a {@link ConsultasSql} la duración de cada
+ * sentencia y de cada lote JDBC. Se activa con
+ * {@code spring.jpa.properties.hibernate.session.events.auto}; Hibernate crea uno por sesión
+ * y lo usa desde un solo hilo.
+ */
+public class EscuchaConsultasHibernate extends BaseSessionEventListener {
+
+    private long inicio;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        inicio = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        ConsultasSql.registrar(System.nanoTime() - inicio);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        inicio = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        ConsultasSql.registrar(System.nanoTime() - inicio);
+    }
+}
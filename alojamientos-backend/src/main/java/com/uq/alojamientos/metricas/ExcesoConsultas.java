@@ -0,0 +1,40 @@
+package com.uq.alojamientos.metricas;
+
+/**
+ * Una petición que superó su presupuesto de sentencias SQL o repitió una misma SELECT
+ * hasta el umbral de N+1. Lo publica {@link MetricasPeticionFilter} como evento de Spring.
+ *
+ * @param handler     método de controlador ({@code Clase.metodo}) o null si no llegó a uno
+ * @param sentencia   SELECT más repetida, si alcanzó el umbral de N+1; si no, null
+ */
+public record ExcesoConsultas(
+        String metodo,
+        String uri,
+        String handler,
+        int consultas,
+        int presupuesto,
+        long nanosBd,
+        String sentencia,
+        int repeticiones
+) {
+
+    public boolean excedePresupuesto() {
+        return consultas > presupuesto;
+    }
+
+    public boolean posibleNMasUno() {
+        return sentencia != null;
+    }
+
+    public String descripcion() {
+        StringBuilder sb = new StringBuilder()
+                .append(metodo).append(' ').append(uri)
+                .append(handler != null ? " (" + handler + ")" : "")
+                .append(": ").append(consultas).append(" consultas (presupuesto ").append(presupuesto)
+                .append("), ").append(nanosBd / 1_000_000).append(" ms en BD");
+        if (sentencia != null) {
+            sb.append("; posible N+1, repetida ").append(repeticiones).append(" veces: ").append(sentencia);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,90 @@
+package com.uq.alojamientos.metricas;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.event.AbstractAuthenticationFailureEvent;
+import org.springframework.security.authentication.event.AuthenticationFailureBadCredentialsEvent;
+import org.springframework.security.authentication.event.AuthenticationFailureDisabledEvent;
+import org.springframework.security.authentication.event.AuthenticationFailureLockedEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Contadores de negocio: resultado de cada intento de reserva y fallos de autenticación.
+ *
+ * <p>Todos los contadores se registran al arrancar (una serie por etiqueta, pocas y fijas),
+ * así que contar en la petición es un incremento sin buscar en el registro ni reservar
+ * memoria.</p>
+ */
+@Component
+public class MetricasNegocio {
+
+    public static final String RESERVAS = "alojamientos.reservas";
+    public static final String FALLOS_AUTH = "alojamientos.auth.fallos";
+
+    public enum ResultadoReserva {
+        CREADA, SOLAPAMIENTO, CAPACIDAD_EXCEDIDA
+    }
+
+    public enum MotivoFalloAuth {
+        /** Login con email o clave incorrectos. */
+        CREDENCIALES,
+        /** Login o token de un usuario desactivado. */
+        USUARIO_INACTIVO,
+        /** Bearer con firma inválida, mal formado o expirado. */
+        TOKEN_INVALIDO,
+        /** Refresh token inexistente, expirado o de un usuario desactivado. */
+        REFRESH_INVALIDO,
+        /** Refresh token ya rotado presentado otra vez: se revocó su familia. */
+        REFRESH_REUTILIZADO,
+        OTRO
+    }
+
+    private final Map<ResultadoReserva, Counter> reservas = new EnumMap<>(ResultadoReserva.class);
+    private final Map<MotivoFalloAuth, Counter> fallosAuth = new EnumMap<>(MotivoFalloAuth.class);
+
+    public MetricasNegocio(MeterRegistry registry) {
+        for (ResultadoReserva r : ResultadoReserva.values()) {
+            reservas.put(r, Counter.builder(RESERVAS)
+                    .description("Intentos de reserva por resultado")
+                    .tag("resultado", etiqueta(r))
+                    .register(registry));
+        }
+        for (MotivoFalloAuth m : MotivoFalloAuth.values()) {
+            fallosAuth.put(m, Counter.builder(FALLOS_AUTH)
+                    .description("Autenticaciones rechazadas (login y bearer) por motivo")
+                    .tag("motivo", etiqueta(m))
+                    .register(registry));
+        }
+    }
+
+    public void reserva(ResultadoReserva resultado) {
+        reservas.get(resultado).increment();
+    }
+
+    public void falloAuth(MotivoFalloAuth motivo) {
+        fallosAuth.get(motivo).increment();
+    }
+
+    /** Fallos del login: los publica el AuthenticationManager de Spring Security. */
+    @EventListener
+    public void alFallarLogin(AbstractAuthenticationFailureEvent evento) {
+        falloAuth(motivo(evento));
+    }
+
+    static MotivoFalloAuth motivo(AbstractAuthenticationFailureEvent evento) {
+        // El proveedor oculta "usuario no existe" como credenciales incorrectas
+        if (evento instanceof AuthenticationFailureBadCredentialsEvent) return MotivoFalloAuth.CREDENCIALES;
+        if (evento instanceof AuthenticationFailureDisabledEvent
+                || evento instanceof AuthenticationFailureLockedEvent) return MotivoFalloAuth.USUARIO_INACTIVO;
+        return MotivoFalloAuth.OTRO;
+    }
+
+    private static String etiqueta(Enum<?> valor) {
+        return valor.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,138 @@
+package com.uq.alojamientos.metricas;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Abre el acumulador de {@link ConsultasSql} al empezar cada petición y al terminar
+ * registra cuántas sentencias SQL hizo y cuánto tiempo pasó en la BD, como histogramas
+ * (para ver p. ej. un N+1 como una cola larga en {@value #CONSULTAS_PETICION}).
+ *
+ * <p>Si la petición supera su {@link PresupuestoConsultas} (o el general,
+ * {@code app.metricas.presupuesto-consultas}) o repite una misma SELECT
+ * {@code app.metricas.umbral-n-mas-uno} veces, lo deja en el log con la sentencia, lo
+ * cuenta en {@value #EXCESOS} y publica un {@link ExcesoConsultas}.</p>
+ *
+ * <p>Va antes que la cadena de seguridad para contar también lo que haga el login.</p>
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class MetricasPeticionFilter extends OncePerRequestFilter {
+
+    public static final String CONSULTAS_PETICION = "alojamientos.db.peticion.consultas";
+    public static final String TIEMPO_PETICION = "alojamientos.db.peticion.tiempo";
+    public static final String EXCESOS = "alojamientos.db.peticion.excesos";
+
+    private final DistributionSummary consultas;
+    private final Timer tiempo;
+    private final Counter excesosPresupuesto;
+    private final Counter excesosNMasUno;
+    private final ApplicationEventPublisher eventos;
+    private final int presupuestoGeneral;
+    private final int umbralNMasUno;
+    // Presupuesto de cada método de controlador, leído de su anotación una sola vez
+    private final ConcurrentMap<Method, Integer> presupuestos = new ConcurrentHashMap<>();
+
+    public MetricasPeticionFilter(
+            MeterRegistry registry,
+            ApplicationEventPublisher eventos,
+            @Value("${app.metricas.presupuesto-consultas:20}") int presupuestoGeneral,
+            @Value("${app.metricas.umbral-n-mas-uno:5}") int umbralNMasUno
+    ) {
+        if (presupuestoGeneral < 0 || umbralNMasUno < 2) {
+            throw new IllegalArgumentException("Presupuesto negativo o umbral de N+1 menor que 2");
+        }
+        this.consultas = DistributionSummary.builder(CONSULTAS_PETICION)
+                .description("Sentencias SQL por petición HTTP")
+                .baseUnit("consultas")
+                .publishPercentileHistogram()
+                .maximumExpectedValue(1_000.0)
+                .register(registry);
+        this.tiempo = Timer.builder(TIEMPO_PETICION)
+                .description("Tiempo en la BD por petición HTTP")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.excesosPresupuesto = exceso(registry, "presupuesto");
+        this.excesosNMasUno = exceso(registry, "n_mas_uno");
+        this.eventos = eventos;
+        this.presupuestoGeneral = presupuestoGeneral;
+        this.umbralNMasUno = umbralNMasUno;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        ConsultasSql.Peticion peticion = ConsultasSql.peticion();
+        peticion.iniciar();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            peticion.terminar();
+            consultas.record(peticion.consultas());
+            tiempo.record(peticion.nanos(), TimeUnit.NANOSECONDS);
+            revisar(request, peticion);
+        }
+    }
+
+    private void revisar(HttpServletRequest request, ConsultasSql.Peticion peticion) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        HandlerMethod metodo = handler instanceof HandlerMethod h ? h : null;
+        int presupuesto = metodo != null
+                ? presupuestos.computeIfAbsent(metodo.getMethod(), m -> presupuesto(metodo))
+                : presupuestoGeneral;
+        boolean excede = peticion.consultas() > presupuesto;
+        boolean nMasUno = peticion.maxRepeticiones() >= umbralNMasUno;
+        if (!excede && !nMasUno) return;
+
+        if (excede) excesosPresupuesto.increment();
+        if (nMasUno) excesosNMasUno.increment();
+        ExcesoConsultas exceso = new ExcesoConsultas(
+                request.getMethod(),
+                request.getRequestURI(),
+                metodo != null ? metodo.getBeanType().getSimpleName() + "." + metodo.getMethod().getName() : null,
+                peticion.consultas(),
+                presupuesto,
+                peticion.nanos(),
+                nMasUno ? peticion.masRepetida() : null,
+                nMasUno ? peticion.maxRepeticiones() : 0);
+        log.warn("Consultas SQL de más en {}", exceso.descripcion());
+        eventos.publishEvent(exceso);
+    }
+
+    private static Counter exceso(MeterRegistry registry, String tipo) {
+        return Counter.builder(EXCESOS)
+                .description("Peticiones por encima de su presupuesto de consultas o con una SELECT repetida")
+                .tag("tipo", tipo)
+                .register(registry);
+    }
+
+    private int presupuesto(HandlerMethod metodo) {
+        PresupuestoConsultas p = metodo.getMethodAnnotation(PresupuestoConsultas.class);
+        if (p == null) p = AnnotatedElementUtils.findMergedAnnotation(metodo.getBeanType(), PresupuestoConsultas.class);
+        return p != null ? p.value() : presupuestoGeneral;
+    }
+}
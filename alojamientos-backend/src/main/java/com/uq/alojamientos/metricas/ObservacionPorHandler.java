@@ -0,0 +1,43 @@
+package com.uq.alojamientos.metricas;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Añade a {@code http.server.requests} la etiqueta {@code handler} con el método de
+ * controlador que atendió la petición ({@code AlojamientoController.disponibles}), para
+ * tener el histograma de latencia por método aunque dos métodos compartan URI.
+ *
+ * <p>La etiqueta de cada método se calcula una vez y se guarda; las peticiones que no
+ * llegan a un controlador (404, rechazadas por seguridad) llevan {@code handler=ninguno}.</p>
+ */
+@Component
+public class ObservacionPorHandler extends DefaultServerRequestObservationConvention {
+
+    private static final KeyValue NINGUNO = KeyValue.of("handler", "ninguno");
+
+    private final ConcurrentMap<Method, KeyValue> etiquetas = new ConcurrentHashMap<>();
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        return super.getLowCardinalityKeyValues(context).and(handler(context));
+    }
+
+    private KeyValue handler(ServerRequestObservationContext context) {
+        if (context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE)
+                instanceof HandlerMethod h) {
+            return etiquetas.computeIfAbsent(h.getMethod(), m ->
+                    KeyValue.of("handler", m.getDeclaringClass().getSimpleName() + "." + m.getName()));
+        }
+        return NINGUNO;
+    }
+}
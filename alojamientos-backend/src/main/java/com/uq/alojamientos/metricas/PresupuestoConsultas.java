@@ -0,0 +1,26 @@
+package com.uq.alojamientos.metricas;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Máximo de sentencias SQL que debería hacer una petición a este endpoint (en un método de
+ * controlador, o en la clase para todos sus métodos). Sin anotación rige
+ * {@code app.metricas.presupuesto-consultas}. Cuenta todo lo de la petición, también lo que
+ * consulte la seguridad (p. ej. la relectura periódica de usuarios inactivos), así que
+ * conviene dejar una de margen.
+ *
+ * <p>Pasarse no corta la petición: {@link MetricasPeticionFilter} lo anota en el log y en
+ * la métrica de excesos y publica un {@link ExcesoConsultas}, con el que la extensión de
+ * tests hace fallar la prueba.</p>
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface PresupuestoConsultas {
+
+    int value();
+}
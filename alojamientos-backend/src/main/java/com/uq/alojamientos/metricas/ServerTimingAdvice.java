@@ -0,0 +1,56 @@
+package com.uq.alojamientos.metricas;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Locale;
+
+/**
+ * Añade la cabecera {@code Server-Timing} a las respuestas con cuerpo (las de los
+ * controladores y las de error): sentencias y tiempo en la BD y tiempo total hasta escribir
+ * el cuerpo, p. ej. {@code db;dur=4.21;desc="7 consultas", app;dur=12.80}. Las DevTools del
+ * navegador la muestran en la pestaña de red.
+ *
+ * <p>Se escribe justo antes del cuerpo, cuando la respuesta aún no se ha enviado; lo que se
+ * consulte después (p. ej. una carga perezosa al serializar) ya no entra.
+ * Se desactiva con {@code app.metricas.server-timing=false}.</p>
+ */
+@ControllerAdvice
+public class ServerTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String CABECERA = "Server-Timing";
+
+    private final boolean activo;
+
+    public ServerTimingAdvice(@Value("${app.metricas.server-timing:true}") boolean activo) {
+        this.activo = activo;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return activo;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body,
+                                  MethodParameter returnType,
+                                  MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request,
+                                  ServerHttpResponse response) {
+        ConsultasSql.Peticion p = ConsultasSql.peticion();
+        if (p.activa()) response.getHeaders().set(CABECERA, valor(p));
+        return body;
+    }
+
+    static String valor(ConsultasSql.Peticion p) {
+        return String.format(Locale.ROOT, "db;dur=%.2f;desc=\"%d consultas\", app;dur=%.2f",
+                p.nanos() / 1e6, p.consultas(), p.nanosTranscurridos() / 1e6);
+    }
+}
@@ -0,0 +1,139 @@
+package com.uq.alojamientos.reporte;
+
+import com.uq.alojamientos.domain.Reserva;
+import com.uq.alojamientos.repository.projection.OcupacionMes;
+import com.uq.alojamientos.repository.projection.ReservaOcupacion;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Tabla {@code ocupacion_diaria}: por alojamiento y noche, cuántas están reservadas, sus
+ * ingresos y cuántas se cancelaron. Se mantiene con sumas y restas en la misma transacción
+ * que cambia la reserva (crear suma, cancelar y expirar restan), así el panel del anfitrión
+ * no recorre {@code reservas}.
+ *
+ * <p>El total de una reserva se reparte entre sus noches truncado a céntimos y la primera se
+ * queda el resto: la suma de las noches es exactamente el total. Las filas de un lote se
+ * escriben en orden de clave para que dos transacciones no se bloqueen en orden cruzado.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OcupacionDiaria {
+
+    static final String UPSERT = """
+        insert into ocupacion_diaria (alojamiento_id, dia, anfitrion_id, noches, ingresos, cancelaciones)
+        values (?, ?, ?, ?, ?, ?)
+        on duplicate key update noches = noches + values(noches),
+                                ingresos = ingresos + values(ingresos),
+                                cancelaciones = cancelaciones + values(cancelaciones)
+        """;
+
+    // Un recorrido de idx_ocupacion_anfitrion_dia más la PK de alojamientos. Las noches de un
+    // alojamiento ELIMINADO desde el día en que se borró no cuentan: ya no suma noches disponibles
+    static final String MENSUAL = """
+        select o.alojamiento_id, year(o.dia) as anio, month(o.dia) as mes,
+               sum(o.noches) as noches, sum(o.ingresos) as ingresos, sum(o.cancelaciones) as cancelaciones
+        from ocupacion_diaria o
+        join alojamientos a on a.id = o.alojamiento_id
+        where o.anfitrion_id = ? and o.dia >= ? and o.dia < ?
+          and (a.estado <> 'ELIMINADO' or o.dia < date(a.updated_at))
+        group by o.alojamiento_id, anio, mes
+        """;
+
+    // La misma carga que V4__ocupacion_diaria.sql, sin las EXPIRADA (estado que llega en V8)
+    static final String RECONSTRUIR = """
+        insert into ocupacion_diaria (alojamiento_id, dia, anfitrion_id, noches, ingresos, cancelaciones)
+        select r.alojamiento_id,
+               r.check_in + interval s.seq day,
+               a.anfitrion_id,
+               sum(r.estado in ('PENDIENTE', 'CONFIRMADA', 'COMPLETADA')),
+               sum(case when r.estado in ('PENDIENTE', 'CONFIRMADA', 'COMPLETADA')
+                        then truncate(coalesce(r.total, 0) / datediff(r.check_out, r.check_in), 2)
+                             + case when s.seq = 0
+                                    then coalesce(r.total, 0) - truncate(coalesce(r.total, 0) / datediff(r.check_out, r.check_in), 2)
+                                         * datediff(r.check_out, r.check_in)
+                                    else 0 end
+                        else 0 end),
+               sum(r.estado = 'CANCELADA')
+        from reservas r
+        join alojamientos a on a.id = r.alojamiento_id
+        join seq_0_to_3652 s on s.seq < datediff(r.check_out, r.check_in)
+        where r.estado <> 'EXPIRADA'
+        group by r.alojamiento_id, r.check_in + interval s.seq day, a.anfitrion_id
+        """;
+
+    private final JdbcTemplate jdbc;
+
+    /** Reserva recién guardada (PENDIENTE): suma sus noches e ingresos. */
+    public void reservada(Reserva r) {
+        aplicar(List.of(new ReservaOcupacion(r.getId(), r.getAlojamiento().getId(),
+                r.getAlojamiento().getAnfitrion().getId(), r.getCheckIn(), r.getCheckOut(), r.getTotal())), 1, 0);
+    }
+
+    /** Reserva activa que pasó a CANCELADA: resta sus noches e ingresos y las cuenta como canceladas. */
+    public void cancelada(ReservaOcupacion r) {
+        aplicar(List.of(r), -1, 1);
+    }
+
+    /** Reservas PENDIENTE que pasaron a EXPIRADA: resta sus noches e ingresos. */
+    public void expiradas(List<ReservaOcupacion> reservas) {
+        aplicar(reservas, -1, 0);
+    }
+
+    /**
+     * Sumas por alojamiento y mes de los alojamientos de un anfitrión, meses [desde, hasta].
+     * De un alojamiento eliminado, solo las noches anteriores al día en que se borró.
+     */
+    public List<OcupacionMes> mensual(Long anfitrionId, YearMonth desde, YearMonth hasta) {
+        return jdbc.query(MENSUAL, (rs, i) -> new OcupacionMes(
+                        rs.getLong("alojamiento_id"),
+                        YearMonth.of(rs.getInt("anio"), rs.getInt("mes")),
+                        rs.getLong("noches"),
+                        rs.getBigDecimal("ingresos"),
+                        rs.getLong("cancelaciones")),
+                anfitrionId, Date.valueOf(desde.atDay(1)), Date.valueOf(hasta.plusMonths(1).atDay(1)));
+    }
+
+    /** Rehace la tabla desde {@code reservas} (tras cargas masivas o si se desvió). Devuelve las filas. */
+    @Transactional
+    public int reconstruir() {
+        long t0 = System.nanoTime();
+        jdbc.update("delete from ocupacion_diaria");
+        int filas = jdbc.update(RECONSTRUIR);
+        log.info("ocupacion_diaria reconstruida: {} filas en {} ms", filas, (System.nanoTime() - t0) / 1_000_000);
+        return filas;
+    }
+
+    private void aplicar(List<ReservaOcupacion> reservas, int signo, int cancelaciones) {
+        List<Object[]> filas = new ArrayList<>();
+        for (ReservaOcupacion r : reservas) {
+            long noches = ChronoUnit.DAYS.between(r.checkIn(), r.checkOut());
+            if (noches <= 0) continue;
+            BigDecimal total = r.total() != null ? r.total() : BigDecimal.ZERO;
+            BigDecimal porNoche = total.divide(BigDecimal.valueOf(noches), 2, RoundingMode.DOWN);
+            BigDecimal primera = total.subtract(porNoche.multiply(BigDecimal.valueOf(noches - 1)));
+            for (int i = 0; i < noches; i++) {
+                BigDecimal ingreso = i == 0 ? primera : porNoche;
+                filas.add(new Object[]{r.alojamientoId(), r.checkIn().plusDays(i), r.anfitrionId(),
+                        signo, signo < 0 ? ingreso.negate() : ingreso, cancelaciones});
+            }
+        }
+        if (filas.isEmpty()) return;
+        filas.sort(Comparator.<Object[], Long>comparing(f -> (Long) f[0]).thenComparing(f -> (LocalDate) f[1]));
+        jdbc.batchUpdate(UPSERT, filas);
+    }
+}
@@ -3,27 +3,168 @@ package com.uq.alojamientos.repository;
 import com.uq.alojamientos.domain.Alojamiento;
 import com.uq.alojamientos.domain.enums.EstadoAlojamiento;
 import com.uq.alojamientos.domain.enums.EstadoReserva;
+import com.uq.alojamientos.repository.projection.CandidatoBusqueda;
+import com.uq.alojamientos.repository.projection.ConteoCiudad;
+import com.uq.alojamientos.repository.projection.PuntoAlojamiento;
+import com.uq.alojamientos.repository.projection.ResumenCalificaciones;
+import com.uq.alojamientos.repository.projection.ServiciosCsv;
+import com.uq.alojamientos.repository.projection.TarjetaAlojamiento;
+import com.uq.alojamientos.repository.projection.TextoAlojamiento;
+import com.uq.alojamientos.repository.projection.VigenciaAlojamiento;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 public interface AlojamientoRepository extends JpaRepository<Alojamiento, Long> {
 
-    Page<Alojamiento> findByEstadoAndCiudadContainingIgnoreCase(
+    boolean existsByIdAndAnfitrionEmail(Long id, String email);
+
+    /** Alojamientos del anfitrión que existieron en algún momento de [desde, hasta). */
+    @Query("""
+      select new com.uq.alojamientos.repository.projection.VigenciaAlojamiento(
+          a.id, a.createdAt, a.estado, a.updatedAt)
+      from Alojamiento a
+      where a.anfitrion.id = :anfitrionId
+        and a.createdAt < :hasta
+        and (a.estado <> com.uq.alojamientos.domain.enums.EstadoAlojamiento.ELIMINADO or a.updatedAt >= :desde)
+      """)
+    List<VigenciaAlojamiento> findVigencias(Long anfitrionId, LocalDateTime desde, LocalDateTime hasta);
+
+    /**
+     * Select de los listados: solo las columnas de {@link TarjetaAlojamiento}, sin hidratar
+     * la entidad (ni la descripción ni el anfitrión, del que basta la FK).
+     */
+    String SELECT_TARJETA = """
+      select new com.uq.alojamientos.repository.projection.TarjetaAlojamiento(
+          a.id, a.anfitrion.id, a.titulo, a.ciudad, a.direccion, a.latitud, a.longitud,
+          a.precioPorNoche, a.capacidadMaxima, a.serviciosMask, a.calificacionTotal, a.calificacionSuma)
+      """;
+
+    @Query(value = SELECT_TARJETA + """
+      from Alojamiento a
+      where a.estado = :estado
+        and lower(a.ciudad) like lower(concat('%', :ciudad, '%'))
+      """, countQuery = """
+      select count(a) from Alojamiento a
+      where a.estado = :estado
+        and lower(a.ciudad) like lower(concat('%', :ciudad, '%'))
+      """)
+    Page<TarjetaAlojamiento> findByEstadoAndCiudadContainingIgnoreCase(
             EstadoAlojamiento estado, String ciudad, Pageable pageable);
 
+    /** Tarjetas de los ids dados (por clave primaria), en cualquier orden. */
+    @Query(SELECT_TARJETA + "from Alojamiento a where a.id in :ids")
+    List<TarjetaAlojamiento> findTarjetasByIdIn(Collection<Long> ids);
+
+    /**
+     * SELECT ... FOR UPDATE sobre la fila del alojamiento: serializa las reservas de ese
+     * alojamiento entre instancias sin bloquear la tabla reservas.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "5000"))
+    @Query("select a from Alojamiento a where a.id = :id")
+    Optional<Alojamiento> findByIdParaReservar(Long id);
+
+    /** Modo cursor: siguiente tramo por id, sin consulta count. */
+    @Query(SELECT_TARJETA + """
+      from Alojamiento a
+      where a.estado = :estado
+        and lower(a.ciudad) like lower(concat('%', :ciudad, '%'))
+        and a.id > :despuesDe
+      order by a.id
+      """)
+    List<TarjetaAlojamiento> findActivosPorCiudadDespuesDe(
+            EstadoAlojamiento estado, String ciudad, long despuesDe, Limit limit);
+
+    /**
+     * Ids de alojamientos activos que cumplen los filtros estáticos (sin disponibilidad),
+     * ordenados por id. La disponibilidad se resuelve después contra el índice en memoria.
+     */
+    @Query("""
+      select a.id from Alojamiento a
+      where a.estado = com.uq.alojamientos.domain.enums.EstadoAlojamiento.ACTIVO
+        and (:ciudad is null or lower(a.ciudad) like lower(concat('%', :ciudad, '%')))
+        and (:precioMin is null or a.precioPorNoche >= :precioMin)
+        and (:precioMax is null or a.precioPorNoche <= :precioMax)
+        and (:capacidad is null or a.capacidadMaxima >= :capacidad)
+        and bitand(a.serviciosMask, :todos) = :todos
+        and (:alguno = 0 or bitand(a.serviciosMask, :alguno) <> 0)
+      order by a.id
+      """)
+    List<Long> buscarCandidatos(
+            String ciudad,
+            BigDecimal precioMin,
+            BigDecimal precioMax,
+            Integer capacidad,
+            long todos,
+            long alguno
+    );
+
+    /** Como {@link #buscarCandidatos}, con el precio de cada uno. */
     @Query("""
-      select a from Alojamiento a
+      select new com.uq.alojamientos.repository.projection.CandidatoBusqueda(a.id, a.precioPorNoche)
+      from Alojamiento a
       where a.estado = com.uq.alojamientos.domain.enums.EstadoAlojamiento.ACTIVO
         and (:ciudad is null or lower(a.ciudad) like lower(concat('%', :ciudad, '%')))
         and (:precioMin is null or a.precioPorNoche >= :precioMin)
         and (:precioMax is null or a.precioPorNoche <= :precioMax)
         and (:capacidad is null or a.capacidadMaxima >= :capacidad)
+        and bitand(a.serviciosMask, :todos) = :todos
+        and (:alguno = 0 or bitand(a.serviciosMask, :alguno) <> 0)
+      order by a.id
+      """)
+    List<CandidatoBusqueda> buscarCandidatosConPrecio(
+            String ciudad,
+            BigDecimal precioMin,
+            BigDecimal precioMax,
+            Integer capacidad,
+            long todos,
+            long alguno
+    );
+
+    @Query("select a.ciudad from Alojamiento a where a.id = :id")
+    Optional<String> findCiudadById(Long id);
+
+    @Query(value = SELECT_TARJETA + """
+      from Alojamiento a
+      where a.estado = com.uq.alojamientos.domain.enums.EstadoAlojamiento.ACTIVO
+        and (:ciudad is null or lower(a.ciudad) like lower(concat('%', :ciudad, '%')))
+        and (:precioMin is null or a.precioPorNoche >= :precioMin)
+        and (:precioMax is null or a.precioPorNoche <= :precioMax)
+        and (:capacidad is null or a.capacidadMaxima >= :capacidad)
+        and bitand(a.serviciosMask, :todos) = :todos
+        and (:alguno = 0 or bitand(a.serviciosMask, :alguno) <> 0)
+        and not exists (
+            select r.id from Reserva r
+            where r.alojamiento = a
+              and r.estado in :estadosActivos
+              and r.checkIn  < :hasta
+              and r.checkOut > :desde
+        )
+      """, countQuery = """
+      select count(a) from Alojamiento a
+      where a.estado = com.uq.alojamientos.domain.enums.EstadoAlojamiento.ACTIVO
+        and (:ciudad is null or lower(a.ciudad) like lower(concat('%', :ciudad, '%')))
+        and (:precioMin is null or a.precioPorNoche >= :precioMin)
+        and (:precioMax is null or a.precioPorNoche <= :precioMax)
+        and (:capacidad is null or a.capacidadMaxima >= :capacidad)
+        and bitand(a.serviciosMask, :todos) = :todos
+        and (:alguno = 0 or bitand(a.serviciosMask, :alguno) <> 0)
         and not exists (
             select r.id from Reserva r
             where r.alojamiento = a
@@ -32,14 +173,151 @@ public interface AlojamientoRepository extends JpaRepository<Alojamiento, Long>
               and r.checkOut > :desde
         )
       """)
-    Page<Alojamiento> buscarDisponibles(
+    Page<TarjetaAlojamiento> buscarDisponibles(
             String ciudad,
             BigDecimal precioMin,
             BigDecimal precioMax,
             Integer capacidad,
+            long todos,
+            long alguno,
             LocalDate desde,
             LocalDate hasta,
             Set<EstadoReserva> estadosActivos,
             Pageable pageable
     );
+
+    @Query("""
+      select new com.uq.alojamientos.repository.projection.PuntoAlojamiento(a.id, a.latitud, a.longitud)
+      from Alojamiento a
+      where a.estado = com.uq.alojamientos.domain.enums.EstadoAlojamiento.ACTIVO
+        and a.latitud is not null and a.longitud is not null
+      """)
+    List<PuntoAlojamiento> findPuntosActivos();
+
+    @Query("""
+      select new com.uq.alojamientos.repository.projection.TextoAlojamiento(
+          a.id, a.titulo, a.descripcion, a.ciudad, a.serviciosMask)
+      from Alojamiento a
+      where a.estado = com.uq.alojamientos.domain.enums.EstadoAlojamiento.ACTIVO
+      """)
+    List<TextoAlojamiento> findTextosActivos();
+
+    @Query("""
+      select new com.uq.alojamientos.repository.projection.ConteoCiudad(a.ciudad, count(a))
+      from Alojamiento a
+      where a.estado = com.uq.alojamientos.domain.enums.EstadoAlojamiento.ACTIVO
+      group by a.ciudad
+      """)
+    List<ConteoCiudad> contarActivosPorCiudad();
+
+    /**
+     * De los ids dados (por clave primaria), los activos que cumplen los filtros.
+     * La disponibilidad solo se comprueba aquí si se pasan fechas.
+     */
+    @Query("""
+      select a.id from Alojamiento a
+      where a.id in :ids
+        and a.estado = com.uq.alojamientos.domain.enums.EstadoAlojamiento.ACTIVO
+        and (:ciudad is null or lower(a.ciudad) like lower(concat('%', :ciudad, '%')))
+        and (:precioMin is null or a.precioPorNoche >= :precioMin)
+        and (:precioMax is null or a.precioPorNoche <= :precioMax)
+        and (:capacidad is null or a.capacidadMaxima >= :capacidad)
+        and bitand(a.serviciosMask, :todos) = :todos
+        and (:alguno = 0 or bitand(a.serviciosMask, :alguno) <> 0)
+        and (:desde is null or not exists (
+            select r.id from Reserva r
+            where r.alojamiento = a
+              and r.estado in :estadosActivos
+              and r.checkIn  < :hasta
+              and r.checkOut > :desde
+        ))
+      """)
+    List<Long> filtrarIds(
+            Collection<Long> ids,
+            String ciudad,
+            BigDecimal precioMin,
+            BigDecimal precioMax,
+            Integer capacidad,
+            long todos,
+            long alguno,
+            LocalDate desde,
+            LocalDate hasta,
+            Set<EstadoReserva> estadosActivos
+    );
+
+    @Query("""
+      select new com.uq.alojamientos.repository.projection.ServiciosCsv(a.id, a.serviciosCsv)
+      from Alojamiento a
+      where a.serviciosCsv is not null
+      """)
+    List<ServiciosCsv> findServiciosCsvPendientes();
+
+    /** Asigna la máscara de servicios ya migrada y descarta el CSV. */
+    @Modifying
+    @Query("""
+      update Alojamiento a set a.serviciosMask = :mascara, a.serviciosCsv = null
+      where a.id in :ids
+      """)
+    int asignarServicios(Collection<Long> ids, long mascara);
+
+    @Query("""
+      select new com.uq.alojamientos.repository.projection.ResumenCalificaciones(
+          a.calificacionTotal, a.calificacionSuma,
+          a.calificacion1, a.calificacion2, a.calificacion3, a.calificacion4, a.calificacion5)
+      from Alojamiento a
+      where a.id = :id
+      """)
+    Optional<ResumenCalificaciones> findResumenCalificaciones(Long id);
+
+    /** Suma una calificación (1..5) a los agregados en una sola sentencia, sin leer la fila antes. */
+    @Modifying
+    @Query("""
+      update Alojamiento a set
+          a.calificacionTotal = a.calificacionTotal + 1,
+          a.calificacionSuma = a.calificacionSuma + :calificacion,
+          a.calificacion1 = a.calificacion1 + case when :calificacion = 1 then 1 else 0 end,
+          a.calificacion2 = a.calificacion2 + case when :calificacion = 2 then 1 else 0 end,
+          a.calificacion3 = a.calificacion3 + case when :calificacion = 3 then 1 else 0 end,
+          a.calificacion4 = a.calificacion4 + case when :calificacion = 4 then 1 else 0 end,
+          a.calificacion5 = a.calificacion5 + case when :calificacion = 5 then 1 else 0 end
+      where a.id = :id
+      """)
+    int registrarCalificacion(Long id, int calificacion);
+
+    /**
+     * Recalcula desde comentarios los agregados de todos los alojamientos en una sola
+     * sentencia (UPDATE multitabla de MariaDB). Solo toca las filas que se habían desviado
+     * y devuelve cuántas corrigió.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+      update alojamientos a
+      left join (
+          select c.alojamiento_id,
+                 count(*)                 as total,
+                 sum(c.calificacion)      as suma,
+                 sum(c.calificacion = 1)  as c1,
+                 sum(c.calificacion = 2)  as c2,
+                 sum(c.calificacion = 3)  as c3,
+                 sum(c.calificacion = 4)  as c4,
+                 sum(c.calificacion = 5)  as c5
+          from comentarios c
+          group by c.alojamiento_id
+      ) s on s.alojamiento_id = a.id
+      set a.calificacion_total = coalesce(s.total, 0),
+          a.calificacion_suma  = coalesce(s.suma, 0),
+          a.calificacion1      = coalesce(s.c1, 0),
+          a.calificacion2      = coalesce(s.c2, 0),
+          a.calificacion3      = coalesce(s.c3, 0),
+          a.calificacion4      = coalesce(s.c4, 0),
+          a.calificacion5      = coalesce(s.c5, 0)
+      where a.calificacion_total <> coalesce(s.total, 0)
+         or a.calificacion_suma  <> coalesce(s.suma, 0)
+         or a.calificacion1      <> coalesce(s.c1, 0)
+         or a.calificacion2      <> coalesce(s.c2, 0)
+         or a.calificacion3      <> coalesce(s.c3, 0)
+         or a.calificacion4      <> coalesce(s.c4, 0)
+         or a.calificacion5      <> coalesce(s.c5, 0)
+      """)
+    int recalcularCalificaciones();
 }
@@ -1,17 +1,40 @@
 package com.uq.alojamientos.repository;
 
 import com.uq.alojamientos.domain.Comentario;
+import com.uq.alojamientos.repository.projection.FilaComentario;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 public interface ComentarioRepository extends JpaRepository<Comentario, Long> {
 
     boolean existsByReservaId(Long reservaId);
 
-    Page<Comentario> findByAlojamientoIdOrderByCreatedAtDesc(Long alojamientoId, Pageable pageable);
+    /** Select de los listados: {@link FilaComentario} sin hidratar la entidad ni sus relaciones. */
+    String SELECT_FILA = """
+        select new com.uq.alojamientos.repository.projection.FilaComentario(
+               c.id, c.reserva.id, c.alojamiento.id, c.usuario.id, c.calificacion,
+               c.texto, c.respuestaAnfitrion, c.createdAt)
+        """;
+
+    @Query(value = SELECT_FILA + """
+        from Comentario c
+        where c.alojamiento.id = :alojamientoId
+        order by c.createdAt desc
+        """, countQuery = "select count(c) from Comentario c where c.alojamiento.id = :alojamientoId")
+    Page<FilaComentario> findByAlojamientoIdOrderByCreatedAtDesc(Long alojamientoId, Pageable pageable);
 
-    @Query("select avg(c.calificacion) from Comentario c where c.alojamiento.id = :alojamientoId")
-    Double promedioPorAlojamiento(Long alojamientoId);
+    /** Modo cursor sobre idx_comentario_aloj_fecha (alojamiento_id, created_at, id). */
+    @Query(SELECT_FILA + """
+        from Comentario c
+        where c.alojamiento.id = :alojamientoId
+          and (c.createdAt < :fecha or (c.createdAt = :fecha and c.id < :id))
+        order by c.createdAt desc, c.id desc
+        """)
+    List<FilaComentario> findByAlojamientoAntesDe(Long alojamientoId, LocalDateTime fecha, long id, Limit limit);
 }
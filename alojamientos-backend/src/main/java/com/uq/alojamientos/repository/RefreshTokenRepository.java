@@ -0,0 +1,29 @@
+package com.uq.alojamientos.repository;
+
+import com.uq.alojamientos.domain.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    @Query("select t from RefreshToken t join fetch t.usuario where t.tokenHash = :tokenHash")
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    /** Marca el token como usado; 0 si otro lo rotó (o revocó) antes. */
+    @Modifying
+    @Query("update RefreshToken t set t.revoked = true where t.id = :id and t.revoked = false")
+    int revocar(Long id);
+
+    @Modifying
+    @Query("update RefreshToken t set t.revoked = true where t.familia = :familia and t.revoked = false")
+    int revocarFamilia(String familia);
+
+    /** Borra hasta {@code lote} tokens expirados antes de {@code limite}; devuelve cuántos. */
+    @Modifying
+    @Query(nativeQuery = true, value = "delete from refresh_tokens where expiry_date < :limite limit :lote")
+    int purgarExpirados(LocalDateTime limite, int lote);
+}
@@ -2,31 +2,184 @@ package com.uq.alojamientos.repository;
 
 import com.uq.alojamientos.domain.Reserva;
 import com.uq.alojamientos.domain.enums.EstadoReserva;
+import com.uq.alojamientos.repository.projection.BloqueoReserva;
+import com.uq.alojamientos.repository.projection.FilaReserva;
+import com.uq.alojamientos.repository.projection.HoldPendiente;
+import com.uq.alojamientos.repository.projection.ReservaOcupacion;
+import com.uq.alojamientos.util.EscritorFilas;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 
 public interface ReservaRepository extends JpaRepository<Reserva, Long> {
 
+    /**
+     * 1 si alguna reserva en {@code estados} del alojamiento se cruza con [desde, hasta).
+     * EXISTS con LIMIT 1 para parar en la primera que encuentre, recorriendo solo
+     * {@code idx_reserva_solapamiento} (alojamiento_id, check_in, check_out, estado).
+     */
+    String SQL_SOLAPAMIENTO = """
+        select exists(
+            select 1 from reservas r
+            where r.alojamiento_id = :alojamientoId
+              and r.check_in  < :hasta
+              and r.check_out > :desde
+              and r.estado in (:estados)
+            limit 1)
+        """;
+
+    @Query(value = SQL_SOLAPAMIENTO, nativeQuery = true)
+    int solapamiento(Long alojamientoId, LocalDate desde, LocalDate hasta, Collection<String> estados);
+
+    default boolean existeSolapamiento(Long alojamientoId,
+                                       LocalDate desde,
+                                       LocalDate hasta,
+                                       Set<EstadoReserva> estadosActivos) {
+        return solapamiento(alojamientoId, desde, hasta,
+                estadosActivos.stream().map(Enum::name).toList()) != 0;
+    }
+
     @Query("""
-        select count(r) > 0 from Reserva r
-        where r.alojamiento.id = :alojamientoId
-          and r.estado in :estadosActivos
-          and r.checkIn  < :hasta
+        select new com.uq.alojamientos.repository.projection.BloqueoReserva(
+               r.alojamiento.id, r.checkIn, r.checkOut)
+        from Reserva r
+        where r.estado in :estadosActivos
           and r.checkOut > :desde
         """)
-    boolean existeSolapamiento(Long alojamientoId,
-                               LocalDate desde,
-                               LocalDate hasta,
-                               Set<EstadoReserva> estadosActivos);
+    List<BloqueoReserva> findBloqueosActivos(LocalDate desde, Set<EstadoReserva> estadosActivos);
+
+    /** Select de los listados: {@link FilaReserva} sin hidratar la entidad ni sus relaciones. */
+    String SELECT_FILA = """
+        select new com.uq.alojamientos.repository.projection.FilaReserva(
+               r.id, r.usuario.id, r.alojamiento.id, r.checkIn, r.checkOut,
+               r.estado, r.huespedes, r.total, r.holdExpiraEn)
+        """;
+
+    @Query(value = SELECT_FILA + "from Reserva r where r.usuario.id = :usuarioId order by r.id desc",
+           countQuery = "select count(r) from Reserva r where r.usuario.id = :usuarioId")
+    Page<FilaReserva> findByUsuario(Long usuarioId, Pageable pageable);
+
+    @Query(value = SELECT_FILA + "from Reserva r where r.alojamiento.id = :alojamientoId order by r.id desc",
+           countQuery = "select count(r) from Reserva r where r.alojamiento.id = :alojamientoId")
+    Page<FilaReserva> findByAlojamiento(Long alojamientoId, Pageable pageable);
+
+    // Modo cursor (idx_reserva_usuario_id / idx_reserva_aloj_id): mismo orden, sin count
+    @Query(SELECT_FILA + "from Reserva r where r.usuario.id = :usuarioId and r.id < :antesDe order by r.id desc")
+    List<FilaReserva> findByUsuarioAntesDe(Long usuarioId, long antesDe, Limit limit);
+
+    @Query(SELECT_FILA + "from Reserva r where r.alojamiento.id = :alojamientoId and r.id < :antesDe order by r.id desc")
+    List<FilaReserva> findByAlojamientoAntesDe(Long alojamientoId, long antesDe, Limit limit);
+
+    // Exportación: todas las filas en streaming (cerrar el Stream, dentro de una transacción)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EscritorFilas.FILAS_POR_FETCH))
+    @Query(SELECT_FILA + "from Reserva r where r.alojamiento.id = :alojamientoId order by r.id")
+    Stream<FilaReserva> streamByAlojamiento(Long alojamientoId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EscritorFilas.FILAS_POR_FETCH))
+    @Query(SELECT_FILA + "from Reserva r where r.alojamiento.anfitrion.id = :anfitrionId order by r.id")
+    Stream<FilaReserva> streamByAnfitrion(Long anfitrionId);
+
+    // ===== Plazo de confirmación de reservas PENDIENTE =====
+
+    @Query("""
+        select new com.uq.alojamientos.repository.projection.HoldPendiente(
+               r.id, r.alojamiento.id, r.checkIn, r.checkOut, r.holdExpiraEn)
+        from Reserva r
+        where r.estado = com.uq.alojamientos.domain.enums.EstadoReserva.PENDIENTE
+          and r.holdExpiraEn is not null
+        """)
+    List<HoldPendiente> findHoldsPendientes();
+
+    /** Reservas PENDIENTE anteriores al plazo (sin vencimiento): reciben uno para no bloquear para siempre. */
+    @Modifying
+    @Query("""
+        update Reserva r set r.holdExpiraEn = :vence
+        where r.estado = com.uq.alojamientos.domain.enums.EstadoReserva.PENDIENTE
+          and r.holdExpiraEn is null
+        """)
+    int asignarPlazoAPendientesSinPlazo(LocalDateTime vence);
 
-    @Query("select r from Reserva r where r.usuario.id = :usuarioId order by r.id desc")
-    Page<Reserva> findByUsuario(Long usuarioId, Pageable pageable);
+    /** Vence en bloque las reservas dadas que sigan PENDIENTE y cuyo plazo ya pasó. */
+    @Modifying
+    @Query("""
+        update Reserva r set r.estado = com.uq.alojamientos.domain.enums.EstadoReserva.EXPIRADA
+        where r.id in :ids
+          and r.estado = com.uq.alojamientos.domain.enums.EstadoReserva.PENDIENTE
+          and r.holdExpiraEn <= :ahora
+        """)
+    int expirarHolds(Collection<Long> ids, LocalDateTime ahora);
+
+    @Query("""
+        select r.id from Reserva r
+        where r.id in :ids
+          and r.estado = com.uq.alojamientos.domain.enums.EstadoReserva.EXPIRADA
+        """)
+    List<Long> findIdsExpiradas(Collection<Long> ids);
+
+    /**
+     * Las que {@link #expirarHolds} va a vencer, bloqueadas hasta el commit: otra instancia
+     * que expire las mismas espera y ya no las ve PENDIENTE (así solo una las descuenta de
+     * {@code ocupacion_diaria}).
+     */
+    @Query(value = """
+        select r.id from reservas r
+        where r.id in (:ids)
+          and r.estado = 'PENDIENTE'
+          and r.hold_expira_en <= :ahora
+        for update
+        """, nativeQuery = true)
+    List<Long> bloquearVencibles(Collection<Long> ids, LocalDateTime ahora);
+
+    @Query("""
+        select new com.uq.alojamientos.repository.projection.ReservaOcupacion(
+               r.id, r.alojamiento.id, r.alojamiento.anfitrion.id, r.checkIn, r.checkOut, r.total)
+        from Reserva r
+        where r.id in :ids
+        """)
+    List<ReservaOcupacion> findOcupaciones(Collection<Long> ids);
 
-    @Query("select r from Reserva r where r.alojamiento.id = :alojamientoId order by r.id desc")
-    Page<Reserva> findByAlojamiento(Long alojamientoId, Pageable pageable);
+    /** Cancela solo si sigue activa (PENDIENTE o CONFIRMADA); 0 si no (ya cancelada, expirada...). */
+    @Modifying
+    @Query("""
+        update Reserva r set r.estado = com.uq.alojamientos.domain.enums.EstadoReserva.CANCELADA,
+                             r.holdExpiraEn = null
+        where r.id = :id
+          and r.estado in (com.uq.alojamientos.domain.enums.EstadoReserva.PENDIENTE,
+                           com.uq.alojamientos.domain.enums.EstadoReserva.CONFIRMADA)
+        """)
+    int cancelarActiva(Long id);
+
+    /** Confirma solo si sigue PENDIENTE y dentro de plazo; 0 si no (expirada, cancelada...). */
+    @Transactional
+    @Modifying
+    @Query("""
+        update Reserva r set r.estado = com.uq.alojamientos.domain.enums.EstadoReserva.CONFIRMADA,
+                             r.holdExpiraEn = null
+        where r.id = :id
+          and r.estado = com.uq.alojamientos.domain.enums.EstadoReserva.PENDIENTE
+          and (r.holdExpiraEn is null or r.holdExpiraEn > :ahora)
+        """)
+    int confirmar(Long id, LocalDateTime ahora);
+
+    /** Si {@code email} es el huésped de la reserva o el anfitrión de su alojamiento. */
+    @Query("""
+        select count(r) > 0 from Reserva r
+        where r.id = :id
+          and (r.usuario.email = :email or r.alojamiento.anfitrion.email = :email)
+        """)
+    boolean esHuespedOAnfitrion(Long id, String email);
 }
@@ -0,0 +1,17 @@
+package com.uq.alojamientos.repository;
+
+import com.uq.alojamientos.domain.Servicio;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface ServicioRepository extends JpaRepository<Servicio, Integer> {
+
+    /**
+     * INSERT explícito: con id asignado, save() haría merge y podría pisar el servicio que
+     * otra instancia acaba de registrar en ese bit en vez de fallar por clave duplicada.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "insert into servicios (bit, codigo) values (:bit, :codigo)")
+    int insertar(int bit, String codigo);
+}
@@ -1,11 +1,39 @@
 package com.uq.alojamientos.repository;
 
 import com.uq.alojamientos.domain.Usuario;
+import com.uq.alojamientos.repository.projection.FilaUsuario;
+import com.uq.alojamientos.util.EscritorFilas;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     Optional<Usuario> findByEmail(String email);
     boolean existsByEmail(String email);
+    boolean existsByIdAndEmail(Long id, String email);
+    Optional<Usuario> findFirstByOrderByIdAsc();
+
+    @Query("select u.email from Usuario u where u.activo = false")
+    List<String> findEmailsInactivos();
+
+    /** Cambia el hash solo si sigue siendo el leído (no pisa un cambio de contraseña concurrente). */
+    @Modifying
+    @Query("update Usuario u set u.passwordHash = :nuevo where u.id = :id and u.passwordHash = :anterior")
+    int actualizarPasswordHash(Long id, String anterior, String nuevo);
+
+    /** Exportación: todos los usuarios en streaming (cerrar el Stream, dentro de una transacción). */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EscritorFilas.FILAS_POR_FETCH))
+    @Query("""
+        select new com.uq.alojamientos.repository.projection.FilaUsuario(
+               u.id, u.nombre, u.email, u.telefono, u.rol, u.fechaNacimiento, u.activo)
+        from Usuario u order by u.id
+        """)
+    Stream<FilaUsuario> streamFilas();
 }
@@ -0,0 +1,9 @@
+package com.uq.alojamientos.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Rango de noches [checkIn, checkOut) que una reserva activa bloquea en un alojamiento.
+ */
+public record BloqueoReserva(Long alojamientoId, LocalDate checkIn, LocalDate checkOut) {
+}
@@ -0,0 +1,10 @@
+package com.uq.alojamientos.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Alojamiento que cumple los filtros estáticos de una búsqueda, con su precio para poder
+ * afinar el rango de precios en memoria (BusquedaCache).
+ */
+public record CandidatoBusqueda(Long id, BigDecimal precioPorNoche) {
+}
@@ -0,0 +1,7 @@
+package com.uq.alojamientos.repository.projection;
+
+/**
+ * Alojamientos activos que usan una grafía de ciudad, para alimentar el índice de ciudades.
+ */
+public record ConteoCiudad(String ciudad, long total) {
+}
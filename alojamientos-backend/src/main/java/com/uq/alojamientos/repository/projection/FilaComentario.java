@@ -0,0 +1,11 @@
+package com.uq.alojamientos.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Comentario en un listado: columnas propias e ids de reserva, alojamiento y usuario,
+ * sin entidad gestionada ni proxies de las relaciones.
+ */
+public record FilaComentario(Long id, Long reservaId, Long alojamientoId, Long usuarioId, Integer calificacion,
+                             String texto, String respuestaAnfitrion, LocalDateTime createdAt) {
+}
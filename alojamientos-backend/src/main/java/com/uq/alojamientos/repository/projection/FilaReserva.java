@@ -0,0 +1,16 @@
+package com.uq.alojamientos.repository.projection;
+
+import com.uq.alojamientos.domain.enums.EstadoReserva;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Reserva en un listado: columnas propias e ids de usuario y alojamiento, sin entidad
+ * gestionada ni proxies de las relaciones.
+ */
+public record FilaReserva(Long id, Long usuarioId, Long alojamientoId, LocalDate checkIn, LocalDate checkOut,
+                          EstadoReserva estado, Integer huespedes, BigDecimal total,
+                          LocalDateTime holdExpiraEn) {
+}
@@ -0,0 +1,12 @@
+package com.uq.alojamientos.repository.projection;
+
+import com.uq.alojamientos.domain.enums.RolUsuario;
+
+import java.time.LocalDate;
+
+/**
+ * Usuario en una exportación: datos de perfil, sin el hash de la contraseña.
+ */
+public record FilaUsuario(Long id, String nombre, String email, String telefono, RolUsuario rol,
+                          LocalDate fechaNacimiento, Boolean activo) {
+}
@@ -0,0 +1,12 @@
+package com.uq.alojamientos.repository.projection;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Reserva PENDIENTE con plazo de confirmación: lo que necesita la rueda de expiración
+ * para vencerla y liberar sus noches en el índice sin volver a leer la fila.
+ */
+public record HoldPendiente(Long id, Long alojamientoId, LocalDate checkIn, LocalDate checkOut,
+                            LocalDateTime holdExpiraEn) {
+}
@@ -0,0 +1,10 @@
+package com.uq.alojamientos.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+/**
+ * Suma de {@code ocupacion_diaria} de un alojamiento en un mes.
+ */
+public record OcupacionMes(Long alojamientoId, YearMonth mes, long noches, BigDecimal ingresos, long cancelaciones) {
+}
@@ -0,0 +1,7 @@
+package com.uq.alojamientos.repository.projection;
+
+/**
+ * Coordenadas de un alojamiento activo, para alimentar el índice geográfico.
+ */
+public record PuntoAlojamiento(Long id, Double latitud, Double longitud) {
+}
@@ -0,0 +1,12 @@
+package com.uq.alojamientos.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Lo que una reserva aporta a {@code ocupacion_diaria}: sus noches en el alojamiento y el
+ * total a repartir entre ellas.
+ */
+public record ReservaOcupacion(Long id, Long alojamientoId, Long anfitrionId, LocalDate checkIn, LocalDate checkOut,
+                               BigDecimal total) {
+}
@@ -0,0 +1,26 @@
+package com.uq.alojamientos.repository.projection;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Agregados de calificación guardados en el alojamiento: total, suma y conteo por estrellas.
+ */
+public record ResumenCalificaciones(int total, long suma, int c1, int c2, int c3, int c4, int c5) {
+
+    /** Promedio redondeado a 1 decimal (0 si no hay calificaciones). */
+    public double promedio() {
+        return total == 0 ? 0.0 : Math.round(suma * 10.0 / total) / 10.0;
+    }
+
+    /** Conteo por estrellas, de 1 a 5. */
+    public Map<Integer, Integer> histograma() {
+        Map<Integer, Integer> h = new LinkedHashMap<>();
+        h.put(1, c1);
+        h.put(2, c2);
+        h.put(3, c3);
+        h.put(4, c4);
+        h.put(5, c5);
+        return h;
+    }
+}
@@ -0,0 +1,7 @@
+package com.uq.alojamientos.repository.projection;
+
+/**
+ * Servicios de un alojamiento en el formato CSV anterior, pendientes de migrar a máscara.
+ */
+public record ServiciosCsv(Long id, String csv) {
+}
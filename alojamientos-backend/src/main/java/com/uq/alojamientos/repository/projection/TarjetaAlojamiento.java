@@ -0,0 +1,29 @@
+package com.uq.alojamientos.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Lo que muestra un alojamiento en un listado: sin descripción (hasta 1000 caracteres),
+ * imágenes ni auditoría, y el anfitrión solo como id (la FK, sin join).
+ */
+public record TarjetaAlojamiento(
+        Long id,
+        Long anfitrionId,
+        String titulo,
+        String ciudad,
+        String direccion,
+        Double latitud,
+        Double longitud,
+        BigDecimal precioPorNoche,
+        Integer capacidadMaxima,
+        long serviciosMask,
+        int calificacionTotal,
+        long calificacionSuma
+) {
+
+    /** Promedio redondeado a 1 decimal (0 si no hay calificaciones), como en Alojamiento. */
+    public double getPromedioCalificacion() {
+        return calificacionTotal == 0 ? 0.0
+                : Math.round(calificacionSuma * 10.0 / calificacionTotal) / 10.0;
+    }
+}
@@ -0,0 +1,7 @@
+package com.uq.alojamientos.repository.projection;
+
+/**
+ * Campos de texto de un alojamiento activo, para alimentar el índice de búsqueda por texto.
+ */
+public record TextoAlojamiento(Long id, String titulo, String descripcion, String ciudad, long serviciosMask) {
+}
@@ -0,0 +1,12 @@
+package com.uq.alojamientos.repository.projection;
+
+import com.uq.alojamientos.domain.enums.EstadoAlojamiento;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cuándo se creó un alojamiento y, si está ELIMINADO, cuándo se borró ({@code updatedAt}: un
+ * alojamiento eliminado ya no se edita).
+ */
+public record VigenciaAlojamiento(Long id, LocalDateTime createdAt, EstadoAlojamiento estado, LocalDateTime updatedAt) {
+}
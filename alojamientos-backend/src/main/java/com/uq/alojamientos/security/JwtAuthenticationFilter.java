@@ -1,6 +1,7 @@
 package com.uq.alojamientos.security;
 
-import io.jsonwebtoken.Claims;
+import com.uq.alojamientos.metricas.MetricasNegocio;
+import com.uq.alojamientos.metricas.MetricasNegocio.MotivoFalloAuth;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,9 +9,10 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -18,13 +20,15 @@ import java.io.IOException;
 
 /**
  * Filtro que valida Authorization: Bearer <token> y pobla SecurityContext.
+ * La autenticación sale solo de los claims del token (email y roles): no consulta la BD.
  */
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final UsuariosInactivos usuariosInactivos;
+    private final MetricasNegocio metricas;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -38,19 +42,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String token = authHeader.substring(7);
         try {
-            if (!jwtService.isTokenValid(token)) {
-                filterChain.doFilter(request, response);
-                return;
-            }
-
-            String subject = jwtService.getSubject(token);
-            if (subject != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                // subject = email (según JwtService.generate)
-                UserDetails userDetails = userDetailsService.loadUserByUsername(subject);
-                UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+            var verificado = jwtService.verificar(token).orElse(null);
+            if (verificado == null) {
+                metricas.falloAuth(MotivoFalloAuth.TOKEN_INVALIDO);
+            } else if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                if (usuariosInactivos.estaInactivo(verificado.email())) {
+                    metricas.falloAuth(MotivoFalloAuth.USUARIO_INACTIVO);
+                } else {
+                    // Principal UserDetails (sin password) para quien lo lea del contexto
+                    UserDetails principal = User.withUsername(verificado.email())
+                            .password("")
+                            .authorities(AuthorityUtils.createAuthorityList(verificado.roles()))
+                            .build();
+                    UsernamePasswordAuthenticationToken authToken =
+                            new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                }
             }
         } catch (Exception ex) {
             // Ignorar errores de autenticación aquí (se devolverá 401/403 si el endpoint lo requiere)
@@ -1,5 +1,9 @@
 package com.uq.alojamientos.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.uq.alojamientos.cache.EstadisticasCache;
 import com.uq.alojamientos.domain.Usuario;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jws;
@@ -8,31 +12,57 @@ import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import javax.crypto.SecretKey;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Servicio JWT compatible con jjwt 0.12.x
+ *
+ * <p>{@link #verificar} es el camino del filtro: verifica la firma una sola vez por
+ * token y guarda el resultado en una caché acotada (clave = SHA-256 del token) hasta
+ * que el token expira.</p>
  */
 @Service
-public class JwtService {
+public class JwtService implements MeterBinder {
+
+    public static final String CACHE_VERIFICADOS = "jwt-verificados";
+
+    private static final String PREFIJO_ROL = "ROLE_";
 
     private final SecretKey key;
     private final long expirationMillis;
+    private final Cache<String, TokenVerificado> verificados;
 
     public JwtService(
             @Value("${app.security.jwt-secret:${app.jwt.secret:change_me}}") String secretHeader,
-            @Value("${app.jwt.expiration-minutes:120}") long expirationMinutes
+            @Value("${app.jwt.expiration-minutes:120}") long expirationMinutes,
+            @Value("${app.jwt.cache-maximo:10000}") long cacheMaximo
     ) {
         byte[] keyBytes = secretHeader.getBytes(StandardCharsets.UTF_8);
         this.key = Keys.hmacShaKeyFor(keyBytes);
         this.expirationMillis = expirationMinutes * 60_000L;
+        this.verificados = Caffeine.newBuilder()
+                .maximumSize(cacheMaximo)
+                .expireAfter(new HastaExpirar())
+                .recordStats()
+                .build();
     }
 
     public String generate(String subject, Map<String, Object> claims) {
@@ -61,6 +91,74 @@ public class JwtService {
         return generate(subject, claims);
     }
 
+    /**
+     * Verifica firma y expiración (una sola vez por token mientras siga en caché) y
+     * devuelve subject y roles. Vacío si el token no es válido.
+     */
+    public Optional<TokenVerificado> verificar(String token) {
+        String clave = hash(token);
+        TokenVerificado enCache = verificados.getIfPresent(clave);
+        if (enCache != null) return Optional.of(enCache);
+
+        Claims claims = getClaims(token);
+        if (claims == null || claims.getSubject() == null || claims.getExpiration() == null) {
+            return Optional.empty();
+        }
+        TokenVerificado verificado = new TokenVerificado(
+                claims.getSubject(), roles(claims.get("roles")), claims.getExpiration().toInstant());
+        verificados.put(clave, verificado);
+        return Optional.of(verificado);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        EstadisticasCache.publicar(registry, CACHE_VERIFICADOS, verificados);
+    }
+
+    /**
+     * Normaliza el claim roles: puede venir como lista (["ROLE_ADMIN"], login) o como
+     * texto ("ADMIN" o "ADMIN,USER", generate(Usuario)). Siempre devuelve con prefijo ROLE_.
+     */
+    static List<String> roles(Object claim) {
+        if (claim == null) return List.of();
+        Stream<?> valores = claim instanceof Collection<?> c
+                ? c.stream()
+                : Arrays.stream(claim.toString().split(","));
+        return valores
+                .map(v -> v.toString().trim())
+                .filter(v -> !v.isEmpty())
+                .map(v -> v.startsWith(PREFIJO_ROL) ? v : PREFIJO_ROL + v)
+                .distinct()
+                .toList();
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /** Cada entrada vive hasta la expiración de su token. */
+    private static final class HastaExpirar implements Expiry<String, TokenVerificado> {
+        @Override
+        public long expireAfterCreate(String clave, TokenVerificado t, long ahoraNanos) {
+            return Math.max(0, Duration.between(Instant.now(), t.expiraEn()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String clave, TokenVerificado t, long ahoraNanos, long restanteNanos) {
+            return restanteNanos;
+        }
+
+        @Override
+        public long expireAfterRead(String clave, TokenVerificado t, long ahoraNanos, long restanteNanos) {
+            return restanteNanos;
+        }
+    }
+
     public Jws<Claims> parse(String token) {
         return Jwts.parser()
                 .verifyWith(key)
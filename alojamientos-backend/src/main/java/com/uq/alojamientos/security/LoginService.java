@@ -0,0 +1,72 @@
+package com.uq.alojamientos.security;
+
+import com.uq.alojamientos.domain.Usuario;
+import com.uq.alojamientos.metricas.MetricasNegocio;
+import com.uq.alojamientos.metricas.MetricasNegocio.MotivoFalloAuth;
+import com.uq.alojamientos.repository.UsuarioRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Login: lee el usuario una sola vez, verifica la contraseña en {@link VerificadorClaves}
+ * y, si el hash tiene un coste distinto de {@code app.security.bcrypt-coste}, lo rehace con
+ * la contraseña en claro que ya se tiene (en segundo plano, sin retrasar la respuesta).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LoginService {
+
+    private final UsuarioRepository usuarioRepository;
+    private final VerificadorClaves verificador;
+    private final TransactionTemplate transaccion;
+    private final MetricasNegocio metricas;
+
+    /**
+     * Completa con el usuario autenticado, o falla con {@link AuthenticationException}
+     * (credenciales o usuario desactivado) o con
+     * {@link java.util.concurrent.RejectedExecutionException} si el pool está saturado.
+     */
+    public CompletableFuture<Usuario> autenticar(String email, String clave) {
+        if (email == null || clave == null) {
+            return CompletableFuture.failedFuture(rechazar(MotivoFalloAuth.CREDENCIALES));
+        }
+        Usuario usuario = usuarioRepository.findByEmail(email).orElse(null);
+        String hash = usuario != null ? usuario.getPasswordHash() : null;
+
+        return verificador.verificar(clave, hash).thenApply(correcta -> {
+            if (!correcta) throw rechazar(MotivoFalloAuth.CREDENCIALES);
+            // Después de la contraseña: sin ella no se revela si la cuenta está desactivada
+            if (!Boolean.TRUE.equals(usuario.getActivo())) throw rechazar(MotivoFalloAuth.USUARIO_INACTIVO);
+            if (verificador.necesitaRehash(hash)) {
+                verificador.enSegundoPlano(() -> rehashear(usuario.getId(), hash, clave));
+            }
+            return usuario;
+        });
+    }
+
+    private void rehashear(Long id, String anterior, String clave) {
+        try {
+            String nuevo = verificador.encriptar(clave);
+            Integer filas = transaccion.execute(tx -> usuarioRepository.actualizarPasswordHash(id, anterior, nuevo));
+            if (filas != null && filas > 0) log.debug("Hash de contraseña del usuario {} rehecho con el coste actual", id);
+        } catch (RuntimeException ex) {
+            // Se reintenta en el próximo login
+            log.warn("No se pudo rehacer el hash de contraseña del usuario {}", id, ex);
+        }
+    }
+
+    private AuthenticationException rechazar(MotivoFalloAuth motivo) {
+        metricas.falloAuth(motivo);
+        return motivo == MotivoFalloAuth.USUARIO_INACTIVO
+                ? new DisabledException("Usuario desactivado")
+                : new BadCredentialsException("Credenciales incorrectas");
+    }
+}
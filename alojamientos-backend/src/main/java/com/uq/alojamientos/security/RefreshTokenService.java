@@ -0,0 +1,139 @@
+package com.uq.alojamientos.security;
+
+import com.uq.alojamientos.domain.RefreshToken;
+import com.uq.alojamientos.domain.Usuario;
+import com.uq.alojamientos.metricas.MetricasNegocio;
+import com.uq.alojamientos.metricas.MetricasNegocio.MotivoFalloAuth;
+import com.uq.alojamientos.repository.RefreshTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Refresh tokens rotatorios: {@code /api/auth/refresh} cambia un refresh token por un
+ * access token nuevo y otro refresh token de la misma familia, y el usado queda revocado.
+ *
+ * <p>En la BD solo se guarda el SHA-256 del token. Presentar un token ya rotado (lo
+ * tiene alguien más, o un cliente reintentó con el viejo) revoca la familia entera: el
+ * ladrón y el dueño tienen que volver a hacer login.</p>
+ *
+ * <p>El UPDATE que marca el token como usado está condicionado a que siga sin revocar, así
+ * que dos rotaciones del mismo token (en esta u otra instancia) no pueden ganar las dos.</p>
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    private static final int BYTES_TOKEN = 32;
+
+    private final SecureRandom aleatorio = new SecureRandom();
+    private final RefreshTokenRepository repo;
+    private final JwtService jwtService;
+    private final TransactionTemplate transaccion;
+    private final MetricasNegocio metricas;
+    private final Duration vigencia;
+
+    public RefreshTokenService(
+            RefreshTokenRepository repo,
+            JwtService jwtService,
+            TransactionTemplate transaccion,
+            MetricasNegocio metricas,
+            @Value("${app.security.refresh-token-minutes:43200}") long minutos
+    ) {
+        this.repo = repo;
+        this.jwtService = jwtService;
+        this.transaccion = transaccion;
+        this.metricas = metricas;
+        this.vigencia = Duration.ofMinutes(minutos);
+    }
+
+    /** Primer refresh token de una familia nueva (login). Devuelve el token en claro. */
+    public String emitir(Usuario usuario) {
+        return transaccion.execute(tx -> emitir(usuario, UUID.randomUUID().toString()));
+    }
+
+    /**
+     * Rota un refresh token. Lanza {@link BadCredentialsException} si no existe, expiró, es
+     * de un usuario desactivado o ya se había usado (en ese caso, con la familia ya revocada).
+     */
+    public Rotacion rotar(String token) {
+        if (token == null || token.isBlank()) throw rechazar(MotivoFalloAuth.REFRESH_INVALIDO);
+        String hash = base64(sha256(token));
+
+        // La revocación de la familia tiene que confirmarse aunque se rechace la petición:
+        // se decide dentro de la transacción y se lanza fuera
+        Intento intento = transaccion.execute(tx -> {
+            RefreshToken t = repo.findByTokenHash(hash).orElse(null);
+            if (t == null || t.isExpired()) return null;
+            if (!Boolean.TRUE.equals(t.getUsuario().getActivo())) {
+                repo.revocarFamilia(t.getFamilia());
+                return null;
+            }
+            // Ya usado según la fila leída, o lo rotó otra petición entre la lectura y el UPDATE
+            if (t.getRevoked() || repo.revocar(t.getId()) == 0) {
+                repo.revocarFamilia(t.getFamilia());
+                return new Intento(t, null);
+            }
+            return new Intento(t, emitir(t.getUsuario(), t.getFamilia()));
+        });
+
+        if (intento == null) throw rechazar(MotivoFalloAuth.REFRESH_INVALIDO);
+        Usuario usuario = intento.token().getUsuario();
+        if (intento.nuevo() == null) {
+            log.warn("Refresh token reutilizado: familia {} del usuario {} revocada",
+                    intento.token().getFamilia(), usuario.getId());
+            throw rechazar(MotivoFalloAuth.REFRESH_REUTILIZADO);
+        }
+        return new Rotacion(usuario, jwtService.generate(usuario), intento.nuevo());
+    }
+
+    // nuevo = refresh token emitido en claro, o null si el presentado ya se había usado
+    private record Intento(RefreshToken token, String nuevo) {
+    }
+
+    /** Resultado de {@link #rotar}: tokens nuevos en claro. */
+    public record Rotacion(Usuario usuario, String accessToken, String refreshToken) {
+    }
+
+    private String emitir(Usuario usuario, String familia) {
+        byte[] bytes = new byte[BYTES_TOKEN];
+        aleatorio.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        repo.save(RefreshToken.builder()
+                .tokenHash(base64(sha256(token)))
+                .familia(familia)
+                .usuario(usuario)
+                .expiryDate(LocalDateTime.now().plus(vigencia))
+                .revoked(false)
+                .build());
+        return token;
+    }
+
+    private BadCredentialsException rechazar(MotivoFalloAuth motivo) {
+        metricas.falloAuth(motivo);
+        return new BadCredentialsException("Refresh token inválido");
+    }
+
+    private static byte[] sha256(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    private static String base64(byte[] digest) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+    }
+}
@@ -0,0 +1,15 @@
+package com.uq.alojamientos.security;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Datos de un access token ya verificado (firma y expiración): lo único que
+ * necesita el filtro para autenticar la petición sin ir a la BD.
+ *
+ * @param email    subject del token
+ * @param roles    autoridades con prefijo ROLE_
+ * @param expiraEn instante de expiración del token
+ */
+public record TokenVerificado(String email, List<String> roles, Instant expiraEn) {
+}
@@ -0,0 +1,41 @@
+package com.uq.alojamientos.security;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.uq.alojamientos.repository.UsuarioRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Conjunto de emails de usuarios desactivados, leído de la BD como mucho una vez por TTL
+ * (se refresca en segundo plano). Permite rechazar tokens aún vigentes de usuarios
+ * desactivados sin consultar la tabla usuarios en cada petición.
+ */
+@Component
+public class UsuariosInactivos {
+
+    private static final String CLAVE = "inactivos";
+
+    private final boolean habilitado;
+    private final LoadingCache<String, Set<String>> cache;
+
+    public UsuariosInactivos(
+            UsuarioRepository usuarioRepo,
+            @Value("${app.security.verificar-usuario-activo:true}") boolean habilitado,
+            @Value("${app.security.inactivos-ttl-segundos:30}") long ttlSegundos
+    ) {
+        this.habilitado = habilitado;
+        // Se sirve el valor anterior mientras se recarga; pasado 2×TTL sin tráfico se vuelve a leer
+        this.cache = Caffeine.newBuilder()
+                .refreshAfterWrite(Duration.ofSeconds(ttlSegundos))
+                .expireAfterWrite(Duration.ofSeconds(ttlSegundos * 2))
+                .build(k -> Set.copyOf(usuarioRepo.findEmailsInactivos()));
+    }
+
+    public boolean estaInactivo(String email) {
+        return habilitado && cache.get(CLAVE).contains(email);
+    }
+}
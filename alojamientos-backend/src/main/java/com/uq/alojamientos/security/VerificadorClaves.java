@@ -0,0 +1,120 @@
+package com.uq.alojamientos.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Verifica contraseñas BCrypt en un pool propio y acotado, fuera de los hilos de Tomcat:
+ * un pico de logins (cada uno cuesta decenas de ms de CPU) no deja sin hilos al resto de
+ * la API.
+ *
+ * <p>Hay {@code app.security.login-hilos} hilos (0 = uno por núcleo; más no aceleran un
+ * trabajo de CPU) y una cola de {@code app.security.login-cola}. Con la cola llena no se
+ * espera: {@link #verificar} devuelve un futuro fallido con {@link RejectedExecutionException}
+ * y el login responde 503 al momento.</p>
+ */
+@Slf4j
+@Component
+public class VerificadorClaves implements MeterBinder, DisposableBean {
+
+    public static final String POOL = "login-bcrypt";
+    public static final String RECHAZOS = "alojamientos.login.rechazos";
+
+    // $2a$10$... / $2b$ / $2y$: el coste son los dos dígitos tras la versión
+    private static final Pattern COSTE_BCRYPT = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$");
+
+    private final PasswordEncoder encoder;
+    private final int coste;
+    private final ThreadPoolExecutor pool;
+    private final AtomicLong rechazos = new AtomicLong();
+    // Para usuarios que no existen: se compara igual contra algo, y tarda lo mismo
+    private final String hashFicticio;
+
+    public VerificadorClaves(
+            PasswordEncoder encoder,
+            @Value("${app.security.bcrypt-coste:10}") int coste,
+            @Value("${app.security.login-hilos:0}") int hilos,
+            @Value("${app.security.login-cola:32}") int cola
+    ) {
+        if (hilos < 0 || cola < 1) {
+            throw new IllegalArgumentException("Hilos de login negativos o cola vacía");
+        }
+        int n = hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors();
+        CustomizableThreadFactory hilosPool = new CustomizableThreadFactory(POOL + "-");
+        hilosPool.setDaemon(true);
+        this.encoder = encoder;
+        this.coste = coste;
+        this.pool = new ThreadPoolExecutor(n, n, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(cola), hilosPool, new ThreadPoolExecutor.AbortPolicy());
+        this.hashFicticio = encoder.encode("contraseña-ficticia");
+    }
+
+    /**
+     * Compara la contraseña con el hash en el pool. Con {@code hash} null (usuario
+     * inexistente) compara contra un hash ficticio y devuelve false.
+     */
+    public CompletableFuture<Boolean> verificar(String clave, String hash) {
+        try {
+            return CompletableFuture.supplyAsync(
+                    () -> encoder.matches(clave, hash != null ? hash : hashFicticio) && hash != null, pool);
+        } catch (RejectedExecutionException ex) {
+            rechazos.incrementAndGet();
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    /** True si el hash es BCrypt con un coste distinto del configurado (o no es BCrypt). */
+    public boolean necesitaRehash(String hash) {
+        Matcher m = COSTE_BCRYPT.matcher(hash);
+        return !m.find() || Integer.parseInt(m.group(1)) != coste;
+    }
+
+    /** Hash con el coste configurado. Bloquea: llamarlo desde una tarea del pool. */
+    public String encriptar(String clave) {
+        return encoder.encode(clave);
+    }
+
+    /**
+     * Encola una tarea secundaria (el rehash tras un login) si hay sitio. Devuelve false si
+     * la cola está llena: se descarta, no vale un 503 de otro usuario.
+     */
+    public boolean enSegundoPlano(Runnable tarea) {
+        try {
+            pool.execute(tarea);
+            return true;
+        } catch (RejectedExecutionException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new ExecutorServiceMetrics(pool, POOL, Tags.empty()).bindTo(registry);
+        FunctionCounter.builder(RECHAZOS, rechazos, AtomicLong::get)
+                .description("Logins rechazados con 503 por tener la cola de verificación llena")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdown();
+    }
+}
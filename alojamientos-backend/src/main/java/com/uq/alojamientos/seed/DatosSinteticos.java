@@ -0,0 +1,286 @@
+package com.uq.alojamientos.seed;
+
+import com.uq.alojamientos.domain.enums.EstadoReserva;
+import com.uq.alojamientos.domain.enums.RolUsuario;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Datos sintéticos con distribuciones parecidas a las reales, generados en streaming: cada
+ * fila se entrega a un {@link Destino} en cuanto se crea, con los padres antes que los hijos
+ * (usuarios, y por cada alojamiento el alojamiento, sus reservas y sus comentarios), así que
+ * la memoria no crece con el volumen.
+ *
+ * <ul>
+ *   <li><b>Ciudades</b>: reparto sesgado (Bogotá y Medellín concentran casi la mitad), con
+ *       coordenadas alrededor del centro y precio mediano propio.</li>
+ *   <li><b>Precios</b>: log-normal alrededor de la mediana de la ciudad por el factor del
+ *       tipo de alojamiento (una finca cuesta más que una habitación).</li>
+ *   <li><b>Reservas</b>: por alojamiento, estancias de 1 a 14 noches (casi siempre cortas)
+ *       sin solaparse, repartidas entre {@code mesesPasados} atrás y {@code mesesFuturos}
+ *       adelante; la popularidad también es log-normal, así que unos pocos alojamientos
+ *       acumulan muchas. Las pasadas quedan COMPLETADA o CANCELADA; las futuras CONFIRMADA
+ *       o CANCELADA.</li>
+ *   <li><b>Comentarios</b>: solo de reservas COMPLETADA, con calificaciones sesgadas hacia
+ *       4 y 5, y los agregados del alojamiento ya calculados.</li>
+ * </ul>
+ *
+ * <p>Con la misma semilla y {@code hoy} genera exactamente lo mismo.</p>
+ */
+public class DatosSinteticos {
+
+    private static final Ciudad[] CIUDADES = {
+            new Ciudad("Bogotá", 4.711, -74.072, 30, 220_000),
+            new Ciudad("Medellín", 6.244, -75.581, 22, 200_000),
+            new Ciudad("Cartagena", 10.391, -75.479, 14, 320_000),
+            new Ciudad("Cali", 3.451, -76.532, 9, 170_000),
+            new Ciudad("Santa Marta", 11.240, -74.199, 8, 250_000),
+            new Ciudad("Barranquilla", 10.964, -74.796, 5, 180_000),
+            new Ciudad("San Andrés", 12.584, -81.700, 3, 380_000),
+            new Ciudad("Bucaramanga", 7.119, -73.122, 3, 150_000),
+            new Ciudad("Pereira", 4.813, -75.696, 2, 160_000),
+            new Ciudad("Manizales", 5.070, -75.514, 2, 150_000),
+            new Ciudad("Armenia", 4.534, -75.681, 2, 150_000),
+            new Ciudad("Villa de Leyva", 5.634, -73.524, 1, 260_000),
+            new Ciudad("Salento", 4.637, -75.570, 1, 210_000),
+            new Ciudad("Guatapé", 6.233, -75.158, 1, 230_000),
+    };
+    private static final int[] PESOS_CIUDADES = acumulados(CIUDADES);
+
+    private static final Tipo[] TIPOS = {
+            new Tipo("Habitación", 1, 2, 0.5),
+            new Tipo("Apartaestudio", 1, 2, 0.8),
+            new Tipo("Loft", 2, 3, 0.9),
+            new Tipo("Apartamento", 2, 6, 1.0),
+            new Tipo("Cabaña", 2, 6, 1.2),
+            new Tipo("Glamping", 2, 2, 1.1),
+            new Tipo("Casa", 4, 10, 1.6),
+            new Tipo("Finca", 6, 16, 2.2),
+    };
+    private static final String[] ADJETIVOS = {
+            "acogedor", "moderno", "luminoso", "amplio", "tranquilo", "céntrico", "rústico",
+            "familiar", "con vista", "con terraza", "junto al parque", "recién remodelado"};
+    private static final String[] FRASES = {
+            "Ideal para descansar después de recorrer la ciudad.",
+            "A pocos minutos de restaurantes, cafés y transporte público.",
+            "Espacios ventilados con mucha luz natural.",
+            "Perfecto para viajes de trabajo o escapadas en pareja.",
+            "Zona segura y silenciosa, cerca de supermercados.",
+            "Con jardín, hamacas y zona de lectura.",
+            "Vista a las montañas desde el balcón.",
+            "Camas cómodas, toallas y ropa de cama incluidas.",
+            "Check-in flexible y atención personalizada.",
+            "Cerca de playas, miradores y senderos ecológicos."};
+    private static final String[] SERVICIOS = {
+            "wifi", "cocina", "tv", "lavadora", "parqueadero", "aire acondicionado",
+            "mascotas", "piscina", "bbq", "jacuzzi"};
+    private static final double[] PROB_SERVICIOS = {0.9, 0.7, 0.6, 0.4, 0.5, 0.3, 0.2, 0.2, 0.15, 0.08};
+    // Calificación 1..5 (pesos acumulados de 5, 7, 13, 30 y 45 %): la mayoría deja 4 o 5
+    private static final int[] PESOS_CALIFICACION = {5, 12, 25, 55, 100};
+    private static final String[] TEXTOS_CALIFICACION = {
+            "No cumplió con lo anunciado.", "Regular, el lugar necesita mantenimiento.",
+            "Bien en general, aunque hay detalles por mejorar.", "Muy buena estadía, lo recomiendo.",
+            "¡Excelente! Todo impecable y el anfitrión muy atento."};
+    private static final String[] NOMBRES = {
+            "Ana", "Luis", "María", "Carlos", "Laura", "Andrés", "Camila", "Juan", "Valentina",
+            "Santiago", "Daniela", "Felipe", "Sofía", "Mateo", "Paula", "Diego"};
+    private static final String[] APELLIDOS = {
+            "Gómez", "Rodríguez", "López", "Martínez", "García", "Hernández", "Ramírez",
+            "Torres", "Díaz", "Moreno", "Rojas", "Vargas", "Castro", "Ortiz"};
+
+    // Una de cada ANFITRIONES_CADA cuentas es de anfitrión
+    private static final int ANFITRIONES_CADA = 10;
+    private static final double NOCHES_MEDIAS = 3.0;
+    private static final int NOCHES_MAX = 14;
+
+    private final Volumenes volumenes;
+    private final IdsIniciales ids;
+    private final long[] bitsServicios;
+    private final LocalDate hoy;
+    private final SplittableRandom rnd;
+
+    /** {@code bitsServicios[i]}: máscara del servicio {@code servicios()[i]} en el catálogo. */
+    public DatosSinteticos(Volumenes volumenes, IdsIniciales ids, long[] bitsServicios, LocalDate hoy, long semilla) {
+        if (volumenes.usuarios() < 2 || volumenes.alojamientos() < 1) {
+            throw new IllegalArgumentException("Hacen falta al menos 2 usuarios (anfitrión y huésped) y 1 alojamiento");
+        }
+        if (bitsServicios.length != SERVICIOS.length) {
+            throw new IllegalArgumentException("Se esperaban " + SERVICIOS.length + " máscaras de servicio");
+        }
+        this.volumenes = volumenes;
+        this.ids = ids;
+        this.bitsServicios = bitsServicios;
+        this.hoy = hoy;
+        this.rnd = new SplittableRandom(semilla);
+    }
+
+    /** Códigos de servicio que usa el generador, en el orden de {@code bitsServicios}. */
+    public static List<String> servicios() {
+        return List.of(SERVICIOS);
+    }
+
+    public void generar(Destino destino) {
+        int anfitriones = Math.max(1, volumenes.usuarios() / ANFITRIONES_CADA);
+        int huespedes = volumenes.usuarios() - anfitriones;
+        for (int i = 0; i < volumenes.usuarios(); i++) {
+            destino.usuario(usuario(ids.usuario() + i, i < anfitriones ? RolUsuario.ANFITRION : RolUsuario.USER));
+        }
+
+        LocalDate inicio = hoy.minusMonths(volumenes.mesesPasados());
+        int dias = (int) (hoy.plusMonths(volumenes.mesesFuturos()).toEpochDay() - inicio.toEpochDay());
+        double reservasMedias = (double) volumenes.reservas() / volumenes.alojamientos();
+        // Fracción de reservas que acabarán COMPLETADA (pasadas y no canceladas), para repartir los comentarios
+        double completadas = 0.85 * volumenes.mesesPasados() / (volumenes.mesesPasados() + volumenes.mesesFuturos());
+        double probComentario = volumenes.reservas() == 0 ? 0
+                : Math.min(1, volumenes.comentarios() / (volumenes.reservas() * completadas));
+
+        long idReserva = ids.reserva();
+        long idComentario = ids.comentario();
+        long reservasRestantes = volumenes.reservas();
+        long comentariosRestantes = volumenes.comentarios();
+        List<NuevaReserva> reservas = new ArrayList<>();
+        List<NuevoComentario> comentarios = new ArrayList<>();
+
+        for (int i = 0; i < volumenes.alojamientos(); i++) {
+            long idAlojamiento = ids.alojamiento() + i;
+            Ciudad ciudad = CIUDADES[elegir(PESOS_CIUDADES)];
+            Tipo tipo = TIPOS[rnd.nextInt(TIPOS.length)];
+            int capacidad = tipo.capacidadMin() + rnd.nextInt(tipo.capacidadMax() - tipo.capacidadMin() + 1);
+            BigDecimal precio = BigDecimal.valueOf(
+                    Math.max(40, Math.round(ciudad.precioMediano() * tipo.factorPrecio() * logNormal(0.35) / 1000)) * 1000L);
+            long anfitrion = ids.usuario() + rnd.nextInt(anfitriones);
+
+            // Reservas del alojamiento: las últimas reciben lo que quede del total
+            int quedan = volumenes.alojamientos() - i;
+            long objetivo = quedan == 1 ? reservasRestantes
+                    : Math.min(reservasRestantes, Math.round(reservasMedias * logNormal(0.8)));
+            double hueco = Math.max(0, dias / Math.max(1.0, objetivo) - NOCHES_MEDIAS);
+            int[] calificaciones = new int[5];
+            reservas.clear();
+            comentarios.clear();
+
+            LocalDate checkIn = inicio.plusDays(rnd.nextInt((int) Math.min(dias, 2 * hueco + 1)));
+            for (long n = 0; n < objetivo; n++) {
+                int noches = Math.min(NOCHES_MAX, 1 + (int) (-Math.log(1 - rnd.nextDouble()) * (NOCHES_MEDIAS - 1)));
+                LocalDate checkOut = checkIn.plusDays(noches);
+                if (checkOut.isAfter(inicio.plusDays(dias))) break;
+
+                long huesped = ids.usuario() + anfitriones + rnd.nextInt(huespedes);
+                EstadoReserva estado = !checkOut.isAfter(hoy)
+                        ? (rnd.nextDouble() < 0.85 ? EstadoReserva.COMPLETADA : EstadoReserva.CANCELADA)
+                        : (rnd.nextDouble() < 0.9 ? EstadoReserva.CONFIRMADA : EstadoReserva.CANCELADA);
+                reservas.add(new NuevaReserva(idReserva, idAlojamiento, huesped, checkIn, checkOut,
+                        1 + rnd.nextInt(capacidad), estado, precio.multiply(BigDecimal.valueOf(noches))));
+
+                if (estado == EstadoReserva.COMPLETADA && comentariosRestantes > 0 && rnd.nextDouble() < probComentario) {
+                    int calificacion = 1 + elegir(PESOS_CALIFICACION);
+                    calificaciones[calificacion - 1]++;
+                    LocalDateTime creado = checkOut.plusDays(rnd.nextInt(10)).atTime(LocalTime.ofSecondOfDay(rnd.nextInt(86_400)));
+                    comentarios.add(new NuevoComentario(idComentario++, idReserva, idAlojamiento, huesped, calificacion,
+                            TEXTOS_CALIFICACION[calificacion - 1],
+                            rnd.nextDouble() < 0.2 ? "¡Gracias por tu visita, vuelve pronto!" : null,
+                            creado.isAfter(hoy.atStartOfDay()) ? hoy.atStartOfDay().minusMinutes(1) : creado));
+                    comentariosRestantes--;
+                }
+                idReserva++;
+                checkIn = checkOut.plusDays(hueco == 0 ? 0 : rnd.nextInt((int) (2 * hueco) + 1));
+            }
+            reservasRestantes -= reservas.size();
+
+            String titulo = tipo.nombre() + " " + ADJETIVOS[rnd.nextInt(ADJETIVOS.length)] + " en " + ciudad.nombre();
+            String descripcion = FRASES[rnd.nextInt(FRASES.length)] + " " + FRASES[rnd.nextInt(FRASES.length)];
+            destino.alojamiento(new NuevoAlojamiento(idAlojamiento, anfitrion, titulo, descripcion, ciudad.nombre(),
+                    "Calle " + (1 + rnd.nextInt(150)) + " #" + (1 + rnd.nextInt(99)) + "-" + (1 + rnd.nextInt(99)),
+                    ciudad.latitud() + rnd.nextGaussian() * 0.03, ciudad.longitud() + rnd.nextGaussian() * 0.03,
+                    precio, capacidad, mascaraServicios(),
+                    inicio.minusDays(rnd.nextInt(365)).atTime(LocalTime.NOON), calificaciones));
+            reservas.forEach(destino::reserva);
+            comentarios.forEach(destino::comentario);
+        }
+    }
+
+    private NuevoUsuario usuario(long id, RolUsuario rol) {
+        String nombre = NOMBRES[rnd.nextInt(NOMBRES.length)] + " " + APELLIDOS[rnd.nextInt(APELLIDOS.length)];
+        return new NuevoUsuario(id, nombre, "seed" + id + "@alojamientos.test",
+                "3" + (100_000_000 + rnd.nextInt(900_000_000)), hoy.minusYears(18 + rnd.nextInt(50)).minusDays(rnd.nextInt(365)),
+                rol);
+    }
+
+    private long mascaraServicios() {
+        long mascara = 0;
+        for (int i = 0; i < SERVICIOS.length; i++) {
+            if (rnd.nextDouble() < PROB_SERVICIOS[i]) mascara |= bitsServicios[i];
+        }
+        return mascara;
+    }
+
+    // Log-normal de media 1
+    private double logNormal(double sigma) {
+        return Math.exp(rnd.nextGaussian() * sigma - sigma * sigma / 2);
+    }
+
+    private int elegir(int[] acumulados) {
+        int r = rnd.nextInt(acumulados[acumulados.length - 1]);
+        for (int i = 0; i < acumulados.length; i++) {
+            if (r < acumulados[i]) return i;
+        }
+        return acumulados.length - 1;
+    }
+
+    private static int[] acumulados(Ciudad[] ciudades) {
+        int[] acumulados = new int[ciudades.length];
+        int suma = 0;
+        for (int i = 0; i < ciudades.length; i++) acumulados[i] = suma += ciudades[i].peso();
+        return acumulados;
+    }
+
+    /** Recibe las filas en orden: un padre siempre antes que sus hijos. */
+    public interface Destino {
+        void usuario(NuevoUsuario u);
+
+        void alojamiento(NuevoAlojamiento a);
+
+        void reserva(NuevaReserva r);
+
+        void comentario(NuevoComentario c);
+    }
+
+    public record Volumenes(int usuarios, int alojamientos, long reservas, long comentarios,
+                            int mesesPasados, int mesesFuturos) {
+    }
+
+    /** Primer id de cada tabla (los siguientes son consecutivos). */
+    public record IdsIniciales(long usuario, long alojamiento, long reserva, long comentario) {
+    }
+
+    public record NuevoUsuario(long id, String nombre, String email, String telefono,
+                               LocalDate fechaNacimiento, RolUsuario rol) {
+    }
+
+    /** {@code calificaciones[i]}: comentarios con calificación {@code i + 1}. */
+    public record NuevoAlojamiento(long id, long anfitrionId, String titulo, String descripcion, String ciudad,
+                                   String direccion, double latitud, double longitud, BigDecimal precioPorNoche,
+                                   int capacidadMaxima, long serviciosMask, LocalDateTime creado,
+                                   int[] calificaciones) {
+    }
+
+    public record NuevaReserva(long id, long alojamientoId, long usuarioId, LocalDate checkIn,
+                               LocalDate checkOut, int huespedes, EstadoReserva estado, BigDecimal total) {
+    }
+
+    public record NuevoComentario(long id, long reservaId, long alojamientoId, long usuarioId, int calificacion,
+                                  String texto, String respuestaAnfitrion, LocalDateTime creado) {
+    }
+
+    private record Ciudad(String nombre, double latitud, double longitud, int peso, int precioMediano) {
+    }
+
+    private record Tipo(String nombre, int capacidadMin, int capacidadMax, double factorPrecio) {
+    }
+}
@@ -0,0 +1,233 @@
+package com.uq.alojamientos.seed;
+
+import com.uq.alojamientos.config.AlineadorSecuencias;
+import com.uq.alojamientos.index.CatalogoServicios;
+import com.uq.alojamientos.reporte.OcupacionDiaria;
+import com.uq.alojamientos.seed.DatosSinteticos.IdsIniciales;
+import com.uq.alojamientos.seed.DatosSinteticos.NuevaReserva;
+import com.uq.alojamientos.seed.DatosSinteticos.NuevoAlojamiento;
+import com.uq.alojamientos.seed.DatosSinteticos.NuevoComentario;
+import com.uq.alojamientos.seed.DatosSinteticos.NuevoUsuario;
+import com.uq.alojamientos.seed.DatosSinteticos.Volumenes;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Carga {@link DatosSinteticos} en la BD con INSERTs por lotes JDBC, sin pasar por JPA
+ * (ni contexto de persistencia ni eventos): memoria constante para cualquier volumen.
+ * Solo añade filas, con ids a partir del máximo de cada tabla, y al terminar adelanta las
+ * secuencias. Informa filas/segundo por tabla durante y al final de la carga.
+ *
+ * <p>Perfil {@code seed} (ver {@code application-seed.yml}): arranca sin servidor web,
+ * genera y termina. Por ejemplo:
+ * {@code java -jar alojamientos-backend.jar --spring.profiles.active=seed
+ * --app.seed.alojamientos=100000 --app.seed.reservas=10000000 --app.seed.comentarios=2000000}.
+ * Todas las cuentas generadas tienen la clave {@code app.seed.clave}.</p>
+ */
+@Slf4j
+@Component
+@Profile("seed")
+public class GeneradorDatos implements ApplicationRunner {
+
+    private static final String INSERT_USUARIO = """
+        insert into usuarios (id, nombre, email, password_hash, telefono, fecha_nacimiento, rol, activo)
+        values (?, ?, ?, ?, ?, ?, ?, 1)
+        """;
+    private static final String INSERT_ALOJAMIENTO = """
+        insert into alojamientos (id, anfitrion_id, titulo, descripcion, ciudad, direccion, latitud, longitud,
+                                  precio_por_noche, capacidad_maxima, servicios_mask, estado, created_at, updated_at,
+                                  calificacion1, calificacion2, calificacion3, calificacion4, calificacion5,
+                                  calificacion_suma, calificacion_total)
+        values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 'ACTIVO', ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+    private static final String INSERT_RESERVA = """
+        insert into reservas (id, alojamiento_id, usuario_id, check_in, check_out, huespedes, estado, total)
+        values (?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+    private static final String INSERT_COMENTARIO = """
+        insert into comentarios (id, reserva_id, alojamiento_id, usuario_id, calificacion, texto,
+                                 respuesta_anfitrion, created_at)
+        values (?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    private static final long PROGRESO_NANOS = 10_000_000_000L;
+
+    private final JdbcTemplate jdbc;
+    private final CatalogoServicios catalogo;
+    private final AlineadorSecuencias secuencias;
+    private final OcupacionDiaria ocupacion;
+    private final PasswordEncoder passwordEncoder;
+    private final ApplicationContext contexto;
+    private final Volumenes volumenes;
+    private final int lote;
+    private final long semilla;
+    private final String clave;
+    private final boolean salir;
+
+    public GeneradorDatos(
+            JdbcTemplate jdbc,
+            CatalogoServicios catalogo,
+            AlineadorSecuencias secuencias,
+            OcupacionDiaria ocupacion,
+            PasswordEncoder passwordEncoder,
+            ApplicationContext contexto,
+            @Value("${app.seed.usuarios:20000}") int usuarios,
+            @Value("${app.seed.alojamientos:100000}") int alojamientos,
+            @Value("${app.seed.reservas:10000000}") long reservas,
+            @Value("${app.seed.comentarios:2000000}") long comentarios,
+            @Value("${app.seed.meses-pasados:24}") int mesesPasados,
+            @Value("${app.seed.meses-futuros:12}") int mesesFuturos,
+            @Value("${app.seed.lote:1000}") int lote,
+            @Value("${app.seed.semilla:42}") long semilla,
+            @Value("${app.seed.clave:Seed1234!}") String clave,
+            @Value("${app.seed.salir:true}") boolean salir
+    ) {
+        if (lote <= 0) throw new IllegalArgumentException("El lote debe ser positivo");
+        this.jdbc = jdbc;
+        this.catalogo = catalogo;
+        this.secuencias = secuencias;
+        this.ocupacion = ocupacion;
+        this.passwordEncoder = passwordEncoder;
+        this.contexto = contexto;
+        this.volumenes = new Volumenes(usuarios, alojamientos, reservas, comentarios, mesesPasados, mesesFuturos);
+        this.lote = lote;
+        this.semilla = semilla;
+        this.clave = clave;
+        this.salir = salir;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Generando datos sintéticos: {}", volumenes);
+        IdsIniciales ids = new IdsIniciales(siguienteId("usuarios"), siguienteId("alojamientos"),
+                siguienteId("reservas"), siguienteId("comentarios"));
+        List<String> servicios = DatosSinteticos.servicios();
+        long[] bits = new long[servicios.size()];
+        for (int i = 0; i < bits.length; i++) bits[i] = catalogo.mascaraRegistrando(List.of(servicios.get(i)));
+
+        Cargador cargador = new Cargador(passwordEncoder.encode(clave));
+        new DatosSinteticos(volumenes, ids, bits, LocalDate.now(), semilla).generar(cargador);
+        cargador.terminar();
+        secuencias.alinear();
+        // Las reservas entran por JDBC, sin pasar por ReservaServiceImpl: el agregado se hace de una vez
+        ocupacion.reconstruir();
+
+        if (salir) System.exit(SpringApplication.exit(contexto));
+    }
+
+    private long siguienteId(String tabla) {
+        Long max = jdbc.queryForObject("select coalesce(max(id), 0) from " + tabla, Long.class);
+        return (max != null ? max : 0) + 1;
+    }
+
+    /** Acumula filas por tabla y las manda en lotes, siempre las tablas padre primero. */
+    private final class Cargador implements DatosSinteticos.Destino {
+
+        private final String passwordHash;
+        private final Tabla usuarios = new Tabla("usuarios", INSERT_USUARIO);
+        private final Tabla alojamientos = new Tabla("alojamientos", INSERT_ALOJAMIENTO);
+        private final Tabla reservas = new Tabla("reservas", INSERT_RESERVA);
+        private final Tabla comentarios = new Tabla("comentarios", INSERT_COMENTARIO);
+        private final List<Tabla> tablas = List.of(usuarios, alojamientos, reservas, comentarios);
+        private final long t0 = System.nanoTime();
+        private long ultimoProgreso = t0;
+
+        Cargador(String passwordHash) {
+            this.passwordHash = passwordHash;
+        }
+
+        @Override
+        public void usuario(NuevoUsuario u) {
+            agregar(usuarios, u.id(), u.nombre(), u.email(), passwordHash, u.telefono(), u.fechaNacimiento(),
+                    u.rol().name());
+        }
+
+        @Override
+        public void alojamiento(NuevoAlojamiento a) {
+            int[] c = a.calificaciones();
+            int total = c[0] + c[1] + c[2] + c[3] + c[4];
+            long suma = c[0] + 2L * c[1] + 3L * c[2] + 4L * c[3] + 5L * c[4];
+            agregar(alojamientos, a.id(), a.anfitrionId(), a.titulo(), a.descripcion(), a.ciudad(), a.direccion(),
+                    a.latitud(), a.longitud(), a.precioPorNoche(), a.capacidadMaxima(), a.serviciosMask(),
+                    a.creado(), a.creado(), c[0], c[1], c[2], c[3], c[4], suma, total);
+        }
+
+        @Override
+        public void reserva(NuevaReserva r) {
+            agregar(reservas, r.id(), r.alojamientoId(), r.usuarioId(), r.checkIn(), r.checkOut(), r.huespedes(),
+                    r.estado().name(), r.total());
+        }
+
+        @Override
+        public void comentario(NuevoComentario c) {
+            agregar(comentarios, c.id(), c.reservaId(), c.alojamientoId(), c.usuarioId(), c.calificacion(),
+                    c.texto(), c.respuestaAnfitrion(), c.creado());
+        }
+
+        private void agregar(Tabla tabla, Object... fila) {
+            tabla.pendientes.add(fila);
+            if (tabla.pendientes.size() < lote) return;
+            // Un hijo puede apuntar a un padre aún pendiente: se vacían los padres antes
+            for (Tabla t : tablas) {
+                t.enviar();
+                if (t == tabla) break;
+            }
+            long ahora = System.nanoTime();
+            if (ahora - ultimoProgreso >= PROGRESO_NANOS) {
+                ultimoProgreso = ahora;
+                tablas.forEach(t -> log.info("  {}", t.resumen(ahora - t0)));
+            }
+        }
+
+        void terminar() {
+            tablas.forEach(Tabla::enviar);
+            long nanos = System.nanoTime() - t0;
+            long filas = tablas.stream().mapToLong(t -> t.insertadas).sum();
+            log.info("Datos sintéticos cargados en {} s:", nanos / 1_000_000_000);
+            tablas.forEach(t -> log.info("  {}", t.resumen(nanos)));
+            log.info("  total: {} filas, {} filas/s", filas, filas * 1_000_000_000L / Math.max(1, nanos));
+        }
+    }
+
+    private final class Tabla {
+
+        final String nombre;
+        final String sql;
+        final List<Object[]> pendientes = new ArrayList<>(lote);
+        long insertadas;
+        // Tiempo dentro de executeBatch: filas/s de la BD, sin contar la generación
+        long nanosBd;
+
+        Tabla(String nombre, String sql) {
+            this.nombre = nombre;
+            this.sql = sql;
+        }
+
+        void enviar() {
+            if (pendientes.isEmpty()) return;
+            long t0 = System.nanoTime();
+            jdbc.batchUpdate(sql, pendientes);
+            nanosBd += System.nanoTime() - t0;
+            insertadas += pendientes.size();
+            pendientes.clear();
+        }
+
+        String resumen(long nanosTotales) {
+            return "%-12s %,12d filas %,10d filas/s (%,d filas/s en la BD)".formatted(nombre, insertadas,
+                    insertadas * 1_000_000_000L / Math.max(1, nanosTotales),
+                    insertadas * 1_000_000_000L / Math.max(1, nanosBd));
+        }
+    }
+}
@@ -1,11 +1,15 @@
 package com.uq.alojamientos.service;
 
+import com.uq.alojamientos.domain.enums.ModoServicios;
 import com.uq.alojamientos.dto.AlojamientoDTO;
+import com.uq.alojamientos.dto.CursorPage;
+import com.uq.alojamientos.dto.SugerenciaCiudadDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 
 public interface AlojamientoService {
 
@@ -15,16 +19,80 @@ public interface AlojamientoService {
 
     Page<AlojamientoDTO> buscarActivosPorCiudad(String ciudad, Pageable pageable);
 
+    // Modo cursor (keyset): sin consulta count, coste constante en páginas profundas
+    CursorPage<AlojamientoDTO> buscarActivosPorCiudad(String ciudad, String cursor, int size);
+
+    CursorPage<AlojamientoDTO> buscarDisponibles(
+            String q,
+            String ciudad,
+            BigDecimal precioMin,
+            BigDecimal precioMax,
+            Integer capacidad,
+            List<String> servicios,
+            ModoServicios modoServicios,
+            LocalDate desde,
+            LocalDate hasta,
+            String cursor,
+            int size
+    );
+
+    /**
+     * Disponibles en las fechas dadas. Si se piden servicios, con {@code TODOS} deben
+     * tenerlos todos y con {@code ALGUNO} al menos uno. Con texto libre {@code q} solo
+     * devuelve los que lo contienen (título, descripción, ciudad o servicios), ordenados
+     * por relevancia en vez de por id.
+     */
     Page<AlojamientoDTO> buscarDisponibles(
+            String q,
             String ciudad,
             BigDecimal precioMin,
             BigDecimal precioMax,
             Integer capacidad,
+            List<String> servicios,
+            ModoServicios modoServicios,
+            LocalDate desde,
+            LocalDate hasta,
+            Pageable pageable
+    );
+
+    /**
+     * Alojamientos a menos de {@code radioKm} del punto, ordenados por distancia.
+     * Las fechas son opcionales; si se indican, solo devuelve los disponibles.
+     */
+    Page<AlojamientoDTO> buscarCercanos(
+            double latitud,
+            double longitud,
+            double radioKm,
+            BigDecimal precioMin,
+            BigDecimal precioMax,
+            Integer capacidad,
             LocalDate desde,
             LocalDate hasta,
             Pageable pageable
     );
 
+    /**
+     * Alojamientos dentro del rectángulo visible del mapa, ordenados por distancia a su centro.
+     */
+    Page<AlojamientoDTO> buscarEnArea(
+            double latMin,
+            double latMax,
+            double lonMin,
+            double lonMax,
+            BigDecimal precioMin,
+            BigDecimal precioMax,
+            Integer capacidad,
+            LocalDate desde,
+            LocalDate hasta,
+            Pageable pageable
+    );
+
+    /**
+     * Ciudades con alojamientos activos que empiezan por {@code prefijo} (o alguna de sus
+     * palabras), sin importar tildes, con cuántos alojamientos tiene cada una.
+     */
+    List<SugerenciaCiudadDTO> sugerirCiudades(String prefijo, int limite);
+
     // 👇 ESTE ES EL MÉTODO QUE NECESITA EL CONTROLADOR
     AlojamientoDTO obtenerPorId(Long id);
 }
@@ -1,12 +1,16 @@
 package com.uq.alojamientos.service;
 
+import com.uq.alojamientos.dto.CalificacionesDTO;
 import com.uq.alojamientos.dto.ComentarioDTO;
+import com.uq.alojamientos.dto.CursorPage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 public interface ComentarioService {
     ComentarioDTO crear(ComentarioDTO dto);
     Page<ComentarioDTO> listarPorAlojamiento(Long alojamientoId, Pageable pageable);
+    CursorPage<ComentarioDTO> listarPorAlojamiento(Long alojamientoId, String cursor, int size);
     Double promedioCalificacion(Long alojamientoId);
+    CalificacionesDTO histogramaCalificaciones(Long alojamientoId);
     void responder(Long comentarioId, String respuesta); // anfitrión
 }
@@ -0,0 +1,20 @@
+package com.uq.alojamientos.service;
+
+import com.uq.alojamientos.util.EscritorFilas.Formato;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Exportaciones completas en streaming. Las comprobaciones van aparte y antes: cuando se
+ * escribe la primera fila la respuesta ya está enviada y no puede cambiar a un 403 o 404.
+ */
+public interface ExportacionService {
+    /** 404 si no existe (admin) o 403 si no es un alojamiento de {@code email}. */
+    void comprobarAlojamiento(Long alojamientoId, String email, boolean admin);
+    /** 404 si no existe (admin) o 403 si {@code anfitrionId} no es el propio usuario. */
+    void comprobarAnfitrion(Long anfitrionId, String email, boolean admin);
+    long reservasPorAlojamiento(Long alojamientoId, Formato formato, OutputStream out) throws IOException;
+    long reservasPorAnfitrion(Long anfitrionId, Formato formato, OutputStream out) throws IOException;
+    long usuarios(Formato formato, OutputStream out) throws IOException;
+}
@@ -0,0 +1,13 @@
+package com.uq.alojamientos.service;
+
+import com.uq.alojamientos.dto.OcupacionMensualDTO;
+
+import java.time.YearMonth;
+import java.util.List;
+
+public interface PanelAnfitrionService {
+    /** 404 si no existe (admin) o 403 si {@code anfitrionId} no es el propio usuario. */
+    void comprobarAnfitrion(Long anfitrionId, String email, boolean admin);
+    /** Un elemento por mes de [desde, hasta], también los meses sin reservas. */
+    List<OcupacionMensualDTO> ocupacionMensual(Long anfitrionId, YearMonth desde, YearMonth hasta);
+}
@@ -1,12 +1,17 @@
 package com.uq.alojamientos.service;
 
+import com.uq.alojamientos.dto.CursorPage;
 import com.uq.alojamientos.dto.ReservaDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 public interface ReservaService {
     ReservaDTO crear(ReservaDTO dto);
+    ReservaDTO confirmar(Long id);
+    void comprobarHuespedOAnfitrion(Long id, String email);
     void cancelar(Long id);
     Page<ReservaDTO> listarPorUsuario(Long usuarioId, Pageable pageable);
     Page<ReservaDTO> listarPorAlojamiento(Long alojamientoId, Pageable pageable);
+    CursorPage<ReservaDTO> listarPorUsuario(Long usuarioId, String cursor, int size);
+    CursorPage<ReservaDTO> listarPorAlojamiento(Long alojamientoId, String cursor, int size);
 }
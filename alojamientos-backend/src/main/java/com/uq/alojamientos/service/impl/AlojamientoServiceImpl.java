@@ -1,32 +1,78 @@
 package com.uq.alojamientos.service.impl;
 
+import com.uq.alojamientos.cache.BusquedaCache;
+import com.uq.alojamientos.cache.DetalleAlojamientoCache;
 import com.uq.alojamientos.domain.Alojamiento;
 import com.uq.alojamientos.domain.Usuario;
 import com.uq.alojamientos.domain.enums.EstadoAlojamiento;
 import com.uq.alojamientos.domain.enums.EstadoReserva;
+import com.uq.alojamientos.domain.enums.ModoServicios;
 import com.uq.alojamientos.dto.AlojamientoDTO;
+import com.uq.alojamientos.dto.CursorPage;
+import com.uq.alojamientos.dto.SugerenciaCiudadDTO;
+import com.uq.alojamientos.index.CatalogoServicios;
+import com.uq.alojamientos.index.DisponibilidadIndex;
+import com.uq.alojamientos.index.GeoIndex;
+import com.uq.alojamientos.index.IndiceCiudades;
+import com.uq.alojamientos.index.IndiceTexto;
+import com.uq.alojamientos.mapper.AlojamientoMapper;
 import com.uq.alojamientos.repository.AlojamientoRepository;
 import com.uq.alojamientos.repository.UsuarioRepository;
+import com.uq.alojamientos.repository.projection.CandidatoBusqueda;
+import com.uq.alojamientos.repository.projection.TarjetaAlojamiento;
 import com.uq.alojamientos.service.AlojamientoService;
+import com.uq.alojamientos.util.CursorCodec;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class AlojamientoServiceImpl implements AlojamientoService {
 
+    private static final Set<EstadoReserva> ESTADOS_ACTIVOS =
+            EnumSet.of(EstadoReserva.PENDIENTE, EstadoReserva.CONFIRMADA);
+    private static final double RADIO_MAXIMO_KM = 200;
+    // Lado máximo del área del mapa (≈ 440 km de latitud, el diámetro del radio máximo):
+    // un área mayor devolvería casi todo el índice para ordenarlo y filtrarlo entero
+    private static final double LADO_MAXIMO_AREA_GRADOS = 4;
+    // Tamaño de los lotes de ids enviados en la cláusula IN
+    private static final int LOTE_IDS = 1000;
+    // Candidatos revisados por consulta en el modo cursor sin índice de disponibilidad
+    private static final int LOTE_CURSOR = 200;
+    private static final int MAX_SUGERENCIAS = 20;
+
     private final AlojamientoRepository repo;
     private final UsuarioRepository usuarioRepo;
-    private final ModelMapper mapper;
+    private final AlojamientoMapper mapper;
+    private final DisponibilidadIndex disponibilidad;
+    private final GeoIndex geo;
+    private final CatalogoServicios catalogoServicios;
+    private final DetalleAlojamientoCache detalleCache;
+    private final BusquedaCache busquedaCache;
+    private final IndiceTexto indiceTexto;
+    private final IndiceCiudades indiceCiudades;
 
     @Override
     public AlojamientoDTO crear(AlojamientoDTO dto) {
@@ -36,16 +82,17 @@ public class AlojamientoServiceImpl implements AlojamientoService {
                         "Anfitrión no encontrado con ID: " + dto.getAnfitrionId()
                 ));
 
-        Alojamiento entity = mapper.map(dto, Alojamiento.class);
+        Alojamiento entity = mapper.toEntity(dto);
         entity.setAnfitrion(anfitrion);
         entity.setEstado(EstadoAlojamiento.ACTIVO);
 
-        // Manejar servicios
-        if (dto.getServicios() != null && !dto.getServicios().isEmpty()) {
-            entity.setServiciosLista(dto.getServicios());
-        }
-
         entity = repo.save(entity);
+        geo.agregar(entity.getId(), entity.getLatitud(), entity.getLongitud());
+        indiceTexto.agregar(entity.getId(), entity.getTitulo(), entity.getDescripcion(),
+                entity.getCiudad(), entity.getServiciosMask());
+        indiceCiudades.sumar(entity.getCiudad());
+        detalleCache.invalidar(entity.getId());
+        busquedaCache.invalidarCiudad(entity.getCiudad());
         return mapToDTO(entity);
     }
 
@@ -55,9 +102,15 @@ public class AlojamientoServiceImpl implements AlojamientoService {
                 .orElseThrow(() -> new IllegalArgumentException(
                         "Alojamiento no encontrado con ID: " + id
                 ));
+        boolean estabaActivo = alojamiento.getEstado() == EstadoAlojamiento.ACTIVO;
 
         alojamiento.setEstado(EstadoAlojamiento.ELIMINADO);
         repo.save(alojamiento);
+        geo.quitar(id);
+        indiceTexto.quitar(id);
+        if (estabaActivo) indiceCiudades.restar(alojamiento.getCiudad());
+        detalleCache.invalidar(id);
+        busquedaCache.invalidarCiudad(alojamiento.getCiudad());
     }
 
     @Override
@@ -65,48 +118,416 @@ public class AlojamientoServiceImpl implements AlojamientoService {
     public Page<AlojamientoDTO> buscarActivosPorCiudad(String ciudad, Pageable pageable) {
         return repo.findByEstadoAndCiudadContainingIgnoreCase(
                         EstadoAlojamiento.ACTIVO, ciudad, pageable)
-                .map(this::mapToDTO);
+                .map(mapper::tarjetaToDTO);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<AlojamientoDTO> buscarDisponibles(
+            String q,
             String ciudad,
             BigDecimal precioMin,
             BigDecimal precioMax,
             Integer capacidad,
+            List<String> servicios,
+            ModoServicios modoServicios,
             LocalDate desde,
             LocalDate hasta,
             Pageable pageable
     ) {
-        var activos = EnumSet.of(EstadoReserva.PENDIENTE, EstadoReserva.CONFIRMADA);
-        return repo.buscarDisponibles(
-                        ciudad, precioMin, precioMax, capacidad, desde, hasta, activos, pageable)
-                .map(this::mapToDTO);
+        FiltroServicios filtro = filtroServicios(servicios, modoServicios);
+        if (filtro == null) return Page.empty(pageable);
+
+        if (q != null && !q.isBlank()) {
+            return paginar(coincidenciasConCache(q, ciudad, precioMin, precioMax, capacidad, filtro, desde, hasta),
+                    pageable);
+        }
+
+        if (!disponibilidad.puedeResolver(desde, hasta)) {
+            return repo.buscarDisponibles(
+                            ciudad, precioMin, precioMax, capacidad, filtro.todos(), filtro.alguno(),
+                            desde, hasta, ESTADOS_ACTIVOS, pageable)
+                    .map(mapper::tarjetaToDTO);
+        }
+
+        List<Long> libres = libresConCache(ciudad, precioMin, precioMax, capacidad, filtro, desde, hasta);
+        return paginar(libres, pageable);
     }
 
-    // 👇👇 NUEVO MÉTODO PARA DETALLE POR ID
     @Override
     @Transactional(readOnly = true)
+    public CursorPage<AlojamientoDTO> buscarActivosPorCiudad(String ciudad, String cursor, int size) {
+        CursorCodec.validarTamano(size);
+        Long despuesDe = CursorCodec.decodificarId(cursor);
+        List<TarjetaAlojamiento> filas = repo.findActivosPorCiudadDespuesDe(
+                EstadoAlojamiento.ACTIVO, ciudad == null ? "" : ciudad,
+                despuesDe != null ? despuesDe : 0L, Limit.of(size + 1));
+        return CursorPage.de(filas, size, a -> CursorCodec.codificar(a.id()), mapper::tarjetaToDTO);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<AlojamientoDTO> buscarDisponibles(
+            String q,
+            String ciudad,
+            BigDecimal precioMin,
+            BigDecimal precioMax,
+            Integer capacidad,
+            List<String> servicios,
+            ModoServicios modoServicios,
+            LocalDate desde,
+            LocalDate hasta,
+            String cursor,
+            int size
+    ) {
+        CursorCodec.validarTamano(size);
+        if (q != null && !q.isBlank()) {
+            return buscarPorTexto(q, ciudad, precioMin, precioMax, capacidad, servicios, modoServicios,
+                    desde, hasta, cursor, size);
+        }
+        Long despuesDe = CursorCodec.decodificarId(cursor);
+        FiltroServicios filtro = filtroServicios(servicios, modoServicios);
+        if (filtro == null) return CursorPage.vacia();
+
+        List<Long> ids;
+        if (disponibilidad.puedeResolver(desde, hasta)) {
+            ids = desdeCursor(libresConCache(ciudad, precioMin, precioMax, capacidad, filtro, desde, hasta), despuesDe);
+            ids = ids.subList(0, Math.min(size + 1, ids.size()));
+        } else {
+            List<Long> candidatos = desdeCursor(repo.buscarCandidatos(
+                    ciudad, precioMin, precioMax, capacidad, filtro.todos(), filtro.alguno()), despuesDe);
+            // Sin índice: comprobar disponibilidad en BD por tramos hasta llenar la página
+            ids = new ArrayList<>(size + 1);
+            for (int i = 0; i < candidatos.size() && ids.size() <= size; i += LOTE_CURSOR) {
+                List<Long> tramo = candidatos.subList(i, Math.min(i + LOTE_CURSOR, candidatos.size()));
+                List<Long> libres = new ArrayList<>(
+                        repo.filtrarIds(tramo, null, null, null, null, 0, 0, desde, hasta, ESTADOS_ACTIVOS));
+                Collections.sort(libres);
+                ids.addAll(libres);
+            }
+            ids = ids.subList(0, Math.min(size + 1, ids.size()));
+        }
+
+        boolean hayMas = ids.size() > size;
+        List<Long> pagina = hayMas ? ids.subList(0, size) : ids;
+        String siguiente = hayMas ? CursorCodec.codificar(pagina.get(pagina.size() - 1)) : null;
+        return new CursorPage<>(cargarEnOrden(pagina), siguiente, hayMas);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<AlojamientoDTO> buscarCercanos(
+            double latitud,
+            double longitud,
+            double radioKm,
+            BigDecimal precioMin,
+            BigDecimal precioMax,
+            Integer capacidad,
+            LocalDate desde,
+            LocalDate hasta,
+            Pageable pageable
+    ) {
+        if (!coordenadasValidas(latitud, longitud)) {
+            throw new IllegalArgumentException("Coordenadas inválidas");
+        }
+        // Negado para que NaN también se rechace
+        if (!(radioKm > 0 && radioKm <= RADIO_MAXIMO_KM)) {
+            throw new IllegalArgumentException("El radio debe estar entre 0 y " + RADIO_MAXIMO_KM + " km");
+        }
+        validarFechasOpcionales(desde, hasta);
+
+        List<GeoIndex.Cercano> cercanos = geo.buscarEnRadio(latitud, longitud, radioKm);
+        return filtrarYPaginarCercanos(cercanos, precioMin, precioMax, capacidad, desde, hasta, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<AlojamientoDTO> buscarEnArea(
+            double latMin,
+            double latMax,
+            double lonMin,
+            double lonMax,
+            BigDecimal precioMin,
+            BigDecimal precioMax,
+            Integer capacidad,
+            LocalDate desde,
+            LocalDate hasta,
+            Pageable pageable
+    ) {
+        if (!coordenadasValidas(latMin, lonMin) || !coordenadasValidas(latMax, lonMax)) {
+            throw new IllegalArgumentException("Coordenadas inválidas");
+        }
+        if (latMin > latMax || lonMin > lonMax) {
+            throw new IllegalArgumentException("Área inválida: los mínimos deben ser menores que los máximos");
+        }
+        if (latMax - latMin > LADO_MAXIMO_AREA_GRADOS || lonMax - lonMin > LADO_MAXIMO_AREA_GRADOS) {
+            throw new IllegalArgumentException(
+                    "Área demasiado grande: como mucho " + LADO_MAXIMO_AREA_GRADOS + "° por lado");
+        }
+        validarFechasOpcionales(desde, hasta);
+
+        List<GeoIndex.Cercano> cercanos = geo.buscarEnArea(latMin, latMax, lonMin, lonMax);
+        return filtrarYPaginarCercanos(cercanos, precioMin, precioMax, capacidad, desde, hasta, pageable);
+    }
+
+    // Sin transacción: se responde desde el índice en memoria
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<SugerenciaCiudadDTO> sugerirCiudades(String prefijo, int limite) {
+        if (limite < 1 || limite > MAX_SUGERENCIAS) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + MAX_SUGERENCIAS);
+        }
+        return indiceCiudades.sugerir(prefijo, limite).stream()
+                .map(s -> new SugerenciaCiudadDTO(s.ciudad(), s.alojamientos()))
+                .toList();
+    }
+
+    // 👇👇 NUEVO MÉTODO PARA DETALLE POR ID
+    // SUPPORTS: un acierto de caché no abre transacción (ni pide conexión al pool)
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public AlojamientoDTO obtenerPorId(Long id) {
-        Alojamiento entity = repo.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException(
-                        "Alojamiento no encontrado con ID: " + id
-                ));
-        return mapToDTO(entity);
+        return detalleCache.obtener(id);
+    }
+
+    /**
+     * Modo cursor de la búsqueda por texto: el cursor es la (puntuación, id) de la última fila.
+     * No es una instantánea del ranking: si el índice cambia entre páginas (altas, bajas), las
+     * puntuaciones se mueven y se pueden repetir u omitir filas (ver {@link CursorCodec#codificar(double, long)}).
+     */
+    private CursorPage<AlojamientoDTO> buscarPorTexto(
+            String q,
+            String ciudad,
+            BigDecimal precioMin,
+            BigDecimal precioMax,
+            Integer capacidad,
+            List<String> servicios,
+            ModoServicios modoServicios,
+            LocalDate desde,
+            LocalDate hasta,
+            String cursor,
+            int size
+    ) {
+        CursorCodec.Relevancia despuesDe = CursorCodec.decodificarRelevancia(cursor);
+        FiltroServicios filtro = filtroServicios(servicios, modoServicios);
+        if (filtro == null) return CursorPage.vacia();
+
+        List<IndiceTexto.Coincidencia> coincidencias = indiceTexto.buscar(q);
+        if (despuesDe != null) {
+            coincidencias = coincidencias.stream()
+                    .filter(c -> despuesDe.precede(c.puntuacion(), c.id()))
+                    .toList();
+        }
+        List<IndiceTexto.Coincidencia> filas = filtrarCoincidencias(coincidencias,
+                ciudad, precioMin, precioMax, capacidad, filtro, desde, hasta, size + 1);
+
+        boolean hayMas = filas.size() > size;
+        List<IndiceTexto.Coincidencia> pagina = hayMas ? filas.subList(0, size) : filas;
+        IndiceTexto.Coincidencia ultima = hayMas ? pagina.get(pagina.size() - 1) : null;
+        return new CursorPage<>(
+                cargarEnOrden(pagina.stream().map(IndiceTexto.Coincidencia::id).toList()),
+                ultima != null ? CursorCodec.codificar(ultima.puntuacion(), ultima.id()) : null,
+                hayMas);
+    }
+
+    /**
+     * De las coincidencias de texto (en orden de relevancia), las que cumplen los filtros y
+     * están libres en las fechas, conservando el orden. Se comprueban por tramos de ids
+     * (clave primaria) y se para al reunir {@code limite}.
+     */
+    private List<IndiceTexto.Coincidencia> filtrarCoincidencias(
+            List<IndiceTexto.Coincidencia> coincidencias,
+            String ciudad,
+            BigDecimal precioMin,
+            BigDecimal precioMax,
+            Integer capacidad,
+            FiltroServicios filtro,
+            LocalDate desde,
+            LocalDate hasta,
+            int limite
+    ) {
+        boolean fechasEnIndice = disponibilidad.puedeResolver(desde, hasta);
+        LocalDate desdeBd = fechasEnIndice ? null : desde;
+        LocalDate hastaBd = fechasEnIndice ? null : hasta;
+
+        List<IndiceTexto.Coincidencia> resultado = new ArrayList<>();
+        for (int i = 0; i < coincidencias.size() && resultado.size() < limite; i += LOTE_IDS) {
+            List<IndiceTexto.Coincidencia> tramo =
+                    coincidencias.subList(i, Math.min(i + LOTE_IDS, coincidencias.size()));
+            Set<Long> validos = new HashSet<>(repo.filtrarIds(
+                    tramo.stream().map(IndiceTexto.Coincidencia::id).toList(),
+                    ciudad, precioMin, precioMax, capacidad, filtro.todos(), filtro.alguno(),
+                    desdeBd, hastaBd, ESTADOS_ACTIVOS));
+            if (fechasEnIndice && !validos.isEmpty()) {
+                validos = new HashSet<>(disponibilidad.filtrarLibres(new ArrayList<>(validos), desde, hasta));
+            }
+            for (IndiceTexto.Coincidencia c : tramo) {
+                if (validos.contains(c.id()) && resultado.size() < limite) resultado.add(c);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Ids libres (ordenados por id) para una búsqueda que el índice de disponibilidad puede
+     * resolver: filtros estáticos en BD y disponibilidad en memoria, con el resultado en
+     * BusquedaCache para las combinaciones que se repiten.
+     */
+    private List<Long> libresConCache(
+            String ciudad,
+            BigDecimal precioMin,
+            BigDecimal precioMax,
+            Integer capacidad,
+            FiltroServicios filtro,
+            LocalDate desde,
+            LocalDate hasta
+    ) {
+        return busquedaCache.buscar(ciudad, precioMin, precioMax, capacidad, filtro.todos(), filtro.alguno(),
+                desde, hasta, c -> {
+                    List<CandidatoBusqueda> candidatos = repo.buscarCandidatosConPrecio(
+                            c.ciudad().isEmpty() ? null : c.ciudad(), c.precioMin(), c.precioMax(),
+                            c.capacidad(), c.todos(), c.alguno());
+                    Set<Long> libres = new HashSet<>(disponibilidad.filtrarLibres(
+                            candidatos.stream().map(CandidatoBusqueda::id).toList(), desde, hasta));
+                    return candidatos.stream().filter(x -> libres.contains(x.id())).toList();
+                });
+    }
+
+    /**
+     * Ids que cumplen los filtros para la consulta de texto, en orden de relevancia. La lista
+     * filtrada queda en BusquedaCache: pedir otra página no repite BM25 ni el filtrado en BD.
+     */
+    private List<Long> coincidenciasConCache(
+            String q,
+            String ciudad,
+            BigDecimal precioMin,
+            BigDecimal precioMax,
+            Integer capacidad,
+            FiltroServicios filtro,
+            LocalDate desde,
+            LocalDate hasta
+    ) {
+        return busquedaCache.buscarTexto(q, ciudad, precioMin, precioMax, capacidad, filtro.todos(), filtro.alguno(),
+                desde, hasta, c -> filtrarCoincidencias(indiceTexto.buscar(q),
+                        c.ciudad().isEmpty() ? null : c.ciudad(), precioMin, precioMax, capacidad, filtro,
+                        desde, hasta, Integer.MAX_VALUE)
+                        .stream().map(IndiceTexto.Coincidencia::id).toList());
+    }
+
+    // ids viene ordenado por id: se salta directamente a la posición del cursor
+    private static List<Long> desdeCursor(List<Long> ids, Long despuesDe) {
+        if (despuesDe == null) return ids;
+        int pos = Collections.binarySearch(ids, despuesDe);
+        return ids.subList(pos >= 0 ? pos + 1 : -pos - 1, ids.size());
+    }
+
+    /**
+     * Traduce los servicios pedidos a máscaras para la consulta. Devuelve null si ningún
+     * alojamiento puede cumplir el filtro (p. ej. se exige un servicio que no existe).
+     */
+    private FiltroServicios filtroServicios(List<String> servicios, ModoServicios modo) {
+        if (servicios == null || servicios.isEmpty()) return FiltroServicios.SIN_FILTRO;
+        if (modo == ModoServicios.ALGUNO) {
+            long alguno = catalogoServicios.mascaraConocidos(servicios);
+            return alguno == 0 ? null : new FiltroServicios(0, alguno);
+        }
+        OptionalLong todos = catalogoServicios.mascaraSiExisten(servicios);
+        return todos.isPresent() ? new FiltroServicios(todos.getAsLong(), 0) : null;
+    }
+
+    private void validarFechasOpcionales(LocalDate desde, LocalDate hasta) {
+        if ((desde == null) != (hasta == null)) {
+            throw new IllegalArgumentException("Debe indicar ambas fechas (desde y hasta) o ninguna");
+        }
+        if (desde != null && !desde.isBefore(hasta)) {
+            throw new IllegalArgumentException("Rango de fechas inválido");
+        }
+    }
+
+    /**
+     * Aplica precio, capacidad y disponibilidad sobre los ids que devolvió el índice
+     * geográfico (consulta por clave primaria, sin recorrer la tabla) y conserva el
+     * orden por distancia. Se filtra por tramos crecientes, de los más cercanos hacia
+     * afuera, y se para al tener la página pedida y uno más: un radio grande no cuesta
+     * cientos de consultas para servir la primera página. Por eso el total solo es exacto
+     * cuando se llegó al final; antes es una cota inferior (hay al menos otra página).
+     */
+    private Page<AlojamientoDTO> filtrarYPaginarCercanos(
+            List<GeoIndex.Cercano> cercanos,
+            BigDecimal precioMin,
+            BigDecimal precioMax,
+            Integer capacidad,
+            LocalDate desde,
+            LocalDate hasta,
+            Pageable pageable
+    ) {
+        boolean fechasEnIndice = desde != null && disponibilidad.puedeResolver(desde, hasta);
+        LocalDate desdeBd = fechasEnIndice ? null : desde;
+        LocalDate hastaBd = fechasEnIndice ? null : hasta;
+        long objetivo = pageable.getOffset() + pageable.getPageSize() + 1;
+
+        List<GeoIndex.Cercano> validos = new ArrayList<>();
+        int revisados = 0;
+        for (int tramo = LOTE_CURSOR; revisados < cercanos.size() && validos.size() < objetivo;
+             tramo = Math.min(tramo * 2, LOTE_IDS)) {
+            List<GeoIndex.Cercano> parte = cercanos.subList(revisados, Math.min(revisados + tramo, cercanos.size()));
+            revisados += parte.size();
+            Set<Long> pasan = new HashSet<>(repo.filtrarIds(parte.stream().map(GeoIndex.Cercano::id).toList(),
+                    null, precioMin, precioMax, capacidad, 0, 0, desdeBd, hastaBd, ESTADOS_ACTIVOS));
+            if (fechasEnIndice && !pasan.isEmpty()) {
+                pasan = new HashSet<>(disponibilidad.filtrarLibres(new ArrayList<>(pasan), desde, hasta));
+            }
+            for (GeoIndex.Cercano c : parte) {
+                if (pasan.contains(c.id())) validos.add(c);
+            }
+        }
+        long total = revisados < cercanos.size() ? objetivo : validos.size();
+
+        int inicio = (int) Math.min(pageable.getOffset(), validos.size());
+        List<GeoIndex.Cercano> pagina = validos.subList(inicio, Math.min(inicio + pageable.getPageSize(), validos.size()));
+        Map<Long, Double> distancias = new HashMap<>();
+        for (GeoIndex.Cercano c : pagina) {
+            distancias.put(c.id(), Math.round(c.distanciaKm() * 1000.0) / 1000.0);
+        }
+        List<AlojamientoDTO> contenido = cargarEnOrden(pagina.stream().map(GeoIndex.Cercano::id).toList());
+        contenido.forEach(dto -> dto.setDistanciaKm(distancias.get(dto.getId())));
+        return new PageImpl<>(contenido, pageable, total);
+    }
+
+    // Rechaza también NaN e infinitos, que pasarían cualquier comparación negada
+    private static boolean coordenadasValidas(double latitud, double longitud) {
+        return latitud >= -90 && latitud <= 90 && longitud >= -180 && longitud <= 180;
+    }
+
+    /**
+     * Carga de BD solo las tarjetas de la página pedida, respetando el orden de los ids.
+     */
+    private Page<AlojamientoDTO> paginar(List<Long> ids, Pageable pageable) {
+        int desde = (int) Math.min(pageable.getOffset(), ids.size());
+        int hasta = Math.min(desde + pageable.getPageSize(), ids.size());
+        return new PageImpl<>(cargarEnOrden(ids.subList(desde, hasta)), pageable, ids.size());
+    }
+
+    private List<AlojamientoDTO> cargarEnOrden(List<Long> ids) {
+        if (ids.isEmpty()) return List.of();
+        Map<Long, TarjetaAlojamiento> porId = repo.findTarjetasByIdIn(ids).stream()
+                .collect(Collectors.toMap(TarjetaAlojamiento::id, Function.identity()));
+        return ids.stream()
+                .map(porId::get)
+                .filter(Objects::nonNull)
+                .map(mapper::tarjetaToDTO)
+                .toList();
+    }
+
+    // todos: bits que deben estar todos; alguno: bits de los que basta uno (0 = sin filtro)
+    private record FiltroServicios(long todos, long alguno) {
+        static final FiltroServicios SIN_FILTRO = new FiltroServicios(0, 0);
     }
 
     // ==========================
     // Métodos internos de mapeo
     // ==========================
     private AlojamientoDTO mapToDTO(Alojamiento entity) {
-        AlojamientoDTO dto = mapper.map(entity, AlojamientoDTO.class);
-
-        if (entity.getAnfitrion() != null) {
-            dto.setAnfitrionId(entity.getAnfitrion().getId());
-        }
-
-        dto.setServicios(entity.getServiciosLista());
-        return dto;
+        return mapper.toDTO(entity);
     }
 }
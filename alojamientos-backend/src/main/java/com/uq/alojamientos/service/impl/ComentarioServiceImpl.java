@@ -1,33 +1,47 @@
 package com.uq.alojamientos.service.impl;
 
+import com.uq.alojamientos.cache.DetalleAlojamientoCache;
 import com.uq.alojamientos.domain.Alojamiento;
 import com.uq.alojamientos.domain.Comentario;
 import com.uq.alojamientos.domain.Reserva;
 import com.uq.alojamientos.domain.Usuario;
 import com.uq.alojamientos.domain.enums.EstadoReserva;
+import com.uq.alojamientos.dto.CalificacionesDTO;
 import com.uq.alojamientos.dto.ComentarioDTO;
+import com.uq.alojamientos.dto.CursorPage;
+import com.uq.alojamientos.mapper.ComentarioMapper;
 import com.uq.alojamientos.repository.AlojamientoRepository;
 import com.uq.alojamientos.repository.ComentarioRepository;
 import com.uq.alojamientos.repository.ReservaRepository;
 import com.uq.alojamientos.repository.UsuarioRepository;
+import com.uq.alojamientos.repository.projection.ResumenCalificaciones;
 import com.uq.alojamientos.service.ComentarioService;
+import com.uq.alojamientos.util.CursorCodec;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
 
 @Service
 @RequiredArgsConstructor
 public class ComentarioServiceImpl implements ComentarioService {
 
+    // Posición inicial del cursor: más reciente que cualquier comentario (y representable en BD)
+    private static final LocalDateTime INICIO_CURSOR = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
     private final ComentarioRepository comentarioRepo;
     private final ReservaRepository reservaRepo;
     private final AlojamientoRepository alojamientoRepo;
     private final UsuarioRepository usuarioRepo;
-    private final ModelMapper mapper;
+    private final ComentarioMapper mapper;
+    private final DetalleAlojamientoCache detalleCache;
 
     @Override
+    @Transactional
     public ComentarioDTO crear(ComentarioDTO dto) {
         // Entidades base
         Reserva reserva = reservaRepo.findById(dto.getReservaId())
@@ -48,25 +62,49 @@ public class ComentarioServiceImpl implements ComentarioService {
             throw new IllegalArgumentException("La calificación debe estar entre 1 y 5");
         }
 
-        Comentario entity = mapper.map(dto, Comentario.class);
+        Comentario entity = mapper.toEntity(dto);
         entity.setReserva(reserva);
         entity.setAlojamiento(alojamiento);
         entity.setUsuario(usuario);
 
         entity = comentarioRepo.save(entity);
-        return mapper.map(entity, ComentarioDTO.class);
+        // En la misma transacción que el comentario: si falla uno, no queda ninguno
+        alojamientoRepo.registrarCalificacion(alojamiento.getId(), dto.getCalificacion());
+        detalleCache.invalidar(alojamiento.getId()); // el detalle muestra promedio y total
+        return mapper.toDTO(entity);
     }
 
     @Override
     public Page<ComentarioDTO> listarPorAlojamiento(Long alojamientoId, Pageable pageable) {
         return comentarioRepo.findByAlojamientoIdOrderByCreatedAtDesc(alojamientoId, pageable)
-                .map(c -> mapper.map(c, ComentarioDTO.class));
+                .map(mapper::filaToDTO);
+    }
+
+    @Override
+    public CursorPage<ComentarioDTO> listarPorAlojamiento(Long alojamientoId, String cursor, int size) {
+        CursorCodec.validarTamano(size);
+        CursorCodec.Posicion pos = CursorCodec.decodificarFechaId(cursor);
+        LocalDateTime fecha = pos != null ? pos.fecha() : INICIO_CURSOR;
+        long id = pos != null ? pos.id() : Long.MAX_VALUE;
+
+        var filas = comentarioRepo.findByAlojamientoAntesDe(alojamientoId, fecha, id, Limit.of(size + 1));
+        return CursorPage.de(filas, size,
+                c -> CursorCodec.codificar(c.createdAt(), c.id()), mapper::filaToDTO);
     }
 
     @Override
     public Double promedioCalificacion(Long alojamientoId) {
-        Double avg = comentarioRepo.promedioPorAlojamiento(alojamientoId);
-        return (avg == null) ? 0.0 : Math.round(avg * 10.0) / 10.0; // redondeo a 1 decimal
+        // Lee los agregados del alojamiento en vez de promediar todos sus comentarios
+        return alojamientoRepo.findResumenCalificaciones(alojamientoId)
+                .map(ResumenCalificaciones::promedio)
+                .orElse(0.0);
+    }
+
+    @Override
+    public CalificacionesDTO histogramaCalificaciones(Long alojamientoId) {
+        ResumenCalificaciones r = alojamientoRepo.findResumenCalificaciones(alojamientoId)
+                .orElseThrow(() -> new IllegalArgumentException("Alojamiento no existe"));
+        return new CalificacionesDTO(alojamientoId, r.total(), r.promedio(), r.histograma());
     }
 
     @Override
@@ -0,0 +1,96 @@
+package com.uq.alojamientos.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uq.alojamientos.repository.AlojamientoRepository;
+import com.uq.alojamientos.repository.ReservaRepository;
+import com.uq.alojamientos.repository.UsuarioRepository;
+import com.uq.alojamientos.repository.projection.FilaReserva;
+import com.uq.alojamientos.repository.projection.FilaUsuario;
+import com.uq.alojamientos.service.ExportacionService;
+import com.uq.alojamientos.util.EscritorFilas;
+import com.uq.alojamientos.util.EscritorFilas.Formato;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.NoSuchElementException;
+
+/**
+ * Recorre proyecciones con un {@code Stream} del repositorio (fetch size
+ * {@link EscritorFilas#FILAS_POR_FETCH}): no hay entidades gestionadas que se acumulen en el
+ * contexto de persistencia, y el driver trae las filas por tandas mientras se escriben. La
+ * transacción (y la conexión) dura lo que dure la descarga.
+ */
+@Slf4j
+@Service
+public class ExportacionServiceImpl implements ExportacionService {
+
+    private final ReservaRepository reservaRepo;
+    private final AlojamientoRepository alojamientoRepo;
+    private final UsuarioRepository usuarioRepo;
+    private final EscritorFilas<FilaReserva> reservas;
+    private final EscritorFilas<FilaUsuario> usuarios;
+
+    public ExportacionServiceImpl(ReservaRepository reservaRepo,
+                                  AlojamientoRepository alojamientoRepo,
+                                  UsuarioRepository usuarioRepo,
+                                  ObjectMapper mapper) {
+        this.reservaRepo = reservaRepo;
+        this.alojamientoRepo = alojamientoRepo;
+        this.usuarioRepo = usuarioRepo;
+        this.reservas = new EscritorFilas<>(FilaReserva.class, mapper);
+        this.usuarios = new EscritorFilas<>(FilaUsuario.class, mapper);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void comprobarAlojamiento(Long alojamientoId, String email, boolean admin) {
+        if (admin) {
+            if (!alojamientoRepo.existsById(alojamientoId)) {
+                throw new NoSuchElementException("Alojamiento no encontrado: " + alojamientoId);
+            }
+        } else if (!alojamientoRepo.existsByIdAndAnfitrionEmail(alojamientoId, email)) {
+            // Sin distinguir "no existe" de "no es tuyo"
+            throw new AccessDeniedException("Solo puedes exportar las reservas de tus alojamientos");
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void comprobarAnfitrion(Long anfitrionId, String email, boolean admin) {
+        if (admin) {
+            if (!usuarioRepo.existsById(anfitrionId)) {
+                throw new NoSuchElementException("Usuario no encontrado: " + anfitrionId);
+            }
+        } else if (!usuarioRepo.existsByIdAndEmail(anfitrionId, email)) {
+            throw new AccessDeniedException("Solo puedes exportar tus propias reservas como anfitrión");
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long reservasPorAlojamiento(Long alojamientoId, Formato formato, OutputStream out) throws IOException {
+        long n = reservas.escribir(reservaRepo.streamByAlojamiento(alojamientoId), formato, out);
+        log.info("Exportadas {} reservas del alojamiento {} ({})", n, alojamientoId, formato);
+        return n;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long reservasPorAnfitrion(Long anfitrionId, Formato formato, OutputStream out) throws IOException {
+        long n = reservas.escribir(reservaRepo.streamByAnfitrion(anfitrionId), formato, out);
+        log.info("Exportadas {} reservas del anfitrión {} ({})", n, anfitrionId, formato);
+        return n;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long usuarios(Formato formato, OutputStream out) throws IOException {
+        long n = usuarios.escribir(usuarioRepo.streamFilas(), formato, out);
+        log.info("Exportados {} usuarios ({})", n, formato);
+        return n;
+    }
+}
@@ -0,0 +1,106 @@
+package com.uq.alojamientos.service.impl;
+
+import com.uq.alojamientos.domain.enums.EstadoAlojamiento;
+import com.uq.alojamientos.dto.OcupacionAlojamientoDTO;
+import com.uq.alojamientos.dto.OcupacionMensualDTO;
+import com.uq.alojamientos.reporte.OcupacionDiaria;
+import com.uq.alojamientos.repository.AlojamientoRepository;
+import com.uq.alojamientos.repository.UsuarioRepository;
+import com.uq.alojamientos.repository.projection.OcupacionMes;
+import com.uq.alojamientos.repository.projection.VigenciaAlojamiento;
+import com.uq.alojamientos.service.PanelAnfitrionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class PanelAnfitrionServiceImpl implements PanelAnfitrionService {
+
+    static final int MAX_MESES = 36;
+
+    private final OcupacionDiaria ocupacion;
+    private final AlojamientoRepository alojamientoRepo;
+    private final UsuarioRepository usuarioRepo;
+
+    @Override
+    public void comprobarAnfitrion(Long anfitrionId, String email, boolean admin) {
+        if (admin) {
+            if (!usuarioRepo.existsById(anfitrionId)) {
+                throw new NoSuchElementException("Usuario no encontrado: " + anfitrionId);
+            }
+        } else if (!usuarioRepo.existsByIdAndEmail(anfitrionId, email)) {
+            throw new AccessDeniedException("Solo puedes ver tu propio panel de anfitrión");
+        }
+    }
+
+    @Override
+    public List<OcupacionMensualDTO> ocupacionMensual(Long anfitrionId, YearMonth desde, YearMonth hasta) {
+        long meses = ChronoUnit.MONTHS.between(desde, hasta) + 1;
+        if (meses < 1 || meses > MAX_MESES) {
+            throw new IllegalArgumentException("El rango debe ir de 1 a " + MAX_MESES + " meses");
+        }
+        List<VigenciaAlojamiento> vigencias = alojamientoRepo.findVigencias(anfitrionId,
+                desde.atDay(1).atStartOfDay(), hasta.plusMonths(1).atDay(1).atStartOfDay());
+        Map<YearMonth, List<OcupacionMes>> porMes = ocupacion.mensual(anfitrionId, desde, hasta).stream()
+                .collect(Collectors.groupingBy(OcupacionMes::mes));
+
+        List<OcupacionMensualDTO> resultado = new ArrayList<>((int) meses);
+        for (YearMonth mes = desde; !mes.isAfter(hasta); mes = mes.plusMonths(1)) {
+            Map<Long, Long> diasPorAlojamiento = new HashMap<>();
+            for (VigenciaAlojamiento v : vigencias) {
+                long dias = diasVigente(v, mes);
+                if (dias > 0) diasPorAlojamiento.put(v.id(), dias);
+            }
+            List<OcupacionMes> filas = porMes.getOrDefault(mes, List.of());
+            // Datos cargados antes de que se guardara created_at pueden tener noches previas a la creación
+            filas.forEach(o -> diasPorAlojamiento.merge(o.alojamientoId(), o.noches(), Math::max));
+            List<OcupacionAlojamientoDTO> detalle = filas.stream()
+                    .sorted(Comparator.comparing(OcupacionMes::alojamientoId))
+                    .map(o -> new OcupacionAlojamientoDTO(o.alojamientoId(), o.noches(),
+                            proporcion(o.noches(), diasPorAlojamiento.get(o.alojamientoId())),
+                            o.ingresos(), o.cancelaciones()))
+                    .toList();
+            long noches = detalle.stream().mapToLong(OcupacionAlojamientoDTO::getNochesReservadas).sum();
+            BigDecimal ingresos = detalle.stream().map(OcupacionAlojamientoDTO::getIngresos)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            long canceladas = detalle.stream().mapToLong(OcupacionAlojamientoDTO::getNochesCanceladas).sum();
+            long disponibles = diasPorAlojamiento.values().stream().mapToLong(Long::longValue).sum();
+            resultado.add(new OcupacionMensualDTO(mes.toString(), noches, disponibles,
+                    proporcion(noches, disponibles), ingresos, canceladas, detalle));
+        }
+        return resultado;
+    }
+
+    /**
+     * Días del mes en que el alojamiento existía: desde el de su creación hasta el anterior
+     * al de su eliminación (las noches de ese día ya no cuentan en {@link OcupacionDiaria#mensual}).
+     */
+    static long diasVigente(VigenciaAlojamiento v, YearMonth mes) {
+        LocalDate inicio = mes.atDay(1);
+        LocalDate fin = mes.plusMonths(1).atDay(1);
+        if (v.createdAt() != null && v.createdAt().toLocalDate().isAfter(inicio)) {
+            inicio = v.createdAt().toLocalDate();
+        }
+        if (v.estado() == EstadoAlojamiento.ELIMINADO && v.updatedAt().toLocalDate().isBefore(fin)) {
+            fin = v.updatedAt().toLocalDate();
+        }
+        return Math.max(0, ChronoUnit.DAYS.between(inicio, fin));
+    }
+
+    private static double proporcion(long parte, long total) {
+        return total > 0 ? (double) parte / total : 0.0;
+    }
+}
@@ -1,24 +1,39 @@
 package com.uq.alojamientos.service.impl;
 
+import com.uq.alojamientos.cache.BusquedaCache;
 import com.uq.alojamientos.domain.Alojamiento;
 import com.uq.alojamientos.domain.Reserva;
 import com.uq.alojamientos.domain.Usuario;
 import com.uq.alojamientos.domain.enums.EstadoReserva;
+import com.uq.alojamientos.dto.CursorPage;
 import com.uq.alojamientos.dto.ReservaDTO;
+import com.uq.alojamientos.index.DisponibilidadIndex;
+import com.uq.alojamientos.job.ExpiracionReservasJob;
+import com.uq.alojamientos.mapper.ReservaMapper;
+import com.uq.alojamientos.metricas.MetricasNegocio;
+import com.uq.alojamientos.metricas.MetricasNegocio.ResultadoReserva;
+import com.uq.alojamientos.reporte.OcupacionDiaria;
 import com.uq.alojamientos.repository.AlojamientoRepository;
 import com.uq.alojamientos.repository.ReservaRepository;
 import com.uq.alojamientos.repository.UsuarioRepository;
 import com.uq.alojamientos.service.ReservaService;
+import com.uq.alojamientos.util.CandadoEstriado;
+import com.uq.alojamientos.util.CursorCodec;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.Set;
 
 @Service
@@ -28,7 +43,14 @@ public class ReservaServiceImpl implements ReservaService {
     private final ReservaRepository reservaRepo;
     private final AlojamientoRepository alojamientoRepo;
     private final UsuarioRepository usuarioRepo;
-    private final ModelMapper mapper;
+    private final ReservaMapper mapper;
+    private final DisponibilidadIndex disponibilidad;
+    private final CandadoEstriado candadosAlojamiento;
+    private final TransactionTemplate transaccion;
+    private final ExpiracionReservasJob expiracion;
+    private final BusquedaCache busquedaCache;
+    private final MetricasNegocio metricas;
+    private final OcupacionDiaria ocupacion;
 
     private static final Set<EstadoReserva> ESTADOS_ACTIVOS =
             EnumSet.of(EstadoReserva.PENDIENTE, EstadoReserva.CONFIRMADA);
@@ -42,34 +64,79 @@ public class ReservaServiceImpl implements ReservaService {
         if (dto.getCheckIn().isBefore(LocalDate.now())) {
             throw new IllegalArgumentException("No se pueden reservar fechas pasadas");
         }
+        if (dto.getAlojamientoId() == null) {
+            throw new IllegalArgumentException("Alojamiento no existe");
+        }
+
+        // Solo compiten reservas del mismo alojamiento: candado en memoria para los hilos de
+        // esta instancia y FOR UPDATE sobre la fila para las demás. La transacción se cierra
+        // (commit) antes de soltar el candado, así el siguiente ya ve esta reserva.
+        Reserva r = candadosAlojamiento.ejecutar(dto.getAlojamientoId(), () -> {
+            Reserva guardada = transaccion.execute(tx -> reservar(dto));
+            disponibilidad.marcar(dto.getAlojamientoId(), guardada.getCheckIn(), guardada.getCheckOut());
+            busquedaCache.invalidarReserva(guardada.getAlojamiento().getCiudad(),
+                    guardada.getCheckIn(), guardada.getCheckOut());
+            return guardada;
+        });
+        metricas.reserva(ResultadoReserva.CREADA);
+        expiracion.programar(r);
+        return mapper.toDTO(r);
+    }
 
-        Alojamiento alojamiento = alojamientoRepo.findById(dto.getAlojamientoId())
+    private Reserva reservar(ReservaDTO dto) {
+        Alojamiento alojamiento = alojamientoRepo.findByIdParaReservar(dto.getAlojamientoId())
                 .orElseThrow(() -> new IllegalArgumentException("Alojamiento no existe"));
         Usuario usuario = usuarioRepo.findById(dto.getUsuarioId())
                 .orElseThrow(() -> new IllegalArgumentException("Usuario no existe"));
 
         // ⚠️ Ajusta este getter al nombre real de tu campo si no es 'capacidadMaxima'
         if (dto.getHuespedes() <= 0 || dto.getHuespedes() > alojamiento.getCapacidadMaxima()) {
+            metricas.reserva(ResultadoReserva.CAPACIDAD_EXCEDIDA);
             throw new IllegalArgumentException("Capacidad excedida");
         }
 
         boolean solapa = reservaRepo.existeSolapamiento(
                 alojamiento.getId(), dto.getCheckIn(), dto.getCheckOut(), ESTADOS_ACTIVOS);
         if (solapa) {
+            metricas.reserva(ResultadoReserva.SOLAPAMIENTO);
             throw new IllegalStateException("Fechas no disponibles para este alojamiento");
         }
 
-        Reserva r = mapper.map(dto, Reserva.class);
+        Reserva r = mapper.toEntity(dto);
         r.setAlojamiento(alojamiento);
         r.setUsuario(usuario);
 
-        long noches = Duration.between(dto.getCheckIn().atStartOfDay(), dto.getCheckOut().atStartOfDay()).toDays();
-        BigDecimal total = alojamiento.getPrecioPorNoche().multiply(BigDecimal.valueOf(noches));
-        r.setTotal(total);
+        r.setTotal(totalEstancia(alojamiento.getPrecioPorNoche(), dto.getCheckIn(), dto.getCheckOut()));
         r.setEstado(EstadoReserva.PENDIENTE);
+        r.setHoldExpiraEn(expiracion.vencimientoDesde(LocalDateTime.now()));
+
+        Reserva guardada = reservaRepo.save(r);
+        ocupacion.reservada(guardada);
+        return guardada;
+    }
+
+    @Override
+    public ReservaDTO confirmar(Long id) {
+        // UPDATE condicionado: si el job la venció un instante antes, no se "resucita"
+        if (reservaRepo.confirmar(id, LocalDateTime.now()) == 0) {
+            Reserva r = reservaRepo.findById(id)
+                    .orElseThrow(() -> new IllegalArgumentException("Reserva no existe"));
+            if (r.getEstado() == EstadoReserva.EXPIRADA || r.getEstado() == EstadoReserva.PENDIENTE) {
+                throw new IllegalStateException("El plazo para confirmar la reserva expiró");
+            }
+            throw new IllegalStateException("Solo se pueden confirmar reservas pendientes");
+        }
+        expiracion.descartar(id);
+        return reservaRepo.findById(id).map(mapper::toDTO)
+                .orElseThrow(() -> new IllegalArgumentException("Reserva no existe"));
+    }
 
-        r = reservaRepo.save(r);
-        return mapper.map(r, ReservaDTO.class);
+    @Override
+    public void comprobarHuespedOAnfitrion(Long id, String email) {
+        if (!reservaRepo.esHuespedOAnfitrion(id, email)) {
+            if (!reservaRepo.existsById(id)) throw new IllegalArgumentException("Reserva no existe");
+            throw new AccessDeniedException("Solo el huésped o el anfitrión pueden confirmar la reserva");
+        }
     }
 
     @Override
@@ -77,7 +144,7 @@ public class ReservaServiceImpl implements ReservaService {
         var r = reservaRepo.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Reserva no existe"));
 
-        if (r.getEstado() == EstadoReserva.CANCELADA || r.getEstado() == EstadoReserva.COMPLETADA) {
+        if (r.getEstado() != EstadoReserva.PENDIENTE && r.getEstado() != EstadoReserva.CONFIRMADA) {
             throw new IllegalStateException("La reserva no puede cancelarse");
         }
 
@@ -86,19 +153,55 @@ public class ReservaServiceImpl implements ReservaService {
             throw new IllegalStateException("Solo se puede cancelar hasta 48h antes del check-in");
         }
 
-        r.setEstado(EstadoReserva.CANCELADA);
-        reservaRepo.save(r);
+        // UPDATE condicionado: si otra cancelación o el job de expiración llegaron antes, no se
+        // descuenta dos veces de ocupacion_diaria
+        Boolean cancelada = transaccion.execute(tx -> {
+            if (reservaRepo.cancelarActiva(id) == 0) return false;
+            reservaRepo.findOcupaciones(List.of(id)).forEach(ocupacion::cancelada);
+            return true;
+        });
+        if (!Boolean.TRUE.equals(cancelada)) {
+            throw new IllegalStateException("La reserva no puede cancelarse");
+        }
+        expiracion.descartar(id);
+        disponibilidad.liberar(r.getAlojamiento().getId(), r.getCheckIn(), r.getCheckOut());
+        busquedaCache.invalidarReserva(alojamientoRepo.findCiudadById(r.getAlojamiento().getId()).orElse(null),
+                r.getCheckIn(), r.getCheckOut());
     }
 
     @Override
     public Page<ReservaDTO>listarPorUsuario(Long usuarioId, Pageable pageable) {
         return reservaRepo.findByUsuario(usuarioId, pageable)
-                .map(r -> mapper.map(r, ReservaDTO.class));
+                .map(mapper::filaToDTO);
     }
 
     @Override
     public Page<ReservaDTO> listarPorAlojamiento(Long alojamientoId, Pageable pageable) {
         return reservaRepo.findByAlojamiento(alojamientoId, pageable)
-                .map(r -> mapper.map(r, ReservaDTO.class));
+                .map(mapper::filaToDTO);
+    }
+
+    @Override
+    public CursorPage<ReservaDTO> listarPorUsuario(Long usuarioId, String cursor, int size) {
+        CursorCodec.validarTamano(size);
+        var filas = reservaRepo.findByUsuarioAntesDe(usuarioId, antesDe(cursor), Limit.of(size + 1));
+        return CursorPage.de(filas, size, r -> CursorCodec.codificar(r.id()), mapper::filaToDTO);
+    }
+
+    @Override
+    public CursorPage<ReservaDTO> listarPorAlojamiento(Long alojamientoId, String cursor, int size) {
+        CursorCodec.validarTamano(size);
+        var filas = reservaRepo.findByAlojamientoAntesDe(alojamientoId, antesDe(cursor), Limit.of(size + 1));
+        return CursorPage.de(filas, size, r -> CursorCodec.codificar(r.id()), mapper::filaToDTO);
+    }
+
+    /** Precio por noche × noches entre check-in y check-out. */
+    public static BigDecimal totalEstancia(BigDecimal precioPorNoche, LocalDate checkIn, LocalDate checkOut) {
+        return precioPorNoche.multiply(BigDecimal.valueOf(ChronoUnit.DAYS.between(checkIn, checkOut)));
+    }
+
+    private long antesDe(String cursor) {
+        Long id = CursorCodec.decodificarId(cursor);
+        return id != null ? id : Long.MAX_VALUE;
     }
 }
@@ -8,10 +8,10 @@ package com.uq.alojamientos.service.impl;
 import com.uq.alojamientos.domain.Usuario;
 import com.uq.alojamientos.domain.enums.RolUsuario;
 import com.uq.alojamientos.dto.UsuarioDTO;
+import com.uq.alojamientos.mapper.UsuarioMapper;
 import com.uq.alojamientos.repository.UsuarioRepository;
 import com.uq.alojamientos.service.UsuarioService;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,7 +25,7 @@ import java.util.stream.Collectors;
 public class UsuarioServiceImpl implements UsuarioService {
 
     private final UsuarioRepository repo;
-    private final ModelMapper mapper;
+    private final UsuarioMapper mapper;
     private final BCryptPasswordEncoder passwordEncoder;
 
     @Override
@@ -35,7 +35,7 @@ public class UsuarioServiceImpl implements UsuarioService {
             throw new IllegalArgumentException("El email ya está registrado");
         }
 
-        Usuario usuario = mapper.map(dto, Usuario.class);
+        Usuario usuario = mapper.toEntity(dto);
 
         // Encriptar contraseña
         usuario.setPasswordHash(passwordEncoder.encode(dto.getPassword()));
@@ -52,22 +52,15 @@ public class UsuarioServiceImpl implements UsuarioService {
 
         usuario = repo.save(usuario);
 
-        // No retornar el password en el DTO
-        UsuarioDTO resultado = mapper.map(usuario, UsuarioDTO.class);
-        resultado.setPassword(null);
-
-        return resultado;
+        // El mapper nunca copia el password al DTO
+        return mapper.toDTO(usuario);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<UsuarioDTO> listar() {
         return repo.findAll().stream()
-                .map(u -> {
-                    UsuarioDTO dto = mapper.map(u, UsuarioDTO.class);
-                    dto.setPassword(null); // No exponer contraseñas
-                    return dto;
-                })
+                .map(mapper::toDTO)
                 .collect(Collectors.toList());
     }
 
@@ -77,8 +70,6 @@ public class UsuarioServiceImpl implements UsuarioService {
         Usuario usuario = repo.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Usuario no encontrado con ID: " + id));
 
-        UsuarioDTO dto = mapper.map(usuario, UsuarioDTO.class);
-        dto.setPassword(null);
-        return dto;
+        return mapper.toDTO(usuario);
     }
 }
\ No newline at end of file
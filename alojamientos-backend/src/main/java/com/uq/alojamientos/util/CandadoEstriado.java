@@ -0,0 +1,69 @@
+package com.uq.alojamientos.util;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Conjunto fijo de candados repartidos por clave (p. ej. id de alojamiento): dos
+ * operaciones sobre la misma clave se serializan, sobre claves distintas casi nunca
+ * compiten. La memoria no crece con el número de claves.
+ */
+public final class CandadoEstriado {
+
+    private final ReentrantLock[] franjas;
+    private final int mascara;
+
+    public CandadoEstriado(int franjas) {
+        if (franjas < 1) {
+            throw new IllegalArgumentException("El número de franjas debe ser positivo");
+        }
+        // Potencia de dos para elegir la franja con una máscara
+        int n = franjas == 1 ? 1 : Integer.highestOneBit(franjas - 1) << 1;
+        this.franjas = new ReentrantLock[n];
+        for (int i = 0; i < n; i++) this.franjas[i] = new ReentrantLock();
+        this.mascara = n - 1;
+    }
+
+    /** Ejecuta la acción con el candado de la clave tomado. */
+    public <T> T ejecutar(long clave, Supplier<T> accion) {
+        ReentrantLock candado = franja(clave);
+        candado.lock();
+        try {
+            return accion.get();
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Ejecuta la acción con los candados de todas las claves tomados. Se toman en orden
+     * de franja, así que no hay interbloqueo con otros {@code ejecutar}/{@code ejecutarTodos}.
+     */
+    public <T> T ejecutarTodos(Collection<Long> claves, Supplier<T> accion) {
+        int[] indices = claves.stream().mapToInt(this::indice).distinct().sorted().toArray();
+        int tomados = 0;
+        try {
+            for (int i : indices) {
+                franjas[i].lock();
+                tomados++;
+            }
+            return accion.get();
+        } finally {
+            for (int i = tomados - 1; i >= 0; i--) franjas[indices[i]].unlock();
+        }
+    }
+
+    public int tamano() {
+        return franjas.length;
+    }
+
+    private ReentrantLock franja(long clave) {
+        return franjas[indice(clave)];
+    }
+
+    private int indice(long clave) {
+        int h = Long.hashCode(clave) * 0x9E3779B9; // dispersa ids consecutivos
+        return (h ^ (h >>> 16)) & mascara;
+    }
+}
@@ -0,0 +1,118 @@
+package com.uq.alojamientos.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Codifica la posición de la última fila entregada en un token opaco (base64url)
+ * para la paginación por cursor. Un token mal formado es un error del cliente.
+ */
+public final class CursorCodec {
+
+    public static final int TAMANO_MAXIMO = 100;
+
+    private static final String VERSION = "v1";
+
+    private CursorCodec() {
+    }
+
+    public static String codificar(long id) {
+        return base64(VERSION + ":" + id);
+    }
+
+    public static String codificar(LocalDateTime fecha, long id) {
+        return base64(VERSION + ":" + fecha + ":" + id);
+    }
+
+    /**
+     * Posición en un orden por relevancia: puntuación (descendente) e id (ascendente). La
+     * puntuación BM25 depende del índice entero (número de documentos, longitud media), así
+     * que un alta o baja entre dos páginas la desplaza: el cursor no es una instantánea y la
+     * página siguiente puede repetir u omitir filas.
+     */
+    public static String codificar(double puntuacion, long id) {
+        return base64(VERSION + ":" + puntuacion + ":" + id);
+    }
+
+    /** Id contenido en el cursor, o {@code null} si no hay cursor (primera página). */
+    public static Long decodificarId(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        String[] partes = partes(cursor, 2);
+        try {
+            return Long.parseLong(partes[1]);
+        } catch (NumberFormatException e) {
+            throw invalido();
+        }
+    }
+
+    /** Posición (fecha, id) contenida en el cursor, o {@code null} en la primera página. */
+    public static Posicion decodificarFechaId(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        String contenido = texto(cursor);
+        int primero = contenido.indexOf(':');
+        int ultimo = contenido.lastIndexOf(':');
+        if (primero < 0 || ultimo <= primero || !VERSION.equals(contenido.substring(0, primero))) {
+            throw invalido();
+        }
+        try {
+            return new Posicion(
+                    LocalDateTime.parse(contenido.substring(primero + 1, ultimo)),
+                    Long.parseLong(contenido.substring(ultimo + 1)));
+        } catch (RuntimeException e) {
+            throw invalido();
+        }
+    }
+
+    /** Posición (puntuación, id) contenida en el cursor, o {@code null} en la primera página. */
+    public static Relevancia decodificarRelevancia(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        String[] partes = partes(cursor, 3);
+        try {
+            double puntuacion = Double.parseDouble(partes[1]);
+            if (!Double.isFinite(puntuacion)) throw invalido();
+            return new Relevancia(puntuacion, Long.parseLong(partes[2]));
+        } catch (NumberFormatException e) {
+            throw invalido();
+        }
+    }
+
+    public static void validarTamano(int size) {
+        if (size < 1 || size > TAMANO_MAXIMO) {
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + TAMANO_MAXIMO);
+        }
+    }
+
+    private static String[] partes(String cursor, int esperadas) {
+        String[] partes = texto(cursor).split(":");
+        if (partes.length != esperadas || !VERSION.equals(partes[0])) throw invalido();
+        return partes;
+    }
+
+    private static String texto(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw invalido();
+        }
+    }
+
+    private static String base64(String valor) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static IllegalArgumentException invalido() {
+        return new IllegalArgumentException("Cursor inválido");
+    }
+
+    public record Posicion(LocalDateTime fecha, long id) {
+    }
+
+    public record Relevancia(double puntuacion, long id) {
+
+        /** Si la fila (puntuacion, id) dada va después de esta posición en el orden por relevancia. */
+        public boolean precede(double otraPuntuacion, long otroId) {
+            return otraPuntuacion < puntuacion || (otraPuntuacion == puntuacion && otroId > id);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.uq.alojamientos.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Escribe un {@link Stream} de records como NDJSON (un objeto JSON por línea) o CSV (cabecera
+ * con los nombres de los componentes del record), fila a fila sobre un buffer fijo: la
+ * memoria no depende de cuántas filas haya.
+ */
+public final class EscritorFilas<T extends Record> {
+
+    /** Filas que el driver trae por viaje al recorrer un Stream de exportación. */
+    public static final String FILAS_POR_FETCH = "1000";
+
+    private static final int BUFFER = 64 * 1024;
+
+    private final ObjectWriter json;
+    private final String cabecera;
+    private final Method[] campos;
+
+    public EscritorFilas(Class<T> tipo, ObjectMapper mapper) {
+        RecordComponent[] componentes = tipo.getRecordComponents();
+        this.json = mapper.writerFor(tipo);
+        this.cabecera = String.join(",", Arrays.stream(componentes).map(RecordComponent::getName).toList());
+        this.campos = Arrays.stream(componentes).map(RecordComponent::getAccessor).toArray(Method[]::new);
+    }
+
+    /** Consume (y cierra) {@code filas} escribiéndolas en {@code out}. Devuelve cuántas escribió. */
+    public long escribir(Stream<T> filas, Formato formato, OutputStream out) throws IOException {
+        try (filas) {
+            return formato == Formato.CSV ? csv(filas.iterator(), out) : ndjson(filas.iterator(), out);
+        }
+    }
+
+    private long ndjson(Iterator<T> filas, OutputStream out) throws IOException {
+        BufferedOutputStream buffer = new BufferedOutputStream(out, BUFFER);
+        long n = 0;
+        while (filas.hasNext()) {
+            buffer.write(json.writeValueAsBytes(filas.next()));
+            buffer.write('\n');
+            n++;
+        }
+        buffer.flush();
+        return n;
+    }
+
+    private long csv(Iterator<T> filas, OutputStream out) throws IOException {
+        Writer buffer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER);
+        buffer.write(cabecera);
+        buffer.write("\r\n");
+        long n = 0;
+        while (filas.hasNext()) {
+            T fila = filas.next();
+            for (int i = 0; i < campos.length; i++) {
+                if (i > 0) buffer.write(',');
+                celda(buffer, valor(fila, campos[i]));
+            }
+            buffer.write("\r\n");
+            n++;
+        }
+        buffer.flush();
+        return n;
+    }
+
+    // RFC 4180: entre comillas si hace falta. Un texto que empiece como fórmula (=, +, -, @)
+    // lleva delante un apóstrofo para que una hoja de cálculo no lo ejecute
+    static void celda(Writer w, Object valor) throws IOException {
+        if (valor == null) return;
+        String s = valor.toString();
+        if (valor instanceof CharSequence && !s.isEmpty() && "=+-@\t\r".indexOf(s.charAt(0)) >= 0) {
+            s = "'" + s;
+        }
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0) {
+            w.write(s);
+            return;
+        }
+        w.write('"');
+        w.write(s.replace("\"", "\"\""));
+        w.write('"');
+    }
+
+    private static Object valor(Object fila, Method campo) {
+        try {
+            return campo.invoke(fila);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("No se pudo leer " + campo.getName(), e);
+        }
+    }
+
+    /** Respuesta de descarga ({@code attachment}) con el cuerpo escrito en streaming. */
+    public static ResponseEntity<StreamingResponseBody> descarga(String nombre, Formato formato,
+                                                                 StreamingResponseBody cuerpo) {
+        return ResponseEntity.ok()
+                .contentType(formato.tipo)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(nombre + "." + formato.extension)
+                        .build()
+                        .toString())
+                .body(cuerpo);
+    }
+
+    public enum Formato {
+        NDJSON("ndjson", MediaType.APPLICATION_NDJSON),
+        CSV("csv", new MediaType("text", "csv", StandardCharsets.UTF_8));
+
+        private final String extension;
+        private final MediaType tipo;
+
+        Formato(String extension, MediaType tipo) {
+            this.extension = extension;
+            this.tipo = tipo;
+        }
+
+        /** "ndjson" o "csv", sin distinguir mayúsculas. */
+        public static Formato de(String texto) {
+            try {
+                return valueOf(texto.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("Formato de exportación no soportado: " + texto + " (ndjson o csv)");
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.uq.alojamientos.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rueda temporal jerárquica (estilo timer wheel del kernel): programar y vencer son
+ * O(1) por elemento, sin recorrer lo pendiente en cada tick ni ordenar por vencimiento.
+ *
+ * <p>Hay {@value #NIVELES} niveles de {@value #RANURAS} ranuras. El nivel 0 cubre los
+ * próximos 64 ticks con un tick por ranura; cada nivel siguiente cubre 64 veces más.
+ * Cuando el tiempo entra en una ranura de nivel superior, sus elementos se redistribuyen
+ * ("cascada") hacia niveles inferiores. Con ticks de 1 s el nivel más alto llega a unos
+ * 194 días; lo que venza más tarde se aparca en la última ranura alcanzable y se
+ * reubica al llegar allí.</p>
+ *
+ * <p>Segura para hilos (monitor propio): se programa desde peticiones y se avanza desde
+ * un job.</p>
+ */
+public final class RuedaTemporal<T> {
+
+    private static final int BITS = 6;
+    private static final int RANURAS = 1 << BITS;
+    private static final int MASCARA = RANURAS - 1;
+    private static final int NIVELES = 4;
+    private static final long ALCANCE = 1L << (BITS * NIVELES);
+
+    private final long tickMillis;
+    private final List<List<Entrada<T>>> ranuras;
+    private final List<T> vencidos = new ArrayList<>();
+    private long tickActual;
+    private int tamano;
+
+    public RuedaTemporal(long tickMillis, long ahoraMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("El tick debe ser positivo");
+        }
+        this.tickMillis = tickMillis;
+        this.tickActual = Math.floorDiv(ahoraMillis, tickMillis);
+        this.ranuras = new ArrayList<>(NIVELES * RANURAS);
+        for (int i = 0; i < NIVELES * RANURAS; i++) ranuras.add(new ArrayList<>());
+    }
+
+    /**
+     * Programa un elemento para que venza en {@code venceMillis} (epoch ms). Nunca vence
+     * antes de ese instante; como mucho un tick después. Si ya pasó, sale en el siguiente
+     * {@link #avanzar}.
+     */
+    public synchronized void programar(T valor, long venceMillis) {
+        // redondeo hacia arriba: no vencer antes de tiempo
+        long tick = Math.floorDiv(venceMillis + tickMillis - 1, tickMillis);
+        ubicar(new Entrada<>(valor, tick));
+        tamano++;
+    }
+
+    /**
+     * Avanza la rueda hasta {@code ahoraMillis} y devuelve los elementos vencidos, en
+     * orden aproximado de vencimiento (exacto a nivel de tick).
+     */
+    public synchronized List<T> avanzar(long ahoraMillis) {
+        long objetivo = Math.floorDiv(ahoraMillis, tickMillis);
+        while (tickActual < objetivo) {
+            tickActual++;
+            // primero los niveles altos: lo que bajan puede caer en una ranura que también toca vaciar ahora
+            for (int nivel = NIVELES - 1; nivel >= 1; nivel--) {
+                if ((tickActual & ((1L << (BITS * nivel)) - 1)) == 0) {
+                    cascada(nivel);
+                }
+            }
+            List<Entrada<T>> ranura = ranura(0, (int) (tickActual & MASCARA));
+            for (Entrada<T> e : ranura) vencidos.add(e.valor());
+            ranura.clear();
+        }
+        List<T> resultado = new ArrayList<>(vencidos);
+        tamano -= resultado.size();
+        vencidos.clear();
+        return resultado;
+    }
+
+    public synchronized int tamano() {
+        return tamano;
+    }
+
+    private void cascada(int nivel) {
+        List<Entrada<T>> ranura = ranura(nivel, (int) ((tickActual >>> (BITS * nivel)) & MASCARA));
+        List<Entrada<T>> reubicar = new ArrayList<>(ranura);
+        ranura.clear();
+        for (Entrada<T> e : reubicar) ubicar(e);
+    }
+
+    private void ubicar(Entrada<T> e) {
+        long delta = e.tick() - tickActual;
+        if (delta <= 0) {
+            vencidos.add(e.valor());
+            return;
+        }
+        for (int nivel = 0; nivel < NIVELES; nivel++) {
+            if (delta < (1L << (BITS * (nivel + 1)))) {
+                ranura(nivel, (int) ((e.tick() >>> (BITS * nivel)) & MASCARA)).add(e);
+                return;
+            }
+        }
+        // Fuera de alcance: aparcar en la ranura más lejana del último nivel
+        long aparcado = tickActual + ALCANCE - 1;
+        ranura(NIVELES - 1, (int) ((aparcado >>> (BITS * (NIVELES - 1))) & MASCARA)).add(e);
+    }
+
+    private List<Entrada<T>> ranura(int nivel, int indice) {
+        return ranuras.get(nivel * RANURAS + indice);
+    }
+
+    private record Entrada<T>(T valor, long tick) {
+    }
+}
@@ -0,0 +1,61 @@
+package com.uq.alojamientos.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Normalización de texto en español para búsquedas: minúsculas, sin tildes ni diéresis
+ * ("Medellín" y "medellin" son lo mismo) y, para palabras sueltas, sin plural.
+ */
+public final class TextoPlano {
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Palabras demasiado frecuentes para distinguir un alojamiento de otro
+    private static final Set<String> VACIAS = Set.of(
+            "de", "la", "el", "en", "y", "a", "los", "las", "del", "al", "con", "por", "para",
+            "un", "una", "unos", "unas", "o", "u", "e", "que", "se", "su", "sus", "es", "muy", "mas", "lo");
+
+    private TextoPlano() {
+    }
+
+    /** Minúsculas y sin marcas diacríticas; la ñ pasa a n. Null se trata como vacío. */
+    public static String plegar(String texto) {
+        if (texto == null) return "";
+        String sinMarcas = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return sinMarcas.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Términos indexables del texto, en orden y con repeticiones: palabras plegadas de dos
+     * o más caracteres, sin palabras vacías y reducidas al singular.
+     */
+    public static List<String> terminos(String texto) {
+        List<String> terminos = new ArrayList<>();
+        for (String palabra : SEPARADORES.split(plegar(texto))) {
+            if (palabra.length() < 2 || VACIAS.contains(palabra)) continue;
+            terminos.add(singular(palabra));
+        }
+        return terminos;
+    }
+
+    /**
+     * Plural regular aproximado: "hoteles" → "hotel", "flores" → "flor", "casas" → "casa".
+     * No hace falta que sea correcto, solo que documento y consulta acaben igual.
+     */
+    static String singular(String palabra) {
+        int n = palabra.length();
+        if (n > 4 && palabra.endsWith("es") && "lrndj".indexOf(palabra.charAt(n - 3)) >= 0) {
+            return palabra.substring(0, n - 2);
+        }
+        if (n > 3 && palabra.endsWith("s") && !palabra.endsWith("ss")) {
+            return palabra.substring(0, n - 1);
+        }
+        return palabra;
+    }
+}
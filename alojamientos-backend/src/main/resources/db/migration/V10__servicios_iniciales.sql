@@ -0,0 +1,42 @@
+-- Servicios de partida del catálogo. Los alojamientos solo pueden usar códigos del catálogo;
+-- los nuevos los da de alta un administrador (POST /api/admin/servicios). Cada código toma
+-- el siguiente bit libre y no se toca si ya estaba registrado.
+insert into servicios (bit, codigo)
+select t.bit, 'wifi' from (select coalesce(max(bit) + 1, 0) as bit from servicios) t
+where not exists (select 1 from servicios s where s.codigo = 'wifi');
+
+insert into servicios (bit, codigo)
+select t.bit, 'cocina' from (select coalesce(max(bit) + 1, 0) as bit from servicios) t
+where not exists (select 1 from servicios s where s.codigo = 'cocina');
+
+insert into servicios (bit, codigo)
+select t.bit, 'tv' from (select coalesce(max(bit) + 1, 0) as bit from servicios) t
+where not exists (select 1 from servicios s where s.codigo = 'tv');
+
+insert into servicios (bit, codigo)
+select t.bit, 'lavadora' from (select coalesce(max(bit) + 1, 0) as bit from servicios) t
+where not exists (select 1 from servicios s where s.codigo = 'lavadora');
+
+insert into servicios (bit, codigo)
+select t.bit, 'parqueadero' from (select coalesce(max(bit) + 1, 0) as bit from servicios) t
+where not exists (select 1 from servicios s where s.codigo = 'parqueadero');
+
+insert into servicios (bit, codigo)
+select t.bit, 'aire acondicionado' from (select coalesce(max(bit) + 1, 0) as bit from servicios) t
+where not exists (select 1 from servicios s where s.codigo = 'aire acondicionado');
+
+insert into servicios (bit, codigo)
+select t.bit, 'mascotas' from (select coalesce(max(bit) + 1, 0) as bit from servicios) t
+where not exists (select 1 from servicios s where s.codigo = 'mascotas');
+
+insert into servicios (bit, codigo)
+select t.bit, 'piscina' from (select coalesce(max(bit) + 1, 0) as bit from servicios) t
+where not exists (select 1 from servicios s where s.codigo = 'piscina');
+
+insert into servicios (bit, codigo)
+select t.bit, 'bbq' from (select coalesce(max(bit) + 1, 0) as bit from servicios) t
+where not exists (select 1 from servicios s where s.codigo = 'bbq');
+
+insert into servicios (bit, codigo)
+select t.bit, 'jacuzzi' from (select coalesce(max(bit) + 1, 0) as bit from servicios) t
+where not exists (select 1 from servicios s where s.codigo = 'jacuzzi');
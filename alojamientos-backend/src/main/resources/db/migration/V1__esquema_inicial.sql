@@ -0,0 +1,145 @@
+-- Esquema tal como lo dejaba ddl-auto=update (MariaDB) antes de pasar a Flyway: ids IDENTITY,
+-- servicios en CSV, sin agregados de calificación ni expiración de reservas. Las BD creadas
+-- así no lo ejecutan: se marcan con la línea base (spring.flyway.baseline-version=1) y reciben
+-- lo demás en las migraciones siguientes, igual que una BD nueva. No cambiar: lo nuevo va en
+-- una versión nueva.
+
+create table alojamientos (
+    id bigint not null auto_increment,
+    capacidad_maxima integer not null,
+    ciudad varchar(120) not null,
+    created_at datetime(6) not null,
+    descripcion varchar(1000) not null,
+    direccion varchar(200),
+    estado enum ('ACTIVO','ELIMINADO') not null,
+    latitud float(53),
+    longitud float(53),
+    precio_por_noche decimal(12,2) not null,
+    servicios_csv varchar(500),
+    titulo varchar(120) not null,
+    updated_at datetime(6) not null,
+    anfitrion_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table comentarios (
+    id bigint not null auto_increment,
+    calificacion integer not null,
+    created_at datetime(6) not null,
+    respuesta_anfitrion varchar(255),
+    texto varchar(500),
+    alojamiento_id bigint not null,
+    reserva_id bigint not null,
+    usuario_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table imagenes_alojamiento (
+    id bigint not null auto_increment,
+    principal bit not null,
+    url varchar(500) not null,
+    alojamiento_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table refresh_tokens (
+    id bigint not null auto_increment,
+    created_at datetime(6) not null,
+    expiry_date datetime(6) not null,
+    revoked bit not null,
+    token varchar(500) not null,
+    usuario_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table reservas (
+    id bigint not null auto_increment,
+    check_in date not null,
+    check_out date not null,
+    estado enum ('CANCELADA','COMPLETADA','CONFIRMADA','PENDIENTE') not null,
+    huespedes integer not null,
+    total decimal(12,2),
+    alojamiento_id bigint not null,
+    usuario_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table usuarios (
+    id bigint not null auto_increment,
+    activo bit not null,
+    email varchar(150) not null,
+    fecha_nacimiento date,
+    foto_url varchar(255),
+    nombre varchar(120) not null,
+    password_hash varchar(100) not null,
+    rol enum ('ADMIN','ANFITRION','USER') not null,
+    telefono varchar(30),
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_aloj_ciudad
+   on alojamientos (ciudad);
+
+create index idx_aloj_estado
+   on alojamientos (estado);
+
+create index idx_aloj_anfitrion
+   on alojamientos (anfitrion_id);
+
+alter table if exists comentarios
+   add constraint uk_comentario_reserva unique (reserva_id);
+
+create index idx_refresh_usuario
+   on refresh_tokens (usuario_id);
+
+alter table if exists refresh_tokens
+   add constraint idx_refresh_token unique (token);
+
+create index idx_reserva_estado
+   on reservas (estado);
+
+create index idx_reserva_aloj_usuario
+   on reservas (alojamiento_id, usuario_id);
+
+alter table if exists usuarios
+   add constraint uk_usuario_email unique (email);
+
+alter table if exists alojamientos
+   add constraint FK8dnsuwlxyr1f54xorojl3c0es
+   foreign key (anfitrion_id)
+   references usuarios (id);
+
+alter table if exists comentarios
+   add constraint FKa3d0rynv55l1eimvo1qos7iw3
+   foreign key (alojamiento_id)
+   references alojamientos (id);
+
+alter table if exists comentarios
+   add constraint FKjfefy3pfuxfdu24skcx4shysp
+   foreign key (reserva_id)
+   references reservas (id);
+
+alter table if exists comentarios
+   add constraint FKdts62yj83qe3k748cgcjvm48r
+   foreign key (usuario_id)
+   references usuarios (id);
+
+alter table if exists imagenes_alojamiento
+   add constraint FK1jq0xe1uhbh6xa4k7y8ecouvn
+   foreign key (alojamiento_id)
+   references alojamientos (id);
+
+alter table if exists refresh_tokens
+   add constraint FKpdrw1klic7bvvhhkjojwu64t2
+   foreign key (usuario_id)
+   references usuarios (id);
+
+alter table if exists reservas
+   add constraint FKafbia19titftg8bqx4mkrvrc2
+   foreign key (alojamiento_id)
+   references alojamientos (id);
+
+alter table if exists reservas
+   add constraint FKcfh7qcr7oxomqk5hhbxdg2m7p
+   foreign key (usuario_id)
+   references usuarios (id);
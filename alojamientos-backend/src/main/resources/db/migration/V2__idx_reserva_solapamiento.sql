@@ -0,0 +1,5 @@
+-- Comprobación de solapamiento al reservar (ReservaRepository.existeSolapamiento):
+-- busca por alojamiento y rango de check_in dentro del índice, y check_out y estado se
+-- evalúan en la misma entrada sin leer la fila.
+create index idx_reserva_solapamiento
+   on reservas (alojamiento_id, check_in, check_out, estado);
@@ -0,0 +1,11 @@
+-- Refresh tokens rotatorios: se guarda el SHA-256 del token, nunca el token, y la familia
+-- (las rotaciones desde un mismo login) para revocarla entera si se reutiliza uno ya rotado.
+-- Hasta ahora no se emitían, así que las filas que hubiera no sirven a nadie.
+delete from refresh_tokens;
+
+alter table refresh_tokens change column token token_hash varchar(64) not null;
+alter table refresh_tokens add column familia varchar(36) not null;
+
+create index idx_refresh_familia on refresh_tokens (familia);
+-- purga de expirados por lotes
+create index idx_refresh_expira on refresh_tokens (expiry_date);
@@ -0,0 +1,39 @@
+-- Agregado diario por alojamiento para el panel de anfitriones (OcupacionDiaria): noches
+-- reservadas (reservas PENDIENTE, CONFIRMADA o COMPLETADA), sus ingresos repartidos por
+-- noche y noches canceladas. Se mantiene incrementalmente al crear, cancelar y expirar.
+create table ocupacion_diaria (
+    alojamiento_id bigint not null,
+    dia date not null,
+    anfitrion_id bigint not null,
+    noches integer not null default 0,
+    ingresos decimal(14,2) not null default 0,
+    cancelaciones integer not null default 0,
+    primary key (alojamiento_id, dia),
+    constraint fk_ocupacion_alojamiento foreign key (alojamiento_id) references alojamientos (id)
+) engine=InnoDB;
+
+-- Panel: todos los alojamientos de un anfitrión en un rango de días con un solo recorrido
+-- de este índice, que además cubre las columnas sumadas (no lee las filas)
+create index idx_ocupacion_anfitrion_dia
+   on ocupacion_diaria (anfitrion_id, dia, noches, ingresos, cancelaciones);
+
+-- Carga inicial desde las reservas existentes: una fila por noche (tabla seq_ del motor
+-- SEQUENCE de MariaDB, hasta 10 años por reserva). El ingreso de cada noche es el total
+-- entre las noches truncado a céntimos y la primera se queda el resto, como en OcupacionDiaria.
+insert into ocupacion_diaria (alojamiento_id, dia, anfitrion_id, noches, ingresos, cancelaciones)
+select r.alojamiento_id,
+       r.check_in + interval s.seq day,
+       a.anfitrion_id,
+       sum(r.estado in ('PENDIENTE', 'CONFIRMADA', 'COMPLETADA')),
+       sum(case when r.estado in ('PENDIENTE', 'CONFIRMADA', 'COMPLETADA')
+                then truncate(coalesce(r.total, 0) / datediff(r.check_out, r.check_in), 2)
+                     + case when s.seq = 0
+                            then coalesce(r.total, 0) - truncate(coalesce(r.total, 0) / datediff(r.check_out, r.check_in), 2)
+                                 * datediff(r.check_out, r.check_in)
+                            else 0 end
+                else 0 end),
+       sum(r.estado = 'CANCELADA')
+from reservas r
+join alojamientos a on a.id = r.alojamiento_id
+join seq_0_to_3652 s on s.seq < datediff(r.check_out, r.check_in)
+group by r.alojamiento_id, r.check_in + interval s.seq day, a.anfitrion_id;
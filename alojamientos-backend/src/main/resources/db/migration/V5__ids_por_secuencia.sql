@@ -0,0 +1,41 @@
+-- Ids por secuencia (SEQUENCE pooled, bloques de 50) en lugar de IDENTITY, para que Hibernate
+-- agrupe los INSERT en lotes JDBC. Cada secuencia empieza un bloque por encima del max(id) de
+-- su tabla: el optimizador pooled usa los 50 valores anteriores al que devuelve la secuencia.
+-- CREATE SEQUENCE solo admite constantes, de ahí el DDL preparado. El AUTO_INCREMENT de las
+-- columnas id se queda: con id explícito en cada INSERT no interviene.
+
+set @inicio = (select coalesce(max(id), 0) + 51 from usuarios);
+set @ddl = concat('create sequence if not exists usuarios_seq start with ', @inicio, ' increment by 50 nocache');
+prepare crear from @ddl;
+execute crear;
+deallocate prepare crear;
+
+set @inicio = (select coalesce(max(id), 0) + 51 from alojamientos);
+set @ddl = concat('create sequence if not exists alojamientos_seq start with ', @inicio, ' increment by 50 nocache');
+prepare crear from @ddl;
+execute crear;
+deallocate prepare crear;
+
+set @inicio = (select coalesce(max(id), 0) + 51 from imagenes_alojamiento);
+set @ddl = concat('create sequence if not exists imagenes_alojamiento_seq start with ', @inicio, ' increment by 50 nocache');
+prepare crear from @ddl;
+execute crear;
+deallocate prepare crear;
+
+set @inicio = (select coalesce(max(id), 0) + 51 from reservas);
+set @ddl = concat('create sequence if not exists reservas_seq start with ', @inicio, ' increment by 50 nocache');
+prepare crear from @ddl;
+execute crear;
+deallocate prepare crear;
+
+set @inicio = (select coalesce(max(id), 0) + 51 from comentarios);
+set @ddl = concat('create sequence if not exists comentarios_seq start with ', @inicio, ' increment by 50 nocache');
+prepare crear from @ddl;
+execute crear;
+deallocate prepare crear;
+
+set @inicio = (select coalesce(max(id), 0) + 51 from refresh_tokens);
+set @ddl = concat('create sequence if not exists refresh_tokens_seq start with ', @inicio, ' increment by 50 nocache');
+prepare crear from @ddl;
+execute crear;
+deallocate prepare crear;
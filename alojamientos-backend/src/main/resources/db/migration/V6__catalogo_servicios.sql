@@ -0,0 +1,10 @@
+-- Catálogo de servicios: cada código tiene un bit de alojamientos.servicios_mask. El CSV
+-- anterior (servicios_csv) lo pasa a la máscara MigracionServicios al arrancar.
+create table if not exists servicios (
+    bit integer not null,
+    codigo varchar(60) not null,
+    primary key (bit),
+    constraint uk_servicio_codigo unique (codigo)
+) engine=InnoDB;
+
+alter table alojamientos add column if not exists servicios_mask bigint default 0 not null;
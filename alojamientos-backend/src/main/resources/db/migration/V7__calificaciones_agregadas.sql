@@ -0,0 +1,29 @@
+-- Agregados de calificación por alojamiento (total, suma e histograma 1..5): el promedio
+-- sale de la fila sin recorrer comentarios. Se cargan desde los comentarios existentes.
+alter table alojamientos
+    add column if not exists calificacion_total integer default 0 not null,
+    add column if not exists calificacion_suma bigint default 0 not null,
+    add column if not exists calificacion1 integer default 0 not null,
+    add column if not exists calificacion2 integer default 0 not null,
+    add column if not exists calificacion3 integer default 0 not null,
+    add column if not exists calificacion4 integer default 0 not null,
+    add column if not exists calificacion5 integer default 0 not null;
+
+update alojamientos a
+join (select alojamiento_id,
+             count(*) as total,
+             sum(calificacion) as suma,
+             sum(calificacion = 1) as c1,
+             sum(calificacion = 2) as c2,
+             sum(calificacion = 3) as c3,
+             sum(calificacion = 4) as c4,
+             sum(calificacion = 5) as c5
+      from comentarios
+      group by alojamiento_id) c on c.alojamiento_id = a.id
+set a.calificacion_total = c.total,
+    a.calificacion_suma = c.suma,
+    a.calificacion1 = c.c1,
+    a.calificacion2 = c.c2,
+    a.calificacion3 = c.c3,
+    a.calificacion4 = c.c4,
+    a.calificacion5 = c.c5;
@@ -0,0 +1,6 @@
+-- Reservas PENDIENTE que bloquean fechas solo hasta hold_expira_en; al vencer pasan a
+-- EXPIRADA. Las PENDIENTE que ya existían reciben plazo en el siguiente arranque del job.
+-- EXPIRADA va al final de la lista: añadir al final de un ENUM no reconstruye la tabla.
+alter table reservas
+    modify column estado enum ('CANCELADA','COMPLETADA','CONFIRMADA','PENDIENTE','EXPIRADA') not null,
+    add column if not exists hold_expira_en datetime(6);
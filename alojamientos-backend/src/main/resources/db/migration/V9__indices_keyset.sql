@@ -0,0 +1,9 @@
+-- Paginación por cursor (keyset): cada listado recorre su índice desde el último id visto
+create index if not exists idx_comentario_aloj_fecha
+   on comentarios (alojamiento_id, created_at, id);
+
+create index if not exists idx_reserva_usuario_id
+   on reservas (usuario_id, id);
+
+create index if not exists idx_reserva_aloj_id
+   on reservas (alojamiento_id, id);
@@ -0,0 +1,139 @@
+package com.uq.alojamientos.benchmark;
+
+import com.uq.alojamientos.AlojamientoApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ApplicationListener;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tiempo de arranque de la app con distintos {@code spring.jpa.hibernate.ddl-auto}
+ * (por defecto {@code update} frente a {@code validate}, el actual). Cada arranque va en
+ * una JVM nueva, alternando modos, para medir en frío como en un despliegue. De cada uno se
+ * toma:
+ * <ul>
+ *   <li><b>contexto</b>: hasta el contexto levantado (Flyway, Hibernate, beans), que es
+ *       donde pesa la introspección del esquema de {@code update};</li>
+ *   <li><b>listo</b>: hasta aceptar peticiones;</li>
+ *   <li><b>total</b>: lo que tarda {@code SpringApplication.run}, con los índices en memoria
+ *       que se construyen al estar lista.</li>
+ * </ul>
+ * Con {@code -Dsalida=arranque.csv} añade una fila por modo (medianas) al CSV, con
+ * {@code -Detiqueta} (versión o commit) para seguir la evolución entre versiones.
+ *
+ * <p>Necesita la MariaDB de {@code application.yml} con el esquema migrado. Ejecutar con:
+ * {@code java -cp <classpath de test> -Drepeticiones=5 -Dmodos=update,validate
+ * -Detiqueta=0.0.1 -Dsalida=arranque.csv com.uq.alojamientos.benchmark.ArranqueBenchmark}</p>
+ */
+public class ArranqueBenchmark {
+
+    private static final String PREFIJO = "ARRANQUE_MS ";
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int repeticiones = Integer.getInteger("repeticiones", 5);
+        List<String> modos = Arrays.asList(System.getProperty("modos", "update,validate").split(","));
+        String etiqueta = System.getProperty("etiqueta", "dev");
+        String salida = System.getProperty("salida");
+
+        Map<String, List<long[]>> medidas = new LinkedHashMap<>();
+        modos.forEach(m -> medidas.put(m, new ArrayList<>()));
+
+        // Un arranque descartado por modo: caché de disco del SO y del servidor de BD
+        for (String modo : modos) arrancar(modo);
+        for (int i = 0; i < repeticiones; i++) {
+            for (String modo : modos) medidas.get(modo).add(arrancar(modo));
+        }
+
+        System.out.printf("%d arranques por modo, mediana (mín-máx) en ms%n", repeticiones);
+        System.out.printf("%-10s %20s %20s %20s%n", "ddl-auto", "contexto", "listo", "total");
+        List<String> filas = new ArrayList<>();
+        for (var e : medidas.entrySet()) {
+            long[][] columnas = new long[3][];
+            for (int c = 0; c < 3; c++) {
+                int col = c;
+                columnas[c] = e.getValue().stream().mapToLong(m -> m[col]).sorted().toArray();
+            }
+            System.out.printf("%-10s %20s %20s %20s%n", e.getKey(),
+                    resumen(columnas[0]), resumen(columnas[1]), resumen(columnas[2]));
+            filas.add(String.join(",", LocalDate.now().toString(), etiqueta, e.getKey(),
+                    String.valueOf(mediana(columnas[0])), String.valueOf(mediana(columnas[1])),
+                    String.valueOf(mediana(columnas[2]))));
+        }
+
+        if (salida != null) {
+            Path csv = Path.of(salida);
+            if (Files.notExists(csv)) filas.add(0, "fecha,etiqueta,ddl_auto,contexto_ms,listo_ms,total_ms");
+            Files.write(csv, filas, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            System.out.println("Medianas añadidas a " + csv.toAbsolutePath());
+        }
+    }
+
+    // {contexto, listo, total} del arranque en una JVM hija
+    private static long[] arrancar(String modo) throws IOException, InterruptedException {
+        Process p = new ProcessBuilder(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"),
+                Hijo.class.getName(), modo)
+                .redirectErrorStream(true)
+                .start();
+        long[] medida = null;
+        try (BufferedReader out = new BufferedReader(new InputStreamReader(p.getInputStream(), StandardCharsets.UTF_8))) {
+            for (String linea; (linea = out.readLine()) != null; ) {
+                if (linea.startsWith(PREFIJO)) {
+                    medida = Arrays.stream(linea.substring(PREFIJO.length()).split(" ")).mapToLong(Long::parseLong).toArray();
+                }
+            }
+        }
+        if (p.waitFor() != 0 || medida == null) {
+            throw new IllegalStateException("El arranque con ddl-auto=" + modo + " falló (código " + p.exitValue() + ")");
+        }
+        return medida;
+    }
+
+    private static String resumen(long[] ordenados) {
+        return "%d (%d-%d)".formatted(mediana(ordenados), ordenados[0], ordenados[ordenados.length - 1]);
+    }
+
+    private static long mediana(long[] ordenados) {
+        return ordenados[ordenados.length / 2];
+    }
+
+    /** Arranca la app una vez con el ddl-auto dado e imprime sus tiempos. */
+    public static class Hijo {
+
+        public static void main(String[] args) {
+            long[] tiempos = new long[3];
+            long t0 = System.nanoTime();
+            var ctx = new SpringApplicationBuilder(AlojamientoApplication.class)
+                    .properties(
+                            "spring.jpa.hibernate.ddl-auto=" + args[0],
+                            "spring.jpa.show-sql=false",
+                            "server.port=0",
+                            "logging.level.root=warn")
+                    .listeners((ApplicationListener<?>) e -> {
+                        if (e instanceof ApplicationStartedEvent s) tiempos[0] = s.getTimeTaken().toMillis();
+                        if (e instanceof ApplicationReadyEvent r) tiempos[1] = r.getTimeTaken().toMillis();
+                    })
+                    .run();
+            tiempos[2] = (System.nanoTime() - t0) / 1_000_000;
+            ctx.close();
+            System.out.println(PREFIJO + tiempos[0] + " " + tiempos[1] + " " + tiempos[2]);
+            // Los hilos programados (jobs) no deben retener la JVM
+            System.exit(0);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.uq.alojamientos.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compara un resultado JMH en JSON ({@code -rf json}) con una línea base y marca como
+ * regresión lo que empeora más del umbral (en %) y más que el error de ambas medidas. En
+ * modo throughput empeorar es bajar; en los demás, subir. Termina con código 1 si hay
+ * regresiones, así que rompe {@code mvn -Pbenchmark verify}.
+ *
+ * <p>Sin línea base solo lo avisa: para fijarla, copiar el resultado de una ejecución
+ * buena a {@code jmh-base.json} (o a la ruta de {@code -Djmh.base}).</p>
+ *
+ * <p>Uso: {@code ComparadorBenchmarks <resultado.json> <base.json> [umbral %]}</p>
+ */
+public class ComparadorBenchmarks {
+
+    public static void main(String[] args) throws IOException {
+        Path resultado = Path.of(args[0]);
+        Path base = Path.of(args[1]);
+        double umbral = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+
+        if (Files.notExists(base)) {
+            System.out.printf("Sin línea base en %s: no se compara. Resultado en %s%n", base, resultado);
+            return;
+        }
+        Map<String, Medida> nuevas = leer(resultado);
+        Map<String, Medida> previas = leer(base);
+
+        int regresiones = 0;
+        System.out.printf("%-70s %14s %14s %9s%n", "benchmark", "base", "ahora", "cambio");
+        for (var e : nuevas.entrySet()) {
+            Medida ahora = e.getValue();
+            Medida antes = previas.get(e.getKey());
+            if (antes == null) {
+                System.out.printf("%-70s %14s %14.3f %9s  (nuevo)%n", e.getKey(), "-", ahora.score(), "");
+                continue;
+            }
+            double cambio = (ahora.score() - antes.score()) / antes.score() * 100;
+            // Positivo = peor, sea cual sea el modo
+            double empeora = ahora.throughput() ? -cambio : cambio;
+            boolean regresion = empeora > umbral
+                    && Math.abs(ahora.score() - antes.score()) > ahora.error() + antes.error();
+            if (regresion) regresiones++;
+            System.out.printf("%-70s %14.3f %14.3f %+8.1f%% %s%s%n", e.getKey(), antes.score(), ahora.score(),
+                    cambio, ahora.unidad(), regresion ? "  <-- REGRESIÓN" : "");
+        }
+
+        if (regresiones > 0) {
+            System.out.printf("%d regresiones de más del %.0f%% respecto a %s%n", regresiones, umbral, base);
+            System.exit(1);
+        }
+        System.out.printf("Sin regresiones de más del %.0f%% respecto a %s%n", umbral, base);
+    }
+
+    // benchmark (+ parámetros) -> medida principal
+    private static Map<String, Medida> leer(Path json) throws IOException {
+        Map<String, Medida> medidas = new LinkedHashMap<>();
+        for (JsonNode b : new ObjectMapper().readTree(json.toFile())) {
+            StringBuilder clave = new StringBuilder(b.path("benchmark").asText());
+            b.path("params").fields().forEachRemaining(p -> clave.append(' ').append(p.getKey()).append('=')
+                    .append(p.getValue().asText()));
+            JsonNode m = b.path("primaryMetric");
+            double error = m.path("scoreError").asDouble(0);
+            medidas.put(clave.toString(), new Medida(m.path("score").asDouble(),
+                    Double.isNaN(error) ? 0 : error, m.path("scoreUnit").asText(),
+                    "thrpt".equals(b.path("mode").asText())));
+        }
+        return medidas;
+    }
+
+    private record Medida(double score, double error, String unidad, boolean throughput) {
+    }
+}
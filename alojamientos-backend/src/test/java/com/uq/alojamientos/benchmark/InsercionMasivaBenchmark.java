@@ -0,0 +1,203 @@
+package com.uq.alojamientos.benchmark;
+
+import com.uq.alojamientos.domain.Secuencias;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+
+/**
+ * Filas/segundo al insertar alojamientos y reservas en bloque contra MariaDB, con las dos
+ * estrategias de id:
+ * <ul>
+ *   <li><b>antes</b> (IDENTITY): un INSERT por fila, cada uno esperando su id generado,
+ *       que es lo que Hibernate tiene que hacer con {@code GenerationType.IDENTITY};</li>
+ *   <li><b>después</b> (secuencia pooled + lotes): un {@code nextval} cada
+ *       {@link Secuencias#ASIGNACION} filas e INSERTs enviados en lotes JDBC, como con
+ *       {@code hibernate.jdbc.batch_size} y {@code order_inserts}.</li>
+ * </ul>
+ * Usa tablas propias ({@code bench_*}) que crea y borra; no toca los datos de la app.
+ *
+ * <p>Necesita una MariaDB 10.3+ accesible. Ejecutar con:
+ * {@code java -cp <classpath de test> -Durl=jdbc:mariadb://localhost:3306/alojamientos_db
+ * -Dusuario=root -Dclave=root1234 -Dfilas=20000 com.uq.alojamientos.benchmark.InsercionMasivaBenchmark}</p>
+ */
+public class InsercionMasivaBenchmark {
+
+    private static final int LOTE = Secuencias.ASIGNACION;
+
+    public static void main(String[] args) throws SQLException {
+        String url = System.getProperty("url", "jdbc:mariadb://localhost:3306/alojamientos_db");
+        String usuario = System.getProperty("usuario", "root");
+        String clave = System.getProperty("clave", "root1234");
+        int filas = Integer.getInteger("filas", 20_000);
+
+        try (Connection con = DriverManager.getConnection(url, usuario, clave)) {
+            con.setAutoCommit(false);
+            crearTablas(con);
+            try {
+                // Calentamiento: que el servidor tenga páginas y planes en caché
+                alojamientosIdentity(con, 1_000);
+                alojamientosPooled(con, 1_000);
+                limpiar(con);
+
+                double a1 = alojamientosIdentity(con, filas);
+                double a2 = alojamientosPooled(con, filas);
+                double r1 = reservasIdentity(con, filas);
+                double r2 = reservasPooled(con, filas);
+
+                System.out.printf("%-14s %15s %22s %8s%n", "entidad", "IDENTITY (f/s)", "secuencia+lotes (f/s)", "mejora");
+                System.out.printf("%-14s %,15.0f %,22.0f %7.1fx%n", "alojamientos", a1, a2, a2 / a1);
+                System.out.printf("%-14s %,15.0f %,22.0f %7.1fx%n", "reservas", r1, r2, r2 / r1);
+            } finally {
+                borrarTablas(con);
+            }
+        }
+    }
+
+    private static double alojamientosIdentity(Connection con, int filas) throws SQLException {
+        String sql = "insert into bench_aloj_identity (titulo, ciudad, precio_por_noche, capacidad_maxima) values (?, ?, ?, ?)";
+        long t0 = System.nanoTime();
+        try (PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < filas; i++) {
+                llenarAlojamiento(ps, 1, i);
+                ps.executeUpdate();
+                try (ResultSet rs = ps.getGeneratedKeys()) {
+                    rs.next(); // Hibernate necesita el id para asignarlo a la entidad
+                }
+            }
+        }
+        con.commit();
+        return filas / segundos(t0);
+    }
+
+    private static double alojamientosPooled(Connection con, int filas) throws SQLException {
+        String sql = "insert into bench_aloj_seq (id, titulo, ciudad, precio_por_noche, capacidad_maxima) values (?, ?, ?, ?, ?)";
+        long t0 = System.nanoTime();
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            Pool ids = new Pool(con, "bench_aloj_seq_s");
+            for (int i = 0; i < filas; i++) {
+                ps.setLong(1, ids.siguiente());
+                llenarAlojamiento(ps, 2, i);
+                ps.addBatch();
+                if ((i + 1) % LOTE == 0) ps.executeBatch();
+            }
+            ps.executeBatch();
+        }
+        con.commit();
+        return filas / segundos(t0);
+    }
+
+    private static double reservasIdentity(Connection con, int filas) throws SQLException {
+        String sql = "insert into bench_res_identity (alojamiento_id, usuario_id, check_in, check_out, huespedes, estado) values (?, ?, ?, ?, ?, ?)";
+        long t0 = System.nanoTime();
+        try (PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < filas; i++) {
+                llenarReserva(ps, 1, i);
+                ps.executeUpdate();
+                try (ResultSet rs = ps.getGeneratedKeys()) {
+                    rs.next();
+                }
+            }
+        }
+        con.commit();
+        return filas / segundos(t0);
+    }
+
+    private static double reservasPooled(Connection con, int filas) throws SQLException {
+        String sql = "insert into bench_res_seq (id, alojamiento_id, usuario_id, check_in, check_out, huespedes, estado) values (?, ?, ?, ?, ?, ?, ?)";
+        long t0 = System.nanoTime();
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            Pool ids = new Pool(con, "bench_res_seq_s");
+            for (int i = 0; i < filas; i++) {
+                ps.setLong(1, ids.siguiente());
+                llenarReserva(ps, 2, i);
+                ps.addBatch();
+                if ((i + 1) % LOTE == 0) ps.executeBatch();
+            }
+            ps.executeBatch();
+        }
+        con.commit();
+        return filas / segundos(t0);
+    }
+
+    private static void llenarAlojamiento(PreparedStatement ps, int desde, int i) throws SQLException {
+        ps.setString(desde, "Alojamiento de prueba " + i);
+        ps.setString(desde + 1, i % 2 == 0 ? "Manizales" : "Pereira");
+        ps.setBigDecimal(desde + 2, BigDecimal.valueOf(100_000 + (i % 50) * 5_000L));
+        ps.setInt(desde + 3, 1 + i % 8);
+    }
+
+    private static void llenarReserva(PreparedStatement ps, int desde, int i) throws SQLException {
+        LocalDate checkIn = LocalDate.of(2030, 1, 1).plusDays(i % 365);
+        ps.setLong(desde, 1 + i % 500);
+        ps.setLong(desde + 1, 1 + i % 100);
+        ps.setDate(desde + 2, Date.valueOf(checkIn));
+        ps.setDate(desde + 3, Date.valueOf(checkIn.plusDays(2)));
+        ps.setInt(desde + 4, 2);
+        ps.setString(desde + 5, "PENDIENTE");
+    }
+
+    private static double segundos(long t0) {
+        return (System.nanoTime() - t0) / 1e9;
+    }
+
+    private static void crearTablas(Connection con) throws SQLException {
+        borrarTablas(con);
+        try (Statement st = con.createStatement()) {
+            st.execute("create table bench_aloj_identity (id bigint auto_increment primary key, titulo varchar(120) not null, ciudad varchar(120) not null, precio_por_noche decimal(12,2) not null, capacidad_maxima int not null)");
+            st.execute("create table bench_aloj_seq (id bigint primary key, titulo varchar(120) not null, ciudad varchar(120) not null, precio_por_noche decimal(12,2) not null, capacidad_maxima int not null)");
+            st.execute("create table bench_res_identity (id bigint auto_increment primary key, alojamiento_id bigint not null, usuario_id bigint not null, check_in date not null, check_out date not null, huespedes int not null, estado varchar(15) not null)");
+            st.execute("create table bench_res_seq (id bigint primary key, alojamiento_id bigint not null, usuario_id bigint not null, check_in date not null, check_out date not null, huespedes int not null, estado varchar(15) not null)");
+            st.execute("create sequence bench_aloj_seq_s start with 1 increment by " + LOTE);
+            st.execute("create sequence bench_res_seq_s start with 1 increment by " + LOTE);
+        }
+        con.commit();
+    }
+
+    private static void limpiar(Connection con) throws SQLException {
+        try (Statement st = con.createStatement()) {
+            for (String t : new String[]{"bench_aloj_identity", "bench_aloj_seq", "bench_res_identity", "bench_res_seq"}) {
+                st.execute("truncate table " + t);
+            }
+        }
+        con.commit();
+    }
+
+    private static void borrarTablas(Connection con) throws SQLException {
+        try (Statement st = con.createStatement()) {
+            st.execute("drop table if exists bench_aloj_identity, bench_aloj_seq, bench_res_identity, bench_res_seq");
+            st.execute("drop sequence if exists bench_aloj_seq_s");
+            st.execute("drop sequence if exists bench_res_seq_s");
+        }
+        con.commit();
+    }
+
+    /** Como el optimizador pooled: un nextval reserva el bloque (valor - ASIGNACION, valor]. */
+    private static final class Pool {
+        private final PreparedStatement nextval;
+        private long siguiente;
+        private long tope;
+
+        Pool(Connection con, String secuencia) throws SQLException {
+            this.nextval = con.prepareStatement("select nextval(" + secuencia + ")");
+        }
+
+        long siguiente() throws SQLException {
+            if (siguiente >= tope) {
+                try (ResultSet rs = nextval.executeQuery()) {
+                    rs.next();
+                    tope = rs.getLong(1) + LOTE;
+                    siguiente = tope - LOTE;
+                }
+            }
+            return siguiente++;
+        }
+    }
+}
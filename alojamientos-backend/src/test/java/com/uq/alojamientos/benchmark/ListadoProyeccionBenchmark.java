@@ -0,0 +1,115 @@
+package com.uq.alojamientos.benchmark;
+
+import com.uq.alojamientos.AlojamientoApplication;
+import com.uq.alojamientos.domain.Alojamiento;
+import com.uq.alojamientos.domain.enums.EstadoAlojamiento;
+import com.uq.alojamientos.dto.AlojamientoDTO;
+import com.uq.alojamientos.mapper.AlojamientoMapper;
+import com.uq.alojamientos.repository.AlojamientoRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Bytes asignados y latencia por página de listado de alojamientos, cargando la entidad
+ * completa (lo que hacían los listados) frente a la proyección {@code TarjetaAlojamiento}
+ * (lo que hacen ahora). Cada página pasa por el mapeo a DTO y por una transacción de solo
+ * lectura, como en el servicio; con la entidad se cuenta también la instantánea que guarda
+ * el contexto de persistencia para el dirty checking. La proyección paga además el count
+ * de la {@code Page}, así que el ahorro que se mide es una cota inferior.
+ *
+ * <p>Arranca el contexto de la app sin servidor web contra la BD configurada (necesita la
+ * MariaDB de {@code application.yml} con datos). Ejecutar con:
+ * {@code java -cp <classpath de test> -Dpaginas=500 -Dtamano=20
+ * com.uq.alojamientos.benchmark.ListadoProyeccionBenchmark}</p>
+ */
+public class ListadoProyeccionBenchmark {
+
+    public static void main(String[] args) {
+        int paginas = Integer.getInteger("paginas", 500);
+        int tamano = Integer.getInteger("tamano", 20);
+
+        try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(AlojamientoApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args)) {
+            AlojamientoRepository repo = ctx.getBean(AlojamientoRepository.class);
+            AlojamientoMapper mapper = ctx.getBean(AlojamientoMapper.class);
+            EntityManager em = ctx.getBean(EntityManager.class);
+            TransactionTemplate tx = new TransactionTemplate(ctx.getBean(PlatformTransactionManager.class));
+            tx.setReadOnly(true);
+
+            long total = repo.count();
+            int ultimaPagina = (int) Math.max(0, Math.min(paginas, (total + tamano - 1) / tamano) - 1);
+
+            int[] pagina = {0};
+            Supplier<List<AlojamientoDTO>> entidad = () -> tx.execute(s -> em.createQuery("""
+                            select a from Alojamiento a
+                            where a.estado = :estado
+                            order by a.id
+                            """, Alojamiento.class)
+                    .setParameter("estado", EstadoAlojamiento.ACTIVO)
+                    .setFirstResult(pagina[0] * tamano)
+                    .setMaxResults(tamano)
+                    .getResultList().stream().map(mapper::toDTO).toList());
+            Supplier<List<AlojamientoDTO>> proyeccion = () -> tx.execute(s -> repo
+                    .findByEstadoAndCiudadContainingIgnoreCase(EstadoAlojamiento.ACTIVO, "",
+                            PageRequest.of(pagina[0], tamano, Sort.by("id")))
+                    .map(mapper::tarjetaToDTO).getContent());
+
+            // Calentamiento (sobre la primera página): JIT, planes del servidor y caché de consultas de Hibernate
+            medir(entidad, 200);
+            medir(proyeccion, 200);
+
+            Medida m1 = recorrer(entidad, pagina, ultimaPagina);
+            Medida m2 = recorrer(proyeccion, pagina, ultimaPagina);
+
+            System.out.printf("%d alojamientos, páginas de %d (%d páginas)%n", total, tamano, ultimaPagina + 1);
+            System.out.printf("%-12s %16s %14s%n", "listado", "KB asignados/pág", "µs/pág");
+            System.out.printf("%-12s %,16.1f %,14.0f%n", "entidad", m1.kbPorPagina(), m1.microsPorPagina());
+            System.out.printf("%-12s %,16.1f %,14.0f%n", "proyección", m2.kbPorPagina(), m2.microsPorPagina());
+            System.out.printf("ahorro: %.0f%% de memoria, %.0f%% de tiempo%n",
+                    100 * (1 - m2.kbPorPagina() / m1.kbPorPagina()),
+                    100 * (1 - m2.microsPorPagina() / m1.microsPorPagina()));
+        }
+    }
+
+    private static Medida recorrer(Supplier<List<AlojamientoDTO>> listar, int[] pagina, int ultimaPagina) {
+        long bytes = 0;
+        long nanos = 0;
+        for (pagina[0] = 0; pagina[0] <= ultimaPagina; pagina[0]++) {
+            Medida m = medir(listar, 1);
+            bytes += m.bytes();
+            nanos += m.nanos();
+        }
+        return new Medida(bytes, nanos, ultimaPagina + 1);
+    }
+
+    private static Medida medir(Supplier<List<AlojamientoDTO>> listar, int veces) {
+        com.sun.management.ThreadMXBean hilos = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long hilo = Thread.currentThread().getId();
+        long b0 = hilos.getThreadAllocatedBytes(hilo);
+        long t0 = System.nanoTime();
+        for (int i = 0; i < veces; i++) listar.get();
+        return new Medida(hilos.getThreadAllocatedBytes(hilo) - b0, System.nanoTime() - t0, veces);
+    }
+
+    private record Medida(long bytes, long nanos, int paginas) {
+
+        double kbPorPagina() {
+            return bytes / 1024.0 / paginas;
+        }
+
+        double microsPorPagina() {
+            return nanos / 1000.0 / paginas;
+        }
+    }
+}
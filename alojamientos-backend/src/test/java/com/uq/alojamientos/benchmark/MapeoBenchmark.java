@@ -0,0 +1,165 @@
+package com.uq.alojamientos.benchmark;
+
+import com.uq.alojamientos.domain.Alojamiento;
+import com.uq.alojamientos.domain.Comentario;
+import com.uq.alojamientos.domain.Reserva;
+import com.uq.alojamientos.domain.Usuario;
+import com.uq.alojamientos.domain.enums.EstadoReserva;
+import com.uq.alojamientos.domain.enums.RolUsuario;
+import com.uq.alojamientos.dto.AlojamientoDTO;
+import com.uq.alojamientos.dto.ComentarioDTO;
+import com.uq.alojamientos.dto.ReservaDTO;
+import com.uq.alojamientos.dto.UsuarioDTO;
+import com.uq.alojamientos.index.CatalogoServicios;
+import com.uq.alojamientos.mapper.AlojamientoMapper;
+import com.uq.alojamientos.mapper.AlojamientoMapperImpl;
+import com.uq.alojamientos.mapper.ComentarioMapper;
+import com.uq.alojamientos.mapper.ReservaMapper;
+import com.uq.alojamientos.mapper.UsuarioMapper;
+import com.uq.alojamientos.repository.ServicioRepository;
+import org.mapstruct.factory.Mappers;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Compara el mapeo reflexivo de ModelMapper (el que usaban los servicios) con los
+ * mappers generados por MapStruct, sobre una página de 20 resultados por entidad.
+ *
+ * <p>Ejecutar con: {@code java -cp <classpath de test> com.uq.alojamientos.benchmark.MapeoBenchmark}</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapeoBenchmark {
+
+    private static final int PAGINA = 20;
+
+    private ModelMapper modelMapper;
+    private AlojamientoMapper alojamientoMapper;
+    private ReservaMapper reservaMapper;
+    private ComentarioMapper comentarioMapper;
+    private UsuarioMapper usuarioMapper;
+
+    private List<Alojamiento> alojamientos;
+    private List<Reserva> reservas;
+    private List<Comentario> comentarios;
+    private List<Usuario> usuarios;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        CatalogoServicios catalogo = new CatalogoServicios(
+                mock(ServicioRepository.class), mock(PlatformTransactionManager.class));
+        long servicios = catalogo.mascara(List.of("wifi", "cocina", "piscina", "estacionamiento"));
+        alojamientoMapper = new AlojamientoMapperImpl(catalogo);
+        reservaMapper = Mappers.getMapper(ReservaMapper.class);
+        comentarioMapper = Mappers.getMapper(ComentarioMapper.class);
+        usuarioMapper = Mappers.getMapper(UsuarioMapper.class);
+
+        alojamientos = new ArrayList<>();
+        reservas = new ArrayList<>();
+        comentarios = new ArrayList<>();
+        usuarios = new ArrayList<>();
+        for (long i = 1; i <= PAGINA; i++) {
+            Usuario u = Usuario.builder().id(i).nombre("Usuario " + i).email("u" + i + "@mail.com")
+                    .passwordHash("hash").rol(RolUsuario.ANFITRION).telefono("3001234567")
+                    .fechaNacimiento(LocalDate.of(1990, 1, 1)).activo(true).build();
+            Alojamiento a = new Alojamiento();
+            a.setId(i);
+            a.setAnfitrion(u);
+            a.setTitulo("Cabaña en el bosque " + i);
+            a.setDescripcion("Hermosa cabaña rústica con vista a la montaña y zonas verdes.");
+            a.setCiudad("Manizales");
+            a.setDireccion("Vereda El Manantial");
+            a.setLatitud(5.07);
+            a.setLongitud(-75.51);
+            a.setPrecioPorNoche(new BigDecimal("180000"));
+            a.setCapacidadMaxima(4);
+            a.setServiciosCsv("wifi,cocina,piscina,estacionamiento");
+            a.setServiciosMask(servicios);
+            Reserva r = Reserva.builder().id(i).alojamiento(a).usuario(u)
+                    .checkIn(LocalDate.of(2026, 5, 1)).checkOut(LocalDate.of(2026, 5, 4))
+                    .huespedes(2).estado(EstadoReserva.CONFIRMADA).total(new BigDecimal("540000")).build();
+            Comentario c = Comentario.builder().id(i).reserva(r).alojamiento(a).usuario(u)
+                    .calificacion(5).texto("Excelente estancia, muy recomendado").createdAt(LocalDateTime.now()).build();
+            usuarios.add(u);
+            alojamientos.add(a);
+            reservas.add(r);
+            comentarios.add(c);
+        }
+    }
+
+    @Benchmark
+    public void alojamientoModelMapper(Blackhole bh) {
+        for (Alojamiento a : alojamientos) {
+            // Equivalente al antiguo AlojamientoServiceImpl.mapToDTO
+            AlojamientoDTO dto = modelMapper.map(a, AlojamientoDTO.class);
+            dto.setAnfitrionId(a.getAnfitrion().getId());
+            // y el antiguo Alojamiento.getServiciosLista: partir el CSV en cada fila
+            dto.setServicios(Arrays.stream(a.getServiciosCsv().split(","))
+                    .map(String::trim).filter(x -> !x.isEmpty()).collect(Collectors.toList()));
+            bh.consume(dto);
+        }
+    }
+
+    @Benchmark
+    public void alojamientoMapStruct(Blackhole bh) {
+        for (Alojamiento a : alojamientos) bh.consume(alojamientoMapper.toDTO(a));
+    }
+
+    @Benchmark
+    public void reservaModelMapper(Blackhole bh) {
+        for (Reserva r : reservas) bh.consume(modelMapper.map(r, ReservaDTO.class));
+    }
+
+    @Benchmark
+    public void reservaMapStruct(Blackhole bh) {
+        for (Reserva r : reservas) bh.consume(reservaMapper.toDTO(r));
+    }
+
+    @Benchmark
+    public void comentarioModelMapper(Blackhole bh) {
+        for (Comentario c : comentarios) bh.consume(modelMapper.map(c, ComentarioDTO.class));
+    }
+
+    @Benchmark
+    public void comentarioMapStruct(Blackhole bh) {
+        for (Comentario c : comentarios) bh.consume(comentarioMapper.toDTO(c));
+    }
+
+    @Benchmark
+    public void usuarioModelMapper(Blackhole bh) {
+        for (Usuario u : usuarios) bh.consume(modelMapper.map(u, UsuarioDTO.class));
+    }
+
+    @Benchmark
+    public void usuarioMapStruct(Blackhole bh) {
+        for (Usuario u : usuarios) bh.consume(usuarioMapper.toDTO(u));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MapeoBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
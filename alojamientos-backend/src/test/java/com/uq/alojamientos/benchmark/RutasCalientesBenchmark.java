@@ -0,0 +1,137 @@
+package com.uq.alojamientos.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.uq.alojamientos.domain.Alojamiento;
+import com.uq.alojamientos.domain.Usuario;
+import com.uq.alojamientos.domain.enums.RolUsuario;
+import com.uq.alojamientos.dto.AlojamientoDTO;
+import com.uq.alojamientos.index.CatalogoServicios;
+import com.uq.alojamientos.mapper.AlojamientoMapper;
+import com.uq.alojamientos.mapper.AlojamientoMapperImpl;
+import com.uq.alojamientos.repository.ServicioRepository;
+import com.uq.alojamientos.repository.projection.TarjetaAlojamiento;
+import com.uq.alojamientos.service.impl.ReservaServiceImpl;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Piezas por resultado de los listados y de una reserva, sobre una página de 20:
+ * <ul>
+ *   <li>mapeo a {@link AlojamientoDTO} desde la entidad (detalle; antes
+ *       {@code AlojamientoServiceImpl.mapToDTO}) y desde la proyección de los listados;</li>
+ *   <li>servicios de la máscara a lista ({@link CatalogoServicios#lista}, antes
+ *       {@code Alojamiento.getServiciosLista} partiendo un CSV);</li>
+ *   <li>total de la estancia de {@code ReservaServiceImpl.crear};</li>
+ *   <li>serialización JSON de la {@code Page<AlojamientoDTO>} que devuelven los listados,
+ *       con un ObjectMapper configurado como el de Spring Boot.</li>
+ * </ul>
+ *
+ * <p>Ejecutar con: {@code mvn -Pbenchmark verify -Djmh.incluir=RutasCalientesBenchmark} o
+ * {@code java -cp <classpath de test> com.uq.alojamientos.benchmark.RutasCalientesBenchmark}</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RutasCalientesBenchmark {
+
+    private static final int PAGINA = 20;
+
+    private CatalogoServicios catalogo;
+    private AlojamientoMapper mapper;
+    private ObjectMapper json;
+
+    private List<Alojamiento> alojamientos;
+    private List<TarjetaAlojamiento> tarjetas;
+    private Page<AlojamientoDTO> pagina;
+    private final LocalDate checkIn = LocalDate.of(2026, 5, 1);
+    private final LocalDate checkOut = LocalDate.of(2026, 5, 8);
+
+    @Setup
+    public void setUp() {
+        catalogo = new CatalogoServicios(mock(ServicioRepository.class), mock(PlatformTransactionManager.class));
+        mapper = new AlojamientoMapperImpl(catalogo);
+        json = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        // Combinaciones de servicios distintas, como en una página real
+        List<String> servicios = List.of("wifi", "cocina", "piscina", "parqueadero", "tv", "jacuzzi");
+        Usuario anfitrion = Usuario.builder().id(1L).nombre("Ana").email("ana@correo.com")
+                .passwordHash("hash").rol(RolUsuario.ANFITRION).activo(true).build();
+        alojamientos = new ArrayList<>();
+        tarjetas = new ArrayList<>();
+        for (int i = 1; i <= PAGINA; i++) {
+            long mascara = catalogo.mascara(servicios.subList(0, 1 + i % servicios.size()));
+            Alojamiento a = new Alojamiento();
+            a.setId((long) i);
+            a.setAnfitrion(anfitrion);
+            a.setTitulo("Cabaña en el bosque " + i);
+            a.setDescripcion("Hermosa cabaña rústica con vista a la montaña y zonas verdes.");
+            a.setCiudad("Manizales");
+            a.setDireccion("Vereda El Manantial");
+            a.setLatitud(5.07);
+            a.setLongitud(-75.51);
+            a.setPrecioPorNoche(new BigDecimal("180000"));
+            a.setCapacidadMaxima(4);
+            a.setServiciosMask(mascara);
+            a.setCalificacionTotal(12);
+            a.setCalificacionSuma(53);
+            alojamientos.add(a);
+            tarjetas.add(new TarjetaAlojamiento(a.getId(), 1L, a.getTitulo(), a.getCiudad(), a.getDireccion(),
+                    a.getLatitud(), a.getLongitud(), a.getPrecioPorNoche(), a.getCapacidadMaxima(), mascara, 12, 53));
+        }
+        pagina = new PageImpl<>(tarjetas.stream().map(mapper::tarjetaToDTO).toList(), PageRequest.of(0, PAGINA), 1000);
+    }
+
+    @Benchmark
+    public void alojamientoADto(Blackhole bh) {
+        for (Alojamiento a : alojamientos) bh.consume(mapper.toDTO(a));
+    }
+
+    @Benchmark
+    public void tarjetaADto(Blackhole bh) {
+        for (TarjetaAlojamiento t : tarjetas) bh.consume(mapper.tarjetaToDTO(t));
+    }
+
+    @Benchmark
+    public void serviciosLista(Blackhole bh) {
+        for (TarjetaAlojamiento t : tarjetas) bh.consume(catalogo.lista(t.serviciosMask()));
+    }
+
+    @Benchmark
+    public BigDecimal totalEstancia() {
+        return ReservaServiceImpl.totalEstancia(alojamientos.get(0).getPrecioPorNoche(), checkIn, checkOut);
+    }
+
+    @Benchmark
+    public byte[] paginaJson() throws Exception {
+        return json.writeValueAsBytes(pagina);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RutasCalientesBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
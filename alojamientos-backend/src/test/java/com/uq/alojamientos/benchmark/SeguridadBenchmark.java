@@ -0,0 +1,101 @@
+package com.uq.alojamientos.benchmark;
+
+import com.uq.alojamientos.domain.Usuario;
+import com.uq.alojamientos.domain.enums.RolUsuario;
+import com.uq.alojamientos.metricas.MetricasNegocio;
+import com.uq.alojamientos.repository.UsuarioRepository;
+import com.uq.alojamientos.security.JwtAuthenticationFilter;
+import com.uq.alojamientos.security.JwtService;
+import com.uq.alojamientos.security.UsuariosInactivos;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Coste del JWT en cada petición: emitir un token (login), verificarlo desde cero
+ * ({@code parse}: firma HMAC y claims) y lo que paga realmente el filtro por petición, que
+ * con el token ya en la caché de {@link JwtService#verificar} no vuelve a verificar la firma.
+ *
+ * <p>Ejecutar con: {@code mvn -Pbenchmark verify -Djmh.incluir=SeguridadBenchmark} o
+ * {@code java -cp <classpath de test> com.uq.alojamientos.benchmark.SeguridadBenchmark}</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SeguridadBenchmark {
+
+    private static final String SECRETO = "d3v_5up3r_53cr3t_Cl4v3_L4rg4_y_4l34t0r14_Para_JWT_1234567890";
+
+    private JwtService jwtService;
+    private JwtAuthenticationFilter filtro;
+    private Usuario usuario;
+    private String token;
+    private MockHttpServletRequest conToken;
+    private MockHttpServletRequest sinToken;
+    private final MockHttpServletResponse respuesta = new MockHttpServletResponse();
+    private final FilterChain cadena = (req, res) -> { };
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(SECRETO, 120, 10_000);
+        // La lista de inactivos se lee una vez por TTL: el mock no está en el camino medido
+        filtro = new JwtAuthenticationFilter(jwtService, new UsuariosInactivos(mock(UsuarioRepository.class), true, 3600),
+                new MetricasNegocio(new SimpleMeterRegistry()));
+        usuario = Usuario.builder().id(1L).nombre("Ana Gómez").email("ana@correo.com")
+                .passwordHash("hash").rol(RolUsuario.USER).activo(true).build();
+        token = jwtService.generate(usuario);
+
+        conToken = new MockHttpServletRequest("GET", "/api/reservas/usuario/1");
+        conToken.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        sinToken = new MockHttpServletRequest("GET", "/api/alojamientos");
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtService.generate(usuario);
+    }
+
+    @Benchmark
+    public Object parse() {
+        return jwtService.parse(token);
+    }
+
+    @Benchmark
+    public Object verificarEnCache() {
+        return jwtService.verificar(token);
+    }
+
+    @Benchmark
+    public Object filtroConToken() throws Exception {
+        filtro.doFilter(conToken, respuesta, cadena);
+        Object auth = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext(); // como al acabar cada petición
+        return auth;
+    }
+
+    @Benchmark
+    public void filtroSinToken() throws Exception {
+        filtro.doFilter(sinToken, respuesta, cadena);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SeguridadBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
@@ -0,0 +1,123 @@
+package com.uq.alojamientos.cache;
+
+import com.uq.alojamientos.domain.Alojamiento;
+import com.uq.alojamientos.dto.AlojamientoDTO;
+import com.uq.alojamientos.mapper.AlojamientoMapper;
+import com.uq.alojamientos.repository.AlojamientoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DetalleAlojamientoCacheTest {
+
+    private AlojamientoRepository repo;
+    private DetalleAlojamientoCache cache;
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(AlojamientoRepository.class);
+        AlojamientoMapper mapper = mock(AlojamientoMapper.class);
+        when(mapper.toDTO(any())).thenAnswer(inv -> {
+            AlojamientoDTO dto = new AlojamientoDTO();
+            dto.setId(inv.<Alojamiento>getArgument(0).getId());
+            return dto;
+        });
+        cache = new DetalleAlojamientoCache(repo, mapper, 2, 60);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void obtener_FallosSimultaneosDeberianHacerUnaSolaCarga() throws Exception {
+        CountDownLatch cargando = new CountDownLatch(1);
+        CountDownLatch soltar = new CountDownLatch(1);
+        when(repo.findById(7L)).thenAnswer(inv -> {
+            cargando.countDown();
+            soltar.await(5, TimeUnit.SECONDS);
+            return Optional.of(alojamiento(7L));
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<AlojamientoDTO>> resultados = new ArrayList<>();
+            for (int i = 0; i < 16; i++) resultados.add(pool.submit(() -> cache.obtener(7L)));
+            assertTrue(cargando.await(5, TimeUnit.SECONDS));
+            Thread.sleep(50); // que el resto llegue a la caché mientras la primera carga sigue en curso
+            soltar.countDown();
+
+            AlojamientoDTO primero = resultados.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<AlojamientoDTO> f : resultados) assertSame(primero, f.get(5, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+        verify(repo, times(1)).findById(7L);
+        assertEquals(1, cache.estadisticas().cargas());
+    }
+
+    @Test
+    void obtener_IdInexistenteNoDeberiaQuedarEnCache() {
+        when(repo.findById(9L)).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> cache.obtener(9L));
+        assertThrows(IllegalArgumentException.class, () -> cache.obtener(9L));
+
+        verify(repo, times(2)).findById(9L);
+        assertEquals(0, cache.estadisticas().entradas());
+    }
+
+    @Test
+    void invalidar_EnTransaccionDeberiaDescartarDeNuevoTrasElCommit() {
+        when(repo.findById(1L)).thenReturn(Optional.of(alojamiento(1L)));
+        cache.obtener(1L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.invalidar(1L);
+        cache.obtener(1L); // lectura concurrente que vuelve a cachear la versión sin confirmar
+        List<TransactionSynchronization> pendientes = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        pendientes.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        cache.obtener(1L);
+        verify(repo, times(3)).findById(1L);
+    }
+
+    @Test
+    void estadisticas_DeberiaContarDesalojosPorTamano() {
+        for (long id = 1; id <= 5; id++) {
+            when(repo.findById(id)).thenReturn(Optional.of(alojamiento(id)));
+            cache.obtener(id);
+        }
+        cache.mantenimiento(); // Caffeine aplica el límite de tamaño de forma diferida
+
+        EstadisticasCache stats = cache.estadisticas();
+        assertEquals(5, stats.fallos());
+        assertEquals(3, stats.desalojos());
+        assertEquals(2, stats.entradas());
+        assertEquals(DetalleAlojamientoCache.NOMBRE, stats.nombre());
+    }
+
+    private Alojamiento alojamiento(long id) {
+        Alojamiento a = new Alojamiento();
+        a.setId(id);
+        return a;
+    }
+}
@@ -0,0 +1,137 @@
+package com.uq.alojamientos.config;
+
+import com.uq.alojamientos.domain.Alojamiento;
+import com.uq.alojamientos.domain.Usuario;
+import com.uq.alojamientos.domain.enums.RolUsuario;
+import com.uq.alojamientos.repository.AlojamientoRepository;
+import com.uq.alojamientos.repository.UsuarioRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MariaDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Actualización de una BD de producción anterior a Flyway: se carga el esquema que dejaba
+ * {@code ddl-auto=update} en el commit base ({@code db/esquema_base.sql}) con algunos datos,
+ * y la aplicación arranca sobre ella como en producción: Flyway la marca con la línea base
+ * (versión 1), aplica el resto y Hibernate valida el esquema ({@code ddl-auto=validate}).
+ * Se salta si no hay Docker.
+ *
+ * <p>El alineador de secuencias va apagado: las secuencias tienen que salir bien de la
+ * migración.</p>
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = {
+        "app.secuencias.alinear=false",
+        "management.server.port=-1"
+})
+class MigracionDesdeBaseTest {
+
+    private static final long MAX_ID_USUARIO = 7;
+
+    @Container
+    static final MariaDBContainer<?> MARIADB = new MariaDBContainer<>("mariadb:11.4");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MARIADB::getJdbcUrl);
+        registry.add("spring.datasource.username", MARIADB::getUsername);
+        registry.add("spring.datasource.password", MARIADB::getPassword);
+    }
+
+    // Antes de que arranque el contexto (y con él Flyway)
+    @BeforeAll
+    static void esquemaBase() {
+        DriverManagerDataSource ds = new DriverManagerDataSource(
+                MARIADB.getJdbcUrl(), MARIADB.getUsername(), MARIADB.getPassword());
+        new ResourceDatabasePopulator(new ClassPathResource("db/esquema_base.sql")).execute(ds);
+
+        JdbcTemplate sql = new JdbcTemplate(ds);
+        sql.update("""
+            insert into usuarios (id, activo, email, nombre, password_hash, rol) values
+            (1, 1, 'anfitrion@base.co', 'Anfitrión', 'x', 'ANFITRION'),
+            (%d, 1, 'huesped@base.co', 'Huésped', 'x', 'USER')
+            """.formatted(MAX_ID_USUARIO));
+        sql.update("""
+            insert into alojamientos (id, anfitrion_id, titulo, descripcion, ciudad, capacidad_maxima,
+                                      precio_por_noche, servicios_csv, estado, created_at, updated_at)
+            values (120, 1, 'Cabaña', 'Base', 'Salento', 4, 150000, 'wifi,piscina', 'ACTIVO', now(), now())
+            """);
+        sql.update("""
+            insert into reservas (id, alojamiento_id, usuario_id, check_in, check_out, huespedes, estado, total) values
+            (300, 120, %1$d, '2024-01-10', '2024-01-12', 2, 'COMPLETADA', 300000),
+            (301, 120, %1$d, '2024-02-10', '2024-02-11', 2, 'COMPLETADA', 150000),
+            (302, 120, %1$d, '2030-02-10', '2030-02-11', 2, 'PENDIENTE', 150000)
+            """.formatted(MAX_ID_USUARIO));
+        sql.update("""
+            insert into comentarios (id, reserva_id, alojamiento_id, usuario_id, calificacion, texto, created_at) values
+            (40, 300, 120, %1$d, 4, 'Bien', now()),
+            (41, 301, 120, %1$d, 5, 'Muy bien', now())
+            """.formatted(MAX_ID_USUARIO));
+    }
+
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+    @Autowired
+    private AlojamientoRepository alojamientoRepository;
+
+    @Test
+    void arranque_DeberiaMarcarLaLineaBaseYAplicarElResto() {
+        List<Map<String, Object>> historial = jdbc.queryForList(
+                "select version, type from flyway_schema_history order by installed_rank");
+
+        assertEquals("1", historial.get(0).get("version"));
+        assertEquals("BASELINE", historial.get(0).get("type"));
+        assertTrue(historial.size() > 1, () -> "Sin migraciones aplicadas: " + historial);
+        assertEquals(0, jdbc.queryForObject(
+                "select count(*) from flyway_schema_history where success = 0", Integer.class));
+    }
+
+    @Test
+    void secuencias_DeberianEmpezarPorEncimaDeLosIdsExistentes() {
+        Usuario u = new Usuario();
+        u.setNombre("Nuevo");
+        u.setEmail("nuevo@base.co");
+        u.setPasswordHash("x");
+        u.setRol(RolUsuario.USER);
+        u.setActivo(true);
+
+        Usuario guardado = usuarioRepository.saveAndFlush(u);
+
+        assertTrue(guardado.getId() > MAX_ID_USUARIO, () -> "id repetible: " + guardado.getId());
+    }
+
+    @Test
+    void columnasNuevas_DeberianCargarseDesdeLosDatosExistentes() {
+        Alojamiento a = alojamientoRepository.findById(120L).orElseThrow();
+
+        assertEquals(2, a.getCalificacionTotal());
+        assertEquals(9, a.getCalificacionSuma());
+        assertEquals(1, a.getCalificacion4());
+        assertEquals(1, a.getCalificacion5());
+        assertEquals(4.5, a.getPromedioCalificacion());
+        // MigracionServicios pasó el CSV al catálogo al arrancar
+        assertNotEquals(0, a.getServiciosMask());
+    }
+
+    @Test
+    void reservas_DeberianAdmitirEstadoExpirada() {
+        assertEquals(1, jdbc.update("update reservas set estado = 'EXPIRADA', hold_expira_en = now() where id = 302"));
+    }
+}
@@ -0,0 +1,86 @@
+package com.uq.alojamientos.controller;
+
+import com.uq.alojamientos.domain.Usuario;
+import com.uq.alojamientos.domain.enums.RolUsuario;
+import com.uq.alojamientos.dto.auth.LoginRequest;
+import com.uq.alojamientos.security.JwtService;
+import com.uq.alojamientos.security.LoginService;
+import com.uq.alojamientos.security.RefreshTokenService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AuthControllerTest {
+
+    private static final String SECRETO = "d3v_5up3r_53cr3t_Cl4v3_L4rg4_y_4l34t0r14_Para_JWT_1234567890";
+
+    private final ExecutorService bcrypt = Executors.newSingleThreadExecutor(r -> new Thread(r, "login-bcrypt-1"));
+    private final ExecutorService asincrono = Executors.newSingleThreadExecutor(r -> new Thread(r, "task-1"));
+    private LoginService loginService;
+    private RefreshTokenService refreshTokens;
+    private AuthController controller;
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        loginService = mock(LoginService.class);
+        refreshTokens = mock(RefreshTokenService.class);
+        controller = new AuthController(loginService, new JwtService(SECRETO, 120, 100), refreshTokens, asincrono);
+        usuario = Usuario.builder().id(7L).nombre("Ana").email("ana@correo.com").telefono("3001234567").passwordHash("hash")
+                .rol(RolUsuario.USER).activo(true).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bcrypt.shutdownNow();
+        asincrono.shutdownNow();
+    }
+
+    @Test
+    void login_DeberiaArmarLaRespuestaFueraDelPoolDeBcrypt() throws Exception {
+        when(loginService.autenticar("ana@correo.com", "clave"))
+                .thenReturn(CompletableFuture.supplyAsync(() -> usuario, bcrypt));
+        AtomicReference<String> hilo = new AtomicReference<>();
+        when(refreshTokens.emitir(usuario)).thenAnswer(inv -> {
+            hilo.set(Thread.currentThread().getName());
+            return "refresh";
+        });
+
+        ResponseEntity<?> respuesta = controller.login(peticion("ana@correo.com", "clave")).get(5, TimeUnit.SECONDS);
+
+        assertEquals(200, respuesta.getStatusCode().value());
+        assertEquals("refresh", ((Map<?, ?>) respuesta.getBody()).get("refreshToken"));
+        assertEquals("task-1", hilo.get());
+    }
+
+    @Test
+    void login_ErrorInesperado_NoDeberiaExponerElMensaje() throws Exception {
+        when(loginService.autenticar(any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("jdbc:mariadb://interno")));
+
+        ResponseEntity<?> respuesta = controller.login(peticion("ana@correo.com", "clave")).get(5, TimeUnit.SECONDS);
+
+        assertEquals(500, respuesta.getStatusCode().value());
+        assertEquals(Map.of("error", "Error interno"), respuesta.getBody());
+        verifyNoInteractions(refreshTokens);
+    }
+
+    private static LoginRequest peticion(String email, String clave) {
+        LoginRequest req = new LoginRequest();
+        req.setEmail(email);
+        req.setPassword(clave);
+        return req;
+    }
+}
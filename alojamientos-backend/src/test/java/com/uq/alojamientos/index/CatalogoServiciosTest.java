@@ -0,0 +1,94 @@
+package com.uq.alojamientos.index;
+
+import com.uq.alojamientos.domain.Servicio;
+import com.uq.alojamientos.repository.ServicioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CatalogoServiciosTest {
+
+    private ServicioRepository repo;
+    private CatalogoServicios catalogo;
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(ServicioRepository.class);
+        when(repo.findAll()).thenReturn(List.of(new Servicio(0, "wifi"), new Servicio(1, "cocina")));
+        catalogo = new CatalogoServicios(repo, mock(PlatformTransactionManager.class));
+        catalogo.cargar();
+    }
+
+    @Test
+    void mascara_DeberiaRechazarCodigosDesconocidosSinRegistrarlos() {
+        assertEquals(0b11, catalogo.mascara(List.of(" WiFi", "cocina", "")));
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> catalogo.mascara(List.of("wifi", "Basura-1", "basura-1")));
+
+        assertEquals("Servicios desconocidos: basura-1", ex.getMessage());
+        verify(repo, never()).insertar(anyInt(), any());
+    }
+
+    @Test
+    void mascara_DeberiaAceptarLoQueRegistroOtraInstancia() {
+        when(repo.findAll()).thenReturn(List.of(
+                new Servicio(0, "wifi"), new Servicio(1, "cocina"), new Servicio(2, "sauna")));
+
+        assertEquals(0b101, catalogo.mascara(List.of("wifi", "sauna")));
+        verify(repo, never()).insertar(anyInt(), any());
+    }
+
+    @Test
+    void mascaraRegistrando_DeberiaNormalizarYRegistrarSoloLosNuevos() {
+        long mascara = catalogo.mascaraRegistrando(List.of(" WiFi", "Piscina", "wifi", ""));
+
+        assertEquals(0b101, mascara);
+        verify(repo, times(1)).insertar(2, "piscina");
+        assertEquals(List.of("wifi", "piscina"), catalogo.lista(mascara));
+    }
+
+    @Test
+    void mascaraSiExisten_DeberiaSerVaciaSiAlgunoNoExiste() {
+        assertEquals(OptionalLong.of(0b11), catalogo.mascaraSiExisten(List.of("cocina", "wifi")));
+        assertTrue(catalogo.mascaraSiExisten(List.of("wifi", "sauna")).isEmpty());
+        assertEquals(0b10, catalogo.mascaraConocidos(List.of("sauna", "cocina")));
+        verify(repo, never()).insertar(anyInt(), any());
+    }
+
+    @Test
+    void registrar_SiOtraInstanciaTomoElBit_DeberiaReleerYUsarElSiguiente() {
+        doThrow(new DataIntegrityViolationException("duplicado")).when(repo).insertar(2, "piscina");
+        when(repo.findAll()).thenReturn(List.of(
+                new Servicio(0, "wifi"), new Servicio(1, "cocina"), new Servicio(2, "jacuzzi")));
+
+        assertEquals(3, catalogo.registrar("piscina"));
+        verify(repo).insertar(3, "piscina");
+        assertEquals(List.of("jacuzzi"), catalogo.lista(1L << 2));
+    }
+
+    @Test
+    void registrar_DeberiaFallarConElCatalogoLleno() {
+        List<Servicio> llenos = new ArrayList<>();
+        for (int i = 0; i < CatalogoServicios.MAX_SERVICIOS; i++) llenos.add(new Servicio(i, "s" + i));
+        when(repo.findAll()).thenReturn(llenos);
+        catalogo.cargar();
+
+        assertThrows(IllegalStateException.class, () -> catalogo.registrar("uno-mas"));
+    }
+
+    @Test
+    void registrar_DeberiaRechazarCodigosVaciosOLargos() {
+        assertThrows(IllegalArgumentException.class, () -> catalogo.registrar("  "));
+        assertThrows(IllegalArgumentException.class, () -> catalogo.registrar("x".repeat(61)));
+        verify(repo, never()).insertar(anyInt(), any());
+    }
+}
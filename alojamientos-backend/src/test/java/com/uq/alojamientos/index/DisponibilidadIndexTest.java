@@ -0,0 +1,90 @@
+package com.uq.alojamientos.index;
+
+import com.uq.alojamientos.repository.ReservaRepository;
+import com.uq.alojamientos.repository.projection.BloqueoReserva;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class DisponibilidadIndexTest {
+
+    private static final LocalDate HOY = LocalDate.of(2026, 3, 1);
+
+    private ReservaRepository reservaRepo;
+    private DisponibilidadIndex index;
+
+    @BeforeEach
+    void setUp() {
+        reservaRepo = mock(ReservaRepository.class);
+        index = new DisponibilidadIndex(reservaRepo, 6);
+    }
+
+    @Test
+    void sinReconstruir_NoPuedeResolver() {
+        assertFalse(index.puedeResolver(HOY, HOY.plusDays(2)));
+    }
+
+    @Test
+    void reconstruir_DeberiaCargarReservasActivasDesdeLaBD() {
+        when(reservaRepo.findBloqueosActivos(eq(HOY), any())).thenReturn(List.of(
+                new BloqueoReserva(1L, HOY.plusDays(5), HOY.plusDays(8)),
+                // reserva en curso: empieza antes de la ventana
+                new BloqueoReserva(2L, HOY.minusDays(2), HOY.plusDays(1))
+        ));
+
+        index.reconstruir(HOY);
+
+        assertTrue(index.puedeResolver(HOY, HOY.plusDays(2)));
+        assertEquals(List.of(1L, 3L), index.filtrarLibres(List.of(1L, 2L, 3L), HOY, HOY.plusDays(2)));
+        assertEquals(List.of(2L, 3L), index.filtrarLibres(List.of(1L, 2L, 3L), HOY.plusDays(6), HOY.plusDays(7)));
+    }
+
+    @Test
+    void checkOutYCheckInElMismoDia_NoSolapan() {
+        when(reservaRepo.findBloqueosActivos(any(), any())).thenReturn(List.of(
+                new BloqueoReserva(1L, HOY.plusDays(5), HOY.plusDays(8))
+        ));
+        index.reconstruir(HOY);
+
+        assertTrue(index.estaLibre(1L, HOY.plusDays(8), HOY.plusDays(10)));
+        assertTrue(index.estaLibre(1L, HOY.plusDays(2), HOY.plusDays(5)));
+        assertFalse(index.estaLibre(1L, HOY.plusDays(7), HOY.plusDays(9)));
+    }
+
+    @Test
+    void marcarYLiberar_DeberianActualizarElIndice() {
+        when(reservaRepo.findBloqueosActivos(any(), any())).thenReturn(List.of());
+        index.reconstruir(HOY);
+
+        index.marcar(9L, HOY.plusDays(10), HOY.plusDays(12));
+        assertFalse(index.estaLibre(9L, HOY.plusDays(11), HOY.plusDays(13)));
+
+        index.liberar(9L, HOY.plusDays(10), HOY.plusDays(12));
+        assertTrue(index.estaLibre(9L, HOY.plusDays(11), HOY.plusDays(13)));
+    }
+
+    @Test
+    void fueraDelHorizonte_NoPuedeResolver() {
+        when(reservaRepo.findBloqueosActivos(any(), any())).thenReturn(List.of());
+        index.reconstruir(HOY);
+
+        assertFalse(index.puedeResolver(HOY.plusMonths(6), HOY.plusMonths(6).plusDays(1)));
+        assertFalse(index.puedeResolver(HOY.minusDays(1), HOY.plusDays(1)));
+    }
+
+    @Test
+    void errorAlReconstruir_DejaElIndiceSinUsar() {
+        when(reservaRepo.findBloqueosActivos(any(), any())).thenThrow(new IllegalStateException("BD caída"));
+
+        index.reconstruir(HOY);
+
+        assertFalse(index.puedeResolver(HOY, HOY.plusDays(1)));
+    }
+}
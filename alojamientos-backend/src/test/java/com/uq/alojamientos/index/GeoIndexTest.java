@@ -0,0 +1,70 @@
+package com.uq.alojamientos.index;
+
+import com.uq.alojamientos.repository.AlojamientoRepository;
+import com.uq.alojamientos.repository.projection.PuntoAlojamiento;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class GeoIndexTest {
+
+    private AlojamientoRepository repo;
+    private GeoIndex geo;
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(AlojamientoRepository.class);
+        when(repo.findPuntosActivos()).thenReturn(List.of(
+                new PuntoAlojamiento(1L, 5.070, -75.510),   // Manizales
+                new PuntoAlojamiento(2L, 5.075, -75.520),   // Manizales
+                new PuntoAlojamiento(3L, 4.815, -75.740),   // Pereira
+                new PuntoAlojamiento(4L, 4.535, -75.670)    // Armenia
+        ));
+        geo = new GeoIndex(repo, 0.05);
+        geo.reconstruir();
+    }
+
+    @Test
+    void buscarEnRadio_DeberiaDevolverSoloLosCercanosOrdenadosPorDistancia() {
+        List<GeoIndex.Cercano> resultado = geo.buscarEnRadio(5.0745, -75.519, 5);
+
+        assertEquals(List.of(2L, 1L), resultado.stream().map(GeoIndex.Cercano::id).toList());
+        assertTrue(resultado.get(0).distanciaKm() < resultado.get(1).distanciaKm());
+    }
+
+    @Test
+    void buscarEnRadio_AmplioDeberiaCruzarVariasCeldas() {
+        List<GeoIndex.Cercano> resultado = geo.buscarEnRadio(5.07, -75.51, 80);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), resultado.stream().map(GeoIndex.Cercano::id).toList());
+    }
+
+    @Test
+    void buscarEnArea_DeberiaRespetarLosLimitesExactos() {
+        List<GeoIndex.Cercano> resultado = geo.buscarEnArea(4.5, 4.9, -75.8, -75.6);
+
+        assertEquals(2, resultado.size());
+        assertTrue(resultado.stream().map(GeoIndex.Cercano::id).toList().containsAll(List.of(3L, 4L)));
+    }
+
+    @Test
+    void quitarYReubicar_DeberianMantenerElIndiceAlDia() {
+        geo.quitar(1L);
+        geo.agregar(2L, 4.816, -75.741);
+
+        assertTrue(geo.buscarEnRadio(5.07, -75.51, 5).isEmpty());
+        assertEquals(List.of(3L, 2L), geo.buscarEnRadio(4.815, -75.740, 1).stream()
+                .map(GeoIndex.Cercano::id).toList());
+        assertEquals(3, geo.tamano());
+    }
+
+    @Test
+    void distanciaKm_EntreManizalesYPereira() {
+        double d = GeoIndex.distanciaKm(5.070, -75.510, 4.815, -75.740);
+        assertEquals(38.1, d, 1.0);
+    }
+}
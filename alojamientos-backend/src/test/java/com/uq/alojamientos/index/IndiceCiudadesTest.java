@@ -0,0 +1,72 @@
+package com.uq.alojamientos.index;
+
+import com.uq.alojamientos.repository.AlojamientoRepository;
+import com.uq.alojamientos.repository.projection.ConteoCiudad;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class IndiceCiudadesTest {
+
+    private AlojamientoRepository repo;
+    private IndiceCiudades indice;
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(AlojamientoRepository.class);
+        when(repo.contarActivosPorCiudad()).thenReturn(List.of(
+                new ConteoCiudad("Bogotá", 12),
+                new ConteoCiudad("bogota", 3),
+                new ConteoCiudad("Medellín", 9),
+                new ConteoCiudad("Santa Marta", 4),
+                new ConteoCiudad("Santa Rosa de Cabal", 2),
+                new ConteoCiudad("Santiago de Cali", 7)));
+        indice = new IndiceCiudades(repo);
+        indice.reconstruir();
+    }
+
+    @Test
+    void sugerir_DeberiaIgnorarTildesYUnirGrafias() {
+        assertEquals(List.of(new IndiceCiudades.Sugerencia("Bogotá", 15)), indice.sugerir("BOGO", 5));
+        assertEquals(List.of(new IndiceCiudades.Sugerencia("Medellín", 9)), indice.sugerir("medelli", 5));
+        assertEquals(5, indice.tamano());
+    }
+
+    @Test
+    void sugerir_DeberiaOrdenarPorAlojamientosYRespetarElLimite() {
+        assertEquals(List.of("Santiago de Cali", "Santa Marta", "Santa Rosa de Cabal"),
+                indice.sugerir("san", 5).stream().map(IndiceCiudades.Sugerencia::ciudad).toList());
+        assertEquals(2, indice.sugerir("san", 2).size());
+        assertEquals("Bogotá", indice.sugerir("", 1).get(0).ciudad());
+        assertTrue(indice.sugerir("xyz", 5).isEmpty());
+    }
+
+    @Test
+    void sugerir_DeberiaEncontrarPorCualquierPalabra() {
+        assertEquals(List.of("Santa Marta"),
+                indice.sugerir("mar", 5).stream().map(IndiceCiudades.Sugerencia::ciudad).toList());
+        assertEquals(List.of("Santiago de Cali", "Santa Rosa de Cabal"),
+                indice.sugerir("ca", 5).stream().map(IndiceCiudades.Sugerencia::ciudad).toList());
+    }
+
+    @Test
+    void sumarYRestar_DeberianMantenerLosConteosYPodarAlLlegarACero() {
+        indice.sumar("  Pereira ");
+        indice.sumar("Pereira");
+        assertEquals(List.of(new IndiceCiudades.Sugerencia("Pereira", 2)), indice.sugerir("pe", 5));
+
+        indice.restar("Pereira");
+        indice.restar("Santa Marta");
+        assertEquals(3, indice.sugerir("santa marta", 5).get(0).alojamientos());
+        indice.restar("Pereira");
+
+        assertTrue(indice.sugerir("pe", 5).isEmpty());
+        assertEquals(5, indice.tamano());
+        indice.restar("Ciudad inexistente");
+        assertEquals(5, indice.tamano());
+    }
+}
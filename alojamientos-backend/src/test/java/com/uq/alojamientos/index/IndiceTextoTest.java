@@ -0,0 +1,100 @@
+package com.uq.alojamientos.index;
+
+import com.uq.alojamientos.domain.Servicio;
+import com.uq.alojamientos.repository.AlojamientoRepository;
+import com.uq.alojamientos.repository.ServicioRepository;
+import com.uq.alojamientos.repository.projection.TextoAlojamiento;
+import com.uq.alojamientos.util.TextoPlano;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class IndiceTextoTest {
+
+    private AlojamientoRepository repo;
+    private IndiceTexto indice;
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(AlojamientoRepository.class);
+        ServicioRepository servicioRepo = mock(ServicioRepository.class);
+        when(servicioRepo.findAll()).thenReturn(List.of(new Servicio(0, "wifi"), new Servicio(1, "piscina")));
+        CatalogoServicios catalogo = new CatalogoServicios(servicioRepo, mock(PlatformTransactionManager.class));
+        catalogo.cargar();
+        indice = new IndiceTexto(repo, catalogo, 3);
+    }
+
+    @Test
+    void terminos_DeberiaPlegarTildesQuitarVaciasYPlurales() {
+        assertEquals(List.of("habitacion", "medellin", "hotel", "flor", "casa", "nino"),
+                TextoPlano.terminos("Habitación en MEDELLÍN: hoteles, flores y casas para niños"));
+    }
+
+    @Test
+    void buscar_DeberiaIgnorarTildesYMayusculas() {
+        indice.agregar(1L, "Apartamento en Medellín", "Vista a las montañas del valle de Aburrá", "Medellín", 0);
+        indice.agregar(2L, "Casa en Bogotá", "Cerca del parque de la 93 y de restaurantes", "Bogotá", 0);
+
+        assertEquals(List.of(1L), ids(indice.buscar("MEDELLIN")));
+        assertEquals(List.of(1L), ids(indice.buscar("montaña")));
+        assertEquals(List.of(2L), ids(indice.buscar("bogota")));
+        assertTrue(indice.buscar("de la y").isEmpty());
+    }
+
+    @Test
+    void buscar_DeberiaDarMasPuntuacionAlTituloYALosTerminosRaros() {
+        indice.agregar(1L, "Loft moderno", "Loft con terraza y jacuzzi privado en la azotea", "Cali", 0);
+        indice.agregar(2L, "Casa amplia", "Casa familiar con jacuzzi y terraza", "Cali", 0);
+        indice.agregar(3L, "Jacuzzi y sauna", "Apartamento de lujo con terraza", "Cali", 0);
+
+        // "jacuzzi" aparece en los tres: pesa más donde está en el título
+        assertEquals(3L, indice.buscar("jacuzzi").get(0).id());
+        // "loft" solo en uno: pesa más que "terraza", que está en todos
+        assertEquals(1L, indice.buscar("terraza loft").get(0).id());
+    }
+
+    @Test
+    void buscar_DeberiaIndexarServiciosYLimitarCoincidencias() {
+        for (long id = 1; id <= 5; id++) {
+            indice.agregar(id, "Cabaña " + id, "Cabaña en el bosque con chimenea", "Guatapé", 0b10);
+        }
+
+        List<IndiceTexto.Coincidencia> piscina = indice.buscar("piscinas");
+        assertEquals(List.of(1L, 2L, 3L), ids(piscina)); // máximo 3, empates por id
+    }
+
+    @Test
+    void quitarYReemplazar_DeberianActualizarElIndice() {
+        indice.agregar(1L, "Finca cafetera", "Finca tradicional entre cafetales", "Armenia", 0);
+        indice.agregar(1L, "Glamping", "Domo con vista al paisaje cafetero", "Salento", 0);
+        assertTrue(indice.buscar("finca").isEmpty());
+        assertEquals(List.of(1L), ids(indice.buscar("salento")));
+
+        indice.quitar(1L);
+        assertTrue(indice.buscar("salento").isEmpty());
+        assertEquals(0, indice.tamano());
+    }
+
+    @Test
+    void reconstruir_DeberiaCargarLosActivosDeLaBd() {
+        when(repo.findTextosActivos()).thenReturn(List.of(
+                new TextoAlojamiento(7L, "Casa frente al mar", "Casa con acceso directo a la playa", "Santa Marta", 0b1),
+                new TextoAlojamiento(9L, "Hostal", "Habitaciones compartidas en el centro histórico", "Cartagena", 0)));
+        indice.agregar(1L, "Ya no existe", "Quedó de una carga anterior del índice", "Cali", 0);
+
+        indice.reconstruir();
+
+        assertEquals(2, indice.tamano());
+        assertEquals(List.of(7L), ids(indice.buscar("playa wifi")));
+        assertTrue(indice.buscar("existe").isEmpty());
+    }
+
+    private static List<Long> ids(List<IndiceTexto.Coincidencia> coincidencias) {
+        return coincidencias.stream().map(IndiceTexto.Coincidencia::id).toList();
+    }
+}
@@ -0,0 +1,136 @@
+package com.uq.alojamientos.job;
+
+import com.uq.alojamientos.cache.BusquedaCache;
+import com.uq.alojamientos.index.DisponibilidadIndex;
+import com.uq.alojamientos.reporte.OcupacionDiaria;
+import com.uq.alojamientos.repository.ReservaRepository;
+import com.uq.alojamientos.repository.projection.HoldPendiente;
+import com.uq.alojamientos.repository.projection.ReservaOcupacion;
+import com.uq.alojamientos.util.CandadoEstriado;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ExpiracionReservasJobTest {
+
+    private ReservaRepository reservaRepo;
+    private DisponibilidadIndex disponibilidad;
+    private OcupacionDiaria ocupacion;
+    private ExpiracionReservasJob job;
+
+    private final LocalDate checkIn = LocalDate.now().plusDays(10);
+
+    @BeforeEach
+    void setUp() {
+        reservaRepo = mock(ReservaRepository.class);
+        disponibilidad = mock(DisponibilidadIndex.class);
+        ocupacion = mock(OcupacionDiaria.class);
+        job = new ExpiracionReservasJob(reservaRepo, disponibilidad, new CandadoEstriado(16),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), mock(BusquedaCache.class),
+                ocupacion, 15, 1000);
+    }
+
+    @Test
+    void sinPlazo_NoDeberiaDarVencimientoNiTocarLasPendientes() {
+        ExpiracionReservasJob sinPlazo = new ExpiracionReservasJob(reservaRepo, disponibilidad, new CandadoEstriado(16),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), mock(BusquedaCache.class),
+                ocupacion, 0, 1000);
+
+        assertNull(sinPlazo.vencimientoDesde(LocalDateTime.now()));
+        sinPlazo.alArrancar();
+
+        verify(reservaRepo, never()).asignarPlazoAPendientesSinPlazo(any());
+        assertEquals(0, sinPlazo.pendientes());
+    }
+
+    @Test
+    void tick_DeberiaExpirarEnLoteYLiberarSoloLasQueSeguianPendientes() {
+        LocalDateTime vencida = LocalDateTime.now().minusMinutes(1);
+        when(reservaRepo.findHoldsPendientes()).thenReturn(List.of(
+                new HoldPendiente(1L, 7L, checkIn, checkIn.plusDays(2), vencida),
+                new HoldPendiente(2L, 8L, checkIn, checkIn.plusDays(3), vencida)));
+        // La 2 se confirmó justo antes del UPDATE: el guard de estado no la toca
+        when(reservaRepo.findIdsExpiradas(List.of(1L, 2L))).thenReturn(List.of(1L));
+        job.alArrancar();
+
+        int expiradas = job.tick(System.currentTimeMillis());
+
+        assertEquals(1, expiradas);
+        verify(reservaRepo, times(1)).expirarHolds(eq(List.of(1L, 2L)), any());
+        verify(disponibilidad).liberar(7L, checkIn, checkIn.plusDays(2));
+        verify(disponibilidad, never()).liberar(eq(8L), any(), any());
+        assertEquals(0, job.pendientes());
+    }
+
+    @Test
+    void tick_DeberiaDescontarDeLaOcupacionSoloLoQueVenceEstaInstancia() {
+        LocalDateTime vencida = LocalDateTime.now().minusMinutes(1);
+        when(reservaRepo.findHoldsPendientes()).thenReturn(List.of(
+                new HoldPendiente(1L, 7L, checkIn, checkIn.plusDays(2), vencida),
+                new HoldPendiente(2L, 8L, checkIn, checkIn.plusDays(3), vencida)));
+        // La 2 ya la había vencido otra instancia: sale en findIdsExpiradas pero no se bloquea aquí
+        when(reservaRepo.bloquearVencibles(eq(List.of(1L, 2L)), any())).thenReturn(List.of(1L));
+        List<ReservaOcupacion> filas = List.of(
+                new ReservaOcupacion(1L, 7L, 3L, checkIn, checkIn.plusDays(2), new BigDecimal("200.00")));
+        when(reservaRepo.findOcupaciones(List.of(1L))).thenReturn(filas);
+        when(reservaRepo.findIdsExpiradas(List.of(1L, 2L))).thenReturn(List.of(1L, 2L));
+        job.alArrancar();
+
+        assertEquals(2, job.tick(System.currentTimeMillis()));
+        verify(ocupacion).expiradas(filas);
+        verify(disponibilidad).liberar(8L, checkIn, checkIn.plusDays(3));
+    }
+
+    @Test
+    void tick_NoDeberiaTocarLaBDAntesDelPlazo() {
+        LocalDateTime plazo = job.vencimientoDesde(LocalDateTime.now());
+        when(reservaRepo.findHoldsPendientes()).thenReturn(List.of(
+                new HoldPendiente(1L, 7L, checkIn, checkIn.plusDays(2), plazo)));
+        job.alArrancar();
+
+        assertEquals(0, job.tick(System.currentTimeMillis()));
+        verify(reservaRepo, never()).expirarHolds(any(), any());
+        assertEquals(1, job.pendientes());
+    }
+
+    @Test
+    void tick_NoDeberiaExpirarReservasDescartadas() {
+        when(reservaRepo.findHoldsPendientes()).thenReturn(List.of(
+                new HoldPendiente(1L, 7L, checkIn, checkIn.plusDays(2), LocalDateTime.now().minusSeconds(5))));
+        job.alArrancar();
+        job.descartar(1L);
+
+        assertEquals(0, job.tick(System.currentTimeMillis()));
+        verify(reservaRepo, never()).expirarHolds(any(), any());
+    }
+
+    @Test
+    void tick_DeberiaReprogramarElLoteSiFallaLaBD() {
+        when(reservaRepo.findHoldsPendientes()).thenReturn(List.of(
+                new HoldPendiente(1L, 7L, checkIn, checkIn.plusDays(2), LocalDateTime.now().minusSeconds(5))));
+        when(reservaRepo.expirarHolds(any(), any())).thenThrow(new IllegalStateException("BD caída"));
+        job.alArrancar();
+
+        assertEquals(0, job.tick(System.currentTimeMillis()));
+        assertEquals(1, job.pendientes());
+        verifyNoInteractions(disponibilidad);
+    }
+
+    @Test
+    void vencimientoDesde_DeberiaSumarElPlazoATruncadoASegundos() {
+        LocalDateTime ahora = LocalDateTime.of(2025, 5, 1, 10, 0, 0, 900_000_000);
+
+        assertEquals(ahora.plusMinutes(15).truncatedTo(ChronoUnit.SECONDS), job.vencimientoDesde(ahora));
+    }
+}
@@ -0,0 +1,152 @@
+package com.uq.alojamientos.mapper;
+
+import com.uq.alojamientos.domain.Alojamiento;
+import com.uq.alojamientos.domain.Comentario;
+import com.uq.alojamientos.domain.Reserva;
+import com.uq.alojamientos.domain.Servicio;
+import com.uq.alojamientos.domain.Usuario;
+import com.uq.alojamientos.domain.enums.EstadoAlojamiento;
+import com.uq.alojamientos.domain.enums.EstadoReserva;
+import com.uq.alojamientos.domain.enums.RolUsuario;
+import com.uq.alojamientos.dto.AlojamientoDTO;
+import com.uq.alojamientos.dto.ComentarioDTO;
+import com.uq.alojamientos.dto.ReservaDTO;
+import com.uq.alojamientos.dto.UsuarioDTO;
+import com.uq.alojamientos.index.CatalogoServicios;
+import com.uq.alojamientos.repository.ServicioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MappersTest {
+
+    private final ServicioRepository servicioRepo = mock(ServicioRepository.class);
+    private final CatalogoServicios catalogo =
+            new CatalogoServicios(servicioRepo, mock(PlatformTransactionManager.class));
+    private final AlojamientoMapper alojamientoMapper = new AlojamientoMapperImpl(catalogo);
+    private final ReservaMapper reservaMapper = Mappers.getMapper(ReservaMapper.class);
+    private final ComentarioMapper comentarioMapper = Mappers.getMapper(ComentarioMapper.class);
+    private final UsuarioMapper usuarioMapper = Mappers.getMapper(UsuarioMapper.class);
+
+    @BeforeEach
+    void setUp() {
+        when(servicioRepo.findAll()).thenReturn(List.of(new Servicio(0, "wifi"), new Servicio(1, "cocina")));
+        catalogo.cargar();
+    }
+
+    @Test
+    void alojamiento_DeberiaAplanarAnfitrionYServicios() {
+        Usuario anfitrion = Usuario.builder().id(4L).build();
+        Alojamiento a = new Alojamiento();
+        a.setId(10L);
+        a.setAnfitrion(anfitrion);
+        a.setTitulo("Cabaña en el bosque");
+        a.setPrecioPorNoche(new BigDecimal("180000"));
+        a.setServiciosMask(0b11);
+
+        AlojamientoDTO dto = alojamientoMapper.toDTO(a);
+
+        assertEquals(10L, dto.getId());
+        assertEquals(4L, dto.getAnfitrionId());
+        assertEquals(List.of("wifi", "cocina"), dto.getServicios());
+        assertEquals(new BigDecimal("180000"), dto.getPrecioPorNoche());
+    }
+
+    @Test
+    void alojamiento_ConLosMismosServiciosDeberiaCompartirLaLista() {
+        Alojamiento a = new Alojamiento();
+        a.setServiciosMask(0b11);
+        Alojamiento b = new Alojamiento();
+        b.setServiciosMask(0b11);
+
+        assertSame(alojamientoMapper.toDTO(a).getServicios(), alojamientoMapper.toDTO(b).getServicios());
+    }
+
+    @Test
+    void alojamiento_DeberiaExponerPromedioYTotalDeCalificaciones() {
+        Alojamiento a = new Alojamiento();
+        a.setCalificacionTotal(3);
+        a.setCalificacionSuma(13);
+
+        AlojamientoDTO dto = alojamientoMapper.toDTO(a);
+
+        assertEquals(3, dto.getTotalCalificaciones());
+        assertEquals(4.3, dto.getPromedioCalificacion());
+    }
+
+    @Test
+    void alojamiento_DeDTOaEntidadNoDeberiaCopiarIdNiEstado() {
+        AlojamientoDTO dto = new AlojamientoDTO();
+        dto.setId(99L);
+        dto.setTitulo("Loft estudio");
+        dto.setServicios(List.of("cocina", "WiFi"));
+
+        Alojamiento a = alojamientoMapper.toEntity(dto);
+
+        assertNull(a.getId());
+        assertNull(a.getAnfitrion());
+        assertEquals(EstadoAlojamiento.ACTIVO, a.getEstado());
+        assertNull(a.getServiciosCsv());
+        assertEquals(0b11, a.getServiciosMask());
+    }
+
+    @Test
+    void alojamiento_ConServicioFueraDelCatalogoDeberiaRechazarse() {
+        AlojamientoDTO dto = new AlojamientoDTO();
+        dto.setServicios(List.of("wifi", "piscina"));
+
+        assertThrows(IllegalArgumentException.class, () -> alojamientoMapper.toEntity(dto));
+        verify(servicioRepo, never()).insertar(anyInt(), any());
+    }
+
+    @Test
+    void reserva_DeberiaAplanarAlojamientoYUsuario() {
+        Reserva r = new Reserva();
+        r.setId(1L);
+        r.setAlojamiento(Alojamiento.builder().id(2L).build());
+        r.setUsuario(Usuario.builder().id(3L).build());
+        r.setCheckIn(LocalDate.of(2026, 5, 1));
+        r.setCheckOut(LocalDate.of(2026, 5, 3));
+        r.setEstado(EstadoReserva.CONFIRMADA);
+
+        ReservaDTO dto = reservaMapper.toDTO(r);
+
+        assertEquals(2L, dto.getAlojamientoId());
+        assertEquals(3L, dto.getUsuarioId());
+        assertEquals(EstadoReserva.CONFIRMADA, dto.getEstado());
+    }
+
+    @Test
+    void comentario_DeberiaAplanarReservaAlojamientoYUsuario() {
+        Comentario c = new Comentario();
+        c.setReserva(Reserva.builder().id(1L).build());
+        c.setAlojamiento(Alojamiento.builder().id(2L).build());
+        c.setUsuario(Usuario.builder().id(3L).build());
+        c.setCalificacion(5);
+
+        ComentarioDTO dto = comentarioMapper.toDTO(c);
+
+        assertEquals(1L, dto.getReservaId());
+        assertEquals(2L, dto.getAlojamientoId());
+        assertEquals(3L, dto.getUsuarioId());
+        assertEquals(5, dto.getCalificacion());
+    }
+
+    @Test
+    void usuario_NuncaDeberiaExponerElPassword() {
+        Usuario u = Usuario.builder().id(1L).nombre("Alice").passwordHash("hash").rol(RolUsuario.ANFITRION).build();
+
+        UsuarioDTO dto = usuarioMapper.toDTO(u);
+
+        assertNull(dto.getPassword());
+        assertEquals("ANFITRION", dto.getRol());
+    }
+}
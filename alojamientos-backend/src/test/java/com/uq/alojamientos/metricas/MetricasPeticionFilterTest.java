@@ -0,0 +1,156 @@
+package com.uq.alojamientos.metricas;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricasPeticionFilterTest {
+
+    private SimpleMeterRegistry registry;
+    private List<Object> eventos;
+    private MetricasPeticionFilter filtro;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        new ConsultasSql(registry);
+        eventos = new ArrayList<>();
+        filtro = new MetricasPeticionFilter(registry, eventos::add, 20, 3);
+    }
+
+    @Test
+    void doFilter_DeberiaRegistrarLasConsultasDeLaPeticion() throws Exception {
+        filtro.doFilter(new MockHttpServletRequest("GET", "/api/reservas"), new MockHttpServletResponse(),
+                (req, res) -> {
+                    // Lo que haría Hibernate: una consulta y un lote de inserts
+                    EscuchaConsultasHibernate escucha = new EscuchaConsultasHibernate();
+                    escucha.jdbcExecuteStatementStart();
+                    escucha.jdbcExecuteStatementEnd();
+                    escucha.jdbcExecuteBatchStart();
+                    escucha.jdbcExecuteBatchEnd();
+                    assertEquals(2, ConsultasSql.peticion().consultas());
+                });
+
+        DistributionSummary consultas = registry.get(MetricasPeticionFilter.CONSULTAS_PETICION).summary();
+        assertEquals(1, consultas.count());
+        assertEquals(2, consultas.totalAmount());
+        assertEquals(1, registry.get(MetricasPeticionFilter.TIEMPO_PETICION).timer().count());
+        assertEquals(2, registry.get(ConsultasSql.CONSULTAS).timer().count());
+        assertFalse(ConsultasSql.peticion().activa());
+    }
+
+    @Test
+    void doFilter_DeberiaEmpezarDeCeroEnCadaPeticion() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            filtro.doFilter(new MockHttpServletRequest("GET", "/api/alojamientos"), new MockHttpServletResponse(),
+                    (req, res) -> ConsultasSql.registrar(TimeUnit.MILLISECONDS.toNanos(2)));
+        }
+
+        DistributionSummary consultas = registry.get(MetricasPeticionFilter.CONSULTAS_PETICION).summary();
+        assertEquals(3, consultas.count());
+        assertEquals(1, consultas.max());
+        Timer tiempo = registry.get(MetricasPeticionFilter.TIEMPO_PETICION).timer();
+        assertEquals(2, tiempo.max(TimeUnit.MILLISECONDS), 0.001);
+    }
+
+    @Test
+    void doFilter_DeberiaAvisarSiSuperaElPresupuestoDelEndpoint() throws Exception {
+        MockHttpServletRequest request = aHandler("listar");
+
+        filtro.doFilter(request, new MockHttpServletResponse(), (req, res) -> consultas(3));
+
+        ExcesoConsultas exceso = (ExcesoConsultas) eventos.get(0);
+        assertEquals("Demo.listar", exceso.handler());
+        assertEquals(3, exceso.consultas());
+        assertEquals(2, exceso.presupuesto());
+        assertTrue(exceso.excedePresupuesto());
+        assertFalse(exceso.posibleNMasUno());
+        assertEquals(1, registry.get(MetricasPeticionFilter.EXCESOS).tag("tipo", "presupuesto").counter().count());
+    }
+
+    @Test
+    void doFilter_DeberiaUsarElPresupuestoGeneralSinAnotacion() throws Exception {
+        filtro.doFilter(aHandler("sinPresupuesto"), new MockHttpServletResponse(), (req, res) -> consultas(20));
+        assertTrue(eventos.isEmpty());
+
+        filtro.doFilter(aHandler("sinPresupuesto"), new MockHttpServletResponse(), (req, res) -> consultas(21));
+        assertEquals(20, ((ExcesoConsultas) eventos.get(0)).presupuesto());
+    }
+
+    @Test
+    void doFilter_DeberiaDetectarSelectRepetida() throws Exception {
+        DetectorNMasUno detector = new DetectorNMasUno();
+        String porId = "select u.id, u.nombre from usuarios u where u.id=?";
+
+        filtro.doFilter(aHandler("sinPresupuesto"), new MockHttpServletResponse(), (req, res) -> {
+            detector.inspect("select r.id from reservas r where r.alojamiento_id=?");
+            for (int i = 0; i < 3; i++) detector.inspect(new String(porId)); // mismo texto, otra instancia
+            detector.inspect("insert into reservas (id) values (?)");
+            detector.inspect("insert into reservas (id) values (?)");
+            detector.inspect("insert into reservas (id) values (?)");
+        });
+
+        ExcesoConsultas exceso = (ExcesoConsultas) eventos.get(0);
+        assertTrue(exceso.posibleNMasUno());
+        assertFalse(exceso.excedePresupuesto());
+        assertEquals(porId, exceso.sentencia());
+        assertEquals(3, exceso.repeticiones());
+        assertEquals(1, registry.get(MetricasPeticionFilter.EXCESOS).tag("tipo", "n_mas_uno").counter().count());
+    }
+
+    @Test
+    void doFilter_NoDeberiaArrastrarRepeticionesDeLaPeticionAnterior() throws Exception {
+        DetectorNMasUno detector = new DetectorNMasUno();
+        for (int i = 0; i < 2; i++) {
+            filtro.doFilter(aHandler("sinPresupuesto"), new MockHttpServletResponse(), (req, res) -> {
+                detector.inspect("select 1");
+                detector.inspect("select 1");
+            });
+        }
+
+        assertTrue(eventos.isEmpty());
+        assertEquals(2, ConsultasSql.peticion().maxRepeticiones());
+    }
+
+    @Test
+    void registrar_FueraDeUnaPeticion_SoloDeberiaContarEnElTotal() {
+        int antes = ConsultasSql.peticion().consultas();
+        ConsultasSql.registrar(1_000);
+
+        assertEquals(antes, ConsultasSql.peticion().consultas());
+        assertEquals(1, registry.get(ConsultasSql.CONSULTAS).timer().count());
+    }
+
+    private static void consultas(int n) {
+        for (int i = 0; i < n; i++) ConsultasSql.registrar(1_000);
+    }
+
+    private static MockHttpServletRequest aHandler(String metodo) throws NoSuchMethodException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/demo");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE,
+                new HandlerMethod(new Demo(), Demo.class.getMethod(metodo)));
+        return request;
+    }
+
+    public static class Demo {
+
+        @PresupuestoConsultas(2)
+        public void listar() {
+        }
+
+        public void sinPresupuesto() {
+        }
+    }
+}
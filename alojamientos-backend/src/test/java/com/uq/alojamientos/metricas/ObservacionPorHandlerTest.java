@@ -0,0 +1,46 @@
+package com.uq.alojamientos.metricas;
+
+import io.micrometer.common.KeyValue;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ObservacionPorHandlerTest {
+
+    private final ObservacionPorHandler convencion = new ObservacionPorHandler();
+
+    @Test
+    void getLowCardinalityKeyValues_DeberiaEtiquetarConClaseYMetodo() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/demo/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE,
+                new HandlerMethod(new Demo(), Demo.class.getMethod("detalle")));
+
+        KeyValue handler = handler(request);
+        assertEquals("Demo.detalle", handler.getValue());
+        // La misma etiqueta en la siguiente petición al mismo método
+        assertSame(handler, handler(request));
+    }
+
+    @Test
+    void getLowCardinalityKeyValues_SinControlador_DeberiaEtiquetarNinguno() {
+        assertEquals("ninguno", handler(new MockHttpServletRequest("GET", "/no-existe")).getValue());
+    }
+
+    private KeyValue handler(MockHttpServletRequest request) {
+        var contexto = new ServerRequestObservationContext(request, new MockHttpServletResponse());
+        return convencion.getLowCardinalityKeyValues(contexto).stream()
+                .filter(kv -> kv.getKey().equals("handler"))
+                .findFirst().orElseThrow();
+    }
+
+    public static class Demo {
+        public String detalle() {
+            return "ok";
+        }
+    }
+}
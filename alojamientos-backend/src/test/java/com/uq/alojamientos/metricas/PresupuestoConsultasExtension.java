@@ -0,0 +1,72 @@
+package com.uq.alojamientos.metricas;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.opentest4j.AssertionFailedError;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Hace fallar un test de integración si alguna petición que atendió el contexto de Spring
+ * del test se pasó de su {@link PresupuestoConsultas} o repitió una SELECT hasta el umbral
+ * de N+1 (los {@link ExcesoConsultas} que publica {@link MetricasPeticionFilter}).
+ *
+ * <pre>
+ * &#64;SpringBootTest
+ * &#64;AutoConfigureMockMvc
+ * &#64;ExtendWith(PresupuestoConsultasExtension.class)
+ * class AlojamientoControllerIT { ... }
+ * </pre>
+ *
+ * <p>Con MockMvc la petición (y el filtro) corre en el hilo del test. Contra un servidor
+ * real ({@code RANDOM_PORT}) el filtro publica después de enviar la respuesta, así que un
+ * exceso en la última petición del test puede llegar tarde.</p>
+ */
+public class PresupuestoConsultasExtension implements BeforeEachCallback, AfterEachCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(PresupuestoConsultasExtension.class);
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        Excesos excesos = new Excesos();
+        contexto(context).addApplicationListener(excesos);
+        context.getStore(NAMESPACE).put(Excesos.class, excesos);
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        Excesos excesos = context.getStore(NAMESPACE).remove(Excesos.class, Excesos.class);
+        if (excesos == null) return;
+        contexto(context).removeApplicationListener(excesos);
+        comprobar(excesos.lista);
+    }
+
+    static void comprobar(List<ExcesoConsultas> excesos) {
+        if (excesos.isEmpty()) return;
+        StringBuilder sb = new StringBuilder("Peticiones con consultas SQL de más:");
+        for (ExcesoConsultas e : excesos) sb.append("\n  ").append(e.descripcion());
+        throw new AssertionFailedError(sb.toString());
+    }
+
+    private static ConfigurableApplicationContext contexto(ExtensionContext context) {
+        return (ConfigurableApplicationContext) SpringExtension.getApplicationContext(context);
+    }
+
+    private static final class Excesos implements ApplicationListener<PayloadApplicationEvent<ExcesoConsultas>> {
+
+        // Puede llegar desde hilos del servidor
+        final List<ExcesoConsultas> lista = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onApplicationEvent(PayloadApplicationEvent<ExcesoConsultas> evento) {
+            lista.add(evento.getPayload());
+        }
+    }
+}
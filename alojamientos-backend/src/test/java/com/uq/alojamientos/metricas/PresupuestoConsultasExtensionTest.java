@@ -0,0 +1,98 @@
+package com.uq.alojamientos.metricas;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.opentest4j.AssertionFailedError;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringJUnitWebConfig(PresupuestoConsultasExtensionTest.Config.class)
+@ExtendWith(PresupuestoConsultasExtension.class)
+class PresupuestoConsultasExtensionTest {
+
+    @Autowired
+    private WebApplicationContext contexto;
+
+    @Autowired
+    private MetricasPeticionFilter filtro;
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        mvc = MockMvcBuilders.webAppContextSetup(contexto).addFilters(filtro).build();
+    }
+
+    @Test
+    void peticionDentroDelPresupuesto_DeberiaPasarYLlevarServerTiming() throws Exception {
+        mvc.perform(get("/demo/dos-consultas"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ServerTimingAdvice.CABECERA,
+                        matchesPattern("db;dur=\\d+\\.\\d{2};desc=\"2 consultas\", app;dur=\\d+\\.\\d{2}")));
+    }
+
+    @Test
+    void comprobar_DeberiaFallarConLaDescripcionDeCadaExceso() {
+        ExcesoConsultas exceso = new ExcesoConsultas("GET", "/api/reservas", "ReservaController.listar",
+                14, 3, 8_000_000, "select a.id from alojamientos a where a.id=?", 12);
+
+        AssertionFailedError error = assertThrows(AssertionFailedError.class,
+                () -> PresupuestoConsultasExtension.comprobar(List.of(exceso)));
+
+        assertTrue(error.getMessage().contains("GET /api/reservas (ReservaController.listar): 14 consultas (presupuesto 3)"));
+        assertTrue(error.getMessage().contains("repetida 12 veces: select a.id from alojamientos a where a.id=?"));
+        assertDoesNotThrow(() -> PresupuestoConsultasExtension.comprobar(List.of()));
+    }
+
+    @Configuration
+    @EnableWebMvc
+    static class Config {
+
+        @Bean
+        MetricasPeticionFilter metricasPeticionFilter(ApplicationEventPublisher eventos) {
+            return new MetricasPeticionFilter(new SimpleMeterRegistry(), eventos, 20, 5);
+        }
+
+        @Bean
+        ServerTimingAdvice serverTimingAdvice() {
+            return new ServerTimingAdvice(true);
+        }
+
+        @Bean
+        Demo demo() {
+            return new Demo();
+        }
+    }
+
+    @RestController
+    static class Demo {
+
+        @PresupuestoConsultas(2)
+        @GetMapping("/demo/dos-consultas")
+        Map<String, String> dosConsultas() {
+            ConsultasSql.registrar(1_000_000);
+            ConsultasSql.registrar(1_000_000);
+            return Map.of("ok", "si");
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.uq.alojamientos.reporte;
+
+import com.uq.alojamientos.domain.Alojamiento;
+import com.uq.alojamientos.domain.Reserva;
+import com.uq.alojamientos.domain.Usuario;
+import com.uq.alojamientos.repository.projection.ReservaOcupacion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class OcupacionDiariaTest {
+
+    private final LocalDate checkIn = LocalDate.of(2025, 3, 30);
+
+    private JdbcTemplate jdbc;
+    private OcupacionDiaria ocupacion;
+
+    @BeforeEach
+    void setUp() {
+        jdbc = mock(JdbcTemplate.class);
+        ocupacion = new OcupacionDiaria(jdbc);
+    }
+
+    @Test
+    void reservada_DeberiaRepartirElTotalPorNocheSinPerderCentimos() {
+        Usuario anfitrion = new Usuario();
+        anfitrion.setId(3L);
+        Alojamiento alojamiento = new Alojamiento();
+        alojamiento.setId(7L);
+        alojamiento.setAnfitrion(anfitrion);
+        Reserva r = new Reserva();
+        r.setId(1L);
+        r.setAlojamiento(alojamiento);
+        r.setCheckIn(checkIn);
+        r.setCheckOut(checkIn.plusDays(3));
+        r.setTotal(new BigDecimal("100.00"));
+
+        ocupacion.reservada(r);
+
+        List<Object[]> filas = filasEnviadas();
+        assertEquals(3, filas.size());
+        // 100 / 3 = 33.33 por noche; la primera se queda el centavo que sobra
+        assertArrayEquals(new Object[]{7L, checkIn, 3L, 1, new BigDecimal("33.34"), 0}, filas.get(0));
+        assertArrayEquals(new Object[]{7L, checkIn.plusDays(2), 3L, 1, new BigDecimal("33.33"), 0}, filas.get(2));
+        assertEquals(new BigDecimal("100.00"), filas.stream().map(f -> (BigDecimal) f[4]).reduce(BigDecimal::add).orElseThrow());
+    }
+
+    @Test
+    void cancelada_DeberiaRestarNochesEIngresosYContarCancelaciones() {
+        ocupacion.cancelada(new ReservaOcupacion(1L, 7L, 3L, checkIn, checkIn.plusDays(2), new BigDecimal("150.00")));
+
+        List<Object[]> filas = filasEnviadas();
+        assertEquals(2, filas.size());
+        assertArrayEquals(new Object[]{7L, checkIn, 3L, -1, new BigDecimal("-75.00"), 1}, filas.get(0));
+        assertArrayEquals(new Object[]{7L, checkIn.plusDays(1), 3L, -1, new BigDecimal("-75.00"), 1}, filas.get(1));
+    }
+
+    @Test
+    void expiradas_DeberiaEscribirEnOrdenDeClave() {
+        ocupacion.expiradas(List.of(
+                new ReservaOcupacion(2L, 9L, 3L, checkIn, checkIn.plusDays(1), new BigDecimal("50.00")),
+                new ReservaOcupacion(1L, 7L, 3L, checkIn.plusDays(5), checkIn.plusDays(6), new BigDecimal("80.00")),
+                new ReservaOcupacion(3L, 7L, 3L, checkIn, checkIn.plusDays(1), new BigDecimal("80.00"))));
+
+        List<Object[]> filas = filasEnviadas();
+        assertEquals(List.of(7L, 7L, 9L), filas.stream().map(f -> f[0]).toList());
+        assertEquals(List.of(checkIn, checkIn.plusDays(5), checkIn), filas.stream().map(f -> f[1]).toList());
+        assertTrue(filas.stream().allMatch(f -> (int) f[5] == 0));
+    }
+
+    @Test
+    void expiradas_NoDeberiaTocarLaBDSinReservas() {
+        ocupacion.expiradas(List.of());
+
+        verifyNoInteractions(jdbc);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> filasEnviadas() {
+        ArgumentCaptor<List<Object[]>> filas = ArgumentCaptor.forClass(List.class);
+        verify(jdbc).batchUpdate(eq(OcupacionDiaria.UPSERT), filas.capture());
+        return filas.getValue();
+    }
+}
@@ -0,0 +1,194 @@
+package com.uq.alojamientos.repository;
+
+import com.uq.alojamientos.config.AlineadorSecuencias;
+import com.uq.alojamientos.domain.enums.EstadoReserva;
+import com.uq.alojamientos.repository.projection.CandidatoBusqueda;
+import com.uq.alojamientos.repository.projection.OcupacionMes;
+import com.uq.alojamientos.repository.projection.TarjetaAlojamiento;
+import com.uq.alojamientos.repository.projection.VigenciaAlojamiento;
+import com.uq.alojamientos.reporte.OcupacionDiaria;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MariaDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Las consultas propias del dialecto de MariaDB (bitand en HQL, UPDATE multitabla nativo,
+ * {@code exists(... limit 1)}, {@code FOR UPDATE}, {@code setval}, el agregado mensual) contra
+ * una MariaDB real con el esquema de las migraciones; Hibernate valida además el mapeo.
+ * Se salta si no hay Docker; en CI corre siempre.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({AlineadorSecuencias.class, OcupacionDiaria.class})
+class ConsultasMariaDBTest {
+
+    private static final Set<EstadoReserva> ACTIVAS = EnumSet.of(EstadoReserva.PENDIENTE, EstadoReserva.CONFIRMADA);
+    private static final LocalDate CHECK_IN = LocalDate.of(2030, 1, 10);
+
+    @Container
+    static final MariaDBContainer<?> MARIADB = new MariaDBContainer<>("mariadb:11.4");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MARIADB::getJdbcUrl);
+        registry.add("spring.datasource.username", MARIADB::getUsername);
+        registry.add("spring.datasource.password", MARIADB::getPassword);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private AlojamientoRepository alojamientoRepo;
+    @Autowired
+    private ReservaRepository reservaRepo;
+    @Autowired
+    private AlineadorSecuencias alineador;
+    @Autowired
+    private OcupacionDiaria ocupacion;
+
+    // Cada prueba corre en su transacción y se deshace al terminar
+    @BeforeEach
+    void datos() {
+        jdbc.update("""
+            insert into usuarios (id, activo, email, nombre, password_hash, rol) values
+            (1, 1, 'anfitrion@test.co', 'Anfitrión', 'x', 'ANFITRION'),
+            (2, 1, 'huesped@test.co', 'Huésped', 'x', 'USER')
+            """);
+        jdbc.update("""
+            insert into alojamientos (id, anfitrion_id, titulo, descripcion, ciudad, capacidad_maxima,
+                                      precio_por_noche, servicios_mask, estado, created_at, updated_at) values
+            (10, 1, 'Cabaña', 'Bosque', 'Armenia', 4, 100000, 3, 'ACTIVO', '2024-01-01', '2024-01-01'),
+            (11, 1, 'Loft', 'Centro', 'Armenia', 2, 300000, 4, 'ACTIVO', '2024-01-01', '2024-01-01'),
+            (12, 1, 'Finca', 'Campo', 'Armenia', 8, 200000, 0, 'ELIMINADO', '2024-01-01', '2025-02-15 10:00')
+            """);
+        jdbc.update("""
+            insert into reservas (id, alojamiento_id, usuario_id, check_in, check_out, huespedes, estado,
+                                  total, hold_expira_en) values
+            (100, 10, 2, ?, ?, 2, 'PENDIENTE', 200000, '2025-01-01'),
+            (101, 11, 2, ?, ?, 2, 'CONFIRMADA', 600000, null)
+            """, CHECK_IN, CHECK_IN.plusDays(2), CHECK_IN.plusDays(5), CHECK_IN.plusDays(7));
+        jdbc.update("""
+            insert into comentarios (id, reserva_id, alojamiento_id, usuario_id, calificacion, texto, created_at)
+            values (40, 100, 10, 2, 5, 'Muy bien', now())
+            """);
+        jdbc.update("""
+            insert into ocupacion_diaria (alojamiento_id, dia, anfitrion_id, noches, ingresos, cancelaciones) values
+            (10, '2025-02-10', 1, 1, 100000, 0),
+            (12, '2025-02-10', 1, 1, 200000, 0),
+            (12, '2025-02-20', 1, 1, 200000, 0)
+            """);
+    }
+
+    @Test
+    void filtrosPorServicios_DeberianUsarBitand() {
+        List<Long> conTodos = alojamientoRepo.buscarCandidatosConPrecio(null, null, null, null, 0b001, 0)
+                .stream().map(CandidatoBusqueda::id).toList();
+        List<Long> conAlguno = alojamientoRepo.buscarCandidatos("armenia", null, null, null, 0, 0b110);
+
+        assertEquals(List.of(10L), conTodos);
+        assertEquals(List.of(10L, 11L), conAlguno);
+    }
+
+    @Test
+    void filtrarIdsYDisponibles_DeberianDescartarLosOcupados() {
+        List<Long> libres = alojamientoRepo.filtrarIds(List.of(10L, 11L, 12L), null, null, null, null, 0, 0,
+                CHECK_IN, CHECK_IN.plusDays(1), ACTIVAS);
+        Page<TarjetaAlojamiento> pagina = alojamientoRepo.buscarDisponibles("Armenia", null, null, null, 0, 0,
+                CHECK_IN.plusDays(5), CHECK_IN.plusDays(6), ACTIVAS, PageRequest.of(0, 10));
+
+        assertEquals(List.of(11L), libres);
+        assertEquals(List.of(10L), pagina.getContent().stream().map(TarjetaAlojamiento::id).toList());
+        assertEquals(1, pagina.getTotalElements());
+    }
+
+    @Test
+    void existeSolapamiento_DeberiaUsarExistsConLimit() {
+        assertTrue(reservaRepo.existeSolapamiento(10L, CHECK_IN.plusDays(1), CHECK_IN.plusDays(3), ACTIVAS));
+        assertFalse(reservaRepo.existeSolapamiento(10L, CHECK_IN.plusDays(2), CHECK_IN.plusDays(3), ACTIVAS));
+    }
+
+    @Test
+    void expiracion_DeberiaBloquearYVencerSoloLasPendientesFueraDePlazo() {
+        LocalDateTime ahora = LocalDateTime.now();
+
+        assertEquals(List.of(100L), reservaRepo.bloquearVencibles(List.of(100L, 101L), ahora));
+        assertEquals(1, reservaRepo.expirarHolds(List.of(100L, 101L), ahora));
+        assertEquals(List.of(100L), reservaRepo.findIdsExpiradas(List.of(100L, 101L)));
+    }
+
+    @Test
+    void recalcularCalificaciones_DeberiaCorregirLosAgregados() {
+        assertEquals(1, alojamientoRepo.recalcularCalificaciones());
+        assertEquals(List.of(1, 5), jdbc.queryForObject(
+                "select calificacion_total, calificacion_suma from alojamientos where id = 10",
+                (rs, i) -> List.of(rs.getInt(1), rs.getInt(2))));
+        assertEquals(0, alojamientoRepo.recalcularCalificaciones());
+    }
+
+    @Test
+    void alinear_DeberiaAdelantarLaSecuenciaConSetval() {
+        // Como una importación por SQL: id explícito muy por delante de la secuencia
+        jdbc.update("""
+            insert into alojamientos (id, anfitrion_id, titulo, descripcion, ciudad, capacidad_maxima,
+                                      precio_por_noche, estado, created_at, updated_at)
+            values (5000, 1, 'Importado', 'SQL', 'Armenia', 2, 100000, 'ACTIVO', now(), now())
+            """);
+
+        alineador.alinear();
+
+        Long siguiente = jdbc.queryForObject("select nextval(alojamientos_seq)", Long.class);
+        assertTrue(siguiente > 5000, () -> "nextval = " + siguiente);
+    }
+
+    @Test
+    void panelAnfitrion_DeberiaUsarLaVigenciaYCortarEnLaEliminacion() {
+        List<Long> vigentes = alojamientoRepo.findVigencias(1L,
+                LocalDateTime.of(2025, 2, 1, 0, 0), LocalDateTime.of(2025, 4, 1, 0, 0))
+                .stream().map(VigenciaAlojamiento::id).sorted().toList();
+        List<OcupacionMes> febrero = ocupacion.mensual(1L, YearMonth.of(2025, 2), YearMonth.of(2025, 2));
+
+        assertEquals(List.of(10L, 11L, 12L), vigentes);
+        // La noche del 20 es posterior a la eliminación del 12
+        assertEquals(2, febrero.size());
+        assertTrue(febrero.stream().allMatch(o -> o.noches() == 1));
+        assertEquals(new BigDecimal("200000.00"), febrero.stream()
+                .filter(o -> o.alojamientoId() == 12L).findFirst().orElseThrow().ingresos());
+    }
+
+    @Test
+    void esHuespedOAnfitrion_DeberiaAceptarSoloAEsosDos() {
+        assertTrue(reservaRepo.esHuespedOAnfitrion(100L, "huesped@test.co"));
+        assertTrue(reservaRepo.esHuespedOAnfitrion(100L, "anfitrion@test.co"));
+        assertFalse(reservaRepo.esHuespedOAnfitrion(100L, "otro@test.co"));
+    }
+
+    @Test
+    void catalogoInicial_DeberiaVenirDeLaMigracion() {
+        List<String> codigos = jdbc.queryForList("select codigo from servicios order by bit", String.class);
+
+        assertEquals(10, codigos.size());
+        assertEquals("wifi", codigos.get(0));
+    }
+}
@@ -0,0 +1,120 @@
+package com.uq.alojamientos.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.MariaDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Plan de {@link ReservaRepository#SQL_SOLAPAMIENTO} en una MariaDB real con el esquema de
+ * las migraciones y millones de reservas (por defecto 2.000.000; {@code -Dsolapamiento.reservas=N}).
+ * Se salta si no hay Docker.
+ *
+ * <p>Reparto: 1000 alojamientos con una reserva de 2 noches cada 3 días, así que el
+ * alojamiento {@code a} tiene en la posición {@code k} la reserva
+ * [2020-01-01 + 3k, +2 días) con estado {@code ESTADOS[k % 5]}.</p>
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class SolapamientoPlanTest {
+
+    private static final int RESERVAS = Integer.getInteger("solapamiento.reservas", 2_000_000);
+    private static final int ALOJAMIENTOS = 1000;
+    private static final LocalDate INICIO = LocalDate.of(2020, 1, 1);
+    private static final List<String> ACTIVOS = List.of("PENDIENTE", "CONFIRMADA");
+
+    @Container
+    static final MariaDBContainer<?> MARIADB = new MariaDBContainer<>("mariadb:11.4");
+
+    private static NamedParameterJdbcTemplate jdbc;
+
+    @BeforeAll
+    static void sembrar() {
+        Flyway.configure()
+                .dataSource(MARIADB.getJdbcUrl(), MARIADB.getUsername(), MARIADB.getPassword())
+                .load()
+                .migrate();
+        jdbc = new NamedParameterJdbcTemplate(new DriverManagerDataSource(
+                MARIADB.getJdbcUrl(), MARIADB.getUsername(), MARIADB.getPassword()));
+
+        var sql = jdbc.getJdbcTemplate();
+        sql.update("""
+            insert into usuarios (id, activo, email, nombre, password_hash, rol)
+            values (1, 1, 'anfitrion@test.co', 'Anfitrión', 'x', 'ANFITRION')
+            """);
+        // seq_1_to_N: tablas virtuales del motor Sequence de MariaDB
+        sql.update("""
+            insert into alojamientos (id, anfitrion_id, titulo, descripcion, ciudad, capacidad_maxima,
+                                      precio_por_noche, estado, created_at, updated_at)
+            select seq, 1, concat('Alojamiento ', seq), 'Semilla', 'Armenia', 4, 100000, 'ACTIVO', now(), now()
+            from seq_1_to_%d
+            """.formatted(ALOJAMIENTOS));
+        sql.update("""
+            insert into reservas (id, alojamiento_id, usuario_id, check_in, check_out, huespedes, estado)
+            select seq, 1 + seq mod %1$d, 1,
+                   date '2020-01-01' + interval (seq div %1$d) * 3 day,
+                   date '2020-01-01' + interval (seq div %1$d) * 3 + 2 day,
+                   2,
+                   elt(1 + (seq div %1$d) mod 5, 'PENDIENTE', 'CONFIRMADA', 'CANCELADA', 'COMPLETADA', 'EXPIRADA')
+            from seq_1_to_%2$d
+            """.formatted(ALOJAMIENTOS, RESERVAS));
+        sql.execute("analyze table reservas");
+    }
+
+    @Test
+    void existeSolapamiento_DeberiaUsarIdxReservaSolapamiento() {
+        LocalDate desde = checkIn(1000);
+        List<Map<String, Object>> plan = jdbc.queryForList(
+                "explain " + ReservaRepository.SQL_SOLAPAMIENTO, parametros(1, desde, desde.plusDays(1)));
+
+        Map<String, Object> reservas = plan.stream()
+                .filter(fila -> "r".equals(fila.get("table")))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Sin acceso a reservas en el plan: " + plan));
+        assertEquals("idx_reserva_solapamiento", reservas.get("key"), () -> "Plan: " + plan);
+        // check_out y estado se comprueban en el índice, sin leer la fila
+        assertTrue(String.valueOf(reservas.get("Extra")).contains("Using index"), () -> "Plan: " + plan);
+    }
+
+    @Test
+    void existeSolapamiento_DeberiaDetectarSoloReservasActivasQueSeCruzan() {
+        // k = 1000 -> PENDIENTE, k = 1002 -> CANCELADA
+        LocalDate pendiente = checkIn(1000);
+        LocalDate cancelada = checkIn(1002);
+
+        assertTrue(existe(1, pendiente.plusDays(1), pendiente.plusDays(5)));
+        assertFalse(existe(1, cancelada, cancelada.plusDays(2)));
+        // El hueco de un día entre reservas consecutivas está libre
+        assertFalse(existe(1, pendiente.plusDays(2), pendiente.plusDays(3)));
+        assertFalse(existe(ALOJAMIENTOS + 1, pendiente, pendiente.plusDays(1)));
+    }
+
+    private static boolean existe(long alojamientoId, LocalDate desde, LocalDate hasta) {
+        Integer n = jdbc.queryForObject(ReservaRepository.SQL_SOLAPAMIENTO,
+                parametros(alojamientoId, desde, hasta), Integer.class);
+        return n != null && n != 0;
+    }
+
+    // Alojamiento 1: las reservas con seq múltiplo de ALOJAMIENTOS, k = seq / ALOJAMIENTOS
+    private static LocalDate checkIn(int k) {
+        return INICIO.plusDays(3L * k);
+    }
+
+    private static MapSqlParameterSource parametros(long alojamientoId, LocalDate desde, LocalDate hasta) {
+        return new MapSqlParameterSource()
+                .addValue("alojamientoId", alojamientoId)
+                .addValue("desde", desde)
+                .addValue("hasta", hasta)
+                .addValue("estados", ACTIVOS);
+    }
+}
@@ -0,0 +1,99 @@
+package com.uq.alojamientos.security;
+
+import com.uq.alojamientos.metricas.MetricasNegocio;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JwtAuthenticationFilterTest {
+
+    private JwtService jwtService;
+    private UsuariosInactivos usuariosInactivos;
+    private SimpleMeterRegistry registry;
+    private JwtAuthenticationFilter filtro;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = mock(JwtService.class);
+        usuariosInactivos = mock(UsuariosInactivos.class);
+        registry = new SimpleMeterRegistry();
+        filtro = new JwtAuthenticationFilter(jwtService, usuariosInactivos, new MetricasNegocio(registry));
+    }
+
+    @AfterEach
+    void limpiar() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_DeberiaAutenticarConLosRolesDelToken() throws Exception {
+        when(jwtService.verificar("tok")).thenReturn(Optional.of(
+                new TokenVerificado("ana@correo.com", List.of("ROLE_ADMIN"), Instant.now().plusSeconds(60))));
+
+        filtro.doFilter(conToken("tok"), new MockHttpServletResponse(), new MockFilterChain());
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(auth);
+        assertEquals("ana@correo.com", auth.getName());
+        assertEquals(List.of("ROLE_ADMIN"),
+                auth.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+    }
+
+    @Test
+    void doFilter_NoDeberiaAutenticarUsuarioDesactivado() throws Exception {
+        when(jwtService.verificar("tok")).thenReturn(Optional.of(
+                new TokenVerificado("ana@correo.com", List.of("ROLE_USER"), Instant.now().plusSeconds(60))));
+        when(usuariosInactivos.estaInactivo("ana@correo.com")).thenReturn(true);
+
+        filtro.doFilter(conToken("tok"), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertEquals(1, fallos("usuario_inactivo"));
+    }
+
+    @Test
+    void doFilter_NoDeberiaAutenticarTokenInvalido() throws Exception {
+        when(jwtService.verificar("malo")).thenReturn(Optional.empty());
+        MockFilterChain cadena = new MockFilterChain();
+
+        filtro.doFilter(conToken("malo"), new MockHttpServletResponse(), cadena);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertNotNull(cadena.getRequest());
+        verifyNoInteractions(usuariosInactivos);
+        assertEquals(1, fallos("token_invalido"));
+    }
+
+    @Test
+    void doFilter_NoDeberiaContarFallosSinToken() throws Exception {
+        filtro.doFilter(new MockHttpServletRequest("GET", "/api/alojamientos"), new MockHttpServletResponse(),
+                new MockFilterChain());
+
+        assertEquals(0, registry.get(MetricasNegocio.FALLOS_AUTH).counters().stream()
+                .mapToDouble(c -> c.count()).sum());
+    }
+
+    private double fallos(String motivo) {
+        return registry.get(MetricasNegocio.FALLOS_AUTH).tag("motivo", motivo).counter().count();
+    }
+
+    private static MockHttpServletRequest conToken(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reservas");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
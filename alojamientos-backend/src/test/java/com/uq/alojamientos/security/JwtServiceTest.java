@@ -0,0 +1,68 @@
+package com.uq.alojamientos.security;
+
+import com.uq.alojamientos.domain.Usuario;
+import com.uq.alojamientos.domain.enums.RolUsuario;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private static final String SECRETO = "clave_de_pruebas_suficientemente_larga_para_hmac_sha256";
+
+    private final JwtService jwtService = new JwtService(SECRETO, 15, 100);
+
+    @Test
+    void verificar_DeberiaDevolverEmailYRolesConPrefijo() {
+        Usuario u = new Usuario();
+        u.setEmail("ana@correo.com");
+        u.setRol(RolUsuario.ANFITRION);
+
+        TokenVerificado t = jwtService.verificar(jwtService.generate(u)).orElseThrow();
+
+        assertEquals("ana@correo.com", t.email());
+        assertEquals(List.of("ROLE_ANFITRION"), t.roles());
+    }
+
+    @Test
+    void verificar_DeberiaAceptarRolesComoListaDelLogin() {
+        String token = jwtService.generate("admin@correo.com", Map.of("roles", List.of("ROLE_ADMIN")));
+
+        assertEquals(List.of("ROLE_ADMIN"), jwtService.verificar(token).orElseThrow().roles());
+    }
+
+    @Test
+    void verificar_DeberiaReutilizarElResultadoParaElMismoToken() {
+        String token = jwtService.generate("ana@correo.com", Map.of("roles", "USER"));
+
+        TokenVerificado primero = jwtService.verificar(token).orElseThrow();
+        TokenVerificado segundo = jwtService.verificar(token).orElseThrow();
+
+        assertSame(primero, segundo);
+    }
+
+    @Test
+    void verificar_DeberiaRechazarTokenAlterado() {
+        String token = jwtService.generate("ana@correo.com", Map.of("roles", "USER"));
+        String alterado = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertTrue(jwtService.verificar(alterado).isEmpty());
+    }
+
+    @Test
+    void verificar_DeberiaRechazarTokenFirmadoConOtraClave() {
+        JwtService otro = new JwtService("otra_clave_distinta_y_suficientemente_larga_para_hmac", 15, 100);
+        String token = otro.generate("ana@correo.com", Map.of("roles", "ADMIN"));
+
+        assertTrue(jwtService.verificar(token).isEmpty());
+    }
+
+    @Test
+    void roles_DeberiaNormalizarTextoSeparadoPorComas() {
+        assertEquals(List.of("ROLE_ADMIN", "ROLE_USER"), JwtService.roles("ADMIN, ROLE_USER,,ADMIN"));
+        assertEquals(List.of(), JwtService.roles(null));
+    }
+}
@@ -0,0 +1,151 @@
+package com.uq.alojamientos.security;
+
+import com.uq.alojamientos.domain.Usuario;
+import com.uq.alojamientos.domain.enums.RolUsuario;
+import com.uq.alojamientos.metricas.MetricasNegocio;
+import com.uq.alojamientos.repository.UsuarioRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LoginServiceTest {
+
+    // Coste mínimo de BCrypt para que los tests vayan rápido
+    private static final int COSTE = 4;
+
+    private UsuarioRepository repo;
+    private SimpleMeterRegistry registry;
+    private VerificadorClaves verificador;
+    private LoginService service;
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(UsuarioRepository.class);
+        registry = new SimpleMeterRegistry();
+        verificador = new VerificadorClaves(new BCryptPasswordEncoder(COSTE), COSTE, 1, 1);
+        verificador.bindTo(registry);
+        service = new LoginService(repo, verificador, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                new MetricasNegocio(registry));
+        usuario = Usuario.builder().id(7L).nombre("Ana").email("ana@correo.com")
+                .passwordHash(new BCryptPasswordEncoder(COSTE).encode("secreta"))
+                .rol(RolUsuario.USER).activo(true).build();
+        when(repo.findByEmail("ana@correo.com")).thenReturn(Optional.of(usuario));
+    }
+
+    @AfterEach
+    void tearDown() {
+        verificador.destroy();
+    }
+
+    @Test
+    void autenticar_DeberiaDevolverElUsuarioConUnaSolaConsulta() throws Exception {
+        Usuario u = service.autenticar("ana@correo.com", "secreta").get(5, TimeUnit.SECONDS);
+
+        assertSame(usuario, u);
+        verify(repo, times(1)).findByEmail("ana@correo.com");
+        verify(repo, never()).actualizarPasswordHash(anyLong(), anyString(), anyString());
+    }
+
+    @Test
+    void autenticar_DeberiaRechazarContrasenaIncorrecta() {
+        assertFalla(BadCredentialsException.class, service.autenticar("ana@correo.com", "otra"));
+        assertEquals(1, fallos("credenciales"));
+    }
+
+    @Test
+    void autenticar_DeberiaRechazarUsuarioInexistente() {
+        when(repo.findByEmail("nadie@correo.com")).thenReturn(Optional.empty());
+
+        assertFalla(BadCredentialsException.class, service.autenticar("nadie@correo.com", "secreta"));
+        assertEquals(1, fallos("credenciales"));
+    }
+
+    @Test
+    void autenticar_DeberiaRechazarUsuarioInactivoSoloConLaContrasenaCorrecta() {
+        usuario.setActivo(false);
+
+        assertFalla(BadCredentialsException.class, service.autenticar("ana@correo.com", "otra"));
+        assertFalla(DisabledException.class, service.autenticar("ana@correo.com", "secreta"));
+        assertEquals(1, fallos("usuario_inactivo"));
+    }
+
+    @Test
+    void autenticar_DeberiaRehacerElHashSiCambioElCoste() throws Exception {
+        String anterior = new BCryptPasswordEncoder(5).encode("secreta");
+        usuario.setPasswordHash(anterior);
+        CountDownLatch guardado = new CountDownLatch(1);
+        when(repo.actualizarPasswordHash(eq(7L), eq(anterior), anyString())).thenAnswer(inv -> {
+            guardado.countDown();
+            return 1;
+        });
+
+        service.autenticar("ana@correo.com", "secreta").get(5, TimeUnit.SECONDS);
+
+        assertTrue(guardado.await(5, TimeUnit.SECONDS));
+        verify(repo).actualizarPasswordHash(eq(7L), eq(anterior), argThat(nuevo ->
+                nuevo.startsWith("$2a$04$") && new BCryptPasswordEncoder(COSTE).matches("secreta", nuevo)));
+    }
+
+    @Test
+    void autenticar_DeberiaFallarAlMomentoConElPoolSaturado() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch ocupado = new CountDownLatch(1);
+        assertTrue(verificador.enSegundoPlano(() -> {
+            ocupado.countDown();
+            esperar(liberar);
+        }));
+        assertTrue(ocupado.await(5, TimeUnit.SECONDS));
+        assertTrue(verificador.enSegundoPlano(() -> { }));   // llena la cola (1)
+
+        try {
+            CompletableFuture<Usuario> login = service.autenticar("ana@correo.com", "secreta");
+            assertTrue(login.isCompletedExceptionally());
+            assertFalla(RejectedExecutionException.class, login);
+            assertEquals(1, registry.get(VerificadorClaves.RECHAZOS).functionCounter().count());
+        } finally {
+            liberar.countDown();
+        }
+    }
+
+    @Test
+    void necesitaRehash_DeberiaCompararElCosteDelHash() {
+        assertFalse(verificador.necesitaRehash(usuario.getPasswordHash()));
+        assertTrue(verificador.necesitaRehash(new BCryptPasswordEncoder(5).encode("x")));
+        assertTrue(verificador.necesitaRehash("texto-plano"));
+    }
+
+    private double fallos(String motivo) {
+        return registry.get(MetricasNegocio.FALLOS_AUTH).tag("motivo", motivo).counter().count();
+    }
+
+    private static void assertFalla(Class<? extends Throwable> tipo, CompletableFuture<?> futuro) {
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> futuro.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(tipo, ex.getCause());
+    }
+
+    private static void esperar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.uq.alojamientos.security;
+
+import com.uq.alojamientos.domain.RefreshToken;
+import com.uq.alojamientos.domain.Usuario;
+import com.uq.alojamientos.domain.enums.RolUsuario;
+import com.uq.alojamientos.metricas.MetricasNegocio;
+import com.uq.alojamientos.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RefreshTokenServiceTest {
+
+    private static final String SECRETO = "d3v_5up3r_53cr3t_Cl4v3_L4rg4_y_4l34t0r14_Para_JWT_1234567890";
+
+    // "Tabla" refresh_tokens en memoria por hash
+    private final Map<String, RefreshToken> tabla = new ConcurrentHashMap<>();
+    private final AtomicLong secuencia = new AtomicLong();
+    private RefreshTokenRepository repo;
+    private SimpleMeterRegistry registry;
+    private JwtService jwtService;
+    private RefreshTokenService service;
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(RefreshTokenRepository.class);
+        when(repo.save(any(RefreshToken.class))).thenAnswer(inv -> {
+            RefreshToken t = inv.getArgument(0);
+            t.setId(secuencia.incrementAndGet());
+            tabla.put(t.getTokenHash(), t);
+            return t;
+        });
+        when(repo.findByTokenHash(anyString())).thenAnswer(inv -> Optional.ofNullable(tabla.get(inv.<String>getArgument(0))));
+        when(repo.revocar(anyLong())).thenAnswer(inv -> {
+            RefreshToken t = porId(inv.getArgument(0));
+            if (t.getRevoked()) return 0;
+            t.setRevoked(true);
+            return 1;
+        });
+        when(repo.revocarFamilia(anyString())).thenAnswer(inv -> {
+            int n = 0;
+            for (RefreshToken t : tabla.values()) {
+                if (t.getFamilia().equals(inv.getArgument(0)) && !t.getRevoked()) {
+                    t.setRevoked(true);
+                    n++;
+                }
+            }
+            return n;
+        });
+
+        registry = new SimpleMeterRegistry();
+        jwtService = new JwtService(SECRETO, 120, 100);
+        service = new RefreshTokenService(repo, jwtService, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                new MetricasNegocio(registry), 60);
+        usuario = Usuario.builder().id(7L).nombre("Ana").email("ana@correo.com").passwordHash("hash")
+                .rol(RolUsuario.USER).activo(true).build();
+    }
+
+    @Test
+    void emitir_DeberiaGuardarSoloElHash() {
+        String token = service.emitir(usuario);
+
+        RefreshToken guardado = tabla.values().iterator().next();
+        assertNotEquals(token, guardado.getTokenHash());
+        assertEquals(43, guardado.getTokenHash().length()); // SHA-256 en Base64 URL sin relleno
+        assertFalse(guardado.getRevoked());
+        assertTrue(guardado.getExpiryDate().isAfter(LocalDateTime.now().plusMinutes(59)));
+    }
+
+    @Test
+    void rotar_DeberiaEmitirTokensNuevosDeLaMismaFamiliaYRevocarElUsado() {
+        String token = service.emitir(usuario);
+
+        RefreshTokenService.Rotacion rotacion = service.rotar(token);
+
+        assertNotEquals(token, rotacion.refreshToken());
+        assertEquals("ana@correo.com", jwtService.verificar(rotacion.accessToken()).orElseThrow().email());
+        assertEquals(2, tabla.size());
+        assertEquals(1, tabla.values().stream().map(RefreshToken::getFamilia).distinct().count());
+        assertEquals(1, tabla.values().stream().filter(RefreshToken::getRevoked).count());
+        // El nuevo también rota
+        assertNotNull(service.rotar(rotacion.refreshToken()).refreshToken());
+    }
+
+    @Test
+    void rotar_TokenReutilizado_DeberiaRevocarLaFamiliaEntera() {
+        String token = service.emitir(usuario);
+        String nuevo = service.rotar(token).refreshToken();
+        String otraSesion = service.emitir(usuario);
+
+        assertThrows(BadCredentialsException.class, () -> service.rotar(token));
+
+        // El token legítimo de esa familia tampoco sirve ya; la otra sesión sí
+        assertThrows(BadCredentialsException.class, () -> service.rotar(nuevo));
+        assertNotNull(service.rotar(otraSesion));
+        assertEquals(2, fallos("refresh_reutilizado"));
+    }
+
+    @Test
+    void rotar_SiOtraRotacionGanaAntes_DeberiaTratarloComoReutilizado() {
+        String token = service.emitir(usuario);
+        // Otra petición lo rotó entre la lectura (aún sin revocar) y el UPDATE
+        doReturn(0).when(repo).revocar(anyLong());
+
+        assertThrows(BadCredentialsException.class, () -> service.rotar(token));
+        verify(repo).revocarFamilia(tabla.values().iterator().next().getFamilia());
+    }
+
+    @Test
+    void rotar_DeberiaRechazarTokenDesconocidoExpiradoODeUsuarioInactivo() {
+        assertThrows(BadCredentialsException.class, () -> service.rotar("no-existe"));
+        assertThrows(BadCredentialsException.class, () -> service.rotar(" "));
+
+        String expirado = service.emitir(usuario);
+        tabla.values().forEach(t -> t.setExpiryDate(LocalDateTime.now().minusMinutes(1)));
+        assertThrows(BadCredentialsException.class, () -> service.rotar(expirado));
+
+        String deInactivo = service.emitir(usuario);
+        usuario.setActivo(false);
+        assertThrows(BadCredentialsException.class, () -> service.rotar(deInactivo));
+        assertEquals(4, fallos("refresh_invalido"));
+        verify(repo, never()).revocar(anyLong());
+    }
+
+    private RefreshToken porId(long id) {
+        return tabla.values().stream().filter(t -> t.getId() == id).findFirst().orElseThrow();
+    }
+
+    private double fallos(String motivo) {
+        return registry.get(MetricasNegocio.FALLOS_AUTH).tag("motivo", motivo).counter().count();
+    }
+}
@@ -0,0 +1,147 @@
+package com.uq.alojamientos.seed;
+
+import com.uq.alojamientos.domain.enums.EstadoReserva;
+import com.uq.alojamientos.domain.enums.RolUsuario;
+import com.uq.alojamientos.seed.DatosSinteticos.IdsIniciales;
+import com.uq.alojamientos.seed.DatosSinteticos.NuevaReserva;
+import com.uq.alojamientos.seed.DatosSinteticos.NuevoAlojamiento;
+import com.uq.alojamientos.seed.DatosSinteticos.NuevoComentario;
+import com.uq.alojamientos.seed.DatosSinteticos.NuevoUsuario;
+import com.uq.alojamientos.seed.DatosSinteticos.Volumenes;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatosSinteticosTest {
+
+    private static final LocalDate HOY = LocalDate.of(2025, 6, 1);
+    private static final Volumenes VOLUMENES = new Volumenes(50, 200, 20_000, 4_000, 24, 12);
+    private static final IdsIniciales IDS = new IdsIniciales(1_000_001, 2_000_001, 3_000_001, 4_000_001);
+
+    @Test
+    void generar_DeberiaRespetarVolumenesYOrdenPadreHijo() {
+        Filas f = generar(42);
+
+        assertEquals(50, f.usuarios.size());
+        assertEquals(5, f.usuarios.stream().filter(u -> u.rol() == RolUsuario.ANFITRION).count());
+        assertEquals(200, f.alojamientos.size());
+        assertEquals(1_000_001, f.usuarios.get(0).id());
+        assertEquals(2_000_001, f.alojamientos.get(0).id());
+        // Puede quedarse corto si la ventana de fechas se llena, nunca pasarse
+        assertTrue(f.reservas.size() <= 20_000 && f.reservas.size() > 15_000, "reservas: " + f.reservas.size());
+        assertTrue(f.comentarios.size() <= 4_000 && f.comentarios.size() > 3_000, "comentarios: " + f.comentarios.size());
+        assertTrue(f.padresAntes, "un hijo llegó antes que su padre");
+    }
+
+    @Test
+    void generar_DeberiaCrearReservasSinSolaparYCoherentesConHoy() {
+        Filas f = generar(42);
+
+        Map<Long, LocalDate> ultimaSalida = new HashMap<>();
+        for (NuevaReserva r : f.reservas) {
+            assertTrue(r.checkIn().isBefore(r.checkOut()));
+            LocalDate anterior = ultimaSalida.put(r.alojamientoId(), r.checkOut());
+            if (anterior != null) assertFalse(r.checkIn().isBefore(anterior), "solapa en " + r);
+
+            boolean pasada = !r.checkOut().isAfter(HOY);
+            switch (r.estado()) {
+                case COMPLETADA -> assertTrue(pasada);
+                case CONFIRMADA -> assertFalse(pasada);
+                case CANCELADA -> { }
+                default -> fail("estado inesperado " + r.estado());
+            }
+            assertTrue(r.total().signum() > 0);
+        }
+    }
+
+    @Test
+    void generar_DeberiaComentarSoloReservasCompletadasConAgregadosCuadrados() {
+        Filas f = generar(42);
+
+        Map<Long, NuevaReserva> reservas = new HashMap<>();
+        f.reservas.forEach(r -> reservas.put(r.id(), r));
+        Set<Long> comentadas = new HashSet<>();
+        Map<Long, int[]> porAlojamiento = new HashMap<>();
+        for (NuevoComentario c : f.comentarios) {
+            NuevaReserva r = reservas.get(c.reservaId());
+            assertEquals(EstadoReserva.COMPLETADA, r.estado());
+            assertEquals(r.usuarioId(), c.usuarioId());
+            assertEquals(r.alojamientoId(), c.alojamientoId());
+            assertTrue(comentadas.add(c.reservaId()), "reserva comentada dos veces");
+            assertFalse(c.creado().isAfter(HOY.atStartOfDay()));
+            porAlojamiento.computeIfAbsent(c.alojamientoId(), k -> new int[5])[c.calificacion() - 1]++;
+        }
+        for (NuevoAlojamiento a : f.alojamientos) {
+            assertArrayEquals(porAlojamiento.getOrDefault(a.id(), new int[5]), a.calificaciones());
+        }
+    }
+
+    @Test
+    void generar_DeberiaSerReproducibleConLaMismaSemilla() {
+        Filas a = generar(7);
+        Filas b = generar(7);
+        Filas c = generar(8);
+
+        assertEquals(a.reservas, b.reservas);
+        assertEquals(a.comentarios, b.comentarios);
+        assertNotEquals(a.reservas, c.reservas);
+    }
+
+    @Test
+    void constructor_DeberiaRechazarVolumenesSinAnfitrionYHuesped() {
+        assertThrows(IllegalArgumentException.class, () -> new DatosSinteticos(
+                new Volumenes(1, 10, 10, 0, 1, 1), IDS, new long[DatosSinteticos.servicios().size()], HOY, 1));
+    }
+
+    private static Filas generar(long semilla) {
+        long[] bits = new long[DatosSinteticos.servicios().size()];
+        for (int i = 0; i < bits.length; i++) bits[i] = 1L << i;
+        Filas filas = new Filas();
+        new DatosSinteticos(VOLUMENES, IDS, bits, HOY, semilla).generar(filas);
+        return filas;
+    }
+
+    private static final class Filas implements DatosSinteticos.Destino {
+        final List<NuevoUsuario> usuarios = new ArrayList<>();
+        final List<NuevoAlojamiento> alojamientos = new ArrayList<>();
+        final List<NuevaReserva> reservas = new ArrayList<>();
+        final List<NuevoComentario> comentarios = new ArrayList<>();
+        // Ids de todas las tablas juntos: los rangos de IDS no se cruzan
+        final Set<Long> ids = new HashSet<>();
+        boolean padresAntes = true;
+
+        @Override
+        public void usuario(NuevoUsuario u) {
+            usuarios.add(u);
+            ids.add(u.id());
+        }
+
+        @Override
+        public void alojamiento(NuevoAlojamiento a) {
+            padresAntes &= ids.contains(a.anfitrionId());
+            alojamientos.add(a);
+            ids.add(a.id());
+        }
+
+        @Override
+        public void reserva(NuevaReserva r) {
+            padresAntes &= ids.contains(r.alojamientoId()) && ids.contains(r.usuarioId());
+            reservas.add(r);
+            ids.add(r.id());
+        }
+
+        @Override
+        public void comentario(NuevoComentario c) {
+            padresAntes &= ids.contains(c.reservaId());
+            comentarios.add(c);
+        }
+    }
+}
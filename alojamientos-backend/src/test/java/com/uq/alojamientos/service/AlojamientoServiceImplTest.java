@@ -1,21 +1,42 @@
 package com.uq.alojamientos.service;
 
+import com.uq.alojamientos.cache.BusquedaCache;
+import com.uq.alojamientos.cache.DetalleAlojamientoCache;
 import com.uq.alojamientos.domain.Alojamiento;
+import com.uq.alojamientos.domain.Servicio;
 import com.uq.alojamientos.domain.Usuario;
 import com.uq.alojamientos.domain.enums.EstadoAlojamiento;
+import com.uq.alojamientos.domain.enums.ModoServicios;
 import com.uq.alojamientos.dto.AlojamientoDTO;
+import com.uq.alojamientos.dto.CursorPage;
+import com.uq.alojamientos.dto.SugerenciaCiudadDTO;
+import com.uq.alojamientos.index.CatalogoServicios;
+import com.uq.alojamientos.index.DisponibilidadIndex;
+import com.uq.alojamientos.index.GeoIndex;
+import com.uq.alojamientos.index.IndiceCiudades;
+import com.uq.alojamientos.index.IndiceTexto;
+import com.uq.alojamientos.mapper.AlojamientoMapper;
+import com.uq.alojamientos.mapper.AlojamientoMapperImpl;
 import com.uq.alojamientos.repository.AlojamientoRepository;
+import com.uq.alojamientos.repository.ServicioRepository;
 import com.uq.alojamientos.repository.UsuarioRepository;
+import com.uq.alojamientos.repository.projection.CandidatoBusqueda;
+import com.uq.alojamientos.repository.projection.TarjetaAlojamiento;
 import com.uq.alojamientos.service.impl.AlojamientoServiceImpl;
+import com.uq.alojamientos.util.CursorCodec;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,15 +47,34 @@ class AlojamientoServiceImplTest {
 
     private AlojamientoRepository repo;
     private UsuarioRepository usuarioRepo;
-    private ModelMapper mapper;
+    private AlojamientoMapper mapper;
+    private DisponibilidadIndex disponibilidad;
+    private GeoIndex geo;
+    private CatalogoServicios catalogo;
+    private DetalleAlojamientoCache detalleCache;
+    private BusquedaCache busquedaCache;
+    private IndiceTexto indiceTexto;
+    private IndiceCiudades indiceCiudades;
     private AlojamientoServiceImpl service;
 
     @BeforeEach
     void setUp() {
         repo = mock(AlojamientoRepository.class);
         usuarioRepo = mock(UsuarioRepository.class);
-        mapper = new ModelMapper();
-        service = new AlojamientoServiceImpl(repo, usuarioRepo, mapper);
+        ServicioRepository servicioRepo = mock(ServicioRepository.class);
+        when(servicioRepo.findAll()).thenReturn(List.of(
+                new Servicio(0, "wifi"), new Servicio(1, "cocina"), new Servicio(2, "piscina")));
+        catalogo = new CatalogoServicios(servicioRepo, mock(PlatformTransactionManager.class));
+        catalogo.cargar();
+        mapper = new AlojamientoMapperImpl(catalogo);
+        disponibilidad = mock(DisponibilidadIndex.class);
+        geo = mock(GeoIndex.class);
+        detalleCache = new DetalleAlojamientoCache(repo, mapper, 100, 60);
+        busquedaCache = new BusquedaCache(1024, 60, new BigDecimal("50000"));
+        indiceTexto = new IndiceTexto(repo, catalogo, 100);
+        indiceCiudades = new IndiceCiudades(repo);
+        service = new AlojamientoServiceImpl(repo, usuarioRepo, mapper, disponibilidad, geo, catalogo,
+                detalleCache, busquedaCache, indiceTexto, indiceCiudades);
     }
 
     @Test
@@ -63,6 +103,8 @@ class AlojamientoServiceImplTest {
         assertNotNull(resultado);
         assertEquals("Bogotá", resultado.getCiudad());
         verify(repo, times(1)).save(any(Alojamiento.class));
+        assertEquals(List.of(10L), indiceTexto.buscar("bogota").stream().map(IndiceTexto.Coincidencia::id).toList());
+        assertEquals(List.of(new SugerenciaCiudadDTO("Bogotá", 1)), service.sugerirCiudades("bog", 5));
     }
 
     @Test
@@ -80,43 +122,415 @@ class AlojamientoServiceImplTest {
     void eliminarLogico_DeberiaActualizarEstadoAlojamiento() {
         Alojamiento alojamiento = new Alojamiento();
         alojamiento.setId(1L);
+        alojamiento.setCiudad("Rionegro");
         alojamiento.setEstado(EstadoAlojamiento.ACTIVO);
 
         when(repo.findById(1L)).thenReturn(Optional.of(alojamiento));
+        indiceCiudades.sumar("Rionegro");
+        indiceTexto.agregar(1L, "Casa campestre", "Casa con chimenea y vista al valle", "Rionegro", 0);
 
         service.eliminarLogico(1L);
 
         assertEquals(EstadoAlojamiento.ELIMINADO, alojamiento.getEstado());
         verify(repo).save(alojamiento);
+        assertTrue(indiceTexto.buscar("casa").isEmpty());
+        assertTrue(service.sugerirCiudades("rio", 5).isEmpty());
+        // eliminarlo otra vez no descuenta de nuevo
+        indiceCiudades.sumar("Rionegro");
+        service.eliminarLogico(1L);
+        assertEquals(1, indiceCiudades.tamano());
     }
 
     @Test
-    void buscarActivosPorCiudad_DeberiaRetornarPaginaDeDTOs() {
+    void obtenerPorId_DeberiaServirDesdeCacheHastaQueSeInvalide() {
         Alojamiento alojamiento = new Alojamiento();
-        alojamiento.setCiudad("Medellín");
+        alojamiento.setId(1L);
+        alojamiento.setTitulo("Loft estudio");
         alojamiento.setEstado(EstadoAlojamiento.ACTIVO);
+        when(repo.findById(1L)).thenReturn(Optional.of(alojamiento));
+
+        service.obtenerPorId(1L);
+        service.obtenerPorId(1L);
+        verify(repo, times(1)).findById(1L);
+
+        service.eliminarLogico(1L);
+        service.obtenerPorId(1L);
+        // una lectura para eliminar y otra para recargar el detalle
+        verify(repo, times(3)).findById(1L);
+        assertEquals(2, detalleCache.estadisticas().fallos());
+        assertEquals(1, detalleCache.estadisticas().aciertos());
+    }
+
+    @Test
+    void buscarActivosPorCiudad_DeberiaRetornarPaginaDeDTOs() {
+        TarjetaAlojamiento tarjeta = new TarjetaAlojamiento(1L, 3L, "Loft en Laureles", "Medellín", null,
+                null, null, new BigDecimal("180000"), 2, 0b11L, 4, 17L);
 
         when(repo.findByEstadoAndCiudadContainingIgnoreCase(eq(EstadoAlojamiento.ACTIVO), eq("Medellín"), any()))
-                .thenReturn(new PageImpl<>(List.of(alojamiento)));
+                .thenReturn(new PageImpl<>(List.of(tarjeta)));
 
         Page<AlojamientoDTO> resultado = service.buscarActivosPorCiudad("Medellín", PageRequest.of(0, 10));
 
         assertEquals(1, resultado.getTotalElements());
-        assertEquals("Medellín", resultado.getContent().get(0).getCiudad());
+        AlojamientoDTO dto = resultado.getContent().get(0);
+        assertEquals("Medellín", dto.getCiudad());
+        assertEquals(3L, dto.getAnfitrionId());
+        assertEquals(List.of("wifi", "cocina"), dto.getServicios());
+        assertEquals(4.3, dto.getPromedioCalificacion());
+        assertNull(dto.getDescripcion()); // el listado no trae la descripción
+        verify(repo, never()).findById(any());
     }
 
     @Test
     void buscarDisponibles_DeberiaLlamarAlRepositorio() {
-        when(repo.buscarDisponibles(any(), any(), any(), any(), any(), any(), any(), any()))
+        when(repo.buscarDisponibles(any(), any(), any(), any(), anyLong(), anyLong(), any(), any(), any(), any()))
                 .thenReturn(new PageImpl<>(List.of()));
 
         Page<AlojamientoDTO> resultado = service.buscarDisponibles(
-                "Cali", BigDecimal.ZERO, BigDecimal.TEN, 2,
+                null, "Cali", BigDecimal.ZERO, BigDecimal.TEN, 2, null, ModoServicios.TODOS,
                 LocalDate.now(), LocalDate.now().plusDays(1),
                 PageRequest.of(0, 10)
         );
 
         assertNotNull(resultado);
-        verify(repo, times(1)).buscarDisponibles(any(), any(), any(), any(), any(), any(), any(), any());
+        verify(repo, times(1)).buscarDisponibles(any(), any(), any(), any(), anyLong(), anyLong(), any(), any(), any(), any());
+    }
+
+    @Test
+    void buscarDisponibles_ConIndice_DeberiaFiltrarEnMemoriaYCargarSoloLaPagina() {
+        LocalDate desde = LocalDate.now().plusDays(3);
+        LocalDate hasta = desde.plusDays(2);
+
+        when(disponibilidad.puedeResolver(desde, hasta)).thenReturn(true);
+        when(repo.buscarCandidatosConPrecio("cali", null, null, null, 0L, 0L)).thenReturn(candidatos(1, 2, 3, 4, 5));
+        when(disponibilidad.filtrarLibres(List.of(1L, 2L, 3L, 4L, 5L), desde, hasta))
+                .thenReturn(List.of(1L, 3L, 4L));
+        when(repo.findTarjetasByIdIn(List.of(1L, 3L))).thenReturn(List.of(tarjeta(3), tarjeta(1)));
+
+        Page<AlojamientoDTO> resultado = service.buscarDisponibles(
+                null, "Cali", null, null, null, null, ModoServicios.TODOS, desde, hasta, PageRequest.of(0, 2));
+
+        assertEquals(3, resultado.getTotalElements());
+        assertEquals(2, resultado.getTotalPages());
+        assertEquals(List.of(1L, 3L), resultado.getContent().stream().map(AlojamientoDTO::getId).toList());
+        verify(repo, never()).buscarDisponibles(any(), any(), any(), any(), anyLong(), anyLong(), any(), any(), any(), any());
+    }
+
+    @Test
+    void buscarDisponibles_ConServicios_DeberiaFiltrarPorMascara() {
+        LocalDate desde = LocalDate.now().plusDays(3);
+        LocalDate hasta = desde.plusDays(2);
+        when(disponibilidad.puedeResolver(desde, hasta)).thenReturn(true);
+
+        service.buscarDisponibles(null, "Cali", null, null, null, List.of("WiFi", "piscina"), ModoServicios.TODOS,
+                desde, hasta, PageRequest.of(0, 10));
+        service.buscarDisponibles(null, "Cali", null, null, null, List.of("cocina", "jacuzzi"), ModoServicios.ALGUNO,
+                desde, hasta, PageRequest.of(0, 10));
+
+        verify(repo).buscarCandidatosConPrecio("cali", null, null, null, 0b101L, 0L);
+        // el servicio desconocido se ignora en modo ALGUNO
+        verify(repo).buscarCandidatosConPrecio("cali", null, null, null, 0L, 0b10L);
+    }
+
+    @Test
+    void buscarDisponibles_ExigiendoUnServicioInexistente_DeberiaDevolverVacioSinConsultar() {
+        LocalDate desde = LocalDate.now().plusDays(3);
+
+        Page<AlojamientoDTO> resultado = service.buscarDisponibles(null, "Cali", null, null, null,
+                List.of("wifi", "helipuerto"), ModoServicios.TODOS, desde, desde.plusDays(2), PageRequest.of(0, 10));
+
+        assertTrue(resultado.isEmpty());
+        verifyNoInteractions(repo);
+    }
+
+    @Test
+    void buscarDisponibles_RepetidaConPreciosDelMismoTramo_DeberiaUsarLaCache() {
+        LocalDate desde = LocalDate.now().plusDays(3);
+        LocalDate hasta = desde.plusDays(2);
+        when(disponibilidad.puedeResolver(desde, hasta)).thenReturn(true);
+        when(repo.buscarCandidatosConPrecio("cali", null, new BigDecimal("300000"), null, 0L, 0L)).thenReturn(List.of(
+                new CandidatoBusqueda(1L, new BigDecimal("120000")),
+                new CandidatoBusqueda(2L, new BigDecimal("260000")),
+                new CandidatoBusqueda(3L, new BigDecimal("290000"))));
+        when(disponibilidad.filtrarLibres(List.of(1L, 2L, 3L), desde, hasta)).thenReturn(List.of(1L, 2L, 3L));
+        when(repo.findTarjetasByIdIn(any())).thenReturn(List.of());
+
+        Page<AlojamientoDTO> primera = service.buscarDisponibles(null, " CALI", null, new BigDecimal("280000"), null,
+                null, ModoServicios.TODOS, desde, hasta, PageRequest.of(0, 10));
+        Page<AlojamientoDTO> segunda = service.buscarDisponibles(null, "cali", null, new BigDecimal("300000"), null,
+                null, ModoServicios.TODOS, desde, hasta, PageRequest.of(0, 10));
+
+        // misma entrada (tramo 250000-300000), pero el precio exacto se respeta
+        assertEquals(2, primera.getTotalElements());
+        assertEquals(3, segunda.getTotalElements());
+        verify(repo, times(1)).buscarCandidatosConPrecio(any(), any(), any(), any(), anyLong(), anyLong());
+        assertEquals(1, busquedaCache.estadisticas().aciertos());
+    }
+
+    @Test
+    void buscarDisponibles_TrasReservaEnOtraCiudadOFechas_NoDeberiaInvalidar() {
+        LocalDate desde = LocalDate.now().plusDays(3);
+        LocalDate hasta = desde.plusDays(2);
+        when(disponibilidad.puedeResolver(desde, hasta)).thenReturn(true);
+        when(repo.buscarCandidatosConPrecio(any(), any(), any(), any(), anyLong(), anyLong())).thenReturn(candidatos(1));
+        when(disponibilidad.filtrarLibres(List.of(1L), desde, hasta)).thenReturn(List.of(1L));
+        when(repo.findTarjetasByIdIn(any())).thenReturn(List.of());
+        Runnable buscar = () -> service.buscarDisponibles(null, "Cali", null, null, null, null, ModoServicios.TODOS,
+                desde, hasta, PageRequest.of(0, 10));
+
+        buscar.run();
+        busquedaCache.invalidarReserva("Pereira", desde, hasta);
+        busquedaCache.invalidarReserva("Cali", hasta, hasta.plusDays(3));
+        buscar.run();
+        verify(repo, times(1)).buscarCandidatosConPrecio(any(), any(), any(), any(), anyLong(), anyLong());
+
+        busquedaCache.invalidarReserva("Santiago de Cali", desde.minusDays(1), desde.plusDays(1));
+        buscar.run();
+        verify(repo, times(2)).buscarCandidatosConPrecio(any(), any(), any(), any(), anyLong(), anyLong());
+    }
+
+    @Test
+    void buscarDisponibles_TrasReservaEnCiudadConTilde_DeberiaInvalidarLaBusquedaSinTilde() {
+        LocalDate desde = LocalDate.now().plusDays(3);
+        LocalDate hasta = desde.plusDays(2);
+        when(disponibilidad.puedeResolver(desde, hasta)).thenReturn(true);
+        when(repo.buscarCandidatosConPrecio(any(), any(), any(), any(), anyLong(), anyLong())).thenReturn(candidatos(1));
+        when(disponibilidad.filtrarLibres(List.of(1L), desde, hasta)).thenReturn(List.of(1L));
+        when(repo.findTarjetasByIdIn(any())).thenReturn(List.of());
+        Runnable buscar = () -> service.buscarDisponibles(null, "bogota", null, null, null, null, ModoServicios.TODOS,
+                desde, hasta, PageRequest.of(0, 10));
+
+        buscar.run();
+        busquedaCache.invalidarReserva("Bogotá", desde, hasta);
+        buscar.run();
+
+        verify(repo, times(2)).buscarCandidatosConPrecio(any(), any(), any(), any(), anyLong(), anyLong());
+    }
+
+    @Test
+    void buscarDisponibles_ConTexto_DeberiaOrdenarPorRelevanciaYAplicarFiltros() {
+        LocalDate desde = LocalDate.now().plusDays(3);
+        LocalDate hasta = desde.plusDays(2);
+        indiceTexto.agregar(1L, "Habitación céntrica", "Cerca de la catedral y de la zona rosa", "Pereira", 0);
+        indiceTexto.agregar(2L, "Cabaña con piscina", "Piscina climatizada y jacuzzi para el descanso", "Pereira", 0);
+        indiceTexto.agregar(3L, "Finca cafetera", "Casa amplia con piscina entre cafetales", "Pereira", 0);
+        indiceTexto.agregar(4L, "Piscinas y toboganes", "Apartamento con piscina en conjunto cerrado", "Pereira", 0);
+
+        when(disponibilidad.puedeResolver(desde, hasta)).thenReturn(true);
+        // el 4 no cumple el precio, el 3 está ocupado en las fechas
+        when(repo.filtrarIds(any(), eq("pereira"), isNull(), eq(new BigDecimal("300000")), isNull(),
+                eq(0L), eq(0L), isNull(), isNull(), any()))
+                .thenAnswer(inv -> inv.<List<Long>>getArgument(0).stream().filter(id -> id != 4L).toList());
+        when(disponibilidad.filtrarLibres(any(), eq(desde), eq(hasta)))
+                .thenAnswer(inv -> inv.<List<Long>>getArgument(0).stream().filter(id -> id != 3L).toList());
+        when(repo.findTarjetasByIdIn(any())).thenAnswer(inv -> inv.<List<Long>>getArgument(0).stream()
+                .map(id -> tarjeta(id)).toList());
+
+        Page<AlojamientoDTO> resultado = service.buscarDisponibles("PISCINAS", "Pereira", null,
+                new BigDecimal("300000"), null, null, ModoServicios.TODOS, desde, hasta, PageRequest.of(0, 10));
+
+        assertEquals(List.of(2L), resultado.getContent().stream().map(AlojamientoDTO::getId).toList());
+        verify(repo, never()).buscarCandidatosConPrecio(any(), any(), any(), any(), anyLong(), anyLong());
+    }
+
+    @Test
+    void buscarDisponibles_ConTextoEnOtraPagina_DeberiaReusarLasCoincidenciasFiltradas() {
+        LocalDate desde = LocalDate.now().plusDays(3);
+        LocalDate hasta = desde.plusDays(2);
+        for (long id = 1; id <= 3; id++) {
+            indiceTexto.agregar(id, "Loft " + id, "Loft moderno con vista a la ciudad".repeat((int) id), "Cali", 0);
+        }
+        when(disponibilidad.puedeResolver(desde, hasta)).thenReturn(true);
+        when(repo.filtrarIds(any(), any(), any(), any(), any(), anyLong(), anyLong(), any(), any(), any()))
+                .thenAnswer(inv -> inv.getArgument(0));
+        when(disponibilidad.filtrarLibres(any(), any(), any())).thenAnswer(inv -> inv.getArgument(0));
+        when(repo.findTarjetasByIdIn(any())).thenAnswer(inv -> inv.<List<Long>>getArgument(0).stream()
+                .map(id -> tarjeta(id)).toList());
+
+        Page<AlojamientoDTO> primera = service.buscarDisponibles("loft", null, null, null, null, null,
+                ModoServicios.TODOS, desde, hasta, PageRequest.of(0, 2));
+        Page<AlojamientoDTO> segunda = service.buscarDisponibles("LOFT loft", null, null, null, null, null,
+                ModoServicios.TODOS, desde, hasta, PageRequest.of(1, 2));
+
+        assertEquals(3, primera.getTotalElements());
+        assertEquals(2, primera.getContent().size());
+        assertEquals(1, segunda.getContent().size());
+        assertFalse(primera.getContent().stream().map(AlojamientoDTO::getId).toList()
+                .contains(segunda.getContent().get(0).getId()));
+        verify(repo, times(1)).filtrarIds(any(), any(), any(), any(), any(), anyLong(), anyLong(), any(), any(), any());
+
+        // Una reserva en esas fechas invalida la lista guardada
+        busquedaCache.invalidarReserva("Cali", desde, hasta);
+        service.buscarDisponibles("loft", null, null, null, null, null,
+                ModoServicios.TODOS, desde, hasta, PageRequest.of(0, 2));
+
+        verify(repo, times(2)).filtrarIds(any(), any(), any(), any(), any(), anyLong(), anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void buscarDisponibles_ConTextoYCursor_DeberiaContinuarPorRelevancia() {
+        LocalDate desde = LocalDate.now().plusDays(3);
+        LocalDate hasta = desde.plusDays(2);
+        for (long id = 1; id <= 3; id++) {
+            indiceTexto.agregar(id, "Loft " + id, "Loft moderno con vista a la ciudad".repeat((int) id), "Cali", 0);
+        }
+        when(disponibilidad.puedeResolver(desde, hasta)).thenReturn(true);
+        when(repo.filtrarIds(any(), any(), any(), any(), any(), anyLong(), anyLong(), any(), any(), any()))
+                .thenAnswer(inv -> inv.getArgument(0));
+        when(disponibilidad.filtrarLibres(any(), any(), any())).thenAnswer(inv -> inv.getArgument(0));
+        when(repo.findTarjetasByIdIn(any())).thenAnswer(inv -> inv.<List<Long>>getArgument(0).stream()
+                .map(id -> tarjeta(id)).toList());
+
+        CursorPage<AlojamientoDTO> primera = service.buscarDisponibles(
+                "loft", null, null, null, null, null, ModoServicios.TODOS, desde, hasta, null, 2);
+        CursorPage<AlojamientoDTO> segunda = service.buscarDisponibles(
+                "loft", null, null, null, null, null, ModoServicios.TODOS, desde, hasta, primera.getSiguienteCursor(), 2);
+
+        List<Long> todos = new ArrayList<>(primera.getContenido().stream().map(AlojamientoDTO::getId).toList());
+        todos.addAll(segunda.getContenido().stream().map(AlojamientoDTO::getId).toList());
+        assertTrue(primera.isHayMas());
+        assertFalse(segunda.isHayMas());
+        assertEquals(3, todos.size());
+        assertEquals(3, new HashSet<>(todos).size());
+        assertThrows(IllegalArgumentException.class, () -> service.buscarDisponibles(
+                "loft", null, null, null, null, null, ModoServicios.TODOS, desde, hasta, CursorCodec.codificar(3L), 2));
+    }
+
+    @Test
+    void buscarActivosPorCiudad_ConCursor_DeberiaPedirUnaFilaExtraYDevolverSiguienteCursor() {
+        when(repo.findActivosPorCiudadDespuesDe(EstadoAlojamiento.ACTIVO, "Cali", 2L, Limit.of(3)))
+                .thenReturn(List.of(tarjeta(4), tarjeta(7), tarjeta(9)));
+
+        CursorPage<AlojamientoDTO> resultado =
+                service.buscarActivosPorCiudad("Cali", CursorCodec.codificar(2L), 2);
+
+        assertEquals(List.of(4L, 7L), resultado.getContenido().stream().map(AlojamientoDTO::getId).toList());
+        assertTrue(resultado.isHayMas());
+        assertEquals(7L, CursorCodec.decodificarId(resultado.getSiguienteCursor()));
+    }
+
+    @Test
+    void buscarActivosPorCiudad_DeberiaRechazarCursorInvalido() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.buscarActivosPorCiudad("Cali", "no-es-un-cursor", 10));
+        verifyNoInteractions(repo);
+    }
+
+    @Test
+    void buscarDisponibles_ConCursorEIndice_DeberiaContinuarDespuesDelCursor() {
+        LocalDate desde = LocalDate.now().plusDays(3);
+        LocalDate hasta = desde.plusDays(2);
+        when(disponibilidad.puedeResolver(desde, hasta)).thenReturn(true);
+        when(repo.buscarCandidatosConPrecio("cali", null, null, null, 0L, 0L)).thenReturn(candidatos(1, 2, 3, 4, 5));
+        when(disponibilidad.filtrarLibres(List.of(1L, 2L, 3L, 4L, 5L), desde, hasta)).thenReturn(List.of(1L, 2L, 4L));
+        when(repo.findTarjetasByIdIn(List.of(4L))).thenReturn(List.of(tarjeta(4)));
+
+        CursorPage<AlojamientoDTO> resultado = service.buscarDisponibles(
+                null, "Cali", null, null, null, null, ModoServicios.TODOS, desde, hasta, CursorCodec.codificar(3L), 2);
+
+        assertEquals(List.of(4L), resultado.getContenido().stream().map(AlojamientoDTO::getId).toList());
+        assertFalse(resultado.isHayMas());
+        assertNull(resultado.getSiguienteCursor());
+    }
+
+    @Test
+    void buscarCercanos_DeberiaFiltrarPorPrecioYConservarOrdenPorDistancia() {
+        when(geo.buscarEnRadio(5.07, -75.51, 3)).thenReturn(List.of(
+                new GeoIndex.Cercano(8L, 0.4),
+                new GeoIndex.Cercano(5L, 1.1),
+                new GeoIndex.Cercano(2L, 2.75)
+        ));
+        when(repo.filtrarIds(eq(List.of(8L, 5L, 2L)), isNull(), isNull(), eq(BigDecimal.valueOf(300000)), isNull(),
+                eq(0L), eq(0L), isNull(), isNull(), any()))
+                .thenReturn(List.of(2L, 8L));
+        when(repo.findTarjetasByIdIn(List.of(8L, 2L))).thenReturn(List.of(tarjeta(2), tarjeta(8)));
+
+        Page<AlojamientoDTO> resultado = service.buscarCercanos(
+                5.07, -75.51, 3, null, BigDecimal.valueOf(300000), null, null, null, PageRequest.of(0, 10));
+
+        assertEquals(List.of(8L, 2L), resultado.getContent().stream().map(AlojamientoDTO::getId).toList());
+        assertEquals(0.4, resultado.getContent().get(0).getDistanciaKm());
+        assertEquals(2.75, resultado.getContent().get(1).getDistanciaKm());
+    }
+
+    @Test
+    void buscarCercanos_DeberiaFiltrarSoloHastaLlenarLaPagina() {
+        List<GeoIndex.Cercano> cercanos = new ArrayList<>();
+        for (long id = 1; id <= 5000; id++) cercanos.add(new GeoIndex.Cercano(id, id / 100.0));
+        when(geo.buscarEnRadio(5.07, -75.51, 200)).thenReturn(cercanos);
+        // Solo los ids pares cumplen los filtros
+        when(repo.filtrarIds(any(), any(), any(), any(), any(), anyLong(), anyLong(), any(), any(), any()))
+                .thenAnswer(inv -> inv.<List<Long>>getArgument(0).stream().filter(id -> id % 2 == 0).toList());
+        when(repo.findTarjetasByIdIn(any())).thenAnswer(inv -> inv.<List<Long>>getArgument(0).stream()
+                .map(id -> tarjeta(id)).toList());
+
+        Page<AlojamientoDTO> primera = service.buscarCercanos(
+                5.07, -75.51, 200, null, null, null, null, null, PageRequest.of(0, 10));
+
+        assertEquals(List.of(2L, 4L, 6L, 8L, 10L, 12L, 14L, 16L, 18L, 20L),
+                primera.getContent().stream().map(AlojamientoDTO::getId).toList());
+        assertTrue(primera.hasNext());
+        verify(repo, times(1)).filtrarIds(any(), any(), any(), any(), any(), anyLong(), anyLong(), any(), any(), any());
+
+        // Página 15: hacen falta 161 válidos, es decir 322 candidatos (tramos de 200 y 400)
+        Page<AlojamientoDTO> quince = service.buscarCercanos(
+                5.07, -75.51, 200, null, null, null, null, null, PageRequest.of(15, 10));
+
+        assertEquals(302L, quince.getContent().get(0).getId());
+        verify(repo, times(3)).filtrarIds(any(), any(), any(), any(), any(), anyLong(), anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void buscarCercanos_AlLlegarAlFinal_DeberiaDarElTotalExacto() {
+        List<GeoIndex.Cercano> cercanos = new ArrayList<>();
+        for (long id = 1; id <= 30; id++) cercanos.add(new GeoIndex.Cercano(id, id));
+        when(geo.buscarEnRadio(5.07, -75.51, 50)).thenReturn(cercanos);
+        when(repo.filtrarIds(any(), any(), any(), any(), any(), anyLong(), anyLong(), any(), any(), any()))
+                .thenAnswer(inv -> inv.<List<Long>>getArgument(0).stream().filter(id -> id % 3 == 0).toList());
+        when(repo.findTarjetasByIdIn(any())).thenAnswer(inv -> inv.<List<Long>>getArgument(0).stream()
+                .map(id -> tarjeta(id)).toList());
+
+        Page<AlojamientoDTO> resultado = service.buscarCercanos(
+                5.07, -75.51, 50, null, null, null, null, null, PageRequest.of(1, 8));
+
+        assertEquals(List.of(27L, 30L), resultado.getContent().stream().map(AlojamientoDTO::getId).toList());
+        assertEquals(10, resultado.getTotalElements());
+        assertFalse(resultado.hasNext());
+    }
+
+    @Test
+    void buscarCercanos_DeberiaRechazarRadioFueraDeRango() {
+        assertThrows(IllegalArgumentException.class, () -> service.buscarCercanos(
+                5.07, -75.51, 500, null, null, null, null, null, PageRequest.of(0, 10)));
+        verifyNoInteractions(geo);
+    }
+
+    @Test
+    void buscarEnArea_DeberiaRechazarAreasInvertidasNoFinitasODemasiadoGrandes() {
+        PageRequest pagina = PageRequest.of(0, 10);
+
+        assertThrows(IllegalArgumentException.class, () -> service.buscarEnArea(
+                5.1, 5.0, -75.6, -75.5, null, null, null, null, null, pagina));
+        assertThrows(IllegalArgumentException.class, () -> service.buscarEnArea(
+                Double.NaN, 5.1, -75.6, -75.5, null, null, null, null, null, pagina));
+        assertThrows(IllegalArgumentException.class, () -> service.buscarEnArea(
+                5.0, 5.1, Double.NEGATIVE_INFINITY, -75.5, null, null, null, null, null, pagina));
+        // El mundo entero
+        assertThrows(IllegalArgumentException.class, () -> service.buscarEnArea(
+                -90, 90, -180, 180, null, null, null, null, null, pagina));
+        assertThrows(IllegalArgumentException.class, () -> service.buscarCercanos(
+                5.07, -75.51, Double.NaN, null, null, null, null, null, pagina));
+        verifyNoInteractions(geo);
+    }
+
+    private static List<CandidatoBusqueda> candidatos(long... ids) {
+        return Arrays.stream(ids)
+                .mapToObj(id -> new CandidatoBusqueda(id, new BigDecimal("100000")))
+                .toList();
+    }
+
+    private static TarjetaAlojamiento tarjeta(long id) {
+        return new TarjetaAlojamiento(id, 1L, "Alojamiento " + id, "Cali", null, null, null,
+                new BigDecimal("100000"), 2, 0L, 0, 0L);
     }
 }
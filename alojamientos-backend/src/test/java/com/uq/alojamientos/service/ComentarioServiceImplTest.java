@@ -1,23 +1,32 @@
 package com.uq.alojamientos.service;
 
+import com.uq.alojamientos.cache.DetalleAlojamientoCache;
 import com.uq.alojamientos.domain.Alojamiento;
 import com.uq.alojamientos.domain.Comentario;
 import com.uq.alojamientos.domain.Reserva;
 import com.uq.alojamientos.domain.Usuario;
 import com.uq.alojamientos.domain.enums.EstadoReserva;
+import com.uq.alojamientos.dto.CalificacionesDTO;
 import com.uq.alojamientos.dto.ComentarioDTO;
+import com.uq.alojamientos.dto.CursorPage;
+import com.uq.alojamientos.mapper.ComentarioMapper;
 import com.uq.alojamientos.repository.AlojamientoRepository;
 import com.uq.alojamientos.repository.ComentarioRepository;
 import com.uq.alojamientos.repository.ReservaRepository;
 import com.uq.alojamientos.repository.UsuarioRepository;
+import com.uq.alojamientos.repository.projection.FilaComentario;
+import com.uq.alojamientos.repository.projection.ResumenCalificaciones;
 import com.uq.alojamientos.service.impl.ComentarioServiceImpl;
+import com.uq.alojamientos.util.CursorCodec;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.modelmapper.ModelMapper;
+import org.mapstruct.factory.Mappers;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -30,7 +39,8 @@ class ComentarioServiceImplTest {
     private ReservaRepository reservaRepo;
     private AlojamientoRepository alojamientoRepo;
     private UsuarioRepository usuarioRepo;
-    private ModelMapper mapper;
+    private ComentarioMapper mapper;
+    private DetalleAlojamientoCache detalleCache;
     private ComentarioServiceImpl service;
 
     @BeforeEach
@@ -39,8 +49,9 @@ class ComentarioServiceImplTest {
         reservaRepo = mock(ReservaRepository.class);
         alojamientoRepo = mock(AlojamientoRepository.class);
         usuarioRepo = mock(UsuarioRepository.class);
-        mapper = new ModelMapper();
-        service = new ComentarioServiceImpl(comentarioRepo, reservaRepo, alojamientoRepo, usuarioRepo, mapper);
+        mapper = Mappers.getMapper(ComentarioMapper.class);
+        detalleCache = mock(DetalleAlojamientoCache.class);
+        service = new ComentarioServiceImpl(comentarioRepo, reservaRepo, alojamientoRepo, usuarioRepo, mapper, detalleCache);
     }
 
     @Test
@@ -81,6 +92,8 @@ class ComentarioServiceImplTest {
         // Assert
         assertNotNull(resultado);
         verify(comentarioRepo).save(any(Comentario.class));
+        verify(alojamientoRepo).registrarCalificacion(2L, 5);
+        verify(detalleCache).invalidar(2L);
     }
 
     @Test
@@ -165,38 +178,88 @@ class ComentarioServiceImplTest {
     void listarPorAlojamiento_DeberiaRetornarPaginaDeDTOs() {
         System.out.println("➡ Ejecutando: listarPorAlojamiento_DeberiaRetornarPaginaDeDTOs");
 
-        Comentario comentario = new Comentario();
-        //comentario.setContenido("Todo bien");
+        FilaComentario fila = new FilaComentario(40L, 9L, 5L, 2L, 4, "Todo bien, muy limpio",
+                null, LocalDateTime.of(2025, 3, 1, 10, 30));
 
         when(comentarioRepo.findByAlojamientoIdOrderByCreatedAtDesc(eq(5L), any()))
-                .thenReturn(new PageImpl<>(List.of(comentario)));
+                .thenReturn(new PageImpl<>(List.of(fila)));
 
         Page<ComentarioDTO> resultado = service.listarPorAlojamiento(5L, PageRequest.of(0, 10));
 
         assertEquals(1, resultado.getTotalElements());
-        //assertEquals("Todo bien", resultado.getContent().get(0).getContenido());
+        assertEquals("Todo bien, muy limpio", resultado.getContent().get(0).getTexto());
+        assertEquals(9L, resultado.getContent().get(0).getReservaId());
+    }
+
+    @Test
+    void listarPorAlojamiento_ConCursor_DeberiaUsarFechaEIdDelCursor() {
+        System.out.println("➡ Ejecutando: listarPorAlojamiento_ConCursor_DeberiaUsarFechaEIdDelCursor");
+
+        LocalDateTime fecha = LocalDateTime.of(2025, 3, 1, 10, 30);
+        FilaComentario c1 = new FilaComentario(40L, 9L, 5L, 2L, 5, "Excelente", null, fecha.minusHours(1));
+        FilaComentario c2 = new FilaComentario(38L, 8L, 5L, 3L, 3, "Regular", null, fecha.minusHours(2));
+
+        when(comentarioRepo.findByAlojamientoAntesDe(5L, fecha, 41L, Limit.of(2)))
+                .thenReturn(List.of(c1, c2));
+
+        CursorPage<ComentarioDTO> resultado =
+                service.listarPorAlojamiento(5L, CursorCodec.codificar(fecha, 41L), 1);
+
+        assertEquals(1, resultado.getContenido().size());
+        assertTrue(resultado.isHayMas());
+        CursorCodec.Posicion siguiente = CursorCodec.decodificarFechaId(resultado.getSiguienteCursor());
+        assertEquals(c1.createdAt(), siguiente.fecha());
+        assertEquals(40L, siguiente.id());
     }
 
     @Test
     void promedioCalificacion_DeberiaRedondearCorrectamente() {
         System.out.println("➡ Ejecutando: promedioCalificacion_DeberiaRedondearCorrectamente");
 
-        when(comentarioRepo.promedioPorAlojamiento(1L)).thenReturn(4.26);
+        // 17 calificaciones que suman 72 -> 4.235...
+        when(alojamientoRepo.findResumenCalificaciones(1L))
+                .thenReturn(Optional.of(new ResumenCalificaciones(17, 72, 1, 1, 2, 4, 9)));
         Double promedio = service.promedioCalificacion(1L);
 
-        assertEquals(4.3, promedio);
+        assertEquals(4.2, promedio);
+        verifyNoInteractions(comentarioRepo);
     }
 
     @Test
     void promedioCalificacion_DeberiaRetornarCeroSiNoHayDatos() {
         System.out.println("➡ Ejecutando: promedioCalificacion_DeberiaRetornarCeroSiNoHayDatos");
 
-        when(comentarioRepo.promedioPorAlojamiento(1L)).thenReturn(null);
+        when(alojamientoRepo.findResumenCalificaciones(1L))
+                .thenReturn(Optional.of(new ResumenCalificaciones(0, 0, 0, 0, 0, 0, 0)));
         Double promedio = service.promedioCalificacion(1L);
 
         assertEquals(0.0, promedio);
     }
 
+    @Test
+    void histogramaCalificaciones_DeberiaDevolverConteoPorEstrellas() {
+        System.out.println("➡ Ejecutando: histogramaCalificaciones_DeberiaDevolverConteoPorEstrellas");
+
+        when(alojamientoRepo.findResumenCalificaciones(1L))
+                .thenReturn(Optional.of(new ResumenCalificaciones(4, 14, 0, 1, 0, 1, 2)));
+
+        CalificacionesDTO resultado = service.histogramaCalificaciones(1L);
+
+        assertEquals(4, resultado.getTotal());
+        assertEquals(3.5, resultado.getPromedio());
+        assertEquals(List.of(1, 2, 3, 4, 5), List.copyOf(resultado.getHistograma().keySet()));
+        assertEquals(List.of(0, 1, 0, 1, 2), List.copyOf(resultado.getHistograma().values()));
+    }
+
+    @Test
+    void histogramaCalificaciones_DeberiaLanzarExcepcion_SiAlojamientoNoExiste() {
+        System.out.println("➡ Ejecutando: histogramaCalificaciones_DeberiaLanzarExcepcion_SiAlojamientoNoExiste");
+
+        when(alojamientoRepo.findResumenCalificaciones(99L)).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> service.histogramaCalificaciones(99L));
+    }
+
     @Test
     void responder_DeberiaActualizarRespuestaYGuardar() {
         System.out.println("➡ Ejecutando: responder_DeberiaActualizarRespuestaYGuardar");
@@ -0,0 +1,137 @@
+package com.uq.alojamientos.service;
+
+import com.uq.alojamientos.domain.enums.EstadoAlojamiento;
+import com.uq.alojamientos.dto.OcupacionMensualDTO;
+import com.uq.alojamientos.reporte.OcupacionDiaria;
+import com.uq.alojamientos.repository.AlojamientoRepository;
+import com.uq.alojamientos.repository.UsuarioRepository;
+import com.uq.alojamientos.repository.projection.OcupacionMes;
+import com.uq.alojamientos.repository.projection.VigenciaAlojamiento;
+import com.uq.alojamientos.service.impl.PanelAnfitrionServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PanelAnfitrionServiceImplTest {
+
+    private OcupacionDiaria ocupacion;
+    private AlojamientoRepository alojamientoRepo;
+    private UsuarioRepository usuarioRepo;
+    private PanelAnfitrionServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        ocupacion = mock(OcupacionDiaria.class);
+        alojamientoRepo = mock(AlojamientoRepository.class);
+        usuarioRepo = mock(UsuarioRepository.class);
+        service = new PanelAnfitrionServiceImpl(ocupacion, alojamientoRepo, usuarioRepo);
+    }
+
+    @Test
+    void ocupacionMensual_DeberiaSumarPorMesYRellenarMesesVacios() {
+        YearMonth febrero = YearMonth.of(2025, 2);
+        YearMonth abril = YearMonth.of(2025, 4);
+        when(alojamientoRepo.findVigencias(eq(3L), any(), any())).thenReturn(List.of(
+                activo(7L, LocalDateTime.of(2024, 1, 1, 9, 0)),
+                activo(9L, LocalDateTime.of(2024, 6, 1, 9, 0))));
+        when(ocupacion.mensual(3L, febrero, abril)).thenReturn(List.of(
+                new OcupacionMes(9L, febrero, 7, new BigDecimal("700.00"), 2),
+                new OcupacionMes(7L, febrero, 14, new BigDecimal("1200.50"), 0),
+                new OcupacionMes(7L, abril, 3, new BigDecimal("300.00"), 0)));
+
+        List<OcupacionMensualDTO> meses = service.ocupacionMensual(3L, febrero, abril);
+
+        assertEquals(List.of("2025-02", "2025-03", "2025-04"), meses.stream().map(OcupacionMensualDTO::getMes).toList());
+        OcupacionMensualDTO feb = meses.get(0);
+        assertEquals(21, feb.getNochesReservadas());
+        assertEquals(56, feb.getNochesDisponibles());
+        assertEquals(21.0 / 56, feb.getOcupacion(), 1e-9);
+        assertEquals(new BigDecimal("1900.50"), feb.getIngresos());
+        assertEquals(2, feb.getNochesCanceladas());
+        assertEquals(List.of(7L, 9L), feb.getAlojamientos().stream().map(a -> a.getAlojamientoId()).toList());
+        assertEquals(0.5, feb.getAlojamientos().get(0).getOcupacion(), 1e-9);
+
+        OcupacionMensualDTO marzo = meses.get(1);
+        assertEquals(0, marzo.getNochesReservadas());
+        assertEquals(62, marzo.getNochesDisponibles());
+        assertEquals(BigDecimal.ZERO, marzo.getIngresos());
+        assertTrue(marzo.getAlojamientos().isEmpty());
+    }
+
+    @Test
+    void ocupacionMensual_DeberiaContarSoloLosDiasEnQueExistiaCadaAlojamiento() {
+        YearMonth febrero = YearMonth.of(2025, 2);
+        YearMonth marzo = YearMonth.of(2025, 3);
+        when(alojamientoRepo.findVigencias(3L, febrero.atDay(1).atStartOfDay(), YearMonth.of(2025, 4).atDay(1).atStartOfDay()))
+                .thenReturn(List.of(
+                        activo(7L, LocalDateTime.of(2024, 1, 1, 9, 0)),
+                        // borrado el 15 de febrero: existió del 1 al 14
+                        new VigenciaAlojamiento(9L, LocalDateTime.of(2024, 1, 1, 9, 0),
+                                EstadoAlojamiento.ELIMINADO, LocalDateTime.of(2025, 2, 15, 18, 30)),
+                        // creado el 10 de marzo: del 10 al 31
+                        activo(5L, LocalDateTime.of(2025, 3, 10, 12, 0))));
+        when(ocupacion.mensual(3L, febrero, marzo)).thenReturn(List.of(
+                new OcupacionMes(9L, febrero, 14, new BigDecimal("1400.00"), 0),
+                new OcupacionMes(7L, febrero, 28, new BigDecimal("2800.00"), 0),
+                new OcupacionMes(5L, marzo, 22, new BigDecimal("2200.00"), 0)));
+
+        List<OcupacionMensualDTO> meses = service.ocupacionMensual(3L, febrero, marzo);
+
+        OcupacionMensualDTO feb = meses.get(0);
+        assertEquals(28 + 14, feb.getNochesDisponibles());
+        assertEquals(1.0, feb.getOcupacion(), 1e-9);
+        assertEquals(1.0, feb.getAlojamientos().get(1).getOcupacion(), 1e-9);
+        OcupacionMensualDTO mar = meses.get(1);
+        assertEquals(31 + 22, mar.getNochesDisponibles());
+        assertEquals(1.0, mar.getAlojamientos().get(0).getOcupacion(), 1e-9);
+    }
+
+    @Test
+    void ocupacionMensual_NochesAnterioresACreatedAt_NoDeberianPasarDelCien() {
+        YearMonth enero = YearMonth.of(2024, 1);
+        // BD anterior a created_at: la columna se rellenó con la fecha de la migración
+        when(alojamientoRepo.findVigencias(eq(3L), any(), any()))
+                .thenReturn(List.of(activo(7L, LocalDateTime.of(2024, 1, 20, 0, 0))));
+        when(ocupacion.mensual(3L, enero, enero)).thenReturn(List.of(
+                new OcupacionMes(7L, enero, 25, new BigDecimal("2500.00"), 0)));
+
+        OcupacionMensualDTO mes = service.ocupacionMensual(3L, enero, enero).get(0);
+
+        assertEquals(25, mes.getNochesDisponibles());
+        assertEquals(1.0, mes.getOcupacion(), 1e-9);
+    }
+
+    @Test
+    void ocupacionMensual_DeberiaRechazarRangosInvalidos() {
+        YearMonth mayo = YearMonth.of(2025, 5);
+
+        assertThrows(IllegalArgumentException.class, () -> service.ocupacionMensual(3L, mayo, mayo.minusMonths(1)));
+        assertThrows(IllegalArgumentException.class, () -> service.ocupacionMensual(3L, mayo, mayo.plusMonths(36)));
+        verifyNoInteractions(ocupacion);
+    }
+
+    @Test
+    void comprobarAnfitrion_DeberiaPermitirSoloElPropioPanelSalvoAdmin() {
+        when(usuarioRepo.existsByIdAndEmail(3L, "ana@correo.com")).thenReturn(true);
+        when(usuarioRepo.existsById(4L)).thenReturn(true);
+
+        assertDoesNotThrow(() -> service.comprobarAnfitrion(3L, "ana@correo.com", false));
+        assertThrows(AccessDeniedException.class, () -> service.comprobarAnfitrion(4L, "ana@correo.com", false));
+        assertDoesNotThrow(() -> service.comprobarAnfitrion(4L, "admin@correo.com", true));
+        assertThrows(NoSuchElementException.class, () -> service.comprobarAnfitrion(99L, "admin@correo.com", true));
+    }
+
+    private static VigenciaAlojamiento activo(Long id, LocalDateTime creado) {
+        return new VigenciaAlojamiento(id, creado, EstadoAlojamiento.ACTIVO, creado);
+    }
+}
@@ -0,0 +1,200 @@
+package com.uq.alojamientos.service;
+
+import com.uq.alojamientos.cache.BusquedaCache;
+import com.uq.alojamientos.domain.Alojamiento;
+import com.uq.alojamientos.domain.Reserva;
+import com.uq.alojamientos.domain.Usuario;
+import com.uq.alojamientos.dto.ReservaDTO;
+import com.uq.alojamientos.index.DisponibilidadIndex;
+import com.uq.alojamientos.job.ExpiracionReservasJob;
+import com.uq.alojamientos.mapper.ReservaMapper;
+import com.uq.alojamientos.metricas.MetricasNegocio;
+import com.uq.alojamientos.reporte.OcupacionDiaria;
+import com.uq.alojamientos.repository.AlojamientoRepository;
+import com.uq.alojamientos.repository.ReservaRepository;
+import com.uq.alojamientos.repository.UsuarioRepository;
+import com.uq.alojamientos.service.impl.ReservaServiceImpl;
+import com.uq.alojamientos.util.CandadoEstriado;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Prueba de estrés de ReservaServiceImpl.crear con varios hilos sobre un "repositorio" en
+ * memoria cuya comprobación de solapamiento tarda un poco (como una consulta real), para
+ * que la ventana entre comprobar y guardar sea visible. Sin candado por alojamiento
+ * aparecerían reservas solapadas.
+ */
+class ReservaConcurrenciaTest {
+
+    private static final int HILOS = 16;
+    private static final int INTENTOS_POR_HILO = 100;
+
+    private final Queue<Reserva> guardadas = new ConcurrentLinkedQueue<>();
+    private final AtomicLong secuencia = new AtomicLong();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private ReservaServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        ReservaRepository reservaRepo = mock(ReservaRepository.class, withSettings().stubOnly());
+        AlojamientoRepository alojamientoRepo = mock(AlojamientoRepository.class, withSettings().stubOnly());
+        UsuarioRepository usuarioRepo = mock(UsuarioRepository.class, withSettings().stubOnly());
+
+        Usuario usuario = new Usuario();
+        usuario.setId(1L);
+        when(usuarioRepo.findById(1L)).thenReturn(Optional.of(usuario));
+
+        when(alojamientoRepo.findByIdParaReservar(anyLong())).thenAnswer(inv -> {
+            Alojamiento a = new Alojamiento();
+            a.setId(inv.getArgument(0));
+            a.setCapacidadMaxima(4);
+            a.setPrecioPorNoche(new BigDecimal("100"));
+            return Optional.of(a);
+        });
+
+        when(reservaRepo.existeSolapamiento(anyLong(), any(), any(), any())).thenAnswer(inv -> {
+            Long alojamientoId = inv.getArgument(0);
+            LocalDate desde = inv.getArgument(1);
+            LocalDate hasta = inv.getArgument(2);
+            boolean solapa = guardadas.stream().anyMatch(r ->
+                    r.getAlojamiento().getId().equals(alojamientoId)
+                            && r.getCheckIn().isBefore(hasta)
+                            && r.getCheckOut().isAfter(desde));
+            LockSupport.parkNanos(20_000); // latencia de la consulta
+            return solapa;
+        });
+
+        when(reservaRepo.save(any(Reserva.class))).thenAnswer(inv -> {
+            Reserva r = inv.getArgument(0);
+            r.setId(secuencia.incrementAndGet());
+            guardadas.add(r);
+            return r;
+        });
+
+        service = new ReservaServiceImpl(reservaRepo, alojamientoRepo, usuarioRepo,
+                Mappers.getMapper(ReservaMapper.class),
+                mock(DisponibilidadIndex.class, withSettings().stubOnly()),
+                new CandadoEstriado(256),
+                new TransactionTemplate(mock(PlatformTransactionManager.class, withSettings().stubOnly())),
+                mock(ExpiracionReservasJob.class, withSettings().stubOnly()),
+                mock(BusquedaCache.class, withSettings().stubOnly()),
+                new MetricasNegocio(registry),
+                mock(OcupacionDiaria.class, withSettings().stubOnly()));
+    }
+
+    @Test
+    void crear_AlojamientoCaliente_NoDeberiaPermitirReservasSolapadas() throws Exception {
+        Resultado res = ejecutar("caliente", 1);
+
+        assertTrue(res.exitosas() > 0);
+        assertEquals(HILOS * INTENTOS_POR_HILO, res.exitosas() + res.rechazadas());
+        assertSinSolapamientos();
+        // Los contadores no pierden incrementos con todos los hilos sobre las mismas series
+        assertEquals(res.exitosas(), reservas("creada"));
+        assertEquals(res.rechazadas(), reservas("solapamiento"));
+    }
+
+    @Test
+    void crear_AlojamientosFrios_NoDeberiaPermitirReservasSolapadas() throws Exception {
+        Resultado res = ejecutar("frío", 200);
+
+        assertEquals(HILOS * INTENTOS_POR_HILO, res.exitosas() + res.rechazadas());
+        assertSinSolapamientos();
+    }
+
+    private Resultado ejecutar(String escenario, int alojamientos) throws Exception {
+        AtomicInteger exitosas = new AtomicInteger();
+        AtomicInteger rechazadas = new AtomicInteger();
+        Queue<Throwable> inesperados = new ConcurrentLinkedQueue<>();
+        CountDownLatch salida = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(HILOS);
+
+        for (int h = 0; h < HILOS; h++) {
+            pool.submit(() -> {
+                salida.await();
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                for (int i = 0; i < INTENTOS_POR_HILO; i++) {
+                    LocalDate checkIn = LocalDate.now().plusDays(1 + rnd.nextInt(90));
+                    ReservaDTO dto = new ReservaDTO();
+                    dto.setAlojamientoId(1L + rnd.nextInt(alojamientos));
+                    dto.setUsuarioId(1L);
+                    dto.setHuespedes(2);
+                    dto.setCheckIn(checkIn);
+                    dto.setCheckOut(checkIn.plusDays(1 + rnd.nextInt(3)));
+                    try {
+                        service.crear(dto);
+                        exitosas.incrementAndGet();
+                    } catch (IllegalStateException e) {
+                        rechazadas.incrementAndGet();
+                    } catch (Throwable t) {
+                        inesperados.add(t);
+                    }
+                }
+                return null;
+            });
+        }
+
+        long t0 = System.nanoTime();
+        salida.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS), "La prueba de estrés no terminó a tiempo");
+        double segundos = (System.nanoTime() - t0) / 1e9;
+
+        assertTrue(inesperados.isEmpty(), () -> "Errores inesperados: " + inesperados);
+        System.out.printf("➡ Escenario %s (%d alojamientos, %d hilos): %d reservas, %d rechazadas, %.0f intentos/s, %.0f reservas/s%n",
+                escenario, alojamientos, HILOS, exitosas.get(), rechazadas.get(),
+                (exitosas.get() + rechazadas.get()) / segundos, exitosas.get() / segundos);
+        return new Resultado(exitosas.get(), rechazadas.get());
+    }
+
+    private void assertSinSolapamientos() {
+        Map<Long, List<Reserva>> porAlojamiento = guardadas.stream()
+                .collect(Collectors.groupingBy(r -> r.getAlojamiento().getId()));
+        for (List<Reserva> reservas : porAlojamiento.values()) {
+            List<Reserva> ordenadas = new ArrayList<>(reservas);
+            ordenadas.sort(Comparator.comparing(Reserva::getCheckIn));
+            for (int i = 1; i < ordenadas.size(); i++) {
+                Reserva anterior = ordenadas.get(i - 1);
+                Reserva actual = ordenadas.get(i);
+                assertFalse(actual.getCheckIn().isBefore(anterior.getCheckOut()),
+                        () -> "Doble reserva en alojamiento " + actual.getAlojamiento().getId()
+                                + ": " + anterior.getCheckIn() + ".." + anterior.getCheckOut()
+                                + " y " + actual.getCheckIn() + ".." + actual.getCheckOut());
+            }
+        }
+    }
+
+    private double reservas(String resultado) {
+        return registry.get(MetricasNegocio.RESERVAS).tag("resultado", resultado).counter().count();
+    }
+
+    private record Resultado(int exitosas, int rechazadas) {
+    }
+}
@@ -1,23 +1,39 @@
 package com.uq.alojamientos.service;
 
+import com.uq.alojamientos.cache.BusquedaCache;
 import com.uq.alojamientos.domain.Alojamiento;
 import com.uq.alojamientos.domain.Reserva;
 import com.uq.alojamientos.domain.Usuario;
 import com.uq.alojamientos.domain.enums.EstadoReserva;
+import com.uq.alojamientos.dto.CursorPage;
 import com.uq.alojamientos.dto.ReservaDTO;
+import com.uq.alojamientos.index.DisponibilidadIndex;
+import com.uq.alojamientos.job.ExpiracionReservasJob;
+import com.uq.alojamientos.mapper.ReservaMapper;
+import com.uq.alojamientos.metricas.MetricasNegocio;
+import com.uq.alojamientos.reporte.OcupacionDiaria;
 import com.uq.alojamientos.repository.AlojamientoRepository;
 import com.uq.alojamientos.repository.ReservaRepository;
 import com.uq.alojamientos.repository.UsuarioRepository;
+import com.uq.alojamientos.repository.projection.FilaReserva;
+import com.uq.alojamientos.repository.projection.ReservaOcupacion;
 import com.uq.alojamientos.service.impl.ReservaServiceImpl;
+import com.uq.alojamientos.util.CandadoEstriado;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.modelmapper.ModelMapper;
+import org.mapstruct.factory.Mappers;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -30,7 +46,12 @@ class ReservaServiceImplTest {
     private ReservaRepository reservaRepo;
     private AlojamientoRepository alojamientoRepo;
     private UsuarioRepository usuarioRepo;
-    private ModelMapper mapper;
+    private ReservaMapper mapper;
+    private DisponibilidadIndex disponibilidad;
+    private ExpiracionReservasJob expiracion;
+    private BusquedaCache busquedaCache;
+    private SimpleMeterRegistry registry;
+    private OcupacionDiaria ocupacion;
     private ReservaServiceImpl service;
 
     @BeforeEach
@@ -38,8 +59,15 @@ class ReservaServiceImplTest {
         reservaRepo = mock(ReservaRepository.class);
         alojamientoRepo = mock(AlojamientoRepository.class);
         usuarioRepo = mock(UsuarioRepository.class);
-        mapper = new ModelMapper();
-        service = new ReservaServiceImpl(reservaRepo, alojamientoRepo, usuarioRepo, mapper);
+        mapper = Mappers.getMapper(ReservaMapper.class);
+        disponibilidad = mock(DisponibilidadIndex.class);
+        expiracion = mock(ExpiracionReservasJob.class);
+        busquedaCache = mock(BusquedaCache.class);
+        registry = new SimpleMeterRegistry();
+        ocupacion = mock(OcupacionDiaria.class);
+        service = new ReservaServiceImpl(reservaRepo, alojamientoRepo, usuarioRepo, mapper, disponibilidad,
+                new CandadoEstriado(16), new TransactionTemplate(mock(PlatformTransactionManager.class)), expiracion,
+                busquedaCache, new MetricasNegocio(registry), ocupacion);
     }
 
     @Test
@@ -58,13 +86,16 @@ class ReservaServiceImplTest {
         alojamiento.setId(1L);
         alojamiento.setCapacidadMaxima(4);
         alojamiento.setPrecioPorNoche(new BigDecimal("100"));
+        alojamiento.setCiudad("Armenia");
 
         Usuario usuario = new Usuario();
         usuario.setId(2L);
 
-        when(alojamientoRepo.findById(1L)).thenReturn(Optional.of(alojamiento));
+        when(alojamientoRepo.findByIdParaReservar(1L)).thenReturn(Optional.of(alojamiento));
         when(usuarioRepo.findById(2L)).thenReturn(Optional.of(usuario));
         when(reservaRepo.existeSolapamiento(eq(1L), any(), any(), any())).thenReturn(false);
+        LocalDateTime plazo = LocalDateTime.now().plusMinutes(15);
+        when(expiracion.vencimientoDesde(any())).thenReturn(plazo);
         when(reservaRepo.save(any(Reserva.class))).thenAnswer(invocation -> {
             Reserva r = invocation.getArgument(0);
             r.setId(10L);
@@ -78,6 +109,12 @@ class ReservaServiceImplTest {
         assertNotNull(resultado);
         assertEquals(EstadoReserva.PENDIENTE, resultado.getEstado());
         verify(reservaRepo, times(1)).save(any(Reserva.class));
+        verify(disponibilidad).marcar(1L, dto.getCheckIn(), dto.getCheckOut());
+        assertEquals(plazo, resultado.getHoldExpiraEn());
+        verify(expiracion).programar(any(Reserva.class));
+        verify(busquedaCache).invalidarReserva("Armenia", dto.getCheckIn(), dto.getCheckOut());
+        verify(ocupacion).reservada(argThat(r -> r.getId() == 10L));
+        assertEquals(1, reservas("creada"));
 
         System.out.println("Test crear_DeberiaGuardarReservaCorrectamente completado.\n");
     }
@@ -95,6 +132,27 @@ class ReservaServiceImplTest {
         System.out.println("Test crear_DeberiaLanzarExcepcion_SiFechasInvalidas completado.\n");
     }
 
+    @Test
+    void crear_DeberiaContarRechazoPorCapacidad() {
+        ReservaDTO dto = new ReservaDTO();
+        dto.setAlojamientoId(1L);
+        dto.setUsuarioId(2L);
+        dto.setCheckIn(LocalDate.now().plusDays(3));
+        dto.setCheckOut(LocalDate.now().plusDays(5));
+        dto.setHuespedes(6);
+
+        Alojamiento alojamiento = new Alojamiento();
+        alojamiento.setId(1L);
+        alojamiento.setCapacidadMaxima(4);
+        when(alojamientoRepo.findByIdParaReservar(1L)).thenReturn(Optional.of(alojamiento));
+        when(usuarioRepo.findById(2L)).thenReturn(Optional.of(new Usuario()));
+
+        assertThrows(IllegalArgumentException.class, () -> service.crear(dto));
+        assertEquals(1, reservas("capacidad_excedida"));
+        assertEquals(0, reservas("creada"));
+        verify(reservaRepo, never()).save(any());
+    }
+
     @Test
     void crear_DeberiaLanzarExcepcion_SiAlojamientoNoExiste() {
         System.out.println("Ejecutando test: crear_DeberiaLanzarExcepcion_SiAlojamientoNoExiste");
@@ -106,7 +164,7 @@ class ReservaServiceImplTest {
         dto.setCheckOut(LocalDate.now().plusDays(5));
         dto.setHuespedes(2);
 
-        when(alojamientoRepo.findById(1L)).thenReturn(Optional.empty());
+        when(alojamientoRepo.findByIdParaReservar(1L)).thenReturn(Optional.empty());
 
         assertThrows(IllegalArgumentException.class, () -> service.crear(dto));
 
@@ -117,21 +175,107 @@ class ReservaServiceImplTest {
     void cancelar_DeberiaActualizarEstadoACancelada() {
         System.out.println("Ejecutando test: cancelar_DeberiaActualizarEstadoACancelada");
 
+        Alojamiento alojamiento = new Alojamiento();
+        alojamiento.setId(7L);
+
         Reserva reserva = new Reserva();
         reserva.setId(1L);
+        reserva.setAlojamiento(alojamiento);
         reserva.setCheckIn(LocalDate.now().plusDays(3));
+        reserva.setCheckOut(LocalDate.now().plusDays(6));
         reserva.setEstado(EstadoReserva.CONFIRMADA);
+        ReservaOcupacion fila = new ReservaOcupacion(1L, 7L, 3L, reserva.getCheckIn(), reserva.getCheckOut(),
+                new BigDecimal("300.00"));
 
         when(reservaRepo.findById(1L)).thenReturn(Optional.of(reserva));
+        when(reservaRepo.cancelarActiva(1L)).thenReturn(1);
+        when(reservaRepo.findOcupaciones(List.of(1L))).thenReturn(List.of(fila));
 
         service.cancelar(1L);
 
-        assertEquals(EstadoReserva.CANCELADA, reserva.getEstado());
-        verify(reservaRepo).save(reserva);
+        verify(reservaRepo).cancelarActiva(1L);
+        verify(ocupacion).cancelada(fila);
+        verify(expiracion).descartar(1L);
+        verify(disponibilidad).liberar(7L, reserva.getCheckIn(), reserva.getCheckOut());
 
         System.out.println("Test cancelar_DeberiaActualizarEstadoACancelada completado.\n");
     }
 
+    @Test
+    void cancelar_NoDeberiaDescontarDosVeces_SiOtraCancelacionLlegoAntes() {
+        System.out.println("Ejecutando test: cancelar_NoDeberiaDescontarDosVeces_SiOtraCancelacionLlegoAntes");
+
+        Alojamiento alojamiento = new Alojamiento();
+        alojamiento.setId(7L);
+
+        Reserva reserva = new Reserva();
+        reserva.setId(1L);
+        reserva.setAlojamiento(alojamiento);
+        reserva.setCheckIn(LocalDate.now().plusDays(3));
+        reserva.setCheckOut(LocalDate.now().plusDays(6));
+        reserva.setEstado(EstadoReserva.CONFIRMADA);
+
+        // Se leyó CONFIRMADA, pero el UPDATE condicionado ya no la encuentra activa
+        when(reservaRepo.findById(1L)).thenReturn(Optional.of(reserva));
+        when(reservaRepo.cancelarActiva(1L)).thenReturn(0);
+
+        assertThrows(IllegalStateException.class, () -> service.cancelar(1L));
+        verifyNoInteractions(ocupacion, disponibilidad);
+
+        System.out.println("Test cancelar_NoDeberiaDescontarDosVeces_SiOtraCancelacionLlegoAntes completado.\n");
+    }
+
+    @Test
+    void confirmar_DeberiaConfirmarYDescartarSuVencimiento() {
+        System.out.println("Ejecutando test: confirmar_DeberiaConfirmarYDescartarSuVencimiento");
+
+        Reserva reserva = new Reserva();
+        reserva.setId(1L);
+        reserva.setEstado(EstadoReserva.CONFIRMADA);
+
+        when(reservaRepo.confirmar(eq(1L), any())).thenReturn(1);
+        when(reservaRepo.findById(1L)).thenReturn(Optional.of(reserva));
+
+        ReservaDTO resultado = service.confirmar(1L);
+
+        assertEquals(EstadoReserva.CONFIRMADA, resultado.getEstado());
+        verify(expiracion).descartar(1L);
+
+        System.out.println("Test confirmar_DeberiaConfirmarYDescartarSuVencimiento completado.\n");
+    }
+
+    @Test
+    void confirmar_DeberiaLanzarExcepcion_SiLaReservaExpiro() {
+        System.out.println("Ejecutando test: confirmar_DeberiaLanzarExcepcion_SiLaReservaExpiro");
+
+        Reserva reserva = new Reserva();
+        reserva.setId(1L);
+        reserva.setEstado(EstadoReserva.EXPIRADA);
+
+        when(reservaRepo.confirmar(eq(1L), any())).thenReturn(0);
+        when(reservaRepo.findById(1L)).thenReturn(Optional.of(reserva));
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> service.confirmar(1L));
+        assertTrue(ex.getMessage().contains("expiró"));
+        verify(expiracion, never()).descartar(any());
+
+        System.out.println("Test confirmar_DeberiaLanzarExcepcion_SiLaReservaExpiro completado.\n");
+    }
+
+    @Test
+    void comprobarHuespedOAnfitrion_DeberiaRechazarAOtrosUsuarios() {
+        System.out.println("Ejecutando test: comprobarHuespedOAnfitrion_DeberiaRechazarAOtrosUsuarios");
+
+        when(reservaRepo.esHuespedOAnfitrion(1L, "huesped@correo.com")).thenReturn(true);
+        when(reservaRepo.existsById(1L)).thenReturn(true);
+
+        assertDoesNotThrow(() -> service.comprobarHuespedOAnfitrion(1L, "huesped@correo.com"));
+        assertThrows(AccessDeniedException.class, () -> service.comprobarHuespedOAnfitrion(1L, "otro@correo.com"));
+        assertThrows(IllegalArgumentException.class, () -> service.comprobarHuespedOAnfitrion(99L, "otro@correo.com"));
+
+        System.out.println("Test comprobarHuespedOAnfitrion_DeberiaRechazarAOtrosUsuarios completado.\n");
+    }
+
     @Test
     void cancelar_DeberiaLanzarExcepcion_SiReservaNoExiste() {
         System.out.println("Ejecutando test: cancelar_DeberiaLanzarExcepcion_SiReservaNoExiste");
@@ -147,15 +291,18 @@ class ReservaServiceImplTest {
     void listarPorUsuario_DeberiaRetornarPaginaDeReservas() {
         System.out.println("Ejecutando test: listarPorUsuario_DeberiaRetornarPaginaDeReservas");
 
-        Reserva reserva = new Reserva();
-        reserva.setId(1L);
+        FilaReserva fila = fila(1L);
 
         when(reservaRepo.findByUsuario(eq(2L), any()))
-                .thenReturn(new PageImpl<>(List.of(reserva)));
+                .thenReturn(new PageImpl<>(List.of(fila)));
 
         Page<ReservaDTO> resultado = service.listarPorUsuario(2L, PageRequest.of(0, 5));
 
         assertEquals(1, resultado.getTotalElements());
+        ReservaDTO dto = resultado.getContent().get(0);
+        assertEquals(2L, dto.getUsuarioId());
+        assertEquals(7L, dto.getAlojamientoId());
+        assertEquals(EstadoReserva.CONFIRMADA, dto.getEstado());
         verify(reservaRepo).findByUsuario(eq(2L), any());
 
         System.out.println("Test listarPorUsuario_DeberiaRetornarPaginaDeReservas completado.\n");
@@ -165,11 +312,8 @@ class ReservaServiceImplTest {
     void listarPorAlojamiento_DeberiaRetornarPaginaDeReservas() {
         System.out.println("Ejecutando test: listarPorAlojamiento_DeberiaRetornarPaginaDeReservas");
 
-        Reserva reserva = new Reserva();
-        reserva.setId(1L);
-
         when(reservaRepo.findByAlojamiento(eq(1L), any()))
-                .thenReturn(new PageImpl<>(List.of(reserva)));
+                .thenReturn(new PageImpl<>(List.of(fila(1L))));
 
         Page<ReservaDTO> resultado = service.listarPorAlojamiento(1L, PageRequest.of(0, 5));
 
@@ -178,4 +322,30 @@ class ReservaServiceImplTest {
 
         System.out.println("Test listarPorAlojamiento_DeberiaRetornarPaginaDeReservas completado.\n");
     }
+
+    @Test
+    void listarPorUsuario_ConCursor_DeberiaEmpezarPorLasMasRecientes() {
+        System.out.println("Ejecutando test: listarPorUsuario_ConCursor_DeberiaEmpezarPorLasMasRecientes");
+
+        when(reservaRepo.findByUsuarioAntesDe(2L, Long.MAX_VALUE, Limit.of(6)))
+                .thenReturn(List.of(fila(12L)));
+
+        CursorPage<ReservaDTO> resultado = service.listarPorUsuario(2L, null, 5);
+
+        assertEquals(1, resultado.getContenido().size());
+        assertFalse(resultado.isHayMas());
+        assertNull(resultado.getSiguienteCursor());
+
+        System.out.println("Test listarPorUsuario_ConCursor_DeberiaEmpezarPorLasMasRecientes completado.\n");
+    }
+
+    private static FilaReserva fila(Long id) {
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+        return new FilaReserva(id, 2L, 7L, checkIn, checkIn.plusDays(2), EstadoReserva.CONFIRMADA, 2,
+                new BigDecimal("200000"), null);
+    }
+
+    private double reservas(String resultado) {
+        return registry.get(MetricasNegocio.RESERVAS).tag("resultado", resultado).counter().count();
+    }
 }
@@ -3,11 +3,12 @@ package com.uq.alojamientos.service;
 import com.uq.alojamientos.domain.Usuario;
 import com.uq.alojamientos.domain.enums.RolUsuario;
 import com.uq.alojamientos.dto.UsuarioDTO;
+import com.uq.alojamientos.mapper.UsuarioMapper;
 import com.uq.alojamientos.repository.UsuarioRepository;
 import com.uq.alojamientos.service.impl.UsuarioServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.modelmapper.ModelMapper;
+import org.mapstruct.factory.Mappers;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 import java.time.LocalDate;
@@ -20,14 +21,14 @@ import static org.mockito.Mockito.*;
 class UsuarioServiceImplTest {
 
     private UsuarioRepository repo;
-    private ModelMapper mapper;
+    private UsuarioMapper mapper;
     private BCryptPasswordEncoder encoder;
     private UsuarioServiceImpl service;
 
     @BeforeEach
     void setUp() {
         repo = mock(UsuarioRepository.class);
-        mapper = new ModelMapper();
+        mapper = Mappers.getMapper(UsuarioMapper.class);
         encoder = mock(BCryptPasswordEncoder.class);
         service = new UsuarioServiceImpl(repo, mapper, encoder);
     }
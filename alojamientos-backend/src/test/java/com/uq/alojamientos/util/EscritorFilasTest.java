@@ -0,0 +1,84 @@
+package com.uq.alojamientos.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.uq.alojamientos.domain.enums.EstadoReserva;
+import com.uq.alojamientos.domain.enums.RolUsuario;
+import com.uq.alojamientos.repository.projection.FilaReserva;
+import com.uq.alojamientos.repository.projection.FilaUsuario;
+import com.uq.alojamientos.util.EscritorFilas.Formato;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EscritorFilasTest {
+
+    // Como el ObjectMapper de Spring Boot: fechas ISO
+    private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @Test
+    void escribir_DeberiaGenerarUnObjetoJsonPorLinea() throws Exception {
+        EscritorFilas<FilaReserva> escritor = new EscritorFilas<>(FilaReserva.class, mapper);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long n = escritor.escribir(Stream.of(reserva(1), reserva(2)), Formato.NDJSON, out);
+
+        String[] lineas = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(2, n);
+        assertEquals(3, lineas.length);
+        assertEquals("", lineas[2]);
+        assertEquals(1, mapper.readTree(lineas[0]).get("id").asLong());
+        assertEquals("2025-03-01", mapper.readTree(lineas[1]).get("checkIn").asText());
+    }
+
+    @Test
+    void escribir_DeberiaGenerarCsvConCabeceraYEscapado() throws Exception {
+        EscritorFilas<FilaUsuario> escritor = new EscritorFilas<>(FilaUsuario.class, mapper);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        FilaUsuario fila = new FilaUsuario(5L, "Pérez, \"Ana\"", "=HYPERLINK(\"x\")", null,
+                RolUsuario.ANFITRION, LocalDate.of(1990, 1, 2), true);
+
+        escritor.escribir(Stream.of(fila), Formato.CSV, out);
+
+        assertEquals("id,nombre,email,telefono,rol,fechaNacimiento,activo\r\n"
+                        + "5,\"Pérez, \"\"Ana\"\"\",\"'=HYPERLINK(\"\"x\"\")\",,ANFITRION,1990-01-02,true\r\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void escribir_DeberiaCerrarElStream() throws Exception {
+        EscritorFilas<FilaReserva> escritor = new EscritorFilas<>(FilaReserva.class, mapper);
+        AtomicBoolean cerrado = new AtomicBoolean();
+        Stream<FilaReserva> filas = LongStream.rangeClosed(1, 10_000).mapToObj(EscritorFilasTest::reserva)
+                .onClose(() -> cerrado.set(true));
+
+        long n = escritor.escribir(filas, Formato.CSV, new ByteArrayOutputStream());
+
+        assertEquals(10_000, n);
+        assertTrue(cerrado.get());
+    }
+
+    @Test
+    void formato_DeberiaAceptarMinusculasYRechazarOtros() {
+        assertEquals(Formato.CSV, Formato.de("csv"));
+        assertEquals(Formato.NDJSON, Formato.de(" NDJSON "));
+        assertThrows(IllegalArgumentException.class, () -> Formato.de("xml"));
+        assertThrows(IllegalArgumentException.class, () -> Formato.de(null));
+    }
+
+    private static FilaReserva reserva(long id) {
+        return new FilaReserva(id, 7L, 3L, LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 4),
+                EstadoReserva.CONFIRMADA, 2, new BigDecimal("300.00"), null);
+    }
+}
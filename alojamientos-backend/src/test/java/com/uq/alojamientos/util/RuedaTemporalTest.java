@@ -0,0 +1,68 @@
+package com.uq.alojamientos.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuedaTemporalTest {
+
+    private static final long T0 = 1_700_000_000_000L;
+
+    @Test
+    void avanzar_NoDeberiaVencerAntesDeTiempo() {
+        RuedaTemporal<String> rueda = new RuedaTemporal<>(1000, T0);
+        rueda.programar("a", T0 + 2_500);
+
+        assertEquals(List.of(), rueda.avanzar(T0 + 2_999));
+        assertEquals(List.of("a"), rueda.avanzar(T0 + 3_000));
+        assertEquals(0, rueda.tamano());
+    }
+
+    @Test
+    void avanzar_DeberiaVencerLoYaPasadoEnElSiguienteAvance() {
+        RuedaTemporal<String> rueda = new RuedaTemporal<>(1000, T0);
+        rueda.programar("pasado", T0 - 60_000);
+
+        assertEquals(List.of("pasado"), rueda.avanzar(T0));
+    }
+
+    @Test
+    void avanzar_DeberiaBajarPorLosNivelesSinPerderElementos() {
+        RuedaTemporal<Long> rueda = new RuedaTemporal<>(1000, T0);
+        // 15 min (nivel 1), 3 h (nivel 2), 10 días (nivel 3) y 1 año (fuera de alcance)
+        long[] plazos = {15 * 60_000L, 3 * 3_600_000L, 10 * 86_400_000L, 365 * 86_400_000L};
+        for (long p : plazos) rueda.programar(p, T0 + p);
+
+        for (long p : plazos) {
+            assertEquals(List.of(), rueda.avanzar(T0 + p - 1_000), "venció antes de tiempo: " + p);
+            assertEquals(List.of(p), rueda.avanzar(T0 + p));
+        }
+        assertEquals(0, rueda.tamano());
+    }
+
+    @Test
+    void avanzar_DeberiaVencerCadaElementoEnSuTickConPlazosAleatorios() {
+        RuedaTemporal<Long> rueda = new RuedaTemporal<>(1000, T0);
+        Random rnd = new Random(42);
+        List<Long> vencimientos = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            long vence = T0 + 1_000L * (1 + rnd.nextInt(20_000)); // hasta ~5.5 h
+            vencimientos.add(vence);
+            rueda.programar(vence, vence);
+        }
+
+        int total = 0;
+        for (long ahora = T0; ahora < T0 + 20_008_000L; ahora += 7_000) {
+            for (Long vence : rueda.avanzar(ahora)) {
+                assertTrue(vence <= ahora, "venció antes de tiempo");
+                assertTrue(vence > ahora - 7_000, "venció tarde");
+                total++;
+            }
+        }
+        assertEquals(vencimientos.size(), total);
+    }
+}
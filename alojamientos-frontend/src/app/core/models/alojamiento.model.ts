@@ -13,4 +13,5 @@ export interface Alojamiento {
 
   // ⬇️ NUEVO, opcional: viene del backend en el DTO
   promedioCalificacion?: number;
+  totalCalificaciones?: number;
 }
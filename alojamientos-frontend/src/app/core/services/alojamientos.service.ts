@@ -13,6 +13,12 @@ export interface Page<T> {
   size: number;   // tamaño de página
 }
 
+// Ciudad sugerida al autocompletar, con sus alojamientos activos
+export interface SugerenciaCiudad {
+  ciudad: string;
+  alojamientos: number;
+}
+
 @Injectable({
   providedIn: 'root',
 })
@@ -45,6 +51,18 @@ export class AlojamientosService {
     return this.http.get<Page<Alojamiento>>(this.apiUrl, { params });
   }
 
+  /**
+   * Sugerencias de ciudad para autocompletar (sin tildes ni mayúsculas)
+   * GET /api/alojamientos/ciudades/sugerencias
+   */
+  sugerirCiudades(prefijo: string, limite: number = 8): Observable<SugerenciaCiudad[]> {
+    const params = new HttpParams()
+      .set('prefijo', prefijo)
+      .set('limite', limite.toString());
+
+    return this.http.get<SugerenciaCiudad[]>(`${this.apiUrl}/ciudades/sugerencias`, { params });
+  }
+
   /**
    * Obtiene el detalle de un alojamiento por su ID
    * GET /api/alojamientos/{id}
@@ -1,9 +1,11 @@
-import { Component, OnInit } from '@angular/core';
+import { Component, DestroyRef, OnInit, inject } from '@angular/core';
+import { takeUntilDestroyed } from '@angular/core/rxjs-interop';
 import { CommonModule } from '@angular/common';
 import { FormBuilder, FormGroup, ReactiveFormsModule } from '@angular/forms';
 import { RouterModule } from '@angular/router';
+import { debounceTime, distinctUntilChanged, switchMap, of, catchError } from 'rxjs';
 
-import { AlojamientosService } from '../../core/services/alojamientos.service';
+import { AlojamientosService, SugerenciaCiudad } from '../../core/services/alojamientos.service';
 import { Alojamiento } from '../../core/models/alojamiento.model';
 
 @Component({
@@ -32,6 +34,10 @@ export class HomeComponent implements OnInit {
 
   errorBusqueda = '';
 
+  // autocompletado de ciudad (índice en memoria del backend, no consulta alojamientos)
+  sugerenciasCiudad: SugerenciaCiudad[] = [];
+  private destroyRef = inject(DestroyRef);
+
   constructor(
     private fb: FormBuilder,
     private alojamientosService: AlojamientosService
@@ -45,6 +51,15 @@ export class HomeComponent implements OnInit {
       precioMax: ['']
     });
 
+    this.filtrosForm.get('ciudad')!.valueChanges.pipe(
+      debounceTime(150),
+      distinctUntilChanged(),
+      switchMap((prefijo: string) => (prefijo || '').trim()
+        ? this.alojamientosService.sugerirCiudades(prefijo.trim()).pipe(catchError(() => of([])))
+        : of([])),
+      takeUntilDestroyed(this.destroyRef)
+    ).subscribe(sugerencias => this.sugerenciasCiudad = sugerencias);
+
     this.cargarAlojamientos();
   }
 
@@ -30,7 +30,7 @@ export class ReservasUsuarioComponent implements OnInit {
   size = 20;
   total = 0;
 
-  filtroEstado: string = 'TODAS'; // TODAS | PENDIENTE | CONFIRMADA | CANCELADA | COMPLETADA
+  filtroEstado: string = 'TODAS'; // TODAS | PENDIENTE | CONFIRMADA | CANCELADA | COMPLETADA | EXPIRADA
 
   constructor(
     private reservasService: ReservasService,